@@ -359,7 +359,9 @@ public class BioLockJ {
 			throw new Exception( "Direct module directory not found --> " + modDir.getAbsolutePath() );
 		final File tempDir = new File( modDir.getAbsoluteFile() + File.separator + BioModule.TEMP_DIR );
 		if( !tempDir.isDirectory() ) tempDir.mkdir();
-		return modDir.getName() + File.separator + tempDir.getName() + File.separator + moduleDir;
+		final Integer shard = RuntimeParamUtil.getShard();
+		return modDir.getName() + File.separator + tempDir.getName() + File.separator + moduleDir +
+			( shard == null ? "": "_shard" + shard );
 	}
 
 	private static Integer getDirectModuleID( final String moduleDir ) throws Exception {
@@ -348,12 +348,15 @@ public class Config {
 				Log.info(Config.class, "Setting property [" + prop + "] to [" 
 								+ val + "], the default value supplied by my module: " + ModuleUtil.displaySignature( module ) + ".");
 				props.setProperty( prop, val );
+				version++;
 			}
 		}
 		if( val != null ) val = val.trim();
 		val = replaceEnvVar( val );
 		if( val != null && val.isEmpty() ) val = null;
 		usedProps.put( prop, val );
+		if( usedPropRecorder != null && !usedPropRecorder.containsKey( property ) )
+			usedPropRecorder.put( property, val );
 		return val;
 	}
 	public static String getString( final BioModule module, final String property ) {
@@ -383,6 +386,16 @@ public class Config {
 		return new HashMap<>( usedProps );
 	}
 
+	/**
+	 * Return a counter incremented each time a property is loaded, set or removed, so callers can cache values
+	 * derived from {@link biolockj.Config} until it changes.
+	 * 
+	 * @return Config version
+	 */
+	public static int getVersion() {
+		return version;
+	}
+
 	/**
 	 * Initialize {@link biolockj.Config} by reading in properties from config runtime parameter. Save a copy of the
 	 * primary Config to the pipeline root directory
@@ -393,6 +406,7 @@ public class Config {
 		configFile = RuntimeParamUtil.getConfigFile();
 		Log.info( Config.class, "Initialize Config: " + configFile.getAbsolutePath() );
 		props = replaceEnvVars( Properties.loadProperties( configFile ) );
+		version++;
 		setPipelineRootDir();
 		if( !BioLockJUtil.isDirectMode() && !FileUtils.directoryContains( getPipelineDir(), configFile ) )
 			FileUtils.copyFileToDirectory( configFile, getPipelineDir() );
@@ -409,10 +423,12 @@ public class Config {
 	 */
 	public static void initBlankProps() throws Exception {
 		props = new Properties();
+		version++;
 	}
 	
 	public static void partiallyInitialize(File config) throws Exception {
 		props = replaceEnvVars( Properties.loadProperties( config ) );
+		version++;
 	}
 
 	/**
@@ -452,6 +468,7 @@ public class Config {
 	 */
 	public static void removeConfigProperty( final String property ) {
 		props.remove( property );
+		version++;
 		usedProps.remove( property );
 	}
 
@@ -698,6 +715,7 @@ public class Config {
 		} else val = BioLockJUtil.getCollectionAsString( data );
 
 		props.setProperty( name, val );
+		version++;
 
 		final boolean hasVal = val != null && !val.isEmpty();
 		if( origProp == null && hasVal || origProp != null && !hasVal ||
@@ -722,6 +740,7 @@ public class Config {
 		String origProp = usedProps.get( name );
 		origProp = origProp != null && origProp.isEmpty() ? null: origProp;
 		props.setProperty( name, val );
+		version++;
 		final boolean hasVal = val != null && !val.isEmpty();
 		if( origProp == null && hasVal || origProp != null && !hasVal ||
 			origProp != null && hasVal && !origProp.equals( val ) ) {
@@ -743,6 +762,16 @@ public class Config {
 		System.out.println( Constants.PIPELINE_LOCATION_KEY + printPathOnScreen);
 	}
 
+	/**
+	 * Record the name and value of each property read from now on in the given map, in addition to
+	 * {@link #getUsedProps()}. Only the 1st value read of each property is recorded. Set null to stop recording.
+	 * 
+	 * @param recorder Map of property names to values, or null
+	 */
+	public static void setUsedPropRecorder( final Map<String, String> recorder ) {
+		usedPropRecorder = recorder;
+	}
+
 	/**
 	 * Build File using filePath.
 	 *
@@ -905,7 +934,9 @@ public class Config {
 	private static File pipelineDir = null;
 	private static Properties props = null;
 	private static Properties unmodifiedInputProps = new Properties();
+	private static Map<String, String> usedPropRecorder = null;
 	private static final Map<String, String> usedProps = new HashMap<>();
+	private static volatile int version = 0;
 	
 }
 
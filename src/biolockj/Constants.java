@@ -65,15 +65,22 @@ public class Constants {
 		Properties.registerProp( R_TIMEOUT, Properties.INTEGER_TYPE, "the # minutes before R Script will time out and fail; If undefined, no timeout is used." );
 		Properties.registerProp( R_USE_UINQUE_COLORS, Properties.BOOLEAN_TYPE, "force to use a unique color for every value in every field plotted; only recommended for low numbers of metadata columns/values." );
 		
+		Properties.registerProp( SCRIPT_CHECKPOINT, Properties.BOOLEAN_TYPE, SCRIPT_CHECKPOINT_DESC);
 		Properties.registerProp( SCRIPT_DEFAULT_HEADER, Properties.STRING_TYPE, SCRIPT_DEFAULT_HEADER_DESC);
 		Properties.registerProp( SCRIPT_NUM_WORKERS, Properties.INTEGER_TYPE, SCRIPT_NUM_WORKERS_DESC);
 		Properties.registerProp( SCRIPT_NUM_THREADS, Properties.INTEGER_TYPE, SCRIPT_NUM_THREADS_DESC);
 		Properties.registerProp( SCRIPT_PERMISSIONS, Properties.STRING_TYPE, SCRIPT_PERMISSIONS_DESC);
+		Properties.registerProp( SCRIPT_SCRATCH_DIR, Properties.STRING_TYPE, SCRIPT_SCRATCH_DIR_DESC);
 		Properties.registerProp( SCRIPT_TIMEOUT, Properties.INTEGER_TYPE, SCRIPT_TIMEOUT_DESC);
 		Properties.registerProp( PIPELINE_COPY_FILES, Properties.BOOLEAN_TYPE, PIPELINE_COPY_FILES_DESC );
 		Properties.registerProp( PIPELINE_DEFAULT_PROPS, Properties.FILE_PATH_LIST, PIPELINE_DEFAULT_PROPS_DESC );
 		Properties.registerProp( PIPELINE_ENV, Properties.STRING_TYPE, "Environment in which a pipeline is run. Options: " + PIPELINE_ENV_CLUSTER + ", " + PIPELINE_ENV_AWS + ", " + PIPELINE_ENV_LOCAL );
+		Properties.registerProp( PIPELINE_OUTPUT_CACHE, Properties.FILE_PATH, PIPELINE_OUTPUT_CACHE_DESC );
+		Properties.registerProp( PIPELINE_OUTPUT_CACHE_GB, Properties.INTEGER_TYPE, PIPELINE_OUTPUT_CACHE_GB_DESC );
 		Properties.registerProp( PIPELINE_PRIVS, Properties.STRING_TYPE, PIPELINE_PRIVS_DESC );
+		Properties.registerProp( PIPELINE_STREAM_SEQ_MODULES, Properties.BOOLEAN_TYPE, PIPELINE_STREAM_SEQ_MODULES_DESC );
+		Properties.registerProp( PIPELINE_TRANSIENT_SEQ_CHECKSUMS, Properties.BOOLEAN_TYPE, PIPELINE_TRANSIENT_SEQ_CHECKSUMS_DESC );
+		Properties.registerProp( PIPELINE_TRANSIENT_SEQ_FILES, Properties.BOOLEAN_TYPE, PIPELINE_TRANSIENT_SEQ_FILES_DESC );
 		Properties.registerProp( DOWNLOAD_DIR, Properties.FILE_PATH, DOWNLOAD_DIR_DESC );
 		Properties.registerProp( LIMIT_DEBUG_CLASSES, Properties.LIST_TYPE, LIMIT_DEBUG_CLASSES_DESC );
 		Properties.registerProp( LOG_LEVEL_PROPERTY, Properties.STRING_TYPE, "Options: DEBUG, INFO, WARN, ERROR" );
@@ -624,6 +631,20 @@ public class Constants {
 	 * implemented.
 	 */
 	public static final String PIPELINE_NAME = "pipeline.name";
+
+	/**
+	 * {@link biolockj.Config} File path property: {@value #PIPELINE_OUTPUT_CACHE}<br>
+	 * {@value #PIPELINE_OUTPUT_CACHE_DESC}
+	 */
+	public static final String PIPELINE_OUTPUT_CACHE = "pipeline.outputCache";
+	private static final String PIPELINE_OUTPUT_CACHE_DESC = "If set, module output is saved to this directory (shared by pipelines) and reused by any later module with the same class, Config properties and input files.";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #PIPELINE_OUTPUT_CACHE_GB}<br>
+	 * {@value #PIPELINE_OUTPUT_CACHE_GB_DESC}
+	 */
+	public static final String PIPELINE_OUTPUT_CACHE_GB = "pipeline.outputCacheMaxGB";
+	private static final String PIPELINE_OUTPUT_CACHE_GB_DESC = "Maximum size (in GB) of the pipeline.outputCache directory; the least recently used module outputs are deleted first.";
 	
 	/**
 	 * {@link biolockj.Config} property: {@value #PIPELINE_PRIVS}
@@ -632,6 +653,27 @@ public class Constants {
 	protected static final String PIPELINE_PRIVS = "pipeline.permissions";
 	private static final String PIPELINE_PRIVS_DESC = "Set chmod -R command security bits on pipeline root directory (Ex. 770)";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #PIPELINE_STREAM_SEQ_MODULES}<br>
+	 * {@value #PIPELINE_STREAM_SEQ_MODULES_DESC}
+	 */
+	public static final String PIPELINE_STREAM_SEQ_MODULES = "pipeline.streamSeqModules";
+	private static final String PIPELINE_STREAM_SEQ_MODULES_DESC = "If Y, consecutive Java sequence modules that read each file once (such as SeqFileValidator, QualityTrimmer and JavaFastaConverter) run together, passing the sequence records to the next module in memory, so only the last module writes its sequence files to disk.";
+
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #PIPELINE_TRANSIENT_SEQ_CHECKSUMS}<br>
+	 * {@value #PIPELINE_TRANSIENT_SEQ_CHECKSUMS_DESC}
+	 */
+	public static final String PIPELINE_TRANSIENT_SEQ_CHECKSUMS = "pipeline.transientSeqChecksums";
+	private static final String PIPELINE_TRANSIENT_SEQ_CHECKSUMS_DESC = "If Y, save the MD5 checksum of each sequence file removed by pipeline.transientSeqFiles before it is deleted.";
+
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #PIPELINE_TRANSIENT_SEQ_FILES}<br>
+	 * {@value #PIPELINE_TRANSIENT_SEQ_FILES_DESC}
+	 */
+	public static final String PIPELINE_TRANSIENT_SEQ_FILES = "pipeline.transientSeqFiles";
+	private static final String PIPELINE_TRANSIENT_SEQ_FILES_DESC = "If Y, when consecutive sequence modules run, the sequence files output by a module are deleted once the next sequence module completes, so only the last module in the chain keeps its sequence files.";
+
 	/**
 	 * Name of the file created in the BioModule root directory to indicate the precheck 
 	 * process encountered an error (if running in precheck mode): {@value #PRECHECK_COMPLETE}
@@ -874,6 +916,13 @@ public class Constants {
 	 */
 	public static final String RSCRIPT = "Rscript";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #SCRIPT_CHECKPOINT}<br>
+	 * {@value SCRIPT_CHECKPOINT_DESC}
+	 */
+	public static final String SCRIPT_CHECKPOINT = "script.checkpoint";
+	public static final String SCRIPT_CHECKPOINT_DESC = "If Y, record each completed sample of a worker script so a restarted module only reruns unfinished samples.";
+
 	/**
 	 * {@link biolockj.Config} List property: {@value #SCRIPT_DEFAULT_HEADER}<br>
 	 * {@value SCRIPT_DEFAULT_HEADER_DESC}
@@ -912,6 +961,13 @@ public class Constants {
 	public static final String SCRIPT_PERMISSIONS = "script.permissions";
 	public static final String SCRIPT_PERMISSIONS_DESC = "Used as chmod permission parameter (ex: 774)";
 
+	/**
+	 * {@link biolockj.Config} String property: {@value #SCRIPT_SCRATCH_DIR}<br>
+	 * {@value SCRIPT_SCRATCH_DIR_DESC}
+	 */
+	public static final String SCRIPT_SCRATCH_DIR = "script.scratchDir";
+	public static final String SCRIPT_SCRATCH_DIR_DESC = "Node-local directory (Ex. /tmp or /local/scratch) where worker scripts write module temp and output files; files are copied back to the pipeline and verified by checksum before the worker is marked successful. If undefined, worker scripts write directly to the pipeline.";
+
 	/**
 	 * File suffix appended to started script: {@value #SCRIPT_STARTED}
 	 */
@@ -41,19 +41,36 @@ public class Pipeline {
 	public static void executeModule() throws Exception {
 		ModuleUtil.markStarted( exeModule() );
 		refreshRCacheIfNeeded();
-		exeModule().executeTask();
-		final boolean isJava = exeModule() instanceof JavaModule;
-		final boolean hasScripts = ModuleUtil.hasScripts( exeModule() );
-		final boolean detachJava = Config.getBoolean( exeModule(), Constants.DETACH_JAVA_MODULES );
-		final boolean runDetached = isJava && hasScripts && detachJava;
-
-		if( runDetached ) MasterConfigUtil.saveMasterConfig();
-		if( hasScripts && !DockerUtil.inAwsEnv() ) Processor.submit( (ScriptModule) exeModule() );
-		if( hasScripts ) waitForModuleScripts();
-		exeModule().cleanUp();
+		final boolean restored = OutputCacheUtil.restore( exeModule() );
+		boolean runDetached = false;
+		if( !restored ) {
+			OutputCacheUtil.startRecording( exeModule() );
+			exeModule().executeTask();
+			MetaUtil.materialize();
+			final boolean isJava = exeModule() instanceof JavaModule;
+			final boolean hasScripts = ModuleUtil.hasScripts( exeModule() );
+			final boolean detachJava = Config.getBoolean( exeModule(), Constants.DETACH_JAVA_MODULES );
+			runDetached = isJava && hasScripts && detachJava;
+
+			if( runDetached ) MasterConfigUtil.saveMasterConfig();
+			if( hasScripts && !DockerUtil.inAwsEnv() ) Processor.submit( (ScriptModule) exeModule() );
+			if( hasScripts ) waitForModuleScripts();
+			if( runDetached && exeModule() instanceof ShardedModule ) {
+				( (ShardedModule) exeModule() ).mergeShards();
+				runDetached = false;
+			}
+		}
+		try {
+			exeModule().cleanUp();
+		} finally {
+			OutputCacheUtil.stopRecording();
+		}
+		MetaUtil.materialize();
 		ValidationUtil.validateModule( exeModule() );
 		if( !runDetached ) SummaryUtil.reportSuccess( exeModule() );
 		ModuleUtil.markComplete( exeModule() );
+		if( !restored ) OutputCacheUtil.save( exeModule() );
+		TransientSeqUtil.removeConsumedSeqFiles( exeModule() );
 	}
 
 	/**
@@ -109,8 +126,15 @@ public class Pipeline {
 			Log.info( Pipeline.class,
 				"Start Direct BioModule Execution for [ ID #" + id + " ] ---> " + module.getClass().getSimpleName() );
 			module.runModule();
+			if( ShardUtil.getShard() != null ) {
+				module.moduleComplete();
+				Log.info( Pipeline.class, "DIRECT module ID [" + id + "] shard #" + ShardUtil.getShard() +
+					" complete!  Results are merged by the main application." );
+				return;
+			}
 			Log.info( Pipeline.class, "DIRECT module ID [" + id + "].runModule() complete!" );
 			module.cleanUp();
+			MetaUtil.materialize();
 			ValidationUtil.validateModule( module );
 			module.moduleComplete();
 			SummaryUtil.reportSuccess( module );
@@ -203,7 +227,9 @@ public class Pipeline {
 	 * <li>Reset the {@link biolockj.util.SummaryUtil} module so previous summary descriptions can be used for completed
 	 * modules
 	 * <li>Delete incomplete module contents if restarting a failed pipeline
-	 * {@value biolockj.module.BioModule#OUTPUT_DIR} directory<br>
+	 * {@value biolockj.module.BioModule#OUTPUT_DIR} directory, unless the module can resume from
+	 * {@link biolockj.util.CheckpointUtil} checkpoints. Completed modules that streamed their output to an incomplete
+	 * module are reset as well (see {@link biolockj.util.SeqStreamUtil#resetStreamedModules(List)})<br>
 	 * <li>Call {@link #refreshRCacheIfNeeded()} to cache R fields after 1st R module runs<br>
 	 * <li>Verify dependencies with {@link biolockj.module.BioModule#checkDependencies()}<br>
 	 * </ol>
@@ -212,9 +238,11 @@ public class Pipeline {
 	 * @return true if no errors are thrown
 	 */
 	protected static boolean checkModuleDependencies() throws Exception {
+		if( !BioLockJUtil.isDirectMode() ) SeqStreamUtil.resetStreamedModules( getModules() );
 		for( final BioModule module: getModules() ) {
 			setExeModule( module );
-			if( ModuleUtil.isIncomplete( module ) && ( !BioLockJUtil.isDirectMode() || module instanceof Email ) ) {
+			if( ModuleUtil.isIncomplete( module ) && ( !BioLockJUtil.isDirectMode() || module instanceof Email ) &&
+				!CheckpointUtil.resumeModule( module ) ) {
 				final String path = module.getModuleDir().getAbsolutePath();
 				Log.info( Pipeline.class, "Reset incomplete module: " + path );
 				FileUtils.forceDelete( module.getModuleDir() );
@@ -223,7 +251,12 @@ public class Pipeline {
 			
 			if (RuntimeParamUtil.isPrecheckMode()) BioLockJUtil.markStatus( module, Constants.PRECHECK_STARTED );
 			info( "Check dependencies for: " + module.getClass().getName() );
-			module.checkDependencies();
+			OutputCacheUtil.startRecording( module );
+			try {
+				module.checkDependencies();
+			} finally {
+				OutputCacheUtil.stopRecording();
+			}
 			ValidationUtil.checkDependencies( module );
 			DockerUtil.checkDependencies( module );
 
@@ -262,12 +295,19 @@ public class Pipeline {
 		int numSuccess = 0;
 		int numStarted = 0;
 		int numFailed = 0;
+		final boolean usePool = DockerUtil.inDockerEnv() && DockerUtil.getPoolSize( module ) != null;
+		final boolean poolStopped = usePool && DockerUtil.poolContainersStopped( module, mainStarted );
 
 		for( final File f: scriptFiles ) {
 			final File testStarted = new File( f.getAbsolutePath() + "_" + Constants.SCRIPT_STARTED );
 			final File testSuccess = new File( f.getAbsolutePath() + "_" + Constants.SCRIPT_SUCCESS );
 			final File testFailure = new File( f.getAbsolutePath() + "_" + Constants.SCRIPT_FAILURES );
-			if ( DockerUtil.inDockerEnv() 
+			if( poolStopped && !testSuccess.isFile() && !testFailure.isFile() ) {
+				Log.info( Pipeline.class, "Worker script [" + f.getName() + "] is not complete, and no Docker pool " +
+					"containers are running." );
+				Log.info( Pipeline.class, "Marking worker script [" + f.getName() + "] as failed." );
+				testFailure.createNewFile();
+			} else if ( DockerUtil.inDockerEnv() && !usePool
 							&& testStarted.isFile() 
 							&& !testFailure.isFile()
 							&& DockerUtil.workerContainerStopped(mainStarted, f) 
@@ -279,10 +279,14 @@ public abstract class BioModuleImpl implements BioModule, Comparable<BioModule>
 	 * {@link biolockj.Config}.{@value biolockj.Constants#INPUT_DIRS}<br>
 	 * Hidden files (starting with ".") are ignored<br>
 	 * Call {@link #isValidInputModule(BioModule)} on each previous module until acceptable input files are found<br>
+	 * If the previous module streams its output to this module, return the streamed files (see
+	 * {@link biolockj.util.SeqStreamUtil}).
 	 * 
 	 * @return Set of input files
 	 */
 	protected List<File> findModuleInputFiles() {
+		final List<File> streamedFiles = SeqStreamUtil.getStreamedInputFiles( this );
+		if( streamedFiles != null ) return streamedFiles;
 		final Set<File> moduleInputFiles = new HashSet<>();
 		Log.debug( getClass(), "Initialize input files..." );
 		boolean validInput = false;
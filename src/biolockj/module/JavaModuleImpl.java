@@ -26,11 +26,18 @@ public abstract class JavaModuleImpl extends ScriptModuleImpl implements JavaMod
 
 	/**
 	 * Java script only require 2 lines, one to run the blj_config to update our $PATH and gain access to environment
-	 * variables, and then the direct call to the BioLockJ.jar.
+	 * variables, and then the direct call to the BioLockJ.jar.<br>
+	 * {@link biolockj.module.ShardedModule}s get 1 direct call per shard.
 	 */
 	@Override
 	public List<List<String>> buildScript( final List<File> files ) throws Exception {
 		final List<List<String>> data = new ArrayList<>();
+		if( this instanceof ShardedModule ) {
+			for( int shard = 0; shard < ShardUtil.getNumShards( this ); shard++ )
+				data.add(
+					Arrays.asList( runBioLockJ_CMD() + " " + RuntimeParamUtil.getJavaModuleArgs( this, shard ) ) );
+			return data;
+		}
 		final ArrayList<String> lines = new ArrayList<>();
 		lines.add( runBioLockJ_CMD() + " " + RuntimeParamUtil.getJavaModuleArgs( this ) );
 
@@ -93,7 +100,8 @@ public abstract class JavaModuleImpl extends ScriptModuleImpl implements JavaMod
 	public abstract void runModule() throws Exception;
 
 	/**
-	 * This method sets the module status by saving the indicator file to the module root dir.
+	 * This method sets the module status by saving the indicator file to the module root dir.<br>
+	 * Shards of a {@link biolockj.module.ShardedModule} set the status of their own worker script.
 	 * 
 	 * @param status Success or Failures
 	 * @throws Exception if unable to set the status
@@ -102,7 +110,10 @@ public abstract class JavaModuleImpl extends ScriptModuleImpl implements JavaMod
 		File statusIndicator = null;
 		File script = null;
 		final Collection<File> files = FileUtils.listFiles( getScriptDir(), HiddenFileFilter.VISIBLE, null );
-		final String key1 = ".0_" + getClass().getSimpleName() + SH_EXT;
+		final Integer shard = ShardUtil.getShard();
+		final String workerId = shard == null ? "0": String.format(
+			"%0" + ModuleUtil.getNumWorkers( this ).toString().length() + "d", shard );
+		final String key1 = "." + workerId + "_" + getClass().getSimpleName() + SH_EXT;
 		for( final File file: files ) {
 			if( statusIndicator == null && file.getName().endsWith( key1 + "_" + status ) ) statusIndicator = file;
 			if( script == null && file.getName().endsWith( key1 ) ) script = file;
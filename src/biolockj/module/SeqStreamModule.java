@@ -0,0 +1,53 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module;
+
+import java.io.File;
+
+/**
+ * Classes that implement this interface are Java sequence modules that read each input sequence file once, in a single
+ * pass with a {@link biolockj.util.SeqRecordReader}, and write each output file with a
+ * {@link biolockj.util.SeqRecordWriter}. Consecutive SeqStreamModules can run concurrently, passing the sequence
+ * records in memory (see {@link biolockj.util.SeqStreamUtil}).<br>
+ * {@link #runModule()} must call {@link biolockj.util.SeqStreamUtil#runStreamGroup(SeqStreamModule)} before any step
+ * that reads or updates the metadata.
+ */
+public interface SeqStreamModule extends JavaModule, SeqModule {
+
+	/**
+	 * Check if the output sequence files can be streamed to the next module. Return FALSE if the module changes the
+	 * sequence format read by the next module in {@link #cleanUp()}.
+	 *
+	 * @return TRUE if the output can be streamed
+	 * @throws Exception if errors occur
+	 */
+	public boolean canStreamOutput() throws Exception;
+
+	/**
+	 * Return the output file written for the given input sequence file.
+	 *
+	 * @param seqFile Input sequence file
+	 * @return Output sequence file
+	 * @throws Exception if errors occur
+	 */
+	public File getStreamOutputFile( File seqFile ) throws Exception;
+
+	/**
+	 * Read the input sequence files and write the output sequence files. This method may run concurrently with the
+	 * other modules of the stream group, so it must not read or update the metadata, and must process the input files
+	 * with {@link biolockj.util.SeqStreamUtil#processFiles(biolockj.module.BioModule, java.util.Collection,
+	 * biolockj.util.ParallelUtil.FileTask)}.
+	 *
+	 * @throws Exception if errors occur
+	 */
+	public void streamSeqFiles() throws Exception;
+}
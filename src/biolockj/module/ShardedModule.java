@@ -0,0 +1,32 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module;
+
+/**
+ * Classes that implement this interface can split {@link #runModule()} across multiple detached Java instances.<br>
+ * If {@link biolockj.Config}.{@value biolockj.Constants#DETACH_JAVA_MODULES} = {@value biolockj.Constants#TRUE},
+ * 1 worker script is built per shard ({@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_WORKERS}, up to
+ * 1 shard per sample). Each shard processes {@link biolockj.util.ShardUtil#getShardFiles(BioModule)} and saves its
+ * partial results with {@link biolockj.util.ShardUtil#saveShardTable(BioModule, String, java.util.Map)}.<br>
+ * Shards do not update the metadata or summary. Once every shard is complete, the main application calls
+ * {@link #mergeShards()} and then {@link biolockj.module.BioModule#cleanUp()}.
+ */
+public interface ShardedModule extends JavaModule {
+
+	/**
+	 * Combine the partial results saved by each shard, for example with
+	 * {@link biolockj.util.ShardUtil#mergeShardTables(BioModule, String)}.
+	 *
+	 * @throws Exception thrown if any runtime error occurs
+	 */
+	public void mergeShards() throws Exception;
+}
@@ -19,6 +19,7 @@ import biolockj.api.ApiModule;
 import biolockj.exception.*;
 import biolockj.module.implicit.qiime.MergeQiimeOtuTables;
 import biolockj.module.implicit.qiime.QiimeClassifier;
+import biolockj.module.seq.Dereplicate;
 import biolockj.util.*;
 
 /**
@@ -26,6 +27,9 @@ import biolockj.util.*;
  * novo OTU picking scripts, which require a single multiplexed file for cluster analysis, closed reference OTU picking
  * can be run in batches (output/batch_0, output/batch_1, output/batch_2, etc.). The program awk is used to split the
  * metadata into separate batch-specific QIIME mapping files.
+ * <p>
+ * If the input was dereplicated by {@link biolockj.module.seq.Dereplicate}, the unique sequences are picked in 1 batch
+ * and the OTU table of the samples is rebuilt from the OTU map by {@value #FUNCTION_EXPAND_OTU_MAP}.
  * 
  * @blj.web_desc QIIME Closed Reference Classifier
  */
@@ -48,7 +52,11 @@ public class QiimeClosedRefClassifier extends QiimeClassifier implements ApiModu
 
 		final List<List<String>> data = new ArrayList<>();
 		List<String> lines = new ArrayList<>();
-		if( ModuleUtil.getNumWorkers( this ) == 1 ) {
+		if( Dereplicate.getDereplicate( this ) != null && files != null ) {
+			lines.addAll( getUniqueSeqOtuLines( files.get( 0 ) ) );
+			lines.add( copyBatchOtuTableToOutputDir( getTempDir(), null ) );
+			data.add( lines );
+		} else if( ModuleUtil.getNumWorkers( this ) == 1 ) {
 			lines.addAll( getPickOtuLines( PICK_OTU_SCRIPT, getInputFileDir(), MetaUtil.getPath(), getTempDir() ) );
 			lines.add( copyBatchOtuTableToOutputDir( getTempDir(), null ) );
 			data.add( lines );
@@ -114,6 +122,66 @@ public class QiimeClosedRefClassifier extends QiimeClassifier implements ApiModu
 		lines.add( Config.getExe( this, Constants.EXE_AWK ) + " 'NR==1' " + MetaUtil.getPath() + " > $1" );
 		lines.add( Config.getExe( this, Constants.EXE_AWK ) + " 'NR>'$2'&&NR<='$3 " + MetaUtil.getPath() + " >> $1" );
 		lines.add( "}" + RETURN );
+		if( Dereplicate.getDereplicate( this ) != null ) lines.addAll( buildExpandOtuMapFunction() );
+		return lines;
+	}
+
+	/**
+	 * Build the bash function {@value #FUNCTION_EXPAND_OTU_MAP} to rebuild the OTU table of the samples in the batch
+	 * directory ($1) after the unique sequences are picked. The taxonomy of each OTU is read from the unique sequence
+	 * OTU table. Each unique sequence in the OTU map is replaced by 1 QIIME sequence label (QIIME ID_#) per read of
+	 * each sample that contains it, as read from the {@link biolockj.module.seq.Dereplicate} count matrix, with QIIME
+	 * IDs mapped from the {@value biolockj.Constants#QIIME_DEMUX_COL} column of the QIIME mapping. The OTU table is then
+	 * built from the expanded OTU map, so it matches the table picked from the sample sequences.
+	 *
+	 * @return Bash script lines
+	 * @throws Exception if errors occur
+	 */
+	protected List<String> buildExpandOtuMapFunction() throws Exception {
+		final String awk = Config.getExe( this, Constants.EXE_AWK ) + " -F'\\t' ";
+		final String countFile = Dereplicate.getCountFile( Dereplicate.getDereplicate( this ) ).getAbsolutePath();
+		final List<String> lines = new ArrayList<>();
+		lines.add( "function " + FUNCTION_EXPAND_OTU_MAP + "() {" );
+		lines.add( SCRIPT_BIOM_CONVERT + " -i $1/" + OTU_TABLE + " -o $1/" + UNIQUE_SEQ_OTU_TABLE +
+			" --to-tsv --header-key taxonomy || return 1" );
+		lines.add( awk + "'!/^#/ { print $1 FS $NF }' $1/" + UNIQUE_SEQ_OTU_TABLE + " > $1/" + OTU_TAXONOMY +
+			" || return 1" );
+		lines.add( awk + "'FILENAME == ARGV[ 1 ] { if( FNR == 1 ) { for( i = 1; i <= NF; i++ ) if( $i == \"" +
+			Constants.QIIME_DEMUX_COL + "\" ) d = i } else { s = $d; sub( /\\." + Constants.FASTA +
+			"$/, \"\", s ); id[ s ] = $1 } next } " +
+			"FILENAME == ARGV[ 2 ] { if( FNR > 1 ) { if( !( $2 in id ) ) { " +
+			"print \"Sample not found in QIIME mapping: \" $2 > \"/dev/stderr\"; exit 1 } " +
+			"c[ $1 ] = c[ $1 ] FS id[ $2 ] FS $3 } next } " +
+			"{ printf \"%s\", $1; for( i = 2; i <= NF; i++ ) { u = $i; sub( /^" + Dereplicate.UNIQUE_SEQS +
+			"_/, \"\", u ); if( !( u in c ) ) { print \"Unique sequence not found: \" u > \"/dev/stderr\"; exit 1 } " +
+			"n = split( substr( c[ u ], 2 ), a, FS ); for( j = 1; j < n; j += 2 ) for( k = 0; k < a[ j + 1 ]; k++ ) " +
+			"printf \"\\t%s_%d\", a[ j ], ++r } print \"\" }' " + MetaUtil.getPath() + " " + countFile + " $1/*" +
+			PICKED_OTUS_DIR + "/" + OTU_MAP + " > $1/" + SAMPLE_OTU_MAP + " || return 1" );
+		lines.add( "rm $1/" + OTU_TABLE );
+		lines.add( SCRIPT_MAKE_OTU_TABLE + " -i $1/" + SAMPLE_OTU_MAP + " -t $1/" + OTU_TAXONOMY + " -o $1/" +
+			OTU_TABLE );
+		lines.add( "}" + RETURN );
+		return lines;
+	}
+
+	/**
+	 * Build the bash script lines to pick OTUs for the unique sequences output by
+	 * {@link biolockj.module.seq.Dereplicate}. Each unique sequence is labeled as a read of 1 QIIME sample
+	 * ({@value biolockj.module.seq.Dereplicate#UNIQUE_SEQS}) so the unique sequence OTU table has 1 column, and
+	 * {@value #FUNCTION_EXPAND_OTU_MAP} then rebuilds the OTU table of the samples.
+	 *
+	 * @param fasta Unique sequence fasta file
+	 * @return Bash script lines
+	 * @throws ConfigException if errors occur reading the QIIME parameters
+	 */
+	protected List<String> getUniqueSeqOtuLines( final File fasta ) throws ConfigException {
+		final String batchDir = getTempDir().getAbsolutePath();
+		final String fna = batchDir + File.separator + COMBINED_FNA;
+		final List<String> lines = new ArrayList<>();
+		lines.add( Config.getExe( this, Constants.EXE_AWK ) + " '{ sub( /^>/, \">" + Dereplicate.UNIQUE_SEQS +
+			"_\" ); print }' " + fasta.getAbsolutePath() + " > " + fna );
+		lines.add( PICK_OTU_SCRIPT + getParams() + "-i " + fna + " -fo " + batchDir );
+		lines.add( FUNCTION_EXPAND_OTU_MAP + " " + batchDir );
 		return lines;
 	}
 
@@ -208,6 +276,21 @@ public class QiimeClosedRefClassifier extends QiimeClassifier implements ApiModu
 	 */
 	protected static final String FUNCTION_CREATE_BATCH_MAPPING = "createBatchMapping";
 
+	/**
+	 * Name of the bash function that rebuilds the OTU table of the samples from the unique sequence OTU map:
+	 * {@value #FUNCTION_EXPAND_OTU_MAP}
+	 */
+	protected static final String FUNCTION_EXPAND_OTU_MAP = "expandOtuMap";
+
+	private static final String OTU_MAP =
+		COMBINED_FNA.substring( 0, COMBINED_FNA.lastIndexOf( "." ) ) + "_otus" + TXT_EXT;
+	private static final String OTU_TAXONOMY = "otuTaxonomy" + TSV_EXT;
+	private static final String PICKED_OTUS_DIR = "_picked_otus";
+	private static final String SAMPLE_OTU_MAP = "sampleOtus" + TXT_EXT;
+	private static final String SCRIPT_BIOM_CONVERT = "biom convert";
+	private static final String SCRIPT_MAKE_OTU_TABLE = "make_otu_table.py";
+	private static final String UNIQUE_SEQ_OTU_TABLE = "uniqueSeqOtuTable" + TSV_EXT;
+
 	@Override
 	public String getDescription() {
 		return "Pick OTUs using a closed reference database and construct an OTU table via the QIIME script pick_closed_reference_otus.py";
@@ -11,7 +11,7 @@
  */
 package biolockj.module.classifier.r16s;
 
-import java.io.File;
+import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 import biolockj.*;
@@ -33,6 +33,11 @@ public class RdpClassifier extends ClassifierModuleImpl implements ApiModule {
 		addNewProperty( RDP_JAR, Properties.FILE_PATH, "File path for RDP java executable JAR" );
 		addNewProperty( RDP_PARAMS, Properties.LIST_TYPE, "parameters to use when running rdp. (must include \"-f fixrank\")" );
 		addNewProperty( JAVA_PARAMS, Properties.LIST_TYPE, "the parameters to java when running rdp." );
+		addNewProperty( RDP_BATCH_MODE, Properties.BOOLEAN_TYPE,
+			"Options: Y/N. If Y, each worker script classifies all of its samples with a single RDP call, so the RDP database is only loaded once per worker (batch size = #samples / " +
+				Constants.SCRIPT_NUM_WORKERS + ")", Constants.FALSE );
+		addGeneralProperty( Constants.EXE_AWK );
+		addGeneralProperty( Constants.EXE_GZIP );
 		addGeneralProperty( Constants.DEFAULT_MOD_SEQ_MERGER );
 	}
 
@@ -45,6 +50,7 @@ public class RdpClassifier extends ClassifierModuleImpl implements ApiModule {
 	 */
 	@Override
 	public List<List<String>> buildScript( final List<File> files ) throws Exception {
+		if( Config.getBoolean( this, RDP_BATCH_MODE ) ) return buildBatchScript( files );
 		final List<List<String>> data = new ArrayList<>();
 		for( final File file: files ) {
 			final String outputFile = getOutputDir().getAbsolutePath() + File.separator +
@@ -57,12 +63,57 @@ public class RdpClassifier extends ClassifierModuleImpl implements ApiModule {
 		return data;
 	}
 
+	/**
+	 * Build bash script lines to classify samples in batches, 1 batch per worker script. Each batch is defined by a
+	 * list file saved to the module temp directory with 1 line per sample: Sample ID + tab + sequence file path.<br>
+	 * The samples are merged into a single file with each sequence header prefixed by: Sample ID +
+	 * {@value #BATCH_ID_DELIM}, so {@link biolockj.module.implicit.parser.r16s.RdpParser} can split the batch report
+	 * back into samples.
+	 * <p>
+	 * Example line: "runRdpBatch ./temp/rdpBatch_0.txt ./temp/rdpBatch_0.fasta ./output/0_rdpBatch_reported.tsv"
+	 * 
+	 * @param files Sequence files
+	 * @return Bash script lines
+	 * @throws Exception if errors occur
+	 */
+	protected List<List<String>> buildBatchScript( final List<File> files ) throws Exception {
+		final List<List<String>> data = new ArrayList<>();
+		final int numBatches = Math.min( files.size(), ModuleUtil.getNumWorkers( this ) );
+		final int minBatchSize = files.size() / numBatches;
+		final int numLargeBatches = files.size() % numBatches;
+		int index = 0;
+		for( int i = 0; i < numBatches; i++ ) {
+			final int batchSize = minBatchSize + ( i < numLargeBatches ? 1: 0 );
+			final File batchList = new File( getTempDir().getAbsolutePath() + File.separator + BATCH_PREFIX + i +
+				Constants.TXT_EXT );
+			final BufferedWriter writer = new BufferedWriter( new FileWriter( batchList ) );
+			try {
+				for( final File file: files.subList( index, index + batchSize ) )
+					writer.write( SeqUtil.getSampleId( file.getName() ) + Constants.TAB_DELIM + file.getAbsolutePath() +
+						Constants.RETURN );
+			} finally {
+				writer.close();
+			}
+			index += batchSize;
+
+			final String batchSeqs = getTempDir().getAbsolutePath() + File.separator + BATCH_PREFIX + i + "." +
+				SeqUtil.getSeqType();
+			final String outputFile = getOutputDir().getAbsolutePath() + File.separator + i + BATCH_REPORT;
+			final ArrayList<String> lines = new ArrayList<>();
+			lines.add( FUNCTION_RDP_BATCH + " " + batchList.getAbsolutePath() + " " + batchSeqs + " " + outputFile );
+			data.add( lines );
+		}
+
+		return data;
+	}
+
 	@Override
 	public void checkDependencies() throws Exception {
 		super.checkDependencies();
 		Config.requireString( this, RDP_JAR );
 		getRuntimeParams( getClassifierParams(), null );
 		getDbParam();
+		Config.getBoolean( this, RDP_BATCH_MODE );
 	}
 
 	/**
@@ -109,7 +160,9 @@ public class RdpClassifier extends ClassifierModuleImpl implements ApiModule {
 	}
 
 	/**
-	 * This method generates the required bash functions: {@value #FUNCTION_RDP}
+	 * This method generates the required bash functions: {@value #FUNCTION_RDP}<br>
+	 * If {@link biolockj.Config}.{@value #RDP_BATCH_MODE} = {@value biolockj.Constants#TRUE}, also generate
+	 * {@value #FUNCTION_RDP_BATCH} to tag + merge the samples listed in $1 into $2 before classifying them into $3.
 	 */
 	@Override
 	public List<String> getWorkerScriptFunctions() throws Exception {
@@ -118,6 +171,23 @@ public class RdpClassifier extends ClassifierModuleImpl implements ApiModule {
 		lines.add( Config.getExe( this, Constants.EXE_JAVA ) + " " + getJavaParams() + Constants.JAR_ARG + " " +
 			getJar() + " " + getRuntimeParams( getClassifierParams(), null ) + getDbParam() + OUTPUT_PARAM + " $2 $1" );
 		lines.add( "}" + RETURN );
+
+		if( Config.getBoolean( this, RDP_BATCH_MODE ) ) {
+			final String header = SeqUtil.isFastQ() ? "NR%4==1": "/^>/";
+			lines.add( "function " + FUNCTION_RDP_BATCH + "() {" );
+			lines.add( "rm -f $2" );
+			lines.add( "while IFS=$'\\t' read -r id seqFile; do" );
+			lines.add( "if [[ $seqFile == *" + Constants.GZIP_EXT + " ]]; then" );
+			lines.add( "reader=\"" + Config.getExe( this, Constants.EXE_GZIP ) + " -cd\"" );
+			lines.add( "else" );
+			lines.add( "reader=cat" );
+			lines.add( "fi" );
+			lines.add( "${reader} $seqFile | " + Config.getExe( this, Constants.EXE_AWK ) + " -v id=$id '" + header +
+				" { print substr($0,1,1) id \"" + BATCH_ID_DELIM + "\" substr($0,2); next } { print }' >> $2" );
+			lines.add( "done < $1" );
+			lines.add( FUNCTION_RDP + " $2 $3" );
+			lines.add( "}" + RETURN );
+		}
 		return lines;
 	}
 
@@ -139,6 +209,26 @@ public class RdpClassifier extends ClassifierModuleImpl implements ApiModule {
 		return "rdp_classifier";
 	}
 
+	/**
+	 * Delimiter added between the Sample ID and the original sequence header in batch mode: {@value #BATCH_ID_DELIM}
+	 */
+	public static final String BATCH_ID_DELIM = "::";
+
+	/**
+	 * File suffix of RDP batch reports in the module output directory: {@value #BATCH_REPORT}
+	 */
+	public static final String BATCH_REPORT = "_rdpBatch" + Constants.PROCESSED;
+
+	/**
+	 * File name prefix of the batch sample list and merged sequence files in the temp directory: {@value #BATCH_PREFIX}
+	 */
+	protected static final String BATCH_PREFIX = "rdpBatch_";
+
+	/**
+	 * Name of the RdpClassifier bash script function used to classify a batch of samples: {@value #FUNCTION_RDP_BATCH}
+	 */
+	protected static final String FUNCTION_RDP_BATCH = "runRdpBatch";
+
 	/**
 	 * Name of the RdpClassifier bash script function used to assign taxonomy: {@value #FUNCTION_RDP}
 	 */
@@ -149,6 +239,12 @@ public class RdpClassifier extends ClassifierModuleImpl implements ApiModule {
 	 */
 	protected static final String RDP_DB = "rdp.db";
 
+	/**
+	 * {@link biolockj.Config} Boolean property to classify all samples in a worker script with 1 RDP call:
+	 * {@value #RDP_BATCH_MODE}
+	 */
+	protected static final String RDP_BATCH_MODE = "rdp.batchMode";
+
 	/**
 	 * {@link biolockj.Config} File property for RDP java executable JAR: {@value #RDP_JAR}
 	 */
@@ -18,13 +18,19 @@ import biolockj.Constants;
 import biolockj.Properties;
 import biolockj.api.ApiModule;
 import biolockj.exception.*;
+import biolockj.module.BioModule;
 import biolockj.module.classifier.ClassifierModuleImpl;
+import biolockj.module.seq.Dereplicate;
 import biolockj.util.*;
 
 /**
  * This BioModule assigns taxonomy to WGS sequences and translates the results into mpa-format. Command line options are
  * defined in the online manual: <a href="http://ccb.jhu.edu/software/kraken/MANUAL.html" target=
  * "_top">http://ccb.jhu.edu/software/kraken/MANUAL.html</a>
+ * <p>
+ * If the input was dereplicated by {@link biolockj.module.seq.Dereplicate}, the unique sequences are reported in the
+ * standard (not mpa) format, and the per-read output is saved in the {@value #READ_DIR} sub-directory so the
+ * {@link biolockj.module.implicit.parser.wgs.Kraken2Parser} can rebuild the mpa report of each sample.
  * 
  * @blj.web_desc Kraken2 Classifier
  */
@@ -35,6 +41,14 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 		addNewProperty( EXE_KRAKEN2, Properties.EXE_PATH, "" );
 		addNewProperty( KRAKEN_DATABASE, Properties.FILE_PATH, "file path to Kraken2 kmer database directory" );
 		addNewProperty( KRAKEN2_PARAMS, Properties.LIST_TYPE, "additional parameters to use with kraken2" );
+		addNewProperty( KRAKEN2_MEMORY_MAPPING, Properties.BOOLEAN_TYPE,
+			"Options: Y/N. If Y, run kraken2 with --memory-mapping so workers share the page-cache copy of the database instead of each loading it into RAM" );
+		addNewProperty( KRAKEN2_STAGE_DB_DIR, Properties.STRING_TYPE,
+			"Node-local directory (such as /dev/shm or a local SSD) used to stage a copy of " + KRAKEN_DATABASE +
+				". The 1st worker on each node copies the database and reads it into the page cache before classifying any samples." );
+		addNewProperty( KRAKEN2_STAGE_DB_LOCK_TIMEOUT, Properties.POS_INTEGER_TYPE,
+			"Minutes after which the " + KRAKEN2_STAGE_DB_DIR + " copy lock is considered stale (left by a killed worker) and removed. Default: " +
+				DEFAULT_STAGE_DB_LOCK_TIMEOUT );
 	}
 
 	/**
@@ -50,9 +64,11 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 	@Override
 	public List<List<String>> buildScript( final List<File> files ) throws Exception {
 		final List<List<String>> data = new ArrayList<>();
+		final boolean dereplicated = Dereplicate.getDereplicate( this ) != null;
 		for( final File file: files ) {
 			final String fileId = SeqUtil.getSampleId( file.getName() );
-			final String tempFile = getTempDir().getAbsolutePath() + File.separator + fileId + KRAKEN_FILE;
+			final String tempFile = dereplicated ? getUniqueSeqReadFile( this ).getAbsolutePath():
+				getTempDir().getAbsolutePath() + File.separator + fileId + KRAKEN_FILE;
 			final String krakenOutput =
 				getOutputDir().getAbsolutePath() + File.separator + fileId + Constants.PROCESSED;
 			final ArrayList<String> lines = new ArrayList<>( 1 );
@@ -99,6 +115,8 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 	@Override
 	public void checkDependencies() throws Exception {
 		super.checkDependencies();
+		Config.getBoolean( this, KRAKEN2_MEMORY_MAPPING );
+		getStageDbLockTimeout();
 		getParams();
 	}
 
@@ -131,13 +149,17 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 	}
 
 	/**
-	 * This method generates the required bash function: {@value #FUNCTION_KRAKEN}
+	 * This method generates the required bash function: {@value #FUNCTION_KRAKEN}<br>
+	 * If {@link biolockj.Config}.{@value #KRAKEN2_STAGE_DB_DIR} is defined, also generate
+	 * {@value #FUNCTION_STAGE_DB}, called before each sample is classified.
 	 */
 	@Override
 	public List<String> getWorkerScriptFunctions() throws Exception {
 		final List<String> lines = super.getWorkerScriptFunctions();
 		final String inFiles = "$3" + ( SeqUtil.hasPairedReads() ? " $4": "" );
+		if( getStagedDb() != null ) lines.addAll( buildStageDbFunction() );
 		lines.add( "function " + FUNCTION_KRAKEN + "() {" );
+		if( getStagedDb() != null ) lines.add( FUNCTION_STAGE_DB + " || return 1" );
 		lines.add(
 			getClassifierExe() + getWorkerFunctionParams() + REPORT_PARAM + "$1 " + OUTPUT_PARAM + " $2 " + inFiles );
 		lines.add( "}" + RETURN );
@@ -145,6 +167,78 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 		return lines;
 	}
 
+	/**
+	 * Build the bash function {@value #FUNCTION_STAGE_DB} to copy {@value #KRAKEN_DATABASE} into the node-local
+	 * {@value #KRAKEN2_STAGE_DB_DIR}. A lock directory ensures only 1 worker per node copies the database, the others
+	 * wait until the copy is flagged complete. The flag is only written if the copy succeeds. The lock holder touches
+	 * the lock every minute and releases it if the worker exits while copying, so a lock older than
+	 * {@value #KRAKEN2_STAGE_DB_LOCK_TIMEOUT} minutes was left by a killed worker and is removed. The worker script's
+	 * own EXIT, INT and TERM traps are saved before the lock is taken and restored once it is released.
+	 * <p>
+	 * The database is copied once per node and reused by every later worker and pipeline on that node while the flag
+	 * exists. Each worker script reads the database files once, on its 1st sample, to make sure they are resident in
+	 * the page cache.
+	 * 
+	 * @return Bash script lines
+	 * @throws Exception if errors occur
+	 */
+	protected List<String> buildStageDbFunction() throws Exception {
+		final String stagedDb = getStagedDb().getAbsolutePath();
+		final String flag = "\"" + stagedDb + File.separator + STAGED_DB_FLAG + "\"";
+		final String lock = "\"" + stagedDb + LOCK_EXT + "\"";
+		final int timeout = getStageDbLockTimeout() * 60;
+		final List<String> lines = new ArrayList<>();
+		lines.add( "function " + FUNCTION_STAGE_DB + "() {" );
+		lines.add( "[ -n \"${" + DB_WARM_VAR + "}\" ] && return 0" );
+		lines.add( "mkdir -p \"" + getStagedDb().getParentFile().getAbsolutePath() + "\"" );
+		lines.add( "while [ ! -f " + flag + " ]; do" );
+		lines.add( "if mkdir " + lock + " 2>/dev/null; then" );
+		lines.add( "local prevTraps=\"$(trap -p EXIT INT TERM)\"" );
+		lines.add( "trap 'rmdir " + lock + " 2>/dev/null' EXIT" );
+		lines.add( "trap 'exit 1' INT TERM" );
+		lines.add( "( while sleep 60; do touch " + lock + "; done ) &" );
+		lines.add( "heartbeat=$!" );
+		lines.add( "if [ ! -f " + flag + " ]; then" );
+		lines.add( "rm -rf \"" + stagedDb + "\"" );
+		lines.add( "cp -r \"" + getDB().getAbsolutePath() + "\" \"" + stagedDb + "\" && touch " + flag +
+			" || { kill ${heartbeat}; rmdir " + lock + "; " + RESTORE_TRAPS + "; return 1; }" );
+		lines.add( "fi" );
+		lines.add( "kill ${heartbeat}" );
+		lines.add( "rmdir " + lock );
+		lines.add( RESTORE_TRAPS );
+		lines.add( "else" );
+		lines.add( "lockAge=$(( $(date +%s) - $(stat -c %Y " + lock + " 2>/dev/null || date +%s) ))" );
+		lines.add( "if [ ${lockAge} -gt " + timeout + " ]; then rmdir " + lock + " 2>/dev/null; else sleep 10; fi" );
+		lines.add( "fi" );
+		lines.add( "done" );
+		lines.add( "cat \"" + stagedDb + "\"/*" + KRAKEN2_DB_EXT + " > /dev/null" );
+		lines.add( DB_WARM_VAR + "=" + Constants.TRUE );
+		lines.add( "}" + RETURN );
+		return lines;
+	}
+
+	/**
+	 * Get the number of minutes after which an unrefreshed {@value #FUNCTION_STAGE_DB} lock is considered stale:
+	 * {@value #KRAKEN2_STAGE_DB_LOCK_TIMEOUT}
+	 * 
+	 * @return Lock timeout in minutes
+	 * @throws ConfigFormatException if the property is not a positive integer
+	 */
+	protected int getStageDbLockTimeout() throws ConfigFormatException {
+		final Integer timeout = Config.getPositiveInteger( this, KRAKEN2_STAGE_DB_LOCK_TIMEOUT );
+		return timeout == null ? DEFAULT_STAGE_DB_LOCK_TIMEOUT: timeout;
+	}
+
+	/**
+	 * Get the per-read output of the dereplicated unique sequences, saved in the {@value #READ_DIR} sub-directory.
+	 * 
+	 * @param module Kraken2Classifier
+	 * @return Per-read output file
+	 */
+	public static File getUniqueSeqReadFile( final BioModule module ) {
+		return new File( ModuleUtil.requireSubDir( module, READ_DIR ), Dereplicate.UNIQUE_SEQS + KRAKEN_FILE );
+	}
+
 	private String getParams() throws Exception {
 		if( this.defaultSwitches == null ) {
 			final List<String> classifierParams = getClassifierParams();
@@ -174,8 +268,12 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 				"Invalid classifier option (" + REPORT_PARAM + ") found in property (" + getExeParamName() +
 					"). BioLockJ hard codes this value based on Sample IDs found in: " + Constants.INPUT_DIRS );
 
+			final File db = getStagedDb() == null ? getDB(): getStagedDb();
 			this.defaultSwitches = getRuntimeParams( classifierParams, NUM_THREADS_PARAM ) + DB_PARAM +
-				getDB().getAbsolutePath() + " " + USE_NAMES_PARAM + USE_MPA_PARAM;
+				db.getAbsolutePath() + " " + USE_NAMES_PARAM;
+			if( Dereplicate.getDereplicate( this ) == null ) this.defaultSwitches += USE_MPA_PARAM;
+			if( Config.getBoolean( this, KRAKEN2_MEMORY_MAPPING ) && !params.contains( MEMORY_MAPPING_PARAM.trim() ) )
+				this.defaultSwitches += MEMORY_MAPPING_PARAM;
 		}
 
 		return this.defaultSwitches;
@@ -191,6 +289,18 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 		return params;
 	}
 
+	/**
+	 * Get the node-local copy of {@value #KRAKEN_DATABASE}, if {@value #KRAKEN2_STAGE_DB_DIR} is defined.
+	 * 
+	 * @return Staged database directory or null
+	 * @throws Exception if errors occur
+	 */
+	private File getStagedDb() throws Exception {
+		final String stageDir = Config.getString( this, KRAKEN2_STAGE_DB_DIR );
+		if( stageDir == null ) return null;
+		return new File( stageDir + File.separator + getDB().getName() );
+	}
+
 	private static String getExeParamName() {
 		return KRAKEN2_PARAMS;
 	}
@@ -234,22 +344,57 @@ public class Kraken2Classifier extends ClassifierModuleImpl implements ApiModule
 	protected static final String KRAKEN_DATABASE = "kraken2.db";
 	
 	protected static final String KRAKEN2_PARAMS = "kraken2.kraken2Params";
+
+	/**
+	 * {@link biolockj.Config} Boolean property to run kraken2 with --memory-mapping: {@value #KRAKEN2_MEMORY_MAPPING}
+	 */
+	protected static final String KRAKEN2_MEMORY_MAPPING = "kraken2.memoryMapping";
+
+	/**
+	 * {@link biolockj.Config} String property for the node-local directory used to stage the database:
+	 * {@value #KRAKEN2_STAGE_DB_DIR}
+	 */
+	protected static final String KRAKEN2_STAGE_DB_DIR = "kraken2.stageDbDir";
+
+	/**
+	 * {@link biolockj.Config} Positive integer property for the minutes after which the database staging lock is
+	 * considered stale: {@value #KRAKEN2_STAGE_DB_LOCK_TIMEOUT}
+	 */
+	protected static final String KRAKEN2_STAGE_DB_LOCK_TIMEOUT = "kraken2.stageDbLockTimeout";
+
+	/**
+	 * Name of the function used to stage the database on the local node: {@value #FUNCTION_STAGE_DB}
+	 */
+	protected static final String FUNCTION_STAGE_DB = "stageKraken2Db";
 	
 	private static final String DEFAULT_DB_IN_DOCKER = "/mnt/db";
+	private static final int DEFAULT_STAGE_DB_LOCK_TIMEOUT = 10;
 
 	/**
 	 * File suffix added by BioLockJ to kraken output files (before translation): {@value #KRAKEN_FILE}
 	 */
 	protected static final String KRAKEN_FILE = "_kraken2_out" + TXT_EXT;
 
+	/**
+	 * Name of the module sub-directory that holds the per-read output of dereplicated unique sequences:
+	 * {@value #READ_DIR}
+	 */
+	protected static final String READ_DIR = "reads";
+
 	private static final String DB_PARAM = "--db ";
+	private static final String DB_WARM_VAR = "kraken2DbWarm";
 	private static final String FASTA_PARAM = "--fasta-input ";
 	private static final String FASTQ_PARAM = "--fastq-input ";
 	private static final String GZIP_PARAM = "--gzip-compressed ";
+	private static final String KRAKEN2_DB_EXT = ".k2d";
+	private static final String LOCK_EXT = ".lock";
+	private static final String MEMORY_MAPPING_PARAM = "--memory-mapping ";
 	private static final String NUM_THREADS_PARAM = "--threads";
 	private static final String OUTPUT_PARAM = "--output ";
 	private static final String PAIRED_PARAM = "--paired ";
 	private static final String REPORT_PARAM = "--report ";
+	private static final String RESTORE_TRAPS = "trap - EXIT INT TERM; eval \"${prevTraps}\"";
+	private static final String STAGED_DB_FLAG = ".bljStaged";
 	private static final String USE_MPA_PARAM = "--use-mpa-style ";
 	private static final String USE_NAMES_PARAM = "--use-names ";
 
@@ -325,25 +325,18 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule, ApiModul
 
 			Log.info( getClass(), "Processing split file for FW headers: " + file.getAbsolutePath() );
 
-			final List<String> seqLines = new ArrayList<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						// if not combined must be a file of only forward reads due to continue above
-						if( !isCombined || seqLines.get( 0 ).contains( SeqUtil.ILLUMINA_FW_READ_IND ) ) {
-							this.numTotalFwReads++;
-							final String sampleId = DemuxUtil.getSampleId( seqLines );
-							if( sampleId != null ) {
-								if( validHeaders.get( sampleId ) == null )
-									validHeaders.put( sampleId, new HashSet<>() );
-								final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-								validHeaders.get( sampleId ).add( header );
-							}
+				while( reader.next() ) {
+					final String headerLine = reader.getHeader();
+					// if not combined must be a file of only forward reads due to continue above
+					if( !isCombined || headerLine.contains( SeqUtil.ILLUMINA_FW_READ_IND ) ) {
+						this.numTotalFwReads++;
+						final String sampleId = DemuxUtil.getSampleId( headerLine, reader.getSeq() );
+						if( sampleId != null ) {
+							if( validHeaders.get( sampleId ) == null ) validHeaders.put( sampleId, new HashSet<>() );
+							validHeaders.get( sampleId ).add( SeqUtil.getHeader( headerLine ) );
 						}
-
-						seqLines.clear();
 					}
 				}
 			} finally {
@@ -385,28 +378,23 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule, ApiModul
 
 			Log.info( getClass(), "Processing split file for RV headers: " + file.getAbsolutePath() );
 
-			final List<String> seqLines = new ArrayList<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						// if not combined must be a file of only reverse reads due to continue above
-						if( !isForwardRead( file.getName(), seqLines.get( 0 ) ) ) {
-							final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-							this.numTotalRvReads++;
-
-							for( final String sampleId: validFwHeaders.keySet() )
-								if( validFwHeaders.get( sampleId ).contains( header ) ) {
-									if( validHeaders.get( sampleId ) == null )
-										validHeaders.put( sampleId, new HashSet<>() );
-
-									validHeaders.get( sampleId ).add( header );
-									break;
-								}
-						}
+				while( reader.next() ) {
+					final String headerLine = reader.getHeader();
+					// if not combined must be a file of only reverse reads due to continue above
+					if( !isForwardRead( file.getName(), headerLine ) ) {
+						final String header = SeqUtil.getHeader( headerLine );
+						this.numTotalRvReads++;
+
+						for( final String sampleId: validFwHeaders.keySet() )
+							if( validFwHeaders.get( sampleId ).contains( header ) ) {
+								if( validHeaders.get( sampleId ) == null )
+									validHeaders.put( sampleId, new HashSet<>() );
 
-						seqLines.clear();
+								validHeaders.get( sampleId ).add( header );
+								break;
+							}
 					}
 				}
 			} finally {
@@ -49,7 +49,8 @@ public class RegisterNumReads extends JavaModuleImpl implements SeqModule, ReadC
 	}
 
 	/**
-	 * Register number of reads for each sample by parsing each file and counting number of lines. Add
+	 * Register number of reads for each sample by counting the number of lines in each file (in parallel, using
+	 * {@link biolockj.util.ReadCountUtil} cached counts when available). Add
 	 * {@value #NUM_READS} column to metadata and refresh the cache.
 	 */
 	@Override
@@ -71,12 +72,16 @@ public class RegisterNumReads extends JavaModuleImpl implements SeqModule, ReadC
 		final List<File> files = getInputFiles();
 		Log.info( getClass(), "Counting # reads/sample for " + files.size() + " files" );
 
+		final List<File> fwReads = new ArrayList<>();
 		for( final File f: files )
-			if( SeqUtil.isForwardRead( f.getName() ) ) {
-				final long count = SeqUtil.countNumReads( f );
-				Log.debug( getClass(), "Num Reads for :[" + SeqUtil.getSampleId( f.getName() ) + "] = " + count );
-				this.readsPerSample.put( SeqUtil.getSampleId( f.getName() ), Long.toString( count ) );
-			}
+			if( SeqUtil.isForwardRead( f.getName() ) ) fwReads.add( f );
+
+		final Map<File, Long> counts = ReadCountUtil.countNumReads( this, fwReads );
+		for( final File f: fwReads ) {
+			final long count = counts.get( f );
+			Log.debug( getClass(), "Num Reads for :[" + SeqUtil.getSampleId( f.getName() ) + "] = " + count );
+			this.readsPerSample.put( SeqUtil.getSampleId( f.getName() ), Long.toString( count ) );
+		}
 
 		MetaUtil.addColumn( getNumReadFieldName(), this.readsPerSample, getOutputDir(), true );
 	}
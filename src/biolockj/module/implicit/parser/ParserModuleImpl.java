@@ -16,6 +16,7 @@ import java.util.*;
 import biolockj.*;
 import biolockj.module.BioModule;
 import biolockj.module.JavaModuleImpl;
+import biolockj.module.seq.Dereplicate;
 import biolockj.node.OtuNode;
 import biolockj.node.ParsedSample;
 import biolockj.util.*;
@@ -26,12 +27,27 @@ import biolockj.util.*;
  */
 public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserModule {
 
+	/**
+	 * If the classifier input was dereplicated by {@link biolockj.module.seq.Dereplicate}, add the node to each sample
+	 * that contains the unique sequence named by the node read ID, multiplied by the sample count.
+	 */
 	@Override
 	public void addOtuNode( final OtuNode node ) throws Exception {
-		if( isValid( node ) ) {
-			final ParsedSample sample = getParsedSample( node.getSampleId() );
-			if( sample == null ) addParsedSample( new ParsedSample( node ) );
-			else sample.addNode( node );
+		if( !isValid( node ) ) return;
+		if( this.uniqueSeqCounts == null || !Dereplicate.UNIQUE_SEQS.equals( node.getSampleId() ) ) {
+			addToParsedSample( node );
+			return;
+		}
+
+		final String id = node.getReadId();
+		final int index = id == null ? -1: this.uniqueSeqCounts.getIndex( id );
+		if( index < 0 ) throw new Exception( "Unique sequence [ " + id + " ] from the classifier output of sample [ " +
+			Dereplicate.UNIQUE_SEQS + " ] not found in: " + Dereplicate.COUNT_FILE );
+		final long count = node.getCount();
+		for( int i = this.uniqueSeqCounts.getStart( index ); i < this.uniqueSeqCounts.getEnd( index ); i++ ) {
+			node.setSampleId( this.uniqueSeqCounts.getSampleId( i ) );
+			node.setCount( count * this.uniqueSeqCounts.getCount( i ) );
+			addToParsedSample( node );
 		}
 	}
 
@@ -72,9 +88,7 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 
 	@Override
 	public ParsedSample getParsedSample( final String sampleId ) {
-		for( final ParsedSample sample: getParsedSamples() )
-			if( sample.getSampleId().equals( sampleId ) ) return sample;
-		return null;
+		return this.parsedSampleIndex.get( sampleId );
 	}
 
 	/**
@@ -104,7 +118,9 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 	@Override
 	public void runModule() throws Exception {
 		getSampleIds().addAll( MetaUtil.getSampleIds() );
+		this.uniqueSeqCounts = Dereplicate.getUniqueSeqCounts( this );
 		parseSamples();
+		this.uniqueSeqCounts = null;
 		if( getParsedSamples().isEmpty() ) throw new Exception( "Parser failed to produce output!" );
 		Log.debug( getClass(), "# Samples parsed: " + getParsedSamples().size() );
 		buildOtuCountFiles();
@@ -120,9 +136,9 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 	 * @throws Exception if method is used to add a duplicate sample
 	 */
 	protected void addParsedSample( final ParsedSample parsedSample ) throws Exception {
-		for( final ParsedSample sample: getParsedSamples() )
-			if( sample.getSampleId().equals( parsedSample.getSampleId() ) )
-				throw new Exception( "Attempt to add duplicate sample! " + sample.getSampleId() );
+		if( this.parsedSampleIndex.containsKey( parsedSample.getSampleId() ) )
+			throw new Exception( "Attempt to add duplicate sample! " + parsedSample.getSampleId() );
+		this.parsedSampleIndex.put( parsedSample.getSampleId(), parsedSample );
 		getParsedSamples().add( parsedSample );
 	}
 
@@ -162,6 +178,16 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 		return this.uniqueOtus;
 	}
 
+	/**
+	 * Simple getter for the unique sequence counts of the {@link biolockj.module.seq.Dereplicate} module, set while
+	 * {@link #parseSamples()} runs.
+	 * 
+	 * @return Unique sequence counts, or null if the classifier input was not dereplicated
+	 */
+	protected UniqueSeqCounts getUniqueSeqCounts() {
+		return this.uniqueSeqCounts;
+	}
+
 	/**
 	 * Some {@link biolockj.module.classifier.ClassifierModule}s can include taxonomy level identifiers without an OTU
 	 * name in the sample report files. This method verifies the node exists, has a valid sample ID, and that no empty
@@ -192,9 +218,16 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 					" must run before the ParserModule." );
 	}
 
+	private void addToParsedSample( final OtuNode node ) throws Exception {
+		final ParsedSample sample = getParsedSample( node.getSampleId() );
+		if( sample == null ) addParsedSample( new ParsedSample( node ) );
+		else sample.addNode( node );
+	}
+
 	private void freeMemory() {
 		this.hitsPerSample = null;
 		this.parsedSamples = null;
+		this.parsedSampleIndex = null;
 		this.sampleIds = null;
 		this.uniqueOtus = null;
 	}
@@ -237,9 +270,11 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 	}
 
 	private Map<String, String> hitsPerSample = new HashMap<>();
+	private Map<String, ParsedSample> parsedSampleIndex = new HashMap<>();
 	private TreeSet<ParsedSample> parsedSamples = new TreeSet<>();
 	private Set<String> sampleIds = new HashSet<>();
 	private Set<String> uniqueOtus = new HashSet<>();
+	private UniqueSeqCounts uniqueSeqCounts = null;
 
 	/**
 	 * Metadata column name for column that holds number of OTU hits after any {@link biolockj.module.implicit.parser}
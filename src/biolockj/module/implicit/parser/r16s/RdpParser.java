@@ -15,6 +15,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import biolockj.*;
 import biolockj.api.ApiModule;
+import biolockj.module.classifier.r16s.RdpClassifier;
 import biolockj.module.implicit.parser.ParserModuleImpl;
 import biolockj.node.OtuNode;
 import biolockj.node.r16s.RdpNode;
@@ -50,6 +51,10 @@ public class RdpParser extends ParserModuleImpl implements ApiModule{
 	@Override
 	public void parseSamples() throws Exception {
 		for( final File file: getInputFiles() ) {
+			if( file.getName().endsWith( RdpClassifier.BATCH_REPORT ) ) {
+				parseBatchReport( file );
+				continue;
+			}
 			final BufferedReader reader = BioLockJUtil.getFileReader( file );
 			try {
 				for( String line = reader.readLine(); line != null; line = reader.readLine() )
@@ -60,6 +65,29 @@ public class RdpParser extends ParserModuleImpl implements ApiModule{
 		}
 	}
 
+	/**
+	 * Split a batch report, generated by {@link biolockj.module.classifier.r16s.RdpClassifier} in batch mode, back into
+	 * samples. Each line begins with the Sample ID + {@value biolockj.module.classifier.r16s.RdpClassifier#BATCH_ID_DELIM}
+	 * which is removed before the {@link biolockj.node.r16s.RdpNode} is built.
+	 *
+	 * @param file RDP batch report
+	 * @throws Exception if errors occur
+	 */
+	protected void parseBatchReport( final File file ) throws Exception {
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final int index = line.indexOf( RdpClassifier.BATCH_ID_DELIM );
+				if( index < 1 ) throw new Exception( "RDP batch report line is missing the Sample ID prefix \"" +
+					RdpClassifier.BATCH_ID_DELIM + "\" in: " + file.getAbsolutePath() );
+				addOtuNode( new RdpNode( line.substring( 0, index ),
+					line.substring( index + RdpClassifier.BATCH_ID_DELIM.length() ) ) );
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
 	/**
 	 * If {@link biolockj.node.r16s.RdpNode#getScore()} is above the
 	 * {@link biolockj.Config}.{@value Constants#RDP_THRESHOLD_SCORE}, continue with the standard
@@ -16,6 +16,8 @@ import java.io.File;
 import java.util.*;
 import biolockj.*;
 import biolockj.exception.OtuFileException;
+import biolockj.module.classifier.wgs.Kraken2Classifier;
+import biolockj.module.seq.Dereplicate;
 import biolockj.node.*;
 import biolockj.node.wgs.Kraken2Node;
 import biolockj.util.*;
@@ -54,9 +56,15 @@ public class Kraken2Parser extends KrakenParser {
 	 * Sample Kraken report line (head 7A_reported.tsv) :<br>
 	 * FCC6MMAACXX:8:1101:1968:2100#GTATTCTC/1
 	 * d__Bacteria|p__Bacteroidetes|c__Bacteroidia|o__Bacteroidales|f__Bacteroidaceae|g__Bacteroides|s__Bacteroides_vulgatus
+	 * <p>
+	 * If the classifier input was dereplicated, call {@link #parseUniqueSeqs()} instead.
 	 */
 	@Override
 	public void parseSamples() throws Exception {
+		if( getUniqueSeqCounts() != null ) {
+			parseUniqueSeqs();
+			return;
+		}
 		for( final File file: getInputFiles() ) {
 			setReportUnclassifiedTaxa( false );
 			try {
@@ -70,6 +78,68 @@ public class Kraken2Parser extends KrakenParser {
 	}
 	
 
+	/**
+	 * Rebuild the mpa report of each sample from the unique sequences classified by
+	 * {@link biolockj.module.classifier.wgs.Kraken2Classifier}. The taxonomy tree is read from the standard report, the
+	 * taxa ID of each unique sequence from the per-read output, and the count of each sample that contains the unique
+	 * sequence is added to the taxa and its ancestors at the mpa levels, as Kraken2 would report the sample.
+	 *
+	 * @throws Exception if errors occur reading the Kraken2 output
+	 */
+	protected void parseUniqueSeqs() throws Exception {
+		final Map<Integer, Integer> parents = new HashMap<>();
+		final Map<Integer, String> mpaTaxa = new HashMap<>();
+		readReport( getUniqueSeqReport(), parents, mpaTaxa );
+
+		final Map<String, Map<Integer, Long>> sampleTaxaCounts = new TreeMap<>();
+		final File readFile = Kraken2Classifier.getUniqueSeqReadFile( ModuleUtil.getClassifier( this, false ) );
+		final BufferedReader reader = BioLockJUtil.getFileReader( readFile );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final String[] parts = line.split( TAB_DELIM );
+				if( !parts[ 0 ].equals( CLASSIFIED ) ) continue;
+				final int index = getUniqueSeqCounts().getIndex( parts[ 1 ] );
+				if( index < 0 ) throw new Exception( "Unique sequence [ " + parts[ 1 ] + " ] not found in: " +
+					Dereplicate.COUNT_FILE + " - Kraken2 output line: " + line );
+				final Integer taxaId = getTaxaId( parts[ 2 ] );
+				for( int i = getUniqueSeqCounts().getStart( index ); i < getUniqueSeqCounts().getEnd( index ); i++ ) {
+					Map<Integer, Long> taxaCounts = sampleTaxaCounts.get( getUniqueSeqCounts().getSampleId( i ) );
+					if( taxaCounts == null ) {
+						taxaCounts = new HashMap<>();
+						sampleTaxaCounts.put( getUniqueSeqCounts().getSampleId( i ), taxaCounts );
+					}
+					final Long count = taxaCounts.get( taxaId );
+					taxaCounts.put( taxaId, ( count == null ? 0L: count ) + getUniqueSeqCounts().getCount( i ) );
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		for( final String sampleId: sampleTaxaCounts.keySet() ) {
+			final Map<String, Long> mpaCounts = new TreeMap<>();
+			for( final Integer taxaId: sampleTaxaCounts.get( sampleId ).keySet() )
+				for( Integer id = taxaId; id != null; id = parents.get( id ) ) {
+					if( !mpaTaxa.containsKey( id ) ) continue;
+					final Long count = mpaCounts.get( mpaTaxa.get( id ) );
+					mpaCounts.put( mpaTaxa.get( id ),
+						( count == null ? 0L: count ) + sampleTaxaCounts.get( sampleId ).get( taxaId ) );
+				}
+
+			setReportUnclassifiedTaxa( false );
+			try {
+				for( final String otu: mpaCounts.keySet() ) {
+					final String line = otu + TAB_DELIM + mpaCounts.get( otu );
+					if( !discardOtu( line ) ) addOtuNode( new Kraken2Node( sampleId, line ) );
+				}
+			} finally {
+				setReportUnclassifiedTaxa( true );
+			}
+
+			if( getParsedSample( sampleId ) != null ) addUnclassifiedTaxa( getParsedSample( sampleId ) );
+		}
+	}
+
 	private void addUnclassifiedTaxa( final ParsedSample sample ) throws Exception {
 		final Map<String, Long> leafCounts = sample.getOtuCounts();
 		report( leafCounts, "Parsed Input Line", false );
@@ -105,6 +175,13 @@ public class Kraken2Parser extends KrakenParser {
 		return gapOtu;
 	}
 	
+	private File getUniqueSeqReport() throws Exception {
+		for( final File file: getInputFiles() )
+			if( SeqUtil.getSampleId( file.getName() ).equals( Dereplicate.UNIQUE_SEQS ) ) return file;
+		throw new Exception( "Kraken2 report of sample [ " + Dereplicate.UNIQUE_SEQS + " ] not found in: " +
+			ModuleUtil.getClassifier( this, false ).getOutputDir().getAbsolutePath() );
+	}
+
 	private boolean discardOtu( final String line ) {
 		for( final String delim: getDiscardLevelDelims() )
 			if( line.contains( delim ) ) {
@@ -115,6 +192,15 @@ public class Kraken2Parser extends KrakenParser {
 		return false;
 	}
 	
+	/**
+	 * Parse the taxa ID of a Kraken2 per-read output line, reported as "name (taxid #)" if run with --use-names.
+	 */
+	private static Integer getTaxaId( final String taxa ) {
+		final int i = taxa.lastIndexOf( TAXA_ID_LABEL );
+		if( i < 0 ) return Integer.valueOf( taxa.trim() );
+		return Integer.valueOf( taxa.substring( i + TAXA_ID_LABEL.length(), taxa.lastIndexOf( ")" ) ).trim() );
+	}
+
 	private static Map<String, Long> populateInBetweenTaxa( final Map<String, Long> otuCounts ) throws OtuFileException {
 		final Map<String, Long> map = new TreeMap<>();
 		final Map<String, Long> changes = new TreeMap<>();
@@ -163,6 +249,42 @@ public class Kraken2Parser extends KrakenParser {
 		return levelDelims;
 	}
 	
+	/**
+	 * Read the taxonomy tree from a standard Kraken2 report, in which the name of each taxa is indented 2 spaces per
+	 * level below its parent. Taxa at the mpa levels (rank codes {@value #MPA_RANKS}) are named as in the mpa report.
+	 */
+	private static void readReport( final File report, final Map<Integer, Integer> parents,
+		final Map<Integer, String> mpaTaxa ) throws Exception {
+		final List<Integer> lineage = new ArrayList<>();
+		final List<String> mpaLineage = new ArrayList<>();
+		final BufferedReader reader = BioLockJUtil.getFileReader( report );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final String[] parts = line.split( TAB_DELIM );
+				if( parts.length < 6 ) continue;
+				final String rank = parts[ parts.length - 3 ].trim();
+				final Integer taxaId = Integer.valueOf( parts[ parts.length - 2 ].trim() );
+				final String name = parts[ parts.length - 1 ];
+				final int level = ( name.length() - name.replaceAll( "^ +", "" ).length() ) / 2;
+				while( lineage.size() > level ) {
+					lineage.remove( lineage.size() - 1 );
+					mpaLineage.remove( mpaLineage.size() - 1 );
+				}
+				if( !lineage.isEmpty() ) parents.put( taxaId, lineage.get( lineage.size() - 1 ) );
+				String mpa = mpaLineage.isEmpty() ? null: mpaLineage.get( mpaLineage.size() - 1 );
+				if( rank.length() == 1 && MPA_RANKS.contains( rank ) ) {
+					mpa = ( mpa == null ? "": mpa + Constants.OTU_SEPARATOR ) + rank.toLowerCase() +
+						Constants.DELIM_SEP + name.trim().replace( ' ', '_' );
+					mpaTaxa.put( taxaId, mpa );
+				}
+				lineage.add( taxaId );
+				mpaLineage.add( mpa );
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
 	private static void report( final Map<String, Long> otuCounts, final String msg, final boolean printInfo ) {
 		for( final String otu: otuCounts.keySet() )
 			if( printInfo ) Log.info( Pipeline.exeModule().getClass(), msg + ": " + otu + " --> " + otuCounts.get( otu ) );
@@ -198,4 +320,8 @@ public class Kraken2Parser extends KrakenParser {
 		return levels;
 	}
 
+	private static final String CLASSIFIED = "C";
+	private static final String MPA_RANKS = "DKPCOFGS";
+	private static final String TAXA_ID_LABEL = "(taxid ";
+
 }
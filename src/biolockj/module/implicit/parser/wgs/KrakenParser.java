@@ -32,15 +32,6 @@ public class KrakenParser extends ParserModuleImpl implements ApiModule {
 		addGeneralProperty( Constants.REPORT_UNCLASSIFIED_TAXA );
 	}
 
-	@Override
-	public void addOtuNode( final OtuNode node ) throws Exception {
-		if( isValid( node ) ) {
-			final ParsedSample sample = getParsedSample( node.getSampleId() );
-			if( sample == null ) addParsedSample( new ParsedSample( node ) );
-			else sample.addNode( node );
-		}
-	}
-
 	/**
 	 * Parse all {@link biolockj.module.classifier.wgs.KrakenClassifier} reports in the input directory.<br>
 	 * Cache the leaf counts Build an {@link biolockj.node.wgs.KrakenNode} for each line.<br>
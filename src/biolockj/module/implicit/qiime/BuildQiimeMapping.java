@@ -14,8 +14,10 @@ package biolockj.module.implicit.qiime;
 import java.io.*;
 import java.util.*;
 import biolockj.*;
+import biolockj.module.BioModule;
 import biolockj.module.ScriptModule;
 import biolockj.module.SeqModuleImpl;
+import biolockj.module.seq.Dereplicate;
 import biolockj.util.*;
 
 /**
@@ -41,7 +43,9 @@ import biolockj.util.*;
  */
 public class BuildQiimeMapping extends SeqModuleImpl {
 	/**
-	 * Create QIIME mapping based on metadata file, output to temp dir. Add required fields if missing.
+	 * Create QIIME mapping based on metadata file, output to temp dir. Add required fields if missing.<br>
+	 * If the classifier input was dereplicated by {@link biolockj.module.seq.Dereplicate}, every metadata sample is
+	 * added to the mapping, since the single unique sequence input file holds the reads of every sample.
 	 *
 	 * @return New Metadata file
 	 * @throws Exception if unable to build the mapping file
@@ -65,8 +69,8 @@ public class BuildQiimeMapping extends SeqModuleImpl {
 		}
 		reader.close();
 
-		MetaUtil.setFile( getQiimeMapping() );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( MetaUtil.getMetadata() ) );
+		final Map<String, String> demuxNames = getDemuxNames();
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( getQiimeMapping() ) );
 		writer.write( QIIME_ID );
 		if( !hasQm1 ) {
 			Log.info( getClass(), "Add required column(2) field = " + Constants.QIIME_BARCODE_SEQ_COL );
@@ -93,31 +97,30 @@ public class BuildQiimeMapping extends SeqModuleImpl {
 
 		writer.write( RETURN );
 
-		for( final File f: getInputFiles() )
-			for( final String key: metaLines.keySet() ) {
-				if( !SeqUtil.getSampleId( f.getName() ).equals( key ) ) continue;
+		for( final String key: demuxNames.keySet() ) {
+			if( !metaLines.containsKey( key ) ) continue;
 
-				writer.write( key + TAB_DELIM );
-				if( !hasQm1 ) writer.write( MetaUtil.getNullValue( this ) + TAB_DELIM );
+			writer.write( key + TAB_DELIM );
+			if( !hasQm1 ) writer.write( MetaUtil.getNullValue( this ) + TAB_DELIM );
 
-				if( !hasQm2 ) writer.write( MetaUtil.getNullValue( this ) + TAB_DELIM );
+			if( !hasQm2 ) writer.write( MetaUtil.getNullValue( this ) + TAB_DELIM );
 
-				final StringTokenizer st = new StringTokenizer( metaLines.get( key ), TAB_DELIM );
-				st.nextToken(); // skip the id
-				writer.write( st.nextToken() );
-				while( st.hasMoreTokens() )
-					writer.write( TAB_DELIM + st.nextToken() );
+			final StringTokenizer st = new StringTokenizer( metaLines.get( key ), TAB_DELIM );
+			st.nextToken(); // skip the id
+			writer.write( st.nextToken() );
+			while( st.hasMoreTokens() )
+				writer.write( TAB_DELIM + st.nextToken() );
 
-				if( !hasQm3 ) writer.write( TAB_DELIM + f.getName() );
-				// writer.write( TAB_DELIM + key + "." + SeqUtil.FASTA );
+			if( !hasQm3 ) writer.write( TAB_DELIM + demuxNames.get( key ) );
+			// writer.write( TAB_DELIM + key + "." + SeqUtil.FASTA );
 
-				if( !hasQm4 ) writer.write( TAB_DELIM + QIIME_COMMENT );
+			if( !hasQm4 ) writer.write( TAB_DELIM + QIIME_COMMENT );
 
-				writer.write( RETURN );
-			}
+			writer.write( RETURN );
+		}
 
 		writer.close();
-		MetaUtil.refreshCache();
+		MetaUtil.reload( getQiimeMapping() );
 		return getQiimeMapping();
 	}
 
@@ -228,6 +231,21 @@ public class BuildQiimeMapping extends SeqModuleImpl {
 	 *
 	 * @return Path to {@value #SCRIPT_VALIDATE_MAPPING} output dir
 	 */
+	/**
+	 * Map each Sample ID to its {@value biolockj.Constants#QIIME_DEMUX_COL} value, the input file name. Dereplicated
+	 * samples have no input file, so each metadata sample is mapped to the name of its fasta file.
+	 */
+	private Map<String, String> getDemuxNames() throws Exception {
+		final Map<String, String> demuxNames = new LinkedHashMap<>();
+		final BioModule classifier = ModuleUtil.getClassifier( this, true );
+		if( classifier != null && Dereplicate.getDereplicate( classifier ) != null ) {
+			for( final String id: MetaUtil.getSampleIds() )
+				demuxNames.put( id, id + "." + Constants.FASTA );
+		} else for( final File f: getInputFiles() )
+			demuxNames.put( SeqUtil.getSampleId( f.getName() ), f.getName() );
+		return demuxNames;
+	}
+
 	private String getMappingDir() {
 		final File dir = new File( getTempDir().getAbsolutePath() + File.separator + "mapping" );
 		if( !dir.isDirectory() ) dir.mkdirs();
@@ -133,7 +133,8 @@ public class QiimeClassifier extends ClassifierModuleImpl {
 			return; // nothing to do
 		}
 
-		MetaUtil.refreshCache(); // to get the new alpha metric fields
+		// to get the new alpha metric fields written by the script
+		MetaUtil.reload( new File( getTempDir(), MetaUtil.getFileName() ) );
 		final BufferedReader reader = BioLockJUtil.getFileReader( MetaUtil.getMetadata() );
 		final BufferedWriter writer = new BufferedWriter( new FileWriter( getMetadata() ) );
 		final int numCols = MetaUtil.getFieldNames().size() - metrics.size() * 3;
@@ -171,10 +172,7 @@ public class QiimeClassifier extends ClassifierModuleImpl {
 			writer.close();
 		}
 
-		if( getMetadata().isFile() ) {
-			MetaUtil.setFile( getMetadata() );
-			MetaUtil.refreshCache();
-		}
+		if( getMetadata().isFile() ) MetaUtil.reload( getMetadata() );
 
 	}
 
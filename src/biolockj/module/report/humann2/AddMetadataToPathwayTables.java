@@ -11,7 +11,7 @@
  */
 package biolockj.module.report.humann2;
 
-import java.io.*;
+import java.io.File;
 import java.util.*;
 import biolockj.*;
 import biolockj.util.*;
@@ -60,78 +60,11 @@ public class AddMetadataToPathwayTables extends Humann2CountModule {
 	 */
 	@Override
 	public void runModule() throws Exception {
-		generateMergedTables();
-		Log.info( getClass(), this.mergeHeaderLine );
-		Log.info( getClass(), this.mergeSampleLine );
-		Log.info( getClass(), "Metadata has been appended to the pathway abundance table" );
-	}
-
-	/**
-	 * Create the merged metadata tables.
-	 *
-	 * @throws Exception if unable to build tables
-	 */
-	protected void generateMergedTables() throws Exception {
-		final String outDir = getOutputDir().getAbsolutePath() + File.separator;
-		for( final File file: getInputFiles() ) {
-			final String name = file.getName().replaceAll( TSV_EXT, "" ) + META_MERGED;
+		for( final File file: getInputFiles() )
 			this.types.add( PathwayUtil.getHn2Type( file ) );
-			Log.info( getClass(),
-				"Merge HumanN2 " + PathwayUtil.getHn2Type( file ) + " table with metadata: " + outDir + name );
-			BufferedReader reader = null;
-			BufferedWriter writer = null;
-			try {
-				reader = BioLockJUtil.getFileReader( file );
-				writer = new BufferedWriter( new FileWriter( outDir + name ) );
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					final String mergedLine = getMergedLine( line );
-					if( mergedLine != null ) writer.write( mergedLine + RETURN );
-
-				}
-			} finally {
-				if( reader != null ) reader.close();
-				if( writer != null ) writer.close();
-			}
-
-			Log.info( getClass(), "Done merging table: " + file.getAbsolutePath() );
-		}
-
-	}
-
-	/**
-	 * Return OTU table line with metadata row appended (both have PK = sample ID)
-	 *
-	 * @param line OTU table line
-	 * @return OTU table line + metadata line
-	 * @throws Exception if unable to create merged line
-	 */
-	protected String getMergedLine( final String line ) throws Exception {
-		final StringBuffer sb = new StringBuffer();
-		final String sampleId = new StringTokenizer( line, TAB_DELIM ).nextToken();
-		if( sampleId.equals( MetaUtil.getID() ) || MetaUtil.getSampleIds().contains( sampleId ) ) {
-			sb.append( BioLockJUtil.removeQuotes( line ) );
-			for( final String field: MetaUtil.getRecord( sampleId ) )
-				sb.append( TAB_DELIM ).append( BioLockJUtil.removeQuotes( field ) );
-		} else {
-			Log.warn( getClass(), "Missing record for: " + sampleId + " in metadata: " + MetaUtil.getPath() );
-			return null;
-		}
-
-		if( this.mergeHeaderLine == null )
-			this.mergeHeaderLine = "Merged OTU table header [" + sampleId + "] = " + sb.toString();
-		else if( this.mergeSampleLine == null )
-			this.mergeSampleLine = "Example Merged OTU table row [" + sampleId + "] = " + sb.toString();
-
-		return sb.toString();
+		MetaMergeUtil.mergeTables( this, getInputFiles() );
+		Log.info( getClass(), "Metadata has been appended to the pathway abundance table" );
 	}
 
-	private String mergeHeaderLine = null;
-	private String mergeSampleLine = null;
-
 	private final List<String> types = new ArrayList<>();
-
-	/**
-	 * File suffix added to OTU table file name once merged with metadata.
-	 */
-	private static final String META_MERGED = "_metaMerged" + TSV_EXT;
 }
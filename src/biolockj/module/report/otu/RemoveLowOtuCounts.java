@@ -13,6 +13,8 @@ package biolockj.module.report.otu;
  */
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.io.FileUtils;
 import biolockj.*;
 import biolockj.module.implicit.parser.ParserModuleImpl;
@@ -21,7 +23,7 @@ import biolockj.util.*;
 /**
  * This BioModule set low OTU counts below a configured threshold to zero.<br>
  * These low sample counts are assumed to be miscategorized or contaminents.
- * 
+ *
  * @blj.web_desc Remove Low OTU Counts
  */
 public class RemoveLowOtuCounts extends OtuCountModule {
@@ -51,7 +53,8 @@ public class RemoveLowOtuCounts extends OtuCountModule {
 		String summary = "Remove OTU below count --> " + getMetaColName() + RETURN;
 		summary +=
 			BioLockJUtil.addTrailingSpaces( "# Unique OTUs removed:", pad ) + this.uniqueOtuRemoved.size() + RETURN;
-		summary += BioLockJUtil.addTrailingSpaces( "# Total OTUs removed:", pad ) + this.totalOtuRemoved + RETURN;
+		summary +=
+			BioLockJUtil.addTrailingSpaces( "# Total OTUs removed:", pad ) + this.totalOtuRemoved.get() + RETURN;
 		summary += SummaryUtil.getCountSummary( this.hitsPerSample, label, false );
 		this.sampleIds.removeAll( this.hitsPerSample.keySet() );
 		if( !this.sampleIds.isEmpty() ) summary += "Removed empty metadata records: " + this.sampleIds;
@@ -59,13 +62,16 @@ public class RemoveLowOtuCounts extends OtuCountModule {
 		return super.getSummary() + summary;
 	}
 
+	/**
+	 * Each sample OTU count file is filtered independently, so the input files are streamed in parallel without
+	 * loading the OTU counts for the whole study.
+	 */
 	@Override
 	public void runModule() throws Exception {
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
-		final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts = OtuUtil.getSampleOtuCounts( getInputFiles() );
-
-		final TreeMap<String, TreeSet<String>> lowCountOtus = removeLowOtuCounts( sampleOtuCounts );
-		logLowCountOtus( lowCountOtus );
+		Log.debug( getClass(), "Build low count files for total # files: " + getInputFiles().size() );
+		ParallelUtil.processFiles( this, getInputFiles(), file -> removeLowOtuCounts( file ) );
+		logLowCountOtus( new TreeMap<>( this.lowCountOtus ) );
 		if( Config.getBoolean( this, Constants.REPORT_NUM_HITS ) ) MetaUtil
 			.addColumn( getMetaColName() + "_" + Constants.OTU_COUNT, this.hitsPerSample, getOutputDir(), true );
 	}
@@ -99,73 +105,53 @@ public class RemoveLowOtuCounts extends OtuCountModule {
 	}
 
 	/**
-	 * Remove OTUs below the {@link biolockj.Config}.{@value biolockj.Constants#REPORT_MIN_COUNT }
+	 * Stream the OTU count file to the output directory, removing OTUs below the
+	 * {@link biolockj.Config}.{@value biolockj.Constants#REPORT_MIN_COUNT }.<br>
+	 * If no OTUs are removed, the output file keeps the input file name. If every OTU is removed, no file is output.
 	 *
-	 * @param sampleOtuCounts TreeMap(SampleId, TreeMap(OTU, count)) OTU counts for every sample
-	 * @return TreeMap(SampleId, TreeMap(OTU, count)) Updated sampleOtuCounts after removal of low counts.
+	 * @param file OTU count file
 	 * @throws Exception if errors occur
 	 */
-	protected TreeMap<String, TreeSet<String>>
-		removeLowOtuCounts( final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts ) throws Exception {
-		final TreeMap<String, TreeSet<String>> lowCountOtus = new TreeMap<>();
-		Log.debug( getClass(), "Build low count files for total # files: " + sampleOtuCounts.size() );
-		for( final String sampleId: sampleOtuCounts.keySet() ) {
-			final Set<String> badOtus = new TreeSet<>();
-			Log.debug( getClass(), "Check for low OTU counts in: " + sampleId );
-			long numOtus = 0;
-			final TreeMap<String, Long> otuCounts = sampleOtuCounts.get( sampleId );
-
-			final Set<String> validOtus = new TreeSet<>( otuCounts.keySet() );
-			long numOtuRemoved = 0;
-			for( final String otu: otuCounts.keySet() ) {
-				final long count = otuCounts.get( otu );
-				if( count < getMinCount() ) {
-					this.uniqueOtuRemoved.add( otu );
-					this.totalOtuRemoved += count;
-					badOtus.add( otu );
-					Log.debug( getClass(), sampleId + ": Remove Low OTU count: " + otu + "=" + count );
-					validOtus.remove( otu );
-					if( lowCountOtus.get( sampleId ) == null ) lowCountOtus.put( sampleId, new TreeSet<>() );
-					lowCountOtus.get( sampleId ).add( otu );
+	protected void removeLowOtuCounts( final File file ) throws Exception {
+		final String sampleId = OtuUtil.getSampleId( file );
+		Log.debug( getClass(), "Check for low OTU counts in: " + sampleId );
+		final int minCount = getMinCount();
+		final TreeSet<String> badOtus = new TreeSet<>();
+		final File otuFile = OtuUtil.getOtuCountFile( getOutputDir(), sampleId, getMetaColName() );
+		long numOtus = 0;
+		long numOtuRemoved = 0;
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( otuFile ) );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final OtuUtil.OtuCountLine ocl = new OtuUtil.OtuCountLine( line );
+				final long count = ocl.getCount();
+				if( count < minCount ) {
+					this.uniqueOtuRemoved.add( ocl.getOtu() );
+					badOtus.add( ocl.getOtu() );
+					Log.debug( getClass(), sampleId + ": Remove Low OTU count: " + ocl.getOtu() + "=" + count );
 					numOtuRemoved += count;
-				} else numOtus += count;
-				// Log.debug( getClass(),
-				// sampleId + ": update OTU count to " + numOtus + " after adding: " + otu + "=" + count );
-			}
-
-			if( numOtus > 0 ) {
-				Log.debug( getClass(), sampleId + ": Reduce total OTU count by: " + numOtuRemoved );
-				this.hitsPerSample.put( sampleId, String.valueOf( numOtus ) );
-
-				if( numOtuRemoved == 0 ) FileUtils.copyFileToDirectory( getFileMap().get( sampleId ), getOutputDir() );
-				else {
-					Log.warn( getClass(), sampleId + ": Removed " + badOtus.size() + " low OTU counts (below " +
-						getMinCount() + ") --> " + badOtus );
-
-					final File otuFile = OtuUtil.getOtuCountFile( getOutputDir(), sampleId, getMetaColName() );
-					final BufferedWriter writer = new BufferedWriter( new FileWriter( otuFile ) );
-					try {
-						for( final String otu: validOtus )
-							writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
-					} finally {
-						writer.close();
-						getFileMap().put( sampleId, otuFile );
-					}
+				} else {
+					writer.write( ocl.getOtu() + TAB_DELIM + count + RETURN );
+					numOtus += count;
 				}
-
 			}
+		} finally {
+			reader.close();
+			writer.close();
 		}
 
-		return lowCountOtus;
-	}
-
-	private Map<String, File> getFileMap() throws Exception {
-		if( this.fileMap == null ) {
-			this.fileMap = new HashMap<>();
-			for( final File f: getInputFiles() )
-				this.fileMap.put( OtuUtil.getSampleId( f ), f );
-		}
-		return this.fileMap;
+		this.totalOtuRemoved.addAndGet( numOtuRemoved );
+		if( !badOtus.isEmpty() ) this.lowCountOtus.put( sampleId, badOtus );
+
+		if( numOtus > 0 ) {
+			Log.debug( getClass(), sampleId + ": Reduce total OTU count by: " + numOtuRemoved );
+			this.hitsPerSample.put( sampleId, String.valueOf( numOtus ) );
+			if( badOtus.isEmpty() ) FileUtils.moveFile( otuFile,
+				new File( getOutputDir().getAbsolutePath() + File.separator + file.getName() ) );
+			else Log.warn( getClass(), sampleId + ": Removed " + badOtus.size() + " low OTU counts (below " +
+				minCount + ") --> " + badOtus );
+		} else FileUtils.forceDelete( otuFile );
 	}
 
 	private File getLowCountOtuLogFile() {
@@ -180,9 +166,9 @@ public class RemoveLowOtuCounts extends OtuCountModule {
 		return Config.requirePositiveInteger( this, Constants.REPORT_MIN_COUNT );
 	}
 
-	private Map<String, File> fileMap = null;
-	private Map<String, String> hitsPerSample = new HashMap<>();
+	private Map<String, String> hitsPerSample = new ConcurrentHashMap<>();
+	private final Map<String, TreeSet<String>> lowCountOtus = new ConcurrentHashMap<>();
 	private final Set<String> sampleIds = new HashSet<>();
-	private long totalOtuRemoved = 0;
-	private final Set<String> uniqueOtuRemoved = new HashSet<>();
+	private final AtomicLong totalOtuRemoved = new AtomicLong();
+	private final Set<String> uniqueOtuRemoved = ConcurrentHashMap.newKeySet();
 }
@@ -13,6 +13,8 @@ package biolockj.module.report.otu;
  */
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import biolockj.*;
 import biolockj.exception.ConfigFormatException;
 import biolockj.module.implicit.parser.ParserModuleImpl;
@@ -52,7 +54,8 @@ public class RemoveScarceOtuCounts extends OtuCountModule {
 		String summary = "Remove rare OTUs found in less than " + getCutoff() + " samples" + RETURN;
 		summary +=
 			BioLockJUtil.addTrailingSpaces( "# Unique OTU removed:", pad ) + this.uniqueOtuRemoved.size() + RETURN;
-		summary += BioLockJUtil.addTrailingSpaces( "# Total OTU removed:", pad ) + this.totalOtuRemoved + RETURN;
+		summary +=
+			BioLockJUtil.addTrailingSpaces( "# Total OTU removed:", pad ) + this.totalOtuRemoved.get() + RETURN;
 		summary += SummaryUtil.getCountSummary( this.hitsPerSample, label, true );
 		this.sampleIds.removeAll( this.hitsPerSample.keySet() );
 		if( !this.sampleIds.isEmpty() )
@@ -62,90 +65,78 @@ public class RemoveScarceOtuCounts extends OtuCountModule {
 		return super.getSummary() + summary;
 	}
 
+	/**
+	 * Stream the input files twice. The 1st pass counts the number of samples containing each taxa, the 2nd pass
+	 * writes each sample OTU count file without the OTUs that include a scarce taxa. Memory use is bounded by the OTU
+	 * dictionary rather than the total size of the study.
+	 */
 	@Override
 	public void runModule() throws Exception {
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
 		Log.info( getClass(), "Searching samples to remove OTUs found in less than " + getCutoff() + " samples." );
-		final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts = OtuUtil.getSampleOtuCounts( getInputFiles() );
 
-		final TreeSet<String> uniqueOtus = OtuUtil.findUniqueOtus( sampleOtuCounts );
+		ParallelUtil.processFiles( this, getInputFiles(), file -> countTaxaPrevalence( file ) );
 		Log.info( getClass(),
-			"Searching " + uniqueOtus.size() + " unique OTUs in " + sampleOtuCounts.size() +
-				" samples for OTUs found in less than the cutoff percentage [ " + getScarceCutoff() + " ] = " +
+			"Searching " + this.taxaPrevalence.size() + " unique taxa in " + getInputFiles().size() +
+				" samples for taxa found in less than the cutoff percentage [ " + getScarceCutoff() + " ] = " +
 				getCutoff() + " samples." );
 
-		final TreeMap<String, TreeSet<String>> scarceTaxa = findScarceTaxa( sampleOtuCounts, uniqueOtus );
-		final TreeMap<String, TreeSet<String>> scarceOtus = findScarceOtus( uniqueOtus, scarceTaxa );
-		logScarceOtus( scarceOtus.keySet() );
-		removeScarceOtuCounts( getUpdatedOtuCounts( sampleOtuCounts, scarceOtus ) );
+		ParallelUtil.processFiles( this, getInputFiles(), file -> removeScarceOtuCounts( file ) );
+		logScarceOtus( new TreeSet<>( this.uniqueOtuRemoved ) );
 
 		if( Config.getBoolean( this, Constants.REPORT_NUM_HITS ) ) MetaUtil
 			.addColumn( getMetaColName() + "_" + Constants.OTU_COUNT, this.hitsPerSample, getOutputDir(), true );
 	}
 
 	/**
-	 * Find scarce taxa found in less samples than the cutoff percentage:
-	 * {@link biolockj.Config}.{@value biolockj.Constants#REPORT_SCARCE_CUTOFF}. Return a map of these scare taxa and a
-	 * set of samples that need to remove them.
+	 * Add 1 to the sample prevalence count of every taxa found in the OTU count file. Each taxa is counted once per
+	 * sample, regardless of how many OTUs share the taxa.
 	 *
-	 * @param sampleOtuCounts TreeMap(SampleId, TreeMap(OTU, count)) OTU counts for every sample
-	 * @param otus TreeSet of unique OTUs
-	 * @return TreeMap(taxa, TreeSet(SampleIds))
+	 * @param file OTU count file
 	 * @throws Exception if errors occur
 	 */
-	protected TreeMap<String, TreeSet<String>> findScarceTaxa(
-		final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts, final TreeSet<String> otus ) throws Exception {
-		final TreeMap<String, TreeSet<String>> scarceTaxa = new TreeMap<>();
-		for( final String level: TaxaUtil.getTaxaLevels() ) {
-			final TreeMap<String, TreeSet<String>> scarceLevelTaxa = new TreeMap<>();
-			final TreeSet<String> levelTaxa = TaxaUtil.findUniqueTaxa( otus, level );
-			Log.debug( getClass(), "Checking level: " + level + " with " + levelTaxa.size() + " taxa" );
-			for( final String taxa: levelTaxa ) {
-				final TreeMap<String, TreeMap<String, Long>> levelTaxaCounts =
-					TaxaUtil.getLevelTaxaCounts( sampleOtuCounts, level );
-				final TreeSet<String> samplesWithTaxa = new TreeSet<>();
-				for( final String sampleId: levelTaxaCounts.keySet() ) {
-					final TreeMap<String, Long> taxaCounts = levelTaxaCounts.get( sampleId );
-					Log.debug( getClass(), "Checking sampleId: " + sampleId + " with " + taxaCounts.size() + " " +
-						level + " taxa for: " + taxa );
-					if( taxaCounts.keySet().contains( taxa ) ) samplesWithTaxa.add( sampleId );
-				}
+	protected void countTaxaPrevalence( final File file ) throws Exception {
+		final Set<String> sampleTaxa = new HashSet<>();
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() )
+				sampleTaxa.addAll( getOtuTaxa( new OtuUtil.OtuCountLine( line ).getOtu() ) );
+		} finally {
+			reader.close();
+		}
 
-				Log.debug( getClass(), taxa + " found in " + samplesWithTaxa.size() + " samples" );
-				if( !samplesWithTaxa.isEmpty() && samplesWithTaxa.size() <= getCutoff() ) {
-					scarceLevelTaxa.put( OtuUtil.buildOtuTaxa( level, taxa ), samplesWithTaxa );
-					scarceTaxa.put( OtuUtil.buildOtuTaxa( level, taxa ), samplesWithTaxa );
-				}
+		synchronized( this.taxaPrevalence ) {
+			for( final String taxa: sampleTaxa ) {
+				final int[] count = this.taxaPrevalence.get( taxa );
+				if( count == null ) this.taxaPrevalence.put( taxa, new int[] { 1 } );
+				else count[ 0 ]++;
 			}
-
-			Log.info( getClass(), "Found " + scarceLevelTaxa.size() + " scarce " + level + " taxa: " +
-				BioLockJUtil.getCollectionAsString( scarceLevelTaxa.keySet() ) );
-
 		}
-
-		return scarceTaxa;
 	}
 
 	/**
-	 * Remove scarce OTUs from the sampleOtuCounts and return it.
+	 * Check if the OTU contains any taxa found in less samples than the cutoff percentage:
+	 * {@link biolockj.Config}.{@value biolockj.Constants#REPORT_SCARCE_CUTOFF}. Results are cached since the same OTU
+	 * is found in many samples.
 	 *
-	 * @param sampleOtuCounts TreeMap(SampleId, TreeMap(OTU, count)) OTU counts for every sample
-	 * @param scarceOtus TreeMap(OTU, TreeSet(SampleId)) Scarce OTUs and the samples that list them
-	 * @return TreeMap(SampleId, TreeMap(OTU, count)) sampleOtuCounts after scarce OTUs have been removed
+	 * @param otu OTU
+	 * @return TRUE if the OTU contains a scarce taxa
+	 * @throws Exception if errors occur
 	 */
-	protected TreeMap<String, TreeMap<String, Long>> getUpdatedOtuCounts(
-		final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts,
-		final TreeMap<String, TreeSet<String>> scarceOtus ) {
-		for( final String badOtu: scarceOtus.keySet() )
-			for( final String sampleId: scarceOtus.get( badOtu ) )
-				if( sampleOtuCounts.get( sampleId ).get( badOtu ) != null ) {
-					this.uniqueOtuRemoved.add( badOtu );
-					this.totalOtuRemoved += sampleOtuCounts.get( sampleId ).get( badOtu );
-					sampleOtuCounts.get( sampleId ).remove( badOtu );
+	protected boolean isScarceOtu( final String otu ) throws Exception {
+		Boolean isScarce = this.scarceOtuCache.get( otu );
+		if( isScarce == null ) {
+			isScarce = false;
+			for( final String taxa: getOtuTaxa( otu ) ) {
+				final int[] count = this.taxaPrevalence.get( taxa );
+				if( count != null && count[ 0 ] <= getCutoff() ) {
+					isScarce = true;
+					break;
 				}
-
-		return sampleOtuCounts;
-
+			}
+			this.scarceOtuCache.put( otu, isScarce );
+		}
+		return isScarce;
 	}
 
 	/**
@@ -172,35 +163,40 @@ public class RemoveScarceOtuCounts extends OtuCountModule {
 	}
 
 	/**
-	 * Output OTU count files with the updatedOtuCounts
+	 * Stream the OTU count file to the output directory, skipping scarce OTUs. The output file is only created if at
+	 * least 1 OTU remains.
 	 *
-	 * @param updatedOtuCounts TreeMap(SampleId, TreeMap(OTU, count)) OTU counts for every sample
+	 * @param file OTU count file
 	 * @throws Exception if errors occur
 	 */
-	protected void removeScarceOtuCounts( final TreeMap<String, TreeMap<String, Long>> updatedOtuCounts )
-		throws Exception {
-		for( final String sampleId: updatedOtuCounts.keySet() ) {
-			final TreeMap<String, Long> otuCounts = updatedOtuCounts.get( sampleId );
-			if( otuCounts != null && !otuCounts.isEmpty() ) {
-				final BufferedWriter writer = new BufferedWriter( new FileWriter(
-					OtuUtil.getOtuCountFile( getOutputDir(), sampleId, getMetaColName().replace( "%", "" ) ) ) );
-				try {
-					Log.debug( getClass(), sampleId + " # unique OTUs: " + otuCounts.size() );
-					Long total = 0L;
-					for( final String otu: otuCounts.keySet() ) {
-						Log.debug( getClass(), sampleId + " checking OTU: " + otu );
-						final Long sampleCount = otuCounts.get( otu );
-						if( sampleCount != null ) {
-							total += otuCounts.get( otu );
-							writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
-						}
-					}
-
-					this.hitsPerSample.put( sampleId, total.toString() );
-				} finally {
-					writer.close();
+	protected void removeScarceOtuCounts( final File file ) throws Exception {
+		final String sampleId = OtuUtil.getSampleId( file );
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		BufferedWriter writer = null;
+		long total = 0L;
+		long removed = 0L;
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final OtuUtil.OtuCountLine ocl = new OtuUtil.OtuCountLine( line );
+				if( isScarceOtu( ocl.getOtu() ) ) {
+					this.uniqueOtuRemoved.add( ocl.getOtu() );
+					removed += ocl.getCount();
+				} else {
+					if( writer == null ) writer = new BufferedWriter( new FileWriter(
+						OtuUtil.getOtuCountFile( getOutputDir(), sampleId, getMetaColName().replace( "%", "" ) ) ) );
+					total += ocl.getCount();
+					writer.write( ocl.getOtu() + TAB_DELIM + ocl.getCount() + RETURN );
 				}
 			}
+		} finally {
+			reader.close();
+			if( writer != null ) writer.close();
+		}
+
+		this.totalOtuRemoved.addAndGet( removed );
+		if( writer != null ) {
+			Log.debug( getClass(), sampleId + " total OTU count: " + total );
+			this.hitsPerSample.put( sampleId, String.valueOf( total ) );
 		}
 	}
 
@@ -223,25 +219,19 @@ public class RemoveScarceOtuCounts extends OtuCountModule {
 		return new File( getTempDir().getAbsolutePath() + File.separator + "scarceOtus" + TXT_EXT );
 	}
 
-	/**
-	 * Find the scarce OTUs that contain the key values in scarceTaxa.
-	 *
-	 * @param uniqueOtus TreeSet(OTU) contains all OTUs for all samples
-	 * @param scarceTaxa TreeMap(taxa, TreeSet(SampleId)) contains scarce taxa and their associated samples
-	 * @return TreeMap(OTU, TreeSet(SampleId)) contains scarce OTUs and their associated samples
-	 */
-	protected static TreeMap<String, TreeSet<String>> findScarceOtus( final TreeSet<String> uniqueOtus,
-		final TreeMap<String, TreeSet<String>> scarceTaxa ) {
-		final TreeMap<String, TreeSet<String>> scarceOtus = new TreeMap<>();
-		for( final String otu: uniqueOtus )
-			for( final String taxa: scarceTaxa.keySet() )
-				if( otu.contains( taxa ) ) scarceOtus.put( otu, scarceTaxa.get( taxa ) );
-		return scarceOtus;
+	private static Set<String> getOtuTaxa( final String otu ) {
+		final Set<String> taxa = new HashSet<>();
+		final Map<String, String> levelTaxa = TaxaUtil.getTaxaByLevel( otu );
+		for( final String level: levelTaxa.keySet() )
+			taxa.add( OtuUtil.buildOtuTaxa( level, levelTaxa.get( level ) ) );
+		return taxa;
 	}
 
 	private Integer cutoff = null;
-	private Map<String, String> hitsPerSample = new HashMap<>();
+	private Map<String, String> hitsPerSample = new ConcurrentHashMap<>();
 	private final TreeSet<String> sampleIds = new TreeSet<>();
-	private long totalOtuRemoved = 0;
-	private final Set<String> uniqueOtuRemoved = new HashSet<>();
+	private final Map<String, Boolean> scarceOtuCache = new ConcurrentHashMap<>();
+	private final Map<String, int[]> taxaPrevalence = new HashMap<>();
+	private final AtomicLong totalOtuRemoved = new AtomicLong();
+	private final Set<String> uniqueOtuRemoved = ConcurrentHashMap.newKeySet();
 }
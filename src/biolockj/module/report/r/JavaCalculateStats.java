@@ -0,0 +1,371 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module.report.r;
+
+import java.io.*;
+import java.util.*;
+import biolockj.*;
+import biolockj.Properties;
+import biolockj.api.ApiModule;
+import biolockj.module.BioModule;
+import biolockj.module.JavaModuleImpl;
+import biolockj.module.report.taxa.AddMetadataToTaxaTables;
+import biolockj.util.*;
+
+/**
+ * This BioModule is a Java alternative to {@link biolockj.module.report.r.R_CalculateStats}. It reads the
+ * {@link biolockj.module.report.taxa.AddMetadataToTaxaTables} tables once into primitive arrays and runs the
+ * statistical tests for each taxa in parallel, using
+ * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} threads, so no R process is required:
+ * <ul>
+ * <li>Binary fields: Welch t-test and Wilcoxon rank-sum test
+ * <li>Nominal fields: 1-way ANOVA and Kruskal-Wallis test
+ * <li>Numeric fields: Pearson and Spearman correlation tests
+ * </ul>
+ * Output tables use the same names and format as {@link biolockj.module.report.r.R_CalculateStats}, so
+ * {@link biolockj.module.report.JsonReport} and the R plot modules read them unchanged. To use this module as the
+ * default statistics module, set {@link biolockj.Config}.{@value biolockj.Constants#DEFAULT_STATS_MODULE}.
+ *
+ * @blj.web_desc Java Statistics Calculator
+ */
+public class JavaCalculateStats extends JavaModuleImpl implements ApiModule {
+
+	public JavaCalculateStats() {
+		super();
+		addGeneralProperty( R_CalculateStats.R_ADJ_PVALS_SCOPE, Properties.STRING_TYPE,
+			"defines how the p.adjust( n ) parameter is calculated. Options:  GLOBAL, LOCAL, TAXA, ATTRIBUTE" );
+		addGeneralProperty( R_CalculateStats.R_PVAL_ADJ_METHOD, Properties.STRING_TYPE,
+			"the p.adjust \"method\" parameter. Options: holm, hochberg, bonferroni, BH, BY, fdr, none" );
+		addGeneralProperty( Constants.R_RARE_OTU_THRESHOLD );
+	}
+
+	/**
+	 * Validate configuration file properties:
+	 * <ul>
+	 * <li>Require taxonomy tables (HumanN2 pathway tables are not supported)
+	 * <li>Require {@value biolockj.module.report.r.R_CalculateStats#R_ADJ_PVALS_SCOPE}
+	 * <li>Require {@value biolockj.module.report.r.R_CalculateStats#R_PVAL_ADJ_METHOD} to be supported
+	 * <li>Validate {@value biolockj.Constants#R_RARE_OTU_THRESHOLD} is a positive number
+	 * </ul>
+	 */
+	@Override
+	public void checkDependencies() throws Exception {
+		super.checkDependencies();
+		if( PathwayUtil.useHumann2RawCount( this ) )
+			throw new Exception( getClass().getName() + " only supports taxonomy tables, use " +
+				R_CalculateStats.class.getName() + " for HumanN2 reports" );
+		final String scope = Config.requireString( this, R_CalculateStats.R_ADJ_PVALS_SCOPE );
+		if( !Arrays.asList( SCOPES ).contains( scope ) ) throw new Exception( "Invalid parameter!  " +
+			R_CalculateStats.R_ADJ_PVALS_SCOPE + " must be one of " + Arrays.asList( SCOPES ) + ", found: " + scope );
+		final String method = Config.requireString( this, R_CalculateStats.R_PVAL_ADJ_METHOD );
+		if( !Arrays.asList( METHODS ).contains( method ) ) throw new Exception( "Invalid parameter!  " +
+			R_CalculateStats.R_PVAL_ADJ_METHOD + " must be one of " + Arrays.asList( METHODS ) + ", found: " + method );
+		Config.getPositiveDoubleVal( this, Constants.R_RARE_OTU_THRESHOLD );
+	}
+
+	/**
+	 * Require combined count-metadata tables as input.
+	 */
+	@Override
+	public List<String> getPreRequisiteModules() throws Exception {
+		final List<String> preReqs = new ArrayList<>();
+		if( !BioLockJUtil.pipelineInputType( BioLockJUtil.PIPELINE_R_INPUT_TYPE ) )
+			preReqs.add( AddMetadataToTaxaTables.class.getName() );
+		preReqs.addAll( super.getPreRequisiteModules() );
+		return preReqs;
+	}
+
+	@Override
+	public String getSummary() throws Exception {
+		return super.getSummary() + "# Fields tested:      " + this.numFields + RETURN + "# Taxa tested:        " +
+			this.numTaxa + RETURN + "# Rare taxa excluded: " + this.numRareTaxa + RETURN;
+	}
+
+	@Override
+	public boolean isValidInputModule( final BioModule module ) {
+		return module instanceof AddMetadataToTaxaTables;
+	}
+
+	/**
+	 * Calculate and write the statistics tables for each taxonomy level.
+	 */
+	@Override
+	public void runModule() throws Exception {
+		RMetaUtil.classifyReportableMetadata( this );
+		final List<String> fields = new ArrayList<>( RMetaUtil.getBinaryFields( this ) );
+		fields.addAll( RMetaUtil.getNominalFields( this ) );
+		fields.addAll( RMetaUtil.getNumericFields( this ) );
+		this.numFields = fields.size();
+		if( fields.isEmpty() ) throw new Exception( "No reportable metadata fields found" );
+
+		for( final String level: TaxaUtil.getTaxaLevels() ) {
+			final File table = getMergedTable( level );
+			if( table == null ) Log.warn( getClass(), "No " + AddMetadataToTaxaTables.META_MERGED + " table for: " +
+				level );
+			else calculateStats( level, table, fields );
+		}
+	}
+
+	/**
+	 * Run the tests for each non-rare taxa in parallel, then adjust the p-values and write the output tables.
+	 *
+	 * @param level Taxonomy level
+	 * @param table Merged count-metadata table
+	 * @param fields Reportable metadata fields (binary, then nominal, then numeric)
+	 * @throws Exception if errors occur
+	 */
+	protected void calculateStats( final String level, final File table, final List<String> fields )
+		throws Exception {
+		Log.info( getClass(), "Calculate " + level + " stats from: " + table.getAbsolutePath() );
+		final List<String> taxa = new ArrayList<>();
+		final List<double[]> counts = new ArrayList<>();
+		final int[][] groups = new int[ fields.size() ][];
+		final double[][] numericVals = new double[ fields.size() ][];
+		readTable( table, fields, taxa, counts, groups, numericVals );
+
+		final int numBinary = RMetaUtil.getBinaryFields( this ).size();
+		final int numSamples = counts.isEmpty() ? 0: counts.get( 0 ).length;
+		final double threshold = getRareOtuThreshold();
+		final double cutoff = threshold < 1.0 ? threshold * numSamples: threshold;
+		for( int i = taxa.size() - 1; i >= 0; i-- ) {
+			int found = 0;
+			for( final double count: counts.get( i ) )
+				if( count > 0.0 ) found++;
+			if( found < cutoff ) {
+				Log.debug( getClass(), "Excluding: " + taxa.get( i ) + "; only found in " + found + " samples." );
+				taxa.remove( i );
+				counts.remove( i );
+				this.numRareTaxa++;
+			}
+		}
+		if( taxa.isEmpty() ) {
+			Log.warn( getClass(), "No " + level + " taxa found in at least " + cutoff + " samples" );
+			return;
+		}
+		this.numTaxa += taxa.size();
+
+		final double[][] parPvals = new double[ fields.size() ][ taxa.size() ];
+		final double[][] npPvals = new double[ fields.size() ][ taxa.size() ];
+		final double[][] rSquaredVals = new double[ fields.size() ][ taxa.size() ];
+		ParallelUtil.processIndexes( this, taxa.size(), t -> {
+			for( int f = 0; f < fields.size(); f++ ) {
+				final double[] stats = numericVals[ f ] != null ?
+					getCorrelationStats( counts.get( t ), numericVals[ f ] ):
+					getGroupStats( counts.get( t ), groups[ f ], f < numBinary );
+				parPvals[ f ][ t ] = stats[ 0 ];
+				npPvals[ f ][ t ] = stats[ 1 ];
+				rSquaredVals[ f ][ t ] = stats[ 2 ];
+			}
+		} );
+
+		final String method = Config.requireString( this, R_CalculateStats.R_PVAL_ADJ_METHOD );
+		final int n = getP_AdjustLen( taxa.size(), fields.size() );
+		final double[][] adjParPvals = new double[ fields.size() ][];
+		final double[][] adjNpPvals = new double[ fields.size() ][];
+		for( int f = 0; f < fields.size(); f++ ) {
+			adjParPvals[ f ] = StatsUtil.pAdjust( parPvals[ f ], method, n );
+			adjNpPvals[ f ] = StatsUtil.pAdjust( npPvals[ f ], method, n );
+		}
+
+		writeStats( level, R_CalculateStats.getSuffix( true, false ), taxa, fields, parPvals );
+		writeStats( level, R_CalculateStats.getSuffix( false, false ), taxa, fields, npPvals );
+		writeStats( level, R_CalculateStats.getSuffix( true, true ), taxa, fields, adjParPvals );
+		writeStats( level, R_CalculateStats.getSuffix( false, true ), taxa, fields, adjNpPvals );
+		writeStats( level, R_CalculateStats.getSuffix( null, false ), taxa, fields, rSquaredVals );
+	}
+
+	/**
+	 * Get the number of tests used by p.adjust( n ), based on
+	 * {@link biolockj.Config}.{@value biolockj.module.report.r.R_CalculateStats#R_ADJ_PVALS_SCOPE}
+	 *
+	 * @param numTaxa Number of taxa tested at the current level
+	 * @param numFields Number of fields tested
+	 * @return n
+	 * @throws Exception if errors occur
+	 */
+	protected int getP_AdjustLen( final int numTaxa, final int numFields ) throws Exception {
+		final String scope = Config.requireString( this, R_CalculateStats.R_ADJ_PVALS_SCOPE );
+		final int numLevels = TaxaUtil.getTaxaLevels().size();
+		if( scope.equals( R_CalculateStats.ADJ_PVAL_GLOBAL ) ) return numTaxa * numLevels * numFields;
+		if( scope.equals( R_CalculateStats.ADJ_PVAL_ATTRIBUTE ) ) return numTaxa * numLevels;
+		if( scope.equals( R_CalculateStats.ADJ_PVAL_TAXA ) ) return numTaxa * numFields;
+		return numTaxa;
+	}
+
+	private File getMergedTable( final String level ) {
+		for( final File file: getInputFiles() )
+			if( file.getName().endsWith( "_" + level + AddMetadataToTaxaTables.META_MERGED ) ) return file;
+		return null;
+	}
+
+	private double getRareOtuThreshold() throws Exception {
+		final Double threshold = Config.getPositiveDoubleVal( this, Constants.R_RARE_OTU_THRESHOLD );
+		return threshold == null ? 1.0: threshold;
+	}
+
+	/**
+	 * Parse the merged table into taxa names, count arrays (1 per taxa) and metadata arrays (1 per field). Binary and
+	 * nominal values are stored as group indexes (sorted by value, as R factor levels) and numeric values as doubles.
+	 * Null metadata values are stored as -1 or NaN.
+	 */
+	private void readTable( final File table, final List<String> fields, final List<String> taxa,
+		final List<double[]> counts, final int[][] groups, final double[][] numericVals ) throws Exception {
+		final String nullValue = MetaUtil.getNullValue( this );
+		final List<String[]> rows = new ArrayList<>();
+		final BufferedReader reader = BioLockJUtil.getFileReader( table );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() )
+				rows.add( line.split( TAB_DELIM, -1 ) );
+		} finally {
+			reader.close();
+		}
+
+		final List<String> header = Arrays.asList( rows.remove( 0 ) );
+		final List<String> metaFields = MetaUtil.getFieldNames();
+		final int firstMetaCol = header.size() - metaFields.size();
+		if( firstMetaCol < 1 || !header.subList( firstMetaCol, header.size() ).equals( metaFields ) )
+			throw new Exception( "Metadata columns of " + table.getAbsolutePath() + " do not match: " +
+				MetaUtil.getPath() );
+
+		taxa.addAll( header.subList( 1, firstMetaCol ) );
+		for( int i = 0; i < taxa.size(); i++ ) {
+			final double[] vals = new double[ rows.size() ];
+			for( int s = 0; s < rows.size(); s++ ) {
+				final String val = rows.get( s )[ i + 1 ];
+				vals[ s ] = val.isEmpty() || val.equals( nullValue ) ? Double.NaN: Double.parseDouble( val );
+			}
+			counts.add( vals );
+		}
+
+		final Set<String> numericFields = RMetaUtil.getNumericFields( this );
+		for( int f = 0; f < fields.size(); f++ ) {
+			final int col = firstMetaCol + metaFields.indexOf( fields.get( f ) );
+			if( numericFields.contains( fields.get( f ) ) ) {
+				numericVals[ f ] = new double[ rows.size() ];
+				for( int s = 0; s < rows.size(); s++ ) {
+					final String val = rows.get( s )[ col ];
+					numericVals[ f ][ s ] = val.isEmpty() || val.equals( nullValue ) ? Double.NaN:
+						Double.parseDouble( val );
+				}
+			} else {
+				final TreeSet<String> vals = new TreeSet<>();
+				for( final String[] row: rows )
+					if( !row[ col ].isEmpty() && !row[ col ].equals( nullValue ) ) vals.add( row[ col ] );
+				final List<String> levels = new ArrayList<>( vals );
+				groups[ f ] = new int[ rows.size() ];
+				for( int s = 0; s < rows.size(); s++ )
+					groups[ f ][ s ] = levels.indexOf( rows.get( s )[ col ] );
+			}
+		}
+	}
+
+	private void writeStats( final String level, final String suffix, final List<String> taxa,
+		final List<String> fields, final double[][] vals ) throws Exception {
+		final File file = new File( getOutputDir().getAbsolutePath() + File.separator + Config.pipelineName() + "_" +
+			level + "_" + suffix + TSV_EXT );
+		Log.info( getClass(), "Saving output file " + file.getAbsolutePath() );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			writer.write( "\"OTU\"" );
+			for( final String field: fields )
+				writer.write( TAB_DELIM + "\"" + field + "\"" );
+			writer.write( RETURN );
+			for( int t = 0; t < taxa.size(); t++ ) {
+				writer.write( "\"" + taxa.get( t ) + "\"" );
+				for( int f = 0; f < fields.size(); f++ )
+					writer.write( TAB_DELIM + ( Double.isNaN( vals[ f ][ t ] ) ? R_NA:
+						Double.toString( vals[ f ][ t ] ) ) );
+				writer.write( RETURN );
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Override
+	public String getDescription() {
+		return "Generate the " + R_CalculateStats.class.getSimpleName() + " summary statistics tables in Java, " +
+			"testing taxa in parallel without R.";
+	}
+
+	@Override
+	public String getDetails() {
+		return "Reads each *" + AddMetadataToTaxaTables.META_MERGED + "* table once and tests every taxa against " +
+			"each reportable metadata field in parallel using `" + Constants.SCRIPT_NUM_THREADS + "` threads.  " +
+			"Binary fields use the Welch t-test and Wilcoxon rank-sum test, nominal fields use 1-way ANOVA and the " +
+			"Kruskal-Wallis test, and numeric fields use Pearson and Spearman correlation tests.  The 5 output " +
+			"tables match **" + R_CalculateStats.class.getName() + "** so downstream modules read them unchanged.  " +
+			"Set `" + Constants.DEFAULT_STATS_MODULE + "` to this class to use it as the default statistics module.";
+	}
+
+	@Override
+	public String getCitationString() {
+		return "BioLockJ " + BioLockJUtil.getVersion() + System.lineSeparator() + "Module developed by Mike Sioda";
+	}
+
+	/**
+	 * Return the parametric p-value, non-parametric p-value and R^2 of the count ~ numeric field correlation, using
+	 * samples with non-null values for both.
+	 */
+	private static double[] getCorrelationStats( final double[] counts, final double[] field ) {
+		int n = 0;
+		for( int s = 0; s < counts.length; s++ )
+			if( !Double.isNaN( counts[ s ] ) && !Double.isNaN( field[ s ] ) ) n++;
+		final double[] x = new double[ n ];
+		final double[] y = new double[ n ];
+		n = 0;
+		for( int s = 0; s < counts.length; s++ )
+			if( !Double.isNaN( counts[ s ] ) && !Double.isNaN( field[ s ] ) ) {
+				x[ n ] = counts[ s ];
+				y[ n++ ] = field[ s ];
+			}
+		final double r = StatsUtil.pearson( x, y );
+		return new double[] { StatsUtil.correlationPvalue( r, n ),
+			StatsUtil.correlationPvalue( StatsUtil.spearman( x, y ), n ), r * r };
+	}
+
+	/**
+	 * Return the parametric p-value, non-parametric p-value and R^2 of count ~ group. As in
+	 * {@link biolockj.module.report.r.R_CalculateStats}, if any group has no counts return p-values = 1 and R^2 = 0.
+	 */
+	private static double[] getGroupStats( final double[] counts, final int[] group, final boolean isBinary ) {
+		int numGroups = 0;
+		for( final int g: group )
+			numGroups = Math.max( numGroups, g + 1 );
+		final int[] sizes = new int[ numGroups ];
+		for( int s = 0; s < counts.length; s++ )
+			if( group[ s ] >= 0 && !Double.isNaN( counts[ s ] ) ) sizes[ group[ s ] ]++;
+		final double[][] vals = new double[ numGroups ][];
+		for( int g = 0; g < numGroups; g++ ) {
+			if( sizes[ g ] == 0 ) return new double[] { 1.0, 1.0, 0.0 };
+			vals[ g ] = new double[ sizes[ g ] ];
+			sizes[ g ] = 0;
+		}
+		for( int s = 0; s < counts.length; s++ )
+			if( group[ s ] >= 0 && !Double.isNaN( counts[ s ] ) )
+				vals[ group[ s ] ][ sizes[ group[ s ] ]++ ] = counts[ s ];
+
+		if( isBinary ) return new double[] { StatsUtil.tTest( vals[ 0 ], vals[ 1 ] ),
+			StatsUtil.wilcoxon( vals[ 0 ], vals[ 1 ] ), StatsUtil.rSquared( vals ) };
+		return new double[] { StatsUtil.anova( vals ), StatsUtil.kruskal( vals ), StatsUtil.rSquared( vals ) };
+	}
+
+	private int numFields = 0;
+	private int numRareTaxa = 0;
+	private int numTaxa = 0;
+
+	private static final String[] METHODS = { StatsUtil.P_ADJ_HOLM, StatsUtil.P_ADJ_HOCHBERG,
+		StatsUtil.P_ADJ_BONFERRONI, StatsUtil.P_ADJ_BH, StatsUtil.P_ADJ_BY, StatsUtil.P_ADJ_FDR, StatsUtil.P_ADJ_NONE };
+	private static final String R_NA = "NA";
+	private static final String[] SCOPES = { R_CalculateStats.ADJ_PVAL_GLOBAL, R_CalculateStats.ADJ_PVAL_ATTRIBUTE,
+		R_CalculateStats.ADJ_PVAL_TAXA, R_CalculateStats.ADJ_PVAL_LOCAL };
+}
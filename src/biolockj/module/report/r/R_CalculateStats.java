@@ -86,6 +86,20 @@ public class R_CalculateStats extends R_Module implements ApiModule {
 
 	}
 
+	/**
+	 * Get the statistics module in the pipeline: {@link biolockj.module.report.r.R_CalculateStats} or
+	 * {@link biolockj.module.report.r.JavaCalculateStats}.
+	 *
+	 * @param module Calling module
+	 * @return Statistics BioModule or null
+	 * @throws Exception if errors occur
+	 */
+	public static BioModule getStatsModule( final BioModule module ) throws Exception {
+		final BioModule statsModule = ModuleUtil.getModule( module, R_CalculateStats.class.getName(), false );
+		if( statsModule != null ) return statsModule;
+		return ModuleUtil.getModule( module, JavaCalculateStats.class.getName(), false );
+	}
+
 	/**
 	 * Get the file name suffix used to specify types of statistics.
 	 * 
@@ -118,7 +132,7 @@ public class R_CalculateStats extends R_Module implements ApiModule {
 	}
 
 	private static List<File> getStatsFileDirs( final BioModule module ) throws Exception {
-		final BioModule statsModule = ModuleUtil.getModule( module, R_CalculateStats.class.getName(), false );
+		final BioModule statsModule = getStatsModule( module );
 		if( statsModule != null ) {
 			final List<File> dirs = new ArrayList<>();
 			dirs.add( statsModule.getOutputDir() );
@@ -11,7 +11,6 @@
  */
 package biolockj.module.report.taxa;
 
-import java.io.*;
 import java.util.*;
 import java.util.stream.Collectors;
 import biolockj.*;
@@ -91,10 +90,7 @@ public class AddMetadataToTaxaTables extends TaxaCountModule {
 		if( numReadsCol != null && numHitsCol != null && MetaUtil.getFieldNames().contains( numReadsCol ) &&
 			MetaUtil.getFieldNames().contains( numHitsCol ) ) addHitRatioToMetadata();
 
-		generateMergedTables();
-
-		Log.info( getClass(), this.mergeHeaderLine );
-		Log.info( getClass(), this.mergeSampleLine );
+		MetaMergeUtil.mergeTables( this, getInputFiles() );
 		Log.info( getClass(), "runModule() complete!" );
 	}
 
@@ -129,64 +125,7 @@ public class AddMetadataToTaxaTables extends TaxaCountModule {
 		MetaUtil.addColumn( HIT_RATIO, this.hitRatioPerSample, getOutputDir(), true );
 	}
 
-	/**
-	 * Create the merged metadata tables.
-	 *
-	 * @throws Exception if unable to build tables
-	 */
-	protected void generateMergedTables() throws Exception {
-		final String outDir = getOutputDir().getAbsolutePath() + File.separator;
-		for( final File file: getInputFiles() ) {
-			final String name = file.getName().replaceAll( TSV_EXT, "" ) + META_MERGED;
-			Log.info( getClass(), "Merge OTU table + Metadata file: " + outDir + name );
-			BufferedReader reader = null;
-			BufferedWriter writer = null;
-			try {
-				reader = BioLockJUtil.getFileReader( file );
-				writer = new BufferedWriter( new FileWriter( outDir + name ) );
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					final String mergedLine = getMergedLine( line );
-					if( mergedLine != null ) writer.write( mergedLine + RETURN );
-				}
-			} finally {
-				if( writer != null ) writer.close();
-				if( reader != null ) reader.close();
-			}
-			Log.info( getClass(), "Done merging table: " + file.getAbsolutePath() );
-		}
-
-	}
-
-	/**
-	 * Return OTU table line with metadata row appended (both have PK = sample ID)
-	 *
-	 * @param line OTU table line
-	 * @return OTU table line + metadata line
-	 * @throws Exception if unable to create merged line
-	 */
-	protected String getMergedLine( final String line ) throws Exception {
-		final StringBuffer sb = new StringBuffer();
-		final String sampleId = new StringTokenizer( line, TAB_DELIM ).nextToken();
-		if( sampleId.equals( MetaUtil.getID() ) || MetaUtil.getSampleIds().contains( sampleId ) ) {
-			sb.append( BioLockJUtil.removeQuotes( line ) );
-			for( final String field: MetaUtil.getRecord( sampleId ) )
-				sb.append( TAB_DELIM ).append( BioLockJUtil.removeQuotes( field ) );
-		} else {
-			Log.warn( getClass(), "Missing record for: " + sampleId + " in metadata: " + MetaUtil.getPath() );
-			return null;
-		}
-
-		if( this.mergeHeaderLine == null )
-			this.mergeHeaderLine = "Merged OTU table header [" + sampleId + "] = " + sb.toString();
-		else if( this.mergeSampleLine == null )
-			this.mergeSampleLine = "Example Merged OTU table row [" + sampleId + "] = " + sb.toString();
-
-		return sb.toString();
-	}
-
 	private final Map<String, String> hitRatioPerSample = new HashMap<>();
-	private String mergeHeaderLine = null;
-	private String mergeSampleLine = null;
 
 	/**
 	 * Metadata column name for column that stores the calculation for:
@@ -197,5 +136,5 @@ public class AddMetadataToTaxaTables extends TaxaCountModule {
 	/**
 	 * File suffix added to OTU table file name once merged with metadata.
 	 */
-	public static final String META_MERGED = "_metaMerged" + TSV_EXT;
+	public static final String META_MERGED = MetaMergeUtil.META_MERGED;
 }
@@ -0,0 +1,255 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module.seq;
+
+import java.io.*;
+import java.util.*;
+import biolockj.*;
+import biolockj.api.ApiModule;
+import biolockj.exception.SequnceFormatException;
+import biolockj.module.BioModule;
+import biolockj.module.JavaModuleImpl;
+import biolockj.module.SeqModule;
+import biolockj.module.classifier.ClassifierModule;
+import biolockj.module.classifier.r16s.QiimeClosedRefClassifier;
+import biolockj.module.classifier.r16s.RdpClassifier;
+import biolockj.module.classifier.wgs.Kraken2Classifier;
+import biolockj.module.classifier.wgs.KrakenClassifier;
+import biolockj.module.implicit.parser.ParserModule;
+import biolockj.util.*;
+
+/**
+ * This BioModule dereplicates the sequences of all samples so the classifier only classifies each unique sequence
+ * once. Each sequence is identified by its 128-bit MurmurHash3 fingerprint, indexed in an off-heap
+ * {@link biolockj.util.FingerprintTable}.
+ * <p>
+ * The output directory holds 1 fasta file ({@value #UNIQUE_SEQS}.fasta) with each unique sequence, named by its
+ * fingerprint in hex. The {@value #COUNT_DIR} sub-directory holds the sparse unique sequence x sample count matrix
+ * ({@value #COUNT_FILE}, 1 line per unique sequence ID, Sample ID and non-zero count), used to expand each classified
+ * unique sequence back to the samples it was found in: by the {@link biolockj.module.implicit.parser.ParserModule} for
+ * classifiers that report 1 line per read, by the {@link biolockj.module.implicit.parser.wgs.Kraken2Parser} from the
+ * Kraken2 per-read output, and by the {@link biolockj.module.classifier.r16s.QiimeClosedRefClassifier} worker script
+ * from the QIIME OTU map before the OTU table is built.
+ *
+ * @blj.web_desc Dereplicate Sequences
+ */
+public class Dereplicate extends JavaModuleImpl implements SeqModule, ApiModule {
+
+	/**
+	 * Dereplication requires single (or merged) reads in single line format, and a classifier that can expand unique
+	 * sequences back to samples: {@link biolockj.module.classifier.r16s.RdpClassifier},
+	 * {@link biolockj.module.classifier.r16s.QiimeClosedRefClassifier},
+	 * {@link biolockj.module.classifier.wgs.KrakenClassifier} or
+	 * {@link biolockj.module.classifier.wgs.Kraken2Classifier}.
+	 */
+	@Override
+	public void checkDependencies() throws Exception {
+		super.checkDependencies();
+		if( SeqUtil.hasPairedReads() ) throw new Exception( getClass().getSimpleName() +
+			" requires single reads - add a module to merge paired reads before this module" );
+		if( Config.getBoolean( this, Constants.INTERNAL_IS_MULTI_LINE_SEQ ) ) throw new Exception(
+			getClass().getSimpleName() + " requires single line sequences - add a fasta converter before this module" );
+		final ClassifierModule classifier = ModuleUtil.getClassifier( this, true );
+		if( classifier != null && !SUPPORTED_CLASSIFIERS.contains( classifier.getClass() ) )
+			throw new Exception( getClass().getSimpleName() + " only supports classifiers: " +
+				getSupportedClassifiers() + ", found: " + classifier.getClass().getName() );
+	}
+
+	/**
+	 * Set {@link biolockj.Config}.{@value biolockj.Constants#INTERNAL_SEQ_TYPE} = {@value biolockj.Constants#FASTA}
+	 * and {@link biolockj.Config}.{@value biolockj.Constants#INTERNAL_SEQ_HEADER_CHAR} =
+	 * {@link biolockj.util.SeqUtil#FASTA_HEADER_DEFAULT_DELIM}
+	 */
+	@Override
+	public void cleanUp() throws Exception {
+		super.cleanUp();
+		Config.setConfigProperty( Constants.INTERNAL_SEQ_TYPE, Constants.FASTA );
+		Config.setConfigProperty( Constants.INTERNAL_SEQ_HEADER_CHAR, SeqUtil.FASTA_HEADER_DEFAULT_DELIM );
+	}
+
+	@Override
+	public List<File> getSeqFiles( final Collection<File> files ) throws SequnceFormatException {
+		return SeqUtil.getSeqFiles( files );
+	}
+
+	@Override
+	public String getSummary() throws Exception {
+		final String ratio =
+			this.numUnique == 0 ? "0": String.format( "%.1f", (double) this.numReads / this.numUnique );
+		return super.getSummary() + "# Reads: " + this.numReads + RETURN + "# Unique sequences: " + this.numUnique +
+			RETURN + "Mean reads per unique sequence: " + ratio + RETURN;
+	}
+
+	/**
+	 * Hash the sequence of each read, write new unique sequences to the output fasta file, and count the reads of
+	 * each unique sequence per sample. Fingerprints and counts are held in primitive arrays indexed by the
+	 * {@link biolockj.util.FingerprintTable}, and the non-zero counts of each sample are written to the sparse count
+	 * file once the sample is read.
+	 */
+	@Override
+	public void runModule() throws Exception {
+		final FingerprintTable table = new FingerprintTable( INITIAL_SIZE );
+		long[] fingerprints = new long[ 2 * INITIAL_SIZE ];
+		long[] counts = new long[ INITIAL_SIZE ];
+		int[] sampleIndexes = new int[ INITIAL_SIZE ];
+		final long[] fp = new long[ 2 ];
+		final File countFile = getCountFile( this );
+		final SeqRecordWriter writer = new SeqRecordWriter( new File( getOutputDir(), UNIQUE_SEQS + "." +
+			Constants.FASTA ) );
+		final BufferedWriter countWriter = new BufferedWriter( new FileWriter( countFile ) );
+		try {
+			countWriter.write( UNIQUE_SEQ_ID + TAB_DELIM + MetaUtil.getID() + TAB_DELIM + COUNT + RETURN );
+			for( final File file: getInputFiles() ) {
+				final String sampleId = SeqUtil.getSampleId( file.getName() );
+				int numIndexes = 0;
+				final SeqRecordReader reader = new SeqRecordReader( file );
+				try {
+					while( reader.next() ) {
+						final int start = reader.getStart( SeqRecordReader.SEQ_LINE );
+						final int len = reader.getLength( SeqRecordReader.SEQ_LINE );
+						FingerprintTable.fingerprint( reader.getBuffer(), start, len, fp );
+						final int index = table.getOrAdd( fp[ 0 ], fp[ 1 ] );
+						if( index == this.numUnique ) {
+							if( index == counts.length ) {
+								fingerprints = Arrays.copyOf( fingerprints, fingerprints.length * 2 );
+								counts = Arrays.copyOf( counts, counts.length * 2 );
+							}
+							fingerprints[ 2 * index ] = fp[ 0 ];
+							fingerprints[ 2 * index + 1 ] = fp[ 1 ];
+							this.numUnique++;
+							writer.writeLine(
+								SeqUtil.FASTA_HEADER_DEFAULT_DELIM + UniqueSeqCounts.getId( fp[ 0 ], fp[ 1 ] ) );
+							writer.writeLine( reader, SeqRecordReader.SEQ_LINE );
+						}
+						if( counts[ index ]++ == 0L ) {
+							if( numIndexes == sampleIndexes.length )
+								sampleIndexes = Arrays.copyOf( sampleIndexes, numIndexes * 2 );
+							sampleIndexes[ numIndexes++ ] = index;
+						}
+						this.numReads++;
+					}
+				} finally {
+					reader.close();
+				}
+
+				for( int i = 0; i < numIndexes; i++ ) {
+					final int index = sampleIndexes[ i ];
+					final String id = UniqueSeqCounts.getId( fingerprints[ 2 * index ], fingerprints[ 2 * index + 1 ] );
+					countWriter.write( id + TAB_DELIM + sampleId + TAB_DELIM + counts[ index ] + RETURN );
+					counts[ index ] = 0L;
+				}
+			}
+		} finally {
+			writer.close();
+			countWriter.close();
+		}
+
+		Log.info( getClass(), "Saved unique sequence counts: " + countFile.getAbsolutePath() );
+		Log.info( getClass(), "Dereplicated " + this.numReads + " reads into " + this.numUnique +
+			" unique sequences" );
+	}
+
+	@Override
+	public String getDescription() {
+		return "Dereplicate sequences across all samples so the classifier only classifies each unique sequence once.";
+	}
+
+	@Override
+	public String getDetails() {
+		return "Outputs 1 fasta file of unique sequences and a sparse unique sequence x sample count matrix in the `" +
+			COUNT_DIR + "` sub-directory.  Each classified sequence is expanded back to its samples using these " +
+			"counts.  Requires single (or merged) reads and one of these classifiers: " +
+			getSupportedClassifiers() + ".";
+	}
+
+	@Override
+	public String getCitationString() {
+		return "BioLockJ " + BioLockJUtil.getVersion() + System.lineSeparator() + "Module developed by Mike Sioda";
+	}
+
+	/**
+	 * Return the count matrix file of the Dereplicate module.
+	 *
+	 * @param module Dereplicate module
+	 * @return Count matrix file
+	 */
+	public static File getCountFile( final BioModule module ) {
+		return new File( ModuleUtil.requireSubDir( module, COUNT_DIR ), COUNT_FILE );
+	}
+
+	/**
+	 * Find the Dereplicate module whose unique sequences are classified by the given classifier.
+	 *
+	 * @param classifier ClassifierModule
+	 * @return Dereplicate module, or null if the classifier input was not dereplicated
+	 */
+	public static BioModule getDereplicate( final BioModule classifier ) {
+		for( BioModule module = ModuleUtil.getPreviousModule( classifier ); module != null; module =
+			ModuleUtil.getPreviousModule( module ) ) {
+			if( module instanceof Dereplicate ) return module;
+			if( module instanceof ClassifierModule || module instanceof ParserModule ) return null;
+		}
+		return null;
+	}
+
+	/**
+	 * Find the Dereplicate module that ran before the classifier of the given parser and read its count matrix.
+	 *
+	 * @param parser ParserModule
+	 * @return Unique sequence counts, or null if the classifier input was not dereplicated
+	 * @throws Exception if errors occur reading the count matrix
+	 */
+	public static UniqueSeqCounts getUniqueSeqCounts( final BioModule parser ) throws Exception {
+		BioModule module = ModuleUtil.getPreviousModule( parser );
+		while( module != null && !( module instanceof ClassifierModule ) ) {
+			if( module instanceof ParserModule ) return null;
+			module = ModuleUtil.getPreviousModule( module );
+		}
+		final BioModule dereplicate = module == null ? null: getDereplicate( module );
+		if( dereplicate == null ) return null;
+
+		final File file = getCountFile( dereplicate );
+		Log.info( Dereplicate.class, "Read unique sequence counts: " + file.getAbsolutePath() );
+		return UniqueSeqCounts.read( file );
+	}
+
+	private static String getSupportedClassifiers() {
+		final StringBuffer sb = new StringBuffer();
+		for( final Class<?> classifier: SUPPORTED_CLASSIFIERS )
+			sb.append( ( sb.length() > 0 ? ", ": "" ) + classifier.getSimpleName() );
+		return sb.toString();
+	}
+
+	private long numReads = 0L;
+	private int numUnique = 0;
+
+	/**
+	 * Name of the module sub-directory that holds the count matrix: {@value #COUNT_DIR}
+	 */
+	public static final String COUNT_DIR = "counts";
+
+	/**
+	 * Name of the sparse unique sequence x sample count matrix file (1 line per non-zero count): {@value #COUNT_FILE}
+	 */
+	public static final String COUNT_FILE = "uniqueSeqCounts" + Constants.TSV_EXT;
+
+	/**
+	 * Name (and Sample ID) of the unique sequence fasta file: {@value #UNIQUE_SEQS}
+	 */
+	public static final String UNIQUE_SEQS = "uniqueSeqs";
+
+	private static final String COUNT = "Count";
+	private static final int INITIAL_SIZE = 1 << 16;
+	private static final List<Class<?>> SUPPORTED_CLASSIFIERS = Arrays.asList( RdpClassifier.class,
+		QiimeClosedRefClassifier.class, KrakenClassifier.class, Kraken2Classifier.class );
+	private static final String UNIQUE_SEQ_ID = "UniqueSeqId";
+}
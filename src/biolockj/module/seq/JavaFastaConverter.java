@@ -0,0 +1,202 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module.seq;
+
+import java.io.*;
+import java.util.*;
+import biolockj.*;
+import biolockj.Properties;
+import biolockj.api.ApiModule;
+import biolockj.exception.SequnceFormatException;
+import biolockj.module.JavaModuleImpl;
+import biolockj.module.SeqStreamModule;
+import biolockj.util.*;
+
+/**
+ * This BioModule converts input sequence files into fasta format in Java, without launching gzip or awk processes.
+ * Gzipped files are decompressed, converted and (optionally) compressed again in a single streaming pass, so
+ * decompressed intermediate files are never written to disk.
+ *
+ * @blj.web_desc Java Fastq to Fasta Converter
+ */
+public class JavaFastaConverter extends JavaModuleImpl implements SeqStreamModule, ApiModule {
+
+	public JavaFastaConverter() {
+		super();
+		addNewProperty( BUFFER_SIZE, Properties.INTEGER_TYPE, "Read/write buffer size (in bytes) used for each file",
+			DEFAULT_BUFFER_SIZE.toString() );
+		addNewProperty( CONVERT_TO_FASTA, Properties.BOOLEAN_TYPE,
+			"Options: Y/N. If N, only decompress the files (keep the input sequence format)", Constants.TRUE );
+		addNewProperty( GZIP_OUTPUT, Properties.BOOLEAN_TYPE, "Options: Y/N. If Y, gzip the output files",
+			Constants.FALSE );
+	}
+
+	/**
+	 * The output can only be streamed to the next module if the files are only decompressed, since
+	 * {@link #cleanUp()} sets the new sequence format.
+	 */
+	@Override
+	public boolean canStreamOutput() throws Exception {
+		return !convertToFasta();
+	}
+
+	@Override
+	public void checkDependencies() throws Exception {
+		super.checkDependencies();
+		getBufferSize();
+		Config.getBoolean( this, GZIP_OUTPUT );
+		Config.getBoolean( this, CONVERT_TO_FASTA );
+	}
+
+	/**
+	 * If converted to fasta, set {@link biolockj.Config}.{@value biolockj.Constants#INTERNAL_SEQ_TYPE} =
+	 * {@value biolockj.Constants#FASTA} and {@link biolockj.Config}.{@value biolockj.Constants#INTERNAL_SEQ_HEADER_CHAR}
+	 * = {@link biolockj.util.SeqUtil#FASTA_HEADER_DEFAULT_DELIM}
+	 */
+	@Override
+	public void cleanUp() throws Exception {
+		super.cleanUp();
+		if( convertToFasta() ) {
+			Config.setConfigProperty( Constants.INTERNAL_SEQ_TYPE, Constants.FASTA );
+			Config.setConfigProperty( Constants.INTERNAL_SEQ_HEADER_CHAR, SeqUtil.FASTA_HEADER_DEFAULT_DELIM );
+		}
+	}
+
+	@Override
+	public List<File> getSeqFiles( final Collection<File> files ) throws SequnceFormatException {
+		return SeqUtil.getSeqFiles( files );
+	}
+
+	@Override
+	public File getStreamOutputFile( final File seqFile ) throws Exception {
+		final String ext = "." + ( convertToFasta() ? Constants.FASTA: SeqUtil.getSeqType() ) +
+			( Config.getBoolean( this, GZIP_OUTPUT ) ? Constants.GZIP_EXT: "" );
+		return new File( getOutputDir().getAbsolutePath() + File.separator +
+			SeqUtil.getSampleId( seqFile.getName() ) + SeqUtil.getReadDirectionSuffix( seqFile ) + ext );
+	}
+
+	/**
+	 * Call {@link biolockj.util.SeqStreamUtil#runStreamGroup(SeqStreamModule)} to convert the input files.
+	 */
+	@Override
+	public void runModule() throws Exception {
+		if( !convertToFasta() && !hasGzipped() && !Config.getBoolean( this, GZIP_OUTPUT ) ) Log.warn( getClass(),
+			"May be able to remove this BioModule - input already decompressed: " + getInputFiles() );
+		SeqStreamUtil.runStreamGroup( this );
+	}
+
+	/**
+	 * Convert the input files in parallel using
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} threads.
+	 */
+	@Override
+	public void streamSeqFiles() throws Exception {
+		SeqStreamUtil.processFiles( this, getInputFiles(), file -> convert( file ) );
+		Log.info( getClass(), "Converted " + getInputFiles().size() + " files" );
+	}
+
+	/**
+	 * Stream 1 sequence file to the output directory. Fastq files are converted to fasta by keeping only the header
+	 * and sequence lines of each read. Multi-line fasta sequences are joined into a single line.
+	 *
+	 * @param file Sequence file
+	 * @throws Exception if errors occur
+	 */
+	protected void convert( final File file ) throws Exception {
+		final boolean fastqToFasta = convertToFasta() && SeqUtil.isFastQ();
+		final boolean isMultiLine = convertToFasta() && Config.getBoolean( this, Constants.INTERNAL_IS_MULTI_LINE_SEQ );
+		final int bufferSize = getBufferSize();
+		final File output = getStreamOutputFile( file );
+		final SeqRecordReader reader =
+			new SeqRecordReader( file, fastqToFasta ? SeqUtil.getNumLinesPerRead(): 1, bufferSize );
+		final SeqRecordWriter writer = new SeqRecordWriter( output, false, bufferSize );
+		try {
+			if( fastqToFasta ) {
+				while( reader.next() ) {
+					writer.writeHeader( reader, FASTA_HEADER_CHAR );
+					writer.writeLine( reader, SeqRecordReader.SEQ_LINE );
+				}
+			} else if( isMultiLine ) {
+				boolean hasSeq = false;
+				while( reader.next() )
+					if( reader.getLength( 0 ) > 0 && reader.charAt( 0, 0 ) == FASTA_HEADER_CHAR ) {
+						if( hasSeq ) writer.newLine();
+						writer.writeLine( reader, 0 );
+						hasSeq = false;
+					} else {
+						writer.append( reader, 0 );
+						hasSeq = true;
+					}
+				if( hasSeq ) writer.newLine();
+			} else while( reader.next() )
+				writer.writeLine( reader, 0 );
+		} finally {
+			reader.close();
+			writer.close();
+		}
+		Log.debug( getClass(), "Converted: " + file.getAbsolutePath() + " --> " + output.getAbsolutePath() );
+	}
+
+	private boolean convertToFasta() throws Exception {
+		return Config.getString( this, CONVERT_TO_FASTA ) == null || Config.getBoolean( this, CONVERT_TO_FASTA );
+	}
+
+	private int getBufferSize() throws Exception {
+		final Integer size = Config.getPositiveInteger( this, BUFFER_SIZE );
+		return size == null ? DEFAULT_BUFFER_SIZE: size;
+	}
+
+	private boolean hasGzipped() {
+		for( final File f: getInputFiles() )
+			if( SeqUtil.isGzipped( f.getName() ) ) return true;
+		return false;
+	}
+
+	@Override
+	public String getDescription() {
+		return "Decompress and convert fastq files into fasta format in a single Java streaming pass.";
+	}
+
+	@Override
+	public String getDetails() {
+		return "Replaces **" + AwkFastaConverter.class.getName() + "** and **" + Gunzipper.class.getName() +
+			"** without writing decompressed intermediate files.  Set `" + CONVERT_TO_FASTA +
+			"=N` to only decompress the files.  Files are processed in parallel using `" +
+			Constants.SCRIPT_NUM_THREADS + "` threads.";
+	}
+
+	@Override
+	public String getCitationString() {
+		return "BioLockJ " + BioLockJUtil.getVersion() + System.lineSeparator() + "Module developed by Mike Sioda";
+	}
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #BUFFER_SIZE}<br>
+	 * Read/write buffer size in bytes.
+	 */
+	protected static final String BUFFER_SIZE = "javaFastaConverter.bufferSize";
+
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #CONVERT_TO_FASTA}<br>
+	 * If N, only decompress the input files.
+	 */
+	protected static final String CONVERT_TO_FASTA = "javaFastaConverter.convertToFasta";
+
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #GZIP_OUTPUT}<br>
+	 * If Y, gzip the output files.
+	 */
+	protected static final String GZIP_OUTPUT = "javaFastaConverter.gzipOutput";
+
+	private static final Integer DEFAULT_BUFFER_SIZE = SeqRecordReader.DEFAULT_BUFFER_SIZE;
+	private static final char FASTA_HEADER_CHAR = SeqUtil.FASTA_HEADER_DEFAULT_DELIM.charAt( 0 );
+}
@@ -14,6 +14,7 @@ package biolockj.module.seq;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import biolockj.*;
 import biolockj.api.ApiModule;
 import biolockj.exception.ConfigNotFoundException;
@@ -42,13 +43,13 @@ public class KneadData extends SeqModuleImpl implements DatabaseModule, ApiModul
 	@Override
 	public List<List<String>> buildScript( final List<File> files ) throws Exception {
 		final List<List<String>> data = new ArrayList<>();
+		final Map<File, File> pairedReads = SeqUtil.hasPairedReads() ? SeqUtil.getPairedReads( files ): null;
 		for( final File seqFile: files ) {
 			if( SeqUtil.hasPairedReads() && !SeqUtil.isForwardRead( seqFile.getName() ) ) continue;
 
 			final ArrayList<String> lines = new ArrayList<>();
 
-			if( SeqUtil.hasPairedReads() )
-				lines.add( sanatize( seqFile, SeqUtil.getPairedReads( files ).get( seqFile ) ) );
+			if( pairedReads != null ) lines.add( sanatize( seqFile, pairedReads.get( seqFile ) ) );
 			else lines.add( sanatize( seqFile, null ) );
 
 			lines.addAll( buildScriptLinesToMoveValidSeqsToOutputDir( SeqUtil.getSampleId( seqFile.getName() ) ) );
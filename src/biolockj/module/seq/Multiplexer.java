@@ -13,7 +13,6 @@ package biolockj.module.seq;
 
 import java.io.*;
 import java.util.*;
-import java.util.zip.GZIPOutputStream;
 import biolockj.*;
 import biolockj.Properties;
 import biolockj.api.ApiModule;
@@ -113,42 +112,39 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 	public void runModule() throws Exception {
 		Log.info( getClass(), "Multiplexing file type = " + Config.requireString( this, Constants.INTERNAL_SEQ_TYPE ) );
 
-		for( final File f: getInputFiles() )
-			multiplex( f );
-
-		if( Config.getBoolean( this, DO_GZIP ) ) {
-			Log.warn( getClass(), "BioLockJ gzip data in: " + this.muxFiles );
-			compressData();
-			removeDecompressedFiles();
+		if( Config.getBoolean( this, DO_GZIP ) ) Log.info( getClass(), "Write BGZF compressed output with " +
+			ParallelUtil.getNumThreads( this ) + " compression threads" );
+		try {
+			for( final File f: getInputFiles() )
+				multiplex( f );
+		} finally {
+			for( final SeqRecordWriter writer: this.muxWriters.values() )
+				writer.close();
 		}
+		Log.info( getClass(), "Multiplexed files: " + this.muxWriters.keySet() );
 	}
 
 	/**
 	 * Get the header for the sequence.
 	 *
 	 * @param file Sequence file in fasta or fastq format
-	 * @param seqLines Sequence lines for 1 read
+	 * @param headerLine Header line of 1 read
 	 * @return the header row for the sequence
 	 * @throws Exception if errors occur while obtaining header
 	 */
-	protected String getHeader( final File file, final List<String> seqLines ) throws Exception {
-		final String header = seqLines.get( 0 ).trim();
-		final String headerChar = header.substring( 0, 1 );
-		final String sampleId = SeqUtil.getSampleId( file.getName() );
+	protected String getHeader( final File file, final String headerLine ) throws Exception {
+		final String header = headerLine.trim();
 		final long numReads = incrementNumReads( file );
+		if( barcodeInHeader() ) return header;
 
-		if( DemuxUtil.barcodeInHeader() ) return header;
-		else if( DemuxUtil.hasValidBarcodes() ) {
-			final String barcode =
-				MetaUtil.getField( sampleId, Config.getString( this, MetaUtil.META_BARCODE_COLUMN ) );
-			final String rc = SeqUtil.reverseComplement( barcode );
-
-			if( header.contains( barcode ) ) return header;
-			else if( header.contains( rc ) ) {
+		final String[] info = getSampleInfo( file );
+		if( info[ INFO_BARCODE ] != null ) {
+			if( header.contains( info[ INFO_BARCODE ] ) ) return header;
+			else if( header.contains( info[ INFO_RC_BARCODE ] ) ) {
 				this.rcCount++;
 				return header;
-			} else return header + " " + barcode;
-		} else return headerChar + sampleId + "_" + sampleId + "." + numReads + ":" + header.substring( 1 );
+			} else return header + " " + info[ INFO_BARCODE ];
+		} else return header.substring( 0, 1 ) + info[ INFO_PREFIX ] + numReads + ":" + header.substring( 1 );
 	}
 
 	/**
@@ -161,26 +157,16 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 	 */
 	protected void multiplex( final File sample ) throws Exception {
 		Log.info( getClass(), "Multiplexing file  = " + sample.getAbsolutePath() );
-		final File muxFile = new File( getMutliplexeFileName( sample ) );
-		final List<String> seqLines = new ArrayList<>();
-		BufferedReader reader = null;
-		BufferedWriter writer = null;
+		final SeqRecordWriter writer = getMuxWriter( sample );
+		final SeqRecordReader reader = new SeqRecordReader( sample );
 		try {
-			reader = BioLockJUtil.getFileReader( sample );
-			writer = new BufferedWriter( new FileWriter( muxFile, true ) );
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				seqLines.add( line );
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) // full read
-				{
-					writer.write( getHeader( sample, seqLines ) + RETURN );
-					for( int i = 1; i < seqLines.size(); i++ )
-						writer.write( seqLines.get( i ) + RETURN );
-					seqLines.clear();
-				}
+			while( reader.next() ) {
+				writer.writeLine( getHeader( sample, reader.getHeader() ) );
+				for( int i = 1; i < reader.getNumLines(); i++ )
+					writer.writeLine( reader, i );
 			}
 		} finally {
-			if( writer != null ) writer.close();
-			if( reader != null ) reader.close();
+			reader.close();
 		}
 	}
 
@@ -206,32 +192,50 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 			"All other BioLockJ modules require demultiplexed data." );
 	}
 
-	private void compressData() throws Exception {
-		for( final String path: this.muxFiles ) {
-			FileInputStream fis = null;
-			FileOutputStream fos = null;
-			GZIPOutputStream gzipOS = null;
-			try {
-				fis = new FileInputStream( path );
-				fos = new FileOutputStream( path + Constants.GZIP_EXT );
-				gzipOS = new GZIPOutputStream( fos );
-				final byte[] buffer = new byte[ 1024 ];
-				int len;
-				while( ( len = fis.read( buffer ) ) != -1 )
-					gzipOS.write( buffer, 0, len );
-			} finally {
-				if( gzipOS != null ) gzipOS.close();
-				if( fos != null ) fos.close();
-				if( fis != null ) fis.close();
-			}
-		}
+	private boolean barcodeInHeader() throws Exception {
+		if( this.barcodeInHeader == null ) this.barcodeInHeader = DemuxUtil.barcodeInHeader();
+		return this.barcodeInHeader;
 	}
 
 	private String getMutliplexeFileName( final File file ) throws Exception {
-		final String path = getOutputDir().getAbsolutePath() + File.separator + Config.pipelineName() +
-			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType();
-		this.muxFiles.add( path );
-		return path;
+		return getOutputDir().getAbsolutePath() + File.separator + Config.pipelineName() +
+			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType() +
+			( Config.getBoolean( this, DO_GZIP ) ? Constants.GZIP_EXT: "" );
+	}
+
+	/**
+	 * Keep 1 open writer per multiplexed file (forward/reverse) for the whole run. If
+	 * {@value #DO_GZIP}={@value biolockj.Constants#TRUE}, reads are compressed as they are written by a
+	 * {@link biolockj.util.BgzfOutputStream}, so no uncompressed intermediate file is created.
+	 */
+	private SeqRecordWriter getMuxWriter( final File file ) throws Exception {
+		final String path = getMutliplexeFileName( file );
+		SeqRecordWriter writer = this.muxWriters.get( path );
+		if( writer == null ) {
+			OutputStream out = new FileOutputStream( path );
+			if( Config.getBoolean( this, DO_GZIP ) ) out = new BgzfOutputStream( out, ParallelUtil.getNumThreads( this ) );
+			writer = new SeqRecordWriter( out, SeqRecordReader.DEFAULT_BUFFER_SIZE );
+			this.muxWriters.put( path, writer );
+		}
+		return writer;
+	}
+
+	/**
+	 * Resolve the sample ID, barcode and barcode reverse compliment once per file instead of once per read.
+	 */
+	private String[] getSampleInfo( final File file ) throws Exception {
+		String[] info = this.sampleInfo.get( file.getName() );
+		if( info == null ) {
+			info = new String[ 3 ];
+			final String sampleId = SeqUtil.getSampleId( file.getName() );
+			if( DemuxUtil.hasValidBarcodes() ) {
+				info[ INFO_BARCODE ] =
+					MetaUtil.getField( sampleId, Config.getString( this, MetaUtil.META_BARCODE_COLUMN ) );
+				info[ INFO_RC_BARCODE ] = SeqUtil.reverseComplement( info[ INFO_BARCODE ] );
+			} else info[ INFO_PREFIX ] = sampleId + "_" + sampleId + ".";
+			this.sampleInfo.put( file.getName(), info );
+		}
+		return info;
 	}
 
 	private long getNumReads( final File file ) {
@@ -259,15 +263,12 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 		return numReads;
 	}
 
-	private void removeDecompressedFiles() {
-		for( final String path: this.muxFiles )
-			new File( path ).delete();
-	}
-
+	private Boolean barcodeInHeader = null;
 	private final Map<String, Long> fwMap = new HashMap<>();
-	private final Set<String> muxFiles = new HashSet<>();
+	private final Map<String, SeqRecordWriter> muxWriters = new TreeMap<>();
 	private int rcCount = 0;
 	private final Map<String, Long> rvMap = new HashMap<>();
+	private final Map<String, String[]> sampleInfo = new HashMap<>();
 	private long totalNumFwReads = 0L;
 	private long totalNumRvReads = 0L;
 	/**
@@ -286,4 +287,7 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule, ApiModule
 	}
 
 	// private static final String FUNCTION_GZIP = "gZip";
+	private static final int INFO_BARCODE = 0;
+	private static final int INFO_PREFIX = 2;
+	private static final int INFO_RC_BARCODE = 1;
 }
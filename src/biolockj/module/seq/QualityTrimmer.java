@@ -0,0 +1,332 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module.seq;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import biolockj.*;
+import biolockj.Properties;
+import biolockj.api.ApiModule;
+import biolockj.exception.SequnceFormatException;
+import biolockj.module.JavaModuleImpl;
+import biolockj.module.ReadCounter;
+import biolockj.module.SeqStreamModule;
+import biolockj.module.implicit.RegisterNumReads;
+import biolockj.util.*;
+
+/**
+ * This BioModule trims and filters fastq reads by Phred quality score in Java, as a lightweight alternative to
+ * {@link biolockj.module.seq.KneadData} for amplicon data. Each read is scanned once: the read is cut at the first
+ * sliding window with an average quality below {@value #MIN_QUALITY}, then discarded if the trimmed read has more than
+ * {@value #MAX_N} ambiguous (N) bases or fewer than {@value #MIN_LENGTH} bases.
+ * <p>
+ * Paired reads are processed together and a pair is kept only if both reads pass, so the output files stay in sync.
+ * The number of reads kept per sample is added to the metadata as {@value #NUM_QUALITY_READS}.
+ *
+ * @blj.web_desc Quality Trimmer
+ */
+public class QualityTrimmer extends JavaModuleImpl implements SeqStreamModule, ApiModule, ReadCounter {
+
+	public QualityTrimmer() {
+		super();
+		addNewProperty( WINDOW_SIZE, Properties.POS_INTEGER_TYPE, "Number of bases averaged by the sliding window",
+			DEFAULT_WINDOW_SIZE.toString() );
+		addNewProperty( MIN_QUALITY, Properties.INTEGER_TYPE,
+			"Cut the read at the first window with an average Phred quality score below this value",
+			DEFAULT_MIN_QUALITY.toString() );
+		addNewProperty( MIN_LENGTH, Properties.POS_INTEGER_TYPE, "Discard reads shorter than this after trimming",
+			DEFAULT_MIN_LENGTH.toString() );
+		addNewProperty( MAX_N, Properties.INTEGER_TYPE,
+			"Discard reads with more than this number of ambiguous (N) bases after trimming",
+			DEFAULT_MAX_N.toString() );
+		addNewProperty( PHRED_OFFSET, Properties.INTEGER_TYPE, "ASCII offset of the quality scores (33 or 64)",
+			DEFAULT_PHRED_OFFSET.toString() );
+	}
+
+	/**
+	 * Validate module dependencies
+	 * <ol>
+	 * <li>Require fastq input
+	 * <li>Validate {@value #WINDOW_SIZE} and {@value #MIN_LENGTH} are positive integers
+	 * <li>Validate {@value #MIN_QUALITY} and {@value #MAX_N} are non-negative integers
+	 * <li>Validate {@value #PHRED_OFFSET} is 33 or 64
+	 * </ol>
+	 */
+	@Override
+	public void checkDependencies() throws Exception {
+		super.checkDependencies();
+		if( !SeqUtil.isFastQ() ) throw new Exception( getClass().getName() + " requires FASTQ format!" );
+		getInt( WINDOW_SIZE, DEFAULT_WINDOW_SIZE, true );
+		getInt( MIN_LENGTH, DEFAULT_MIN_LENGTH, true );
+		getInt( MIN_QUALITY, DEFAULT_MIN_QUALITY, false );
+		getInt( MAX_N, DEFAULT_MAX_N, false );
+		final int offset = getInt( PHRED_OFFSET, DEFAULT_PHRED_OFFSET, true );
+		if( offset != 33 && offset != 64 )
+			throw new Exception( "Invalid parameter!  " + PHRED_OFFSET + " must be 33 or 64, found: " + offset );
+	}
+
+	/**
+	 * Set {@value #NUM_QUALITY_READS} as the number of reads field.
+	 */
+	@Override
+	public void cleanUp() throws Exception {
+		super.cleanUp();
+		RegisterNumReads.setNumReadFieldName( getMetaColName() );
+		MetaUtil.addColumn( getMetaColName(), this.readsPerSample, getOutputDir(), true );
+	}
+
+	/**
+	 * The output is fastq, as the input.
+	 */
+	@Override
+	public boolean canStreamOutput() {
+		return true;
+	}
+
+	@Override
+	public List<File> getSeqFiles( final Collection<File> files ) throws SequnceFormatException {
+		return SeqUtil.getSeqFiles( files );
+	}
+
+	@Override
+	public File getStreamOutputFile( final File seqFile ) throws Exception {
+		return new File( getOutputDir().getAbsolutePath() + File.separator +
+			SeqUtil.getSampleId( seqFile.getName() ) + SeqUtil.getReadDirectionSuffix( seqFile ) + "." +
+			SeqUtil.getSeqType() );
+	}
+
+	/**
+	 * Produce summary message with min, max, mean, and median number of reads kept, and the number of reads removed
+	 * by each filter.
+	 */
+	@Override
+	public String getSummary() throws Exception {
+		final String label = "Reads";
+		final int pad = SummaryUtil.getPad( label );
+		String summary = SummaryUtil.getCountSummary( this.readsPerSample, label, true );
+		summary += BioLockJUtil.addTrailingSpaces( "# Trimmed reads:", pad ) + this.numTrimmed + RETURN;
+		summary += BioLockJUtil.addTrailingSpaces( "# Too short reads removed:", pad ) + this.numTooShort + RETURN;
+		summary += BioLockJUtil.addTrailingSpaces( "# Ambiguous reads removed:", pad ) + this.numTooManyN + RETURN;
+		return super.getSummary() + summary;
+	}
+
+	/**
+	 * Call {@link biolockj.util.SeqStreamUtil#runStreamGroup(SeqStreamModule)} to trim the input files.
+	 */
+	@Override
+	public void runModule() throws Exception {
+		SeqStreamUtil.runStreamGroup( this );
+	}
+
+	/**
+	 * Trim the input files (or file pairs) in parallel using
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} threads.
+	 */
+	@Override
+	public void streamSeqFiles() throws Exception {
+		this.windowSize = getInt( WINDOW_SIZE, DEFAULT_WINDOW_SIZE, true );
+		this.minQuality = getInt( MIN_QUALITY, DEFAULT_MIN_QUALITY, false );
+		this.minLength = getInt( MIN_LENGTH, DEFAULT_MIN_LENGTH, true );
+		this.maxN = getInt( MAX_N, DEFAULT_MAX_N, false );
+		this.phredOffset = getInt( PHRED_OFFSET, DEFAULT_PHRED_OFFSET, true );
+		final Map<File, File> pairedReads = SeqUtil.hasPairedReads() ? SeqUtil.getPairedReads( getInputFiles() ): null;
+		final List<File> files = new ArrayList<>( getInputFiles() );
+		if( pairedReads != null ) files.retainAll( pairedReads.keySet() );
+		SeqStreamUtil.processFiles( this, files,
+			file -> trim( file, pairedReads == null ? null: pairedReads.get( file ) ) );
+		Log.info( getClass(), "Kept " + this.numKept + " reads after quality trimming " + files.size() +
+			( pairedReads == null ? " files": " file pairs" ) );
+	}
+
+	/**
+	 * Trim 1 sequence file, or 1 forward/reverse file pair in lock-step.
+	 *
+	 * @param fwRead Forward (or single) read file
+	 * @param rvRead Reverse read file, or null
+	 * @throws Exception if errors occur
+	 */
+	protected void trim( final File fwRead, final File rvRead ) throws Exception {
+		final String sampleId = SeqUtil.getSampleId( fwRead.getName() );
+		final File fwOutput = getStreamOutputFile( fwRead );
+		final File rvOutput = rvRead == null ? null: getStreamOutputFile( rvRead );
+		final SeqRecordReader fwReader = new SeqRecordReader( fwRead );
+		final SeqRecordReader rvReader = rvRead == null ? null: new SeqRecordReader( rvRead );
+		final SeqRecordWriter fwWriter = new SeqRecordWriter( fwOutput );
+		final SeqRecordWriter rvWriter = rvRead == null ? null: new SeqRecordWriter( rvOutput );
+		long numKept = 0L;
+		try {
+			while( fwReader.next() ) {
+				if( rvReader != null && !rvReader.next() )
+					throw new SequnceFormatException( rvRead, "Reverse read file has fewer reads" );
+				if( rvReader != null && !SeqUtil.getHeader( fwReader.getHeader() ).equals(
+					SeqUtil.getHeader( rvReader.getHeader() ) ) ) throw new SequnceFormatException(
+						"Paired read headers out of order at read #" + fwReader.getRecordNum() + ": " +
+							fwReader.getHeader() + " vs. " + rvReader.getHeader() );
+
+				final int fwLen = getTrimLength( fwReader );
+				final int rvLen = rvReader == null ? 0: getTrimLength( rvReader );
+				if( fwLen < 0 || rvLen < 0 ) continue;
+				write( fwWriter, fwReader, fwLen );
+				if( rvReader != null ) write( rvWriter, rvReader, rvLen );
+				numKept++;
+			}
+			if( rvReader != null && rvReader.next() )
+				throw new SequnceFormatException( rvRead, "Reverse read file has more reads" );
+		} finally {
+			fwReader.close();
+			fwWriter.close();
+			if( rvReader != null ) rvReader.close();
+			if( rvWriter != null ) rvWriter.close();
+		}
+
+		ReadCountUtil.registerNumReads( fwOutput, numKept );
+		if( rvOutput != null ) ReadCountUtil.registerNumReads( rvOutput, numKept );
+		this.readsPerSample.put( sampleId, Long.toString( numKept ) );
+		this.numKept.addAndGet( numKept );
+		Log.debug( getClass(), "Sample " + sampleId + " kept " + numKept + "/" + fwReader.getRecordNum() + " reads" );
+	}
+
+	/**
+	 * Return the number of bases kept after sliding-window trimming, or -1 if the read fails the length or N filter.
+	 * The read is cut at the start of the first window with an average quality below {@value #MIN_QUALITY}, keeping
+	 * any leading bases of that window that meet the minimum quality.
+	 */
+	private int getTrimLength( final SeqRecordReader reader ) throws SequnceFormatException {
+		final byte[] buffer = reader.getBuffer();
+		final int seqStart = reader.getStart( SeqRecordReader.SEQ_LINE );
+		final int qualStart = reader.getStart( SeqRecordReader.QUAL_LINE );
+		final int len = reader.getLength( SeqRecordReader.SEQ_LINE );
+		if( len != reader.getLength( SeqRecordReader.QUAL_LINE ) ) throw new SequnceFormatException( reader.getFile(),
+			"Read #" + reader.getRecordNum() + " has unequal number of bases and quality scores" );
+
+		final int minSum = this.minQuality * this.windowSize;
+		int keep = len;
+		int sum = 0;
+		for( int i = 0; i < len; i++ ) {
+			sum += buffer[ qualStart + i ] - this.phredOffset;
+			if( i >= this.windowSize ) sum -= buffer[ qualStart + i - this.windowSize ] - this.phredOffset;
+			if( i + 1 >= this.windowSize && sum < minSum ) {
+				keep = i + 1 - this.windowSize;
+				while( keep < i && buffer[ qualStart + keep ] - this.phredOffset >= this.minQuality )
+					keep++;
+				break;
+			}
+		}
+
+		if( keep < len ) this.numTrimmed.incrementAndGet();
+		if( keep < this.minLength ) {
+			this.numTooShort.incrementAndGet();
+			return -1;
+		}
+
+		int numN = 0;
+		for( int i = seqStart; i < seqStart + keep; i++ )
+			if( ( buffer[ i ] == 'N' || buffer[ i ] == 'n' ) && ++numN > this.maxN ) {
+				this.numTooManyN.incrementAndGet();
+				return -1;
+			}
+		return keep;
+	}
+
+	private int getInt( final String prop, final Integer defaultVal, final boolean positive ) throws Exception {
+		final Integer val =
+			positive ? Config.getPositiveInteger( this, prop ): Config.getNonNegativeInteger( this, prop );
+		return val == null ? defaultVal: val;
+	}
+
+	private String getMetaColName() throws Exception {
+		if( this.otuColName == null ) this.otuColName = MetaUtil.getSystemMetaCol( this, NUM_QUALITY_READS );
+		return this.otuColName;
+	}
+
+	@Override
+	public String getDescription() {
+		return "Trim and filter fastq reads by sliding-window Phred quality, ambiguous bases and minimum length.";
+	}
+
+	@Override
+	public String getDetails() {
+		return "A lightweight Java alternative to **" + KneadData.class.getName() + "** for amplicon data, with no " +
+			"external processes or Docker images.  Each read is cut at the first window of `" + WINDOW_SIZE +
+			"` bases with an average quality below `" + MIN_QUALITY + "`, then discarded if it has more than `" +
+			MAX_N + "` N bases or fewer than `" + MIN_LENGTH + "` bases.  Paired reads are kept only if both reads " +
+			"pass.  Files are processed in parallel using `" + Constants.SCRIPT_NUM_THREADS + "` threads.";
+	}
+
+	@Override
+	public String getCitationString() {
+		return "BioLockJ " + BioLockJUtil.getVersion() + System.lineSeparator() + "Module developed by Mike Sioda";
+	}
+
+	private static void write( final SeqRecordWriter writer, final SeqRecordReader reader, final int len )
+		throws Exception {
+		writer.writeLine( reader, SeqRecordReader.HEADER_LINE );
+		writer.writeLine( reader, SeqRecordReader.SEQ_LINE, 0, len );
+		writer.writeLine( reader, SeqRecordReader.SEQ_LINE + 1 );
+		writer.writeLine( reader, SeqRecordReader.QUAL_LINE, 0, len );
+	}
+
+	private int maxN;
+	private int minLength;
+	private int minQuality;
+	private final AtomicLong numKept = new AtomicLong();
+	private final AtomicLong numTooManyN = new AtomicLong();
+	private final AtomicLong numTooShort = new AtomicLong();
+	private final AtomicLong numTrimmed = new AtomicLong();
+	private String otuColName = null;
+	private int phredOffset;
+	private final Map<String, String> readsPerSample = new ConcurrentHashMap<>();
+	private int windowSize;
+
+	/**
+	 * Metadata column name for column that holds number of reads kept per sample: {@value #NUM_QUALITY_READS}
+	 */
+	public static final String NUM_QUALITY_READS = "Num_Quality_Reads";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #MAX_N}<br>
+	 * Discard reads with more than this number of ambiguous (N) bases after trimming.
+	 */
+	protected static final String MAX_N = "qualityTrimmer.maxN";
+
+	/**
+	 * {@link biolockj.Config} Positive Integer property: {@value #MIN_LENGTH}<br>
+	 * Discard reads shorter than this after trimming.
+	 */
+	protected static final String MIN_LENGTH = "qualityTrimmer.minLength";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #MIN_QUALITY}<br>
+	 * Minimum average Phred quality score of each sliding window.
+	 */
+	protected static final String MIN_QUALITY = "qualityTrimmer.minQuality";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #PHRED_OFFSET}<br>
+	 * ASCII offset of the quality scores (33 or 64).
+	 */
+	protected static final String PHRED_OFFSET = "qualityTrimmer.phredOffset";
+
+	/**
+	 * {@link biolockj.Config} Positive Integer property: {@value #WINDOW_SIZE}<br>
+	 * Number of bases averaged by the sliding window.
+	 */
+	protected static final String WINDOW_SIZE = "qualityTrimmer.windowSize";
+
+	private static final Integer DEFAULT_MAX_N = 0;
+	private static final Integer DEFAULT_MIN_LENGTH = 50;
+	private static final Integer DEFAULT_MIN_QUALITY = 20;
+	private static final Integer DEFAULT_PHRED_OFFSET = 33;
+	private static final Integer DEFAULT_WINDOW_SIZE = 4;
+}
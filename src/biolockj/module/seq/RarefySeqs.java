@@ -22,6 +22,7 @@ import biolockj.exception.ConfigFormatException;
 import biolockj.exception.SequnceFormatException;
 import biolockj.module.JavaModuleImpl;
 import biolockj.module.SeqModule;
+import biolockj.module.ShardedModule;
 import biolockj.module.implicit.RegisterNumReads;
 import biolockj.util.*;
 
@@ -31,7 +32,7 @@ import biolockj.util.*;
  * 
  * @blj.web_desc Rarefy Seqs
  */
-public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
+public class RarefySeqs extends JavaModuleImpl implements SeqModule, ShardedModule, ApiModule {
 
 	public RarefySeqs() {
 		super();
@@ -113,14 +114,23 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 	public void runModule() throws Exception {
 		Log.info( getClass(), "Base #Reads based on: " + RegisterNumReads.getNumReadFieldName() );
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
-		final List<File> files = getInputFiles();
+		final List<File> files = ShardUtil.getShardFiles( this );
 		for( int i = 0; i < files.size(); i++ ) {
 			final File f = files.get( i );
 			rarefy( f );
 			if( i % 25 == 0 || i + 1 == files.size() )
 				Log.info( getClass(), "Done rarefying " + i + "/" + files.size() + " files." );
 		}
+		ShardUtil.saveShardTable( this, NUM_RAREFIED_READS, this.readsPerSample );
+	}
 
+	/**
+	 * Collect the number of rarefied reads per sample saved by each shard.
+	 */
+	@Override
+	public void mergeShards() throws Exception {
+		this.sampleIds.addAll( MetaUtil.getSampleIds() );
+		this.readsPerSample = ShardUtil.mergeShardTables( this, NUM_RAREFIED_READS );
 	}
 
 	/**
@@ -137,36 +147,32 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 		final String name =
 			getOutputDir().getAbsolutePath() + File.separator + SeqUtil.getSampleId( input.getName() ) + fileExt;
 		final File output = new File( name );
-		final BufferedReader reader = BioLockJUtil.getFileReader( input );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( output ) );
+		final long[] keep = indexes.stream().mapToLong( Long::longValue ).sorted().toArray();
+		final SeqRecordReader reader = new SeqRecordReader( input );
+		final SeqRecordWriter writer = new SeqRecordWriter( output );
 		Log.info( getClass(),
 			"Building file [#lines/read=" + SeqUtil.getNumLinesPerRead() + "]: " + output.getAbsolutePath() );
 
 		try {
 			long index = 0;
-			int i = 0;
-			final Set<Long> usedIndexes = new HashSet<>();
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				if( indexes.contains( index ) ) {
-					if( !usedIndexes.contains( index ) ) Log.debug( getClass(), "Add to usedIndexes: " + index );
-					usedIndexes.add( index );
-					writer.write( line + RETURN );
+			int next = 0;
+			while( next < keep.length && reader.next() ) {
+				if( index == keep[ next ] ) {
+					writer.write( reader );
+					next++;
 				}
-
-				if( ++i % SeqUtil.getNumLinesPerRead() == 0 ) index++;
+				index++;
 			}
 
 			this.readsPerSample.put( SeqUtil.getSampleId( input.getName() ), Integer.toString( indexes.size() ) );
 
-			if( !usedIndexes.containsAll( indexes ) ) {
-				indexes.removeAll( usedIndexes );
-				throw new Exception(
-					"Error occurred rarefying indexes for: " + input.getAbsolutePath() + " ---> " + indexes );
-			}
+			if( next < keep.length ) throw new Exception( "Error occurred rarefying indexes for: " +
+				input.getAbsolutePath() + " ---> " + Arrays.toString( Arrays.copyOfRange( keep, next, keep.length ) ) );
 		} finally {
 			reader.close();
 			writer.close();
 		}
+		ReadCountUtil.registerNumReads( output, keep.length );
 	}
 
 	/**
@@ -181,7 +187,8 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule, ApiModule {
 		Long max = 0L;
 		Long min = minConfig.longValue();
 		final String sampleId = SeqUtil.getSampleId( seqFile.getName() );
-		final long numReads = getCount( sampleId, RegisterNumReads.getNumReadFieldName() );
+		final Long registeredCount = getCount( sampleId, RegisterNumReads.getNumReadFieldName() );
+		final long numReads = registeredCount == null ? SeqUtil.countNumReads( seqFile ): registeredCount;
 
 		if( maxConfig != null ) max = numReads < maxConfig.longValue() ? numReads: maxConfig.longValue();
 
@@ -13,7 +13,9 @@ package biolockj.module.seq;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import biolockj.Config;
+import biolockj.Constants;
 import biolockj.Log;
 import biolockj.Properties;
 import biolockj.api.ApiModule;
@@ -21,7 +23,7 @@ import biolockj.exception.ConfigViolationException;
 import biolockj.exception.SequnceFormatException;
 import biolockj.module.ReadCounter;
 import biolockj.module.JavaModuleImpl;
-import biolockj.module.SeqModule;
+import biolockj.module.SeqStreamModule;
 import biolockj.module.implicit.RegisterNumReads;
 import biolockj.util.*;
 
@@ -30,13 +32,16 @@ import biolockj.util.*;
  * 
  * @blj.web_desc Sequence File Validator
  */
-public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiModule, ReadCounter {
+public class SeqFileValidator extends JavaModuleImpl implements SeqStreamModule, ApiModule, ReadCounter {
 	
 	public SeqFileValidator() {
 		super();
 		addNewProperty( INPUT_SEQ_MAX, Properties.INTEGER_TYPE, "maximum number of bases per read" );
 		addNewProperty( INPUT_SEQ_MIN, Properties.INTEGER_TYPE, "minimum number of bases per read" );
 		addNewProperty( REQUIRE_EUQL_NUM_PAIRS, Properties.BOOLEAN_TYPE, "Options: Y/N; require number of forward and reverse reads" );
+		addNewProperty( QC_REPORT, Properties.BOOLEAN_TYPE,
+			"Options: Y/N; if Y, write quality, GC, length and duplicate rate QC reports for each file",
+			Constants.FALSE );
 	}
 
 	/**
@@ -48,11 +53,24 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		RegisterNumReads.setNumReadFieldName( getMetaColName() );
 	}
 
+	/**
+	 * The output has the same sequence format as the input.
+	 */
+	@Override
+	public boolean canStreamOutput() {
+		return true;
+	}
+
 	@Override
 	public List<File> getSeqFiles( final Collection<File> files ) throws SequnceFormatException {
 		return SeqUtil.getSeqFiles( files );
 	}
 
+	@Override
+	public File getStreamOutputFile( final File seqFile ) {
+		return new File( getFileName( getOutputDir(), seqFile.getName() ) );
+	}
+
 	/**
 	 * Produce a summary message with counts on total number of reads and number of valid reads containing a barcode
 	 * defined in the metadata file.
@@ -95,6 +113,7 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 
 			sb.append( getSeqModSummary( invalidReads, shortReads, longReads, combinedMeanFwReadLen,
 				combinedMeanRvReadLen, overallMinReadLen, overallMaxReadLen ) );
+			if( this.allQc != null ) sb.append( getQcSummary() );
 			freeMemory();
 		} catch( final Exception ex ) {
 			final String msg = "Unable to complete module summary: " + ex.getMessage();
@@ -106,26 +125,36 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	}
 
 	/**
-	 * Cache sampleIds to compare to validated sampleIds post-processing. Call {@link #validateFile(File, Integer)} for
-	 * each input file.<br>
+	 * Call {@link biolockj.util.SeqStreamUtil#runStreamGroup(SeqStreamModule)} to validate the input files.<br>
+	 * Cache sampleIds to compare to validated sampleIds post-processing.<br>
+	 * If {@value #QC_REPORT}={@value biolockj.Constants#TRUE}, write the QC report merged across all files.<br>
 	 * Call {@link #removeBadFiles()} to remove empty files (cases where all reads fail validation).<br>
 	 * Call {@link #verifyPairedSeqs()} if module input files are paired read files.<br>
 	 * Call {@link biolockj.util.MetaUtil#addColumn(String, Map, File, boolean)}
 	 */
 	@Override
 	public void runModule() throws Exception {
+		SeqStreamUtil.runStreamGroup( this );
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
-		int count = 0;
-		for( final File file: getInputFiles() )
-			validateFile( file, count++ );
-
 		removeBadFiles();
+		if( this.allQc != null ) this.allQc.write( new File( getQcDir(), QC_SUMMARY_FILE ) );
 
 		if( SeqUtil.hasPairedReads() ) verifyPairedSeqs();
 
 		MetaUtil.addColumn( getMetaColName(), this.readsPerSample, getOutputDir(), true );
 	}
 
+	/**
+	 * Call {@link #validateFile(File, Integer)} for each input file, in parallel using
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} threads.
+	 */
+	@Override
+	public void streamSeqFiles() throws Exception {
+		if( Config.getBoolean( this, QC_REPORT ) ) this.allQc = new SeqQcStats();
+		final AtomicInteger count = new AtomicInteger();
+		SeqStreamUtil.processFiles( this, getInputFiles(), file -> validateFile( file, count.getAndIncrement() ) );
+	}
+
 	/**
 	 * Remove sequence files in which all reads failed validation checks, leaving only an empty file.
 	 */
@@ -142,7 +171,11 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	 * <li>Remove reads below minimum threshold: {@value #INPUT_SEQ_MIN}
 	 * <li>Trim reads if above the maximum threshold: {@value #INPUT_SEQ_MAX}
 	 * </ol>
-	 * Invalid reads are saved to a file in the module temp directory for analysis/review.
+	 * Invalid reads are saved to a file in the module temp directory for analysis/review. If
+	 * {@value #QC_REPORT}={@value biolockj.Constants#TRUE}, QC statistics of the valid reads are accumulated in the
+	 * same pass and saved to the {@value #QC_DIR} sub-directory.
+	 * <p>
+	 * This method may run in parallel, so updates to module state are synchronized.
 	 *
 	 * @param file Sequence file
 	 * @param fileCount Integer count
@@ -151,90 +184,91 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	protected void validateFile( final File file, final Integer fileCount ) throws Exception {
 		Log.info( getClass(), "Validate File [" + fileCount + "]: " + file.getAbsolutePath() );
 		final Long[] stats = initStats();
+		final String sampleId = SeqUtil.getSampleId( file.getName() );
+		final String headerChars = String.join( "", SeqUtil.getSeqHeaderChars() );
+		final boolean isFastQ = SeqUtil.isFastQ();
+		final int seqMin = minReadLen();
+		final Integer seqMax = Config.getPositiveInteger( this, INPUT_SEQ_MAX );
 		long combinedReadLen = 0;
-		int seqNum = 0;
+		int maxSeqLen = 0;
 
-		final List<String> seqLines = new ArrayList<>();
+		final SeqQcStats qc = this.allQc == null ? null: new SeqQcStats();
 		final List<String> badLines = new ArrayList<>();
-		final File outputFile = new File( getFileName( getOutputDir(), file.getName() ) );
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( outputFile ) );
+		final File outputFile = getStreamOutputFile( file );
+		final SeqRecordReader reader = new SeqRecordReader( file );
+		final SeqRecordWriter writer = new SeqRecordWriter( outputFile );
 		try {
-			String line = null;
-
-			try {
-				line = SeqUtil.scanFirstLine( reader, file );
-			} catch( final Exception ex ) {
-				this.badFiles.add( outputFile );
-				Log.debug( getClass(), "Error scanning input file: " + ex.getMessage() );
+			if( !reader.next() ) {
+				synchronized( this ) {
+					this.badFiles.add( outputFile );
+				}
+				Log.debug( getClass(), "Error scanning input file: Input dir contains empty file: " +
+					file.getAbsolutePath() );
 				return;
 			}
 
 			do {
-				seqLines.add( line.trim() );
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-					seqNum++;
-					final int headerLen = seqLines.get( 0 ).length();
-					final int seqLen = seqLines.get( 1 ).length();
-					String headerChar = "";
-					if( headerLen == 0 ) Log.warn( getClass(), "Sequence #" + seqNum +
-						" has an empty header & seq len = " + seqLen + " in ---> " + file.getAbsolutePath() );
-					else headerChar = seqLines.get( 0 ).substring( 0, 1 );
-
-					if( !SeqUtil.getSeqHeaderChars().contains( headerChar ) ) {
-						stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(),
-							"Sequence #" + seqNum + " format invalid.  Must begin with a valid header char (" +
-								SeqUtil.getSeqHeaderChars() + ")  --> header line = " + seqLines.get( 0 ) );
-					} else if( seqLen < minReadLen() ) {
-						stats[ INDEX_NUM_READS_TOO_SHORT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(),
-							"Sequence #" + seqNum + " format invalid.  Must have a minimum number of bases (" +
-								minReadLen() + ")  --> \n" + seqLines.get( 0 ) + "\n" + seqLines.get( 1 ) );
-					} else if( SeqUtil.isFastQ() && seqLen != seqLines.get( 3 ).length() ) {
-						stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(), "Sequence #" + seqNum + " fastq format invalid.  Must have equal " +
-							" number of bases and quality scores: " + seqLines.get( 0 ) );
-					} else {
-						stats[ INDEX_NUM_VALID_READS ]++;
-						setMaxSeq( SeqUtil.getSampleId( file.getName() ), seqLen );
-						final Integer seqMax = Config.getPositiveInteger( this, INPUT_SEQ_MAX );
-						if( seqMax != null && seqMax > 0 && seqLen > seqMax ) {
-							stats[ INDEX_NUM_TRIMMED_READS ]++;
-							seqLines.set( 1, seqLines.get( 1 ).substring( 0, seqMax ) );
-							if( SeqUtil.isFastQ() ) seqLines.set( 3, seqLines.get( 3 ).substring( 0, seqMax ) );
-						}
-
-						final long readLen = seqLines.get( 1 ).length();
-						combinedReadLen += readLen;
-
-						if( readLen > 0 && stats[ INDEX_MIN_READS ] == 0 || readLen < stats[ INDEX_MIN_READS ] )
-							stats[ INDEX_MIN_READS ] = readLen;
-						if( readLen > stats[ INDEX_MAX_READS ] ) stats[ INDEX_MAX_READS ] = readLen;
-
-						for( final String seqLine: seqLines )
-							writer.write( seqLine + RETURN );
-					}
-
-					seqLines.clear();
+				final long seqNum = reader.getRecordNum();
+				final int headerLen = reader.getLength( SeqRecordReader.HEADER_LINE );
+				final int seqLen = reader.getLength( SeqRecordReader.SEQ_LINE );
+				if( headerLen == 0 ) Log.warn( getClass(), "Sequence #" + seqNum +
+					" has an empty header & seq len = " + seqLen + " in ---> " + file.getAbsolutePath() );
+
+				if( headerLen == 0 || headerChars.indexOf( reader.charAt( SeqRecordReader.HEADER_LINE, 0 ) ) < 0 ) {
+					stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
+					addLines( badLines, reader );
+					Log.warn( getClass(),
+						"Sequence #" + seqNum + " format invalid.  Must begin with a valid header char (" +
+							SeqUtil.getSeqHeaderChars() + ")  --> header line = " + reader.getHeader() );
+				} else if( seqLen < seqMin ) {
+					stats[ INDEX_NUM_READS_TOO_SHORT ]++;
+					addLines( badLines, reader );
+					Log.warn( getClass(),
+						"Sequence #" + seqNum + " format invalid.  Must have a minimum number of bases (" + seqMin +
+							")  --> \n" + reader.getHeader() + "\n" + reader.getSeq() );
+				} else if( isFastQ && seqLen != reader.getLength( SeqRecordReader.QUAL_LINE ) ) {
+					stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
+					addLines( badLines, reader );
+					Log.warn( getClass(), "Sequence #" + seqNum + " fastq format invalid.  Must have equal " +
+						" number of bases and quality scores: " + reader.getHeader() );
+				} else {
+					stats[ INDEX_NUM_VALID_READS ]++;
+					maxSeqLen = Math.max( maxSeqLen, seqLen );
+					long readLen = seqLen;
+					if( seqMax != null && seqMax > 0 && seqLen > seqMax ) {
+						stats[ INDEX_NUM_TRIMMED_READS ]++;
+						readLen = seqMax;
+						writer.write( reader, seqMax );
+					} else writer.write( reader );
+
+					combinedReadLen += readLen;
+					if( qc != null ) qc.add( reader, (int) readLen );
+
+					if( readLen > 0 && stats[ INDEX_MIN_READS ] == 0 || readLen < stats[ INDEX_MIN_READS ] )
+						stats[ INDEX_MIN_READS ] = readLen;
+					if( readLen > stats[ INDEX_MAX_READS ] ) stats[ INDEX_MAX_READS ] = readLen;
 				}
-
-				line = reader.readLine();
-			} while( line != null );
+			} while( reader.next() );
 		} finally {
 			writer.close();
-			if( reader != null ) reader.close();
+			reader.close();
+		}
+		if( stats[ INDEX_NUM_VALID_READS ] > 0 ) {
+			ReadCountUtil.registerNumReads( outputFile, stats[ INDEX_NUM_VALID_READS ] );
+			if( qc != null ) qc.write( new File( getQcDir(),
+				sampleId + SeqUtil.getReadDirectionSuffix( file ) + QC_FILE_SUFFIX ) );
 		}
 		Log.info( BioLockJUtil.class, "Output file: " + outputFile.getAbsolutePath() );
 
-		if( stats[ INDEX_NUM_VALID_READS ] == 0 ) this.badFiles.add( file );
+		synchronized( this ) {
+			if( stats[ INDEX_NUM_VALID_READS ] > 0 ) setMaxSeq( sampleId, maxSeqLen );
+			if( stats[ INDEX_NUM_VALID_READS ] == 0 ) this.badFiles.add( file );
 
-		if( !this.badFiles.contains( file ) ) {
-			saveRemovedSeqsToFile( badLines, file );
-			populateSampleStats( stats, file, combinedReadLen );
+			if( !this.badFiles.contains( file ) ) {
+				saveRemovedSeqsToFile( badLines, file );
+				populateSampleStats( stats, file, combinedReadLen );
+				if( qc != null ) this.allQc.merge( qc );
+			}
 		}
 	}
 
@@ -287,6 +321,7 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		this.sampleStats = null;
 		this.badFiles = null;
 		this.sampleStats = null;
+		this.allQc = null;
 	}
 
 	private String getMetaColName() throws Exception {
@@ -294,6 +329,18 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		return this.otuColName;
 	}
 
+	private File getQcDir() {
+		return ModuleUtil.requireSubDir( this, QC_DIR );
+	}
+
+	private String getQcSummary() throws Exception {
+		final int pad = SummaryUtil.getPad( "Valid Reads" );
+		return BioLockJUtil.addTrailingSpaces( "QC reports:", pad ) + getQcDir().getAbsolutePath() + RETURN +
+			BioLockJUtil.addTrailingSpaces( "GC %:", pad ) + String.format( "%.2f", this.allQc.getGcPercent() ) +
+			RETURN + BioLockJUtil.addTrailingSpaces( "Est. duplicate rate:", pad ) +
+			String.format( "%.4f", this.allQc.getDuplicateRate() ) + RETURN;
+	}
+
 	private String getSeqLenRange() throws Exception {
 		final Integer max = Config.getPositiveInteger( this, INPUT_SEQ_MAX );
 		return "Valid SEQ Len Range --> min( " + minReadLen() + " ) - max( " + ( max == null ? "UNLIMITED": max ) +
@@ -432,6 +479,11 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 
 	}
 
+	private static void addLines( final List<String> lines, final SeqRecordReader reader ) {
+		for( int i = 0; i < reader.getNumLines(); i++ )
+			lines.add( reader.getLine( i ) );
+	}
+
 	private static String getFileName( final File dir, final String name ) {
 		final String prefix = dir.getAbsolutePath() + File.separator;
 		if( SeqUtil.isGzipped( name ) ) return prefix + name.substring( 0, name.length() - 3 );
@@ -445,6 +497,7 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 		return stats;
 	}
 
+	private SeqQcStats allQc = null;
 	private Set<File> badFiles = new HashSet<>();
 	private final Map<Long, TreeSet<String>> maxSeqFound = new HashMap<>();
 	private String otuColName = null;
@@ -468,6 +521,21 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	 */
 	public static final String NUM_VALID_READS = "Num_Valid_Reads";
 
+	/**
+	 * Name of the module sub-directory that holds the QC reports: {@value #QC_DIR}
+	 */
+	public static final String QC_DIR = "qc";
+
+	/**
+	 * File name suffix of the QC report of each file: {@value #QC_FILE_SUFFIX}
+	 */
+	public static final String QC_FILE_SUFFIX = "_qc" + Constants.TSV_EXT;
+
+	/**
+	 * Name of the QC report merged across all files: {@value #QC_SUMMARY_FILE}
+	 */
+	public static final String QC_SUMMARY_FILE = "qcSummary" + Constants.TSV_EXT;
+
 	/**
 	 * {@link biolockj.Config} Integer property {@value #INPUT_SEQ_MAX} defines the maximum number of bases per read
 	 */
@@ -478,6 +546,12 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule, ApiMo
 	 */
 	protected static final String INPUT_SEQ_MIN = "seqFileValidator.seqMinLen";
 
+	/**
+	 * {@link biolockj.Config} Boolean property {@value #QC_REPORT} determines if the module writes QC reports (per-cycle
+	 * quality, GC/N content, length distribution and duplicate rate) during validation.
+	 */
+	protected static final String QC_REPORT = "seqFileValidator.qcReport";
+
 	/**
 	 * {@link biolockj.Config} Boolean property {@value #REQUIRE_EUQL_NUM_PAIRS} determines if module requires equal
 	 * number of forward and reverse reads (simple check).
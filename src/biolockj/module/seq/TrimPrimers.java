@@ -340,40 +340,15 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType();
 	}
 
-	private Set<String> getValidHeaders( final File file, final Set<String> primers ) throws Exception {
-		final Set<String> validHeaders = new HashSet<>();
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		int lineCounter = 1;
-		String header = null;
-		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				line = line.trim();
-				if( lineCounter % SeqUtil.getNumLinesPerRead() == 1 ) header = SeqUtil.getHeader( line );
-				else if( lineCounter % SeqUtil.getNumLinesPerRead() == 2 ) {
-					boolean foundHeader = false;
-					for( final String seq: primers ) {
-						final int seqLength = line.length();
-						line = line.replaceFirst( seq, "" );
-						if( seqLength != line.length() ) foundHeader = true;
-					}
-
-					if( foundHeader ) {
-						if( validHeaders.contains( header ) )
-							throw new Exception( "NON-FATAL Exception: Duplicate header: " + header );
-
-						validHeaders.add( header );
-					}
-				}
-				lineCounter++;
-			}
-
-			Log.info( getClass(), file.getName() + " # valid headers = " + validHeaders.size() );
-
-		} finally {
-			reader.close();
+	private static boolean hasPrimer( final SeqRecordReader reader, final Set<String> primers ) {
+		String line = reader.getSeq();
+		boolean found = false;
+		for( final String seq: primers ) {
+			final int seqLength = line.length();
+			line = line.replaceFirst( seq, "" );
+			if( seqLength != line.length() ) found = true;
 		}
-
-		return validHeaders;
+		return found;
 	}
 
 	private Map<String, String> getValidReadsPerSample() throws Exception {
@@ -407,11 +382,7 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 		else if( this.mergedReadTwoPrimers ) Log.warn( getClass(), "TrimPrimers # " + reportLabel + " = 0" );
 	}
 
-	private void processFile( final File file, final Set<String> primers ) throws Exception {
-		processFile( file, new HashSet<>(), primers );
-	}
-
-	private void processFile( final File file, final Set<String> validHeaders, final Set<String> primers )
+	private void processFile( final File file, final PairedReadSet validReads, final Set<String> primers )
 		throws Exception {
 		Log.info( getClass(), "Processing file = " + file.getAbsolutePath() );
 		this.seqs.add( file );
@@ -421,92 +392,78 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 		final File trimmedFile = new File( getTrimFilePath( file ) );
 		Log.info( getClass(), "Create trimmed file = " + trimmedFile.getAbsolutePath() );
 
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( trimmedFile ) );
+		final boolean requirePrimer = Config.getBoolean( this, INPUT_REQUIRE_PRIMER );
+		final SeqRecordReader reader = new SeqRecordReader( file );
+		final SeqRecordWriter writer = new SeqRecordWriter( trimmedFile );
 		try {
-			int fwPrimerLength = 0;
-			int rvPrimerLength = 0;
-			final List<String> seqLines = new ArrayList<>();
-			boolean found = false;
+			while( reader.next() ) {
+				int fwPrimerLength = 0;
+				int rvPrimerLength = 0;
+				boolean found = false;
+				final String origSequence = reader.getSeq();
+				String line = origSequence;
+				for( final String seq: primers )
+					if( line.replaceFirst( seq, "" ).length() != line.length() ) {
+						if( seq.startsWith( "^" ) ) {
+							if( fwPrimerLength != 0 ) throw new Exception(
+								"INVALID SEQ!  Read contains 2 forward primers!  " + origSequence );
+
+							fwPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
+						} else if( seq.endsWith( "$" ) ) {
+							if( rvPrimerLength != 0 ) throw new Exception(
+								"INVALID SEQ!  Read contains 2 reverse primers!  " + origSequence );
+
+							rvPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
+						} else throw new Exception(
+							"INVALID PRIMER!  Primers must start with \"^\" or end with \"$\"" );
 
-			String origSequence = "";
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				if( seqLines.size() == 1 ) {
-					origSequence = line;
-					found = false;
-					for( final String seq: primers )
-						if( line.replaceFirst( seq, "" ).length() != line.length() ) {
-							if( seq.startsWith( "^" ) ) {
-								if( fwPrimerLength != 0 ) throw new Exception(
-									"INVALID SEQ!  Read contains 2 forward primers!  " + origSequence );
-
-								fwPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
-							} else if( seq.endsWith( "$" ) ) {
-								if( rvPrimerLength != 0 ) throw new Exception(
-									"INVALID SEQ!  Read contains 2 reverse primers!  " + origSequence );
-
-								rvPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
-							} else throw new Exception(
-								"INVALID PRIMER!  Primers must start with \"^\" or end with \"$\"" );
-
-							line = line.replaceFirst( seq, "" );
-
-							if( this.mergedReadTwoPrimers && fwPrimerLength < 1 && rvPrimerLength < 1 ) {
-								// Log.warn( getClass(), "Read missing BOTH primers " + origSequence );
-								if( this.missingBothPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingBothPrimers.put( file.getName(), m );
-								} else this.missingBothPrimers.get( file.getName() ).put( seqLines.get( 0 ),
-									origSequence );
-							} else if( this.mergedReadTwoPrimers && fwPrimerLength < 1 ) {
-								Log.debug( getClass(), "Read missing forward primer " + origSequence );
-								if( this.missingFwPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingFwPrimers.put( file.getName(), m );
-								} else
-									this.missingFwPrimers.get( file.getName() ).put( seqLines.get( 0 ), origSequence );
-
-							} else if( this.mergedReadTwoPrimers && rvPrimerLength < 1 ) {
-								Log.debug( getClass(), "Read missing reverse primer " + origSequence );
-								if( this.missingRvPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingRvPrimers.put( file.getName(), m );
-								} else
-									this.missingRvPrimers.get( file.getName() ).put( seqLines.get( 0 ), origSequence );
-							} else found = true;
-						}
+						line = line.replaceFirst( seq, "" );
 
-					if( found ) {
-						final Long x = this.numLinesWithPrimer.get( file.getAbsolutePath() );
-						this.numLinesWithPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
-					} else {
-						final Long x = this.numLinesNoPrimer.get( file.getAbsolutePath() );
-						this.numLinesNoPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
+						if( this.mergedReadTwoPrimers && fwPrimerLength < 1 && rvPrimerLength < 1 ) {
+							// Log.warn( getClass(), "Read missing BOTH primers " + origSequence );
+							if( this.missingBothPrimers.get( file.getName() ) == null ) {
+								final Map<String, String> m = new HashMap<>();
+								m.put( reader.getHeader(), origSequence );
+								this.missingBothPrimers.put( file.getName(), m );
+							} else this.missingBothPrimers.get( file.getName() ).put( reader.getHeader(),
+								origSequence );
+						} else if( this.mergedReadTwoPrimers && fwPrimerLength < 1 ) {
+							Log.debug( getClass(), "Read missing forward primer " + origSequence );
+							if( this.missingFwPrimers.get( file.getName() ) == null ) {
+								final Map<String, String> m = new HashMap<>();
+								m.put( reader.getHeader(), origSequence );
+								this.missingFwPrimers.put( file.getName(), m );
+							} else this.missingFwPrimers.get( file.getName() ).put( reader.getHeader(), origSequence );
+						} else if( this.mergedReadTwoPrimers && rvPrimerLength < 1 ) {
+							Log.debug( getClass(), "Read missing reverse primer " + origSequence );
+							if( this.missingRvPrimers.get( file.getName() ) == null ) {
+								final Map<String, String> m = new HashMap<>();
+								m.put( reader.getHeader(), origSequence );
+								this.missingRvPrimers.put( file.getName(), m );
+							} else this.missingRvPrimers.get( file.getName() ).put( reader.getHeader(), origSequence );
+						} else found = true;
 					}
-				} else if( seqLines.size() == 3 ) {
-					if( fwPrimerLength > 0 ) line = line.substring( fwPrimerLength );
-					if( rvPrimerLength > 0 ) line = line.substring( 0, line.length() - rvPrimerLength );
-				}
 
-				seqLines.add( line );
+				if( found ) {
+					final Long x = this.numLinesWithPrimer.get( file.getAbsolutePath() );
+					this.numLinesWithPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
+				} else {
+					final Long x = this.numLinesNoPrimer.get( file.getAbsolutePath() );
+					this.numLinesNoPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
+				}
 
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-					final boolean validRecord =
-						found && ( SeqUtil.hasPairedReads() ? validHeaders.contains( seqLines.get( 0 ) ): true );
+				final boolean validRecord = found && ( validReads == null || validReads.contains( reader ) );
 
-					if( !Config.getBoolean( this, INPUT_REQUIRE_PRIMER ) || validRecord ) {
-						final Long x = this.seqsWithPrimersTrimmed.get( file );
-						this.seqsWithPrimersTrimmed.put( file, x == null ? 1L: x + 1L );
+				if( !requirePrimer || validRecord ) {
+					final Long x = this.seqsWithPrimersTrimmed.get( file );
+					this.seqsWithPrimersTrimmed.put( file, x == null ? 1L: x + 1L );
 
-						for( int j = 0; j < SeqUtil.getNumLinesPerRead(); j++ )
-							writer.write( seqLines.get( j ) + RETURN );
-					}
-					fwPrimerLength = 0;
-					rvPrimerLength = 0;
-					seqLines.clear();
+					writer.writeLine( reader, SeqRecordReader.HEADER_LINE );
+					writer.writeLine( line );
+					for( int j = SeqRecordReader.SEQ_LINE + 1; j < reader.getNumLines(); j++ )
+						if( j == SeqRecordReader.QUAL_LINE ) writer.writeLine( reader, j, fwPrimerLength,
+							reader.getLength( j ) - fwPrimerLength - rvPrimerLength );
+						else writer.writeLine( reader, j );
 				}
 			}
 		} catch( final Exception ex ) {
@@ -527,12 +484,13 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule, ApiModule,
 		int i = 0;
 		Log.info( getClass(), "Trimming primers from " + ( hasPairedReads ? 2 * count: count ) + " files..." );
 		for( final File file: files ) {
-			final Set<String> validReads = getValidHeaders( file, primers );
 			if( pairedReads != null ) {
-				validReads.retainAll( getValidHeaders( pairedReads.get( file ), primers ) );
+				final PairedReadSet validReads =
+					PairedReadSet.build( file, pairedReads.get( file ), reader -> hasPrimer( reader, primers ) );
+				Log.info( getClass(), file.getName() + " # valid read pairs = " + validReads.size() );
 				processFile( file, validReads, primers );
-				processFile( pairedReads.get( file ), validReads );
-			} else processFile( file, primers );
+				processFile( pairedReads.get( file ), validReads, primers );
+			} else processFile( file, null, primers );
 
 			if( ( i++ + 1 ) % 25 == 0 ) Log.info( getClass(),
 				"Done trimming " + i + "/" + count + ( hasPairedReads ? " file pairs": " files" ) );
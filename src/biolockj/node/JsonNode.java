@@ -12,13 +12,12 @@
 package biolockj.node;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.*;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import biolockj.Log;
 
 /**
- * Each JsonNode holds an OTU, count, and link to its parent node.
+ * Each JsonNode holds an OTU, count, link to its parent node, and a hashed map of its child nodes by taxa name.
  */
 public class JsonNode implements Serializable, Comparable<JsonNode> {
 	/**
@@ -34,6 +33,7 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 		this.count = count;
 		this.parent = parent;
 		this.level = level;
+		if( parent != null ) parent.children.put( taxa, this );
 	}
 
 	/**
@@ -65,6 +65,27 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 		return false;
 	}
 
+	/**
+	 * Get the child node with the given taxa name.
+	 * 
+	 * @param name Taxa name
+	 * @return Child JsonNode or null
+	 */
+	public JsonNode getChild( final String name ) {
+		return this.children.get( name );
+	}
+
+	/**
+	 * Get the child nodes sorted by taxa name.
+	 * 
+	 * @return List of child nodes
+	 */
+	public List<JsonNode> getChildren() {
+		final List<JsonNode> nodes = new ArrayList<>( this.children.values() );
+		Collections.sort( nodes );
+		return nodes;
+	}
+
 	/**
 	 * Getter method for count
 	 * 
@@ -138,7 +159,9 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 	 * @param parent Node parent
 	 */
 	public void setParent( final JsonNode parent ) {
+		if( this.parent != null ) this.parent.children.remove( this.taxa );
 		this.parent = parent;
+		if( parent != null ) parent.children.put( this.taxa, this );
 	}
 
 	/**
@@ -147,7 +170,9 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 	 * @param taxa Taxa name
 	 */
 	public void setTaxa( final String taxa ) {
+		if( this.parent != null ) this.parent.children.remove( this.taxa );
 		this.taxa = taxa;
+		if( this.parent != null ) this.parent.children.put( taxa, this );
 	}
 
 	/**
@@ -162,6 +187,7 @@ public class JsonNode implements Serializable, Comparable<JsonNode> {
 		this.stats.put( name, this.stats.get( name ) + val );
 	}
 
+	private final Map<String, JsonNode> children = new HashMap<>();
 	private Long count = 0L;
 	private String level;
 	private JsonNode parent;
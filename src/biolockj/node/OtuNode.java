@@ -46,6 +46,13 @@ public interface OtuNode {
 	 */
 	public String getLine();
 
+	/**
+	 * Get the read ID (the 1st token of the classifier output line), kept at every log level.
+	 *
+	 * @return Read ID, or null if the classifier output line does not start with a read ID
+	 */
+	public String getReadId();
+
 	/**
 	 * Build the OTU name from the taxaMap.
 	 * 
@@ -82,6 +89,13 @@ public interface OtuNode {
 	 */
 	public void setLine( String line );
 
+	/**
+	 * Set the read ID (the 1st token of the classifier output line).
+	 *
+	 * @param readId Read ID
+	 */
+	public void setReadId( String readId );
+
 	/**
 	 * Set the sample ID, parsed from file name or sequence header, to which this taxonomy assignment belongs.
 	 *
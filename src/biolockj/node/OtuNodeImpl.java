@@ -132,6 +132,11 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 		return this.name;
 	}
 
+	@Override
+	public String getReadId() {
+		return this.readId;
+	}
+
 	@Override
 	public String getSampleId() {
 		return this.sampleId;
@@ -171,6 +176,11 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 		}
 	}
 
+	@Override
+	public void setReadId( final String readId ) {
+		this.readId = readId;
+	}
+
 	@Override
 	public void setSampleId( final String sampleId ) {
 		this.sampleId = sampleId;
@@ -235,6 +245,7 @@ public abstract class OtuNodeImpl implements OtuNode, Comparable<OtuNode> {
 	private long count = 0;
 	private String line = "";
 	private String name = null;
+	private String readId = null;
 	private String sampleId = null;
 
 	// key=level, val=otu
@@ -65,8 +65,8 @@ public class RdpNode extends OtuNodeImpl {
 		setLine( line );
 		setCount( 1 );
 
-		// skip the header, every line has at least 1 token, so next line will never throw Exception
-		st.nextToken();
+		// every line has at least 1 token (the header), so next line will never throw Exception
+		setReadId( st.nextToken().trim() );
 
 		while( st.hasMoreTokens() ) {
 			String taxa = getTaxaName( st.nextToken() );
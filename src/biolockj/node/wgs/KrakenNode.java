@@ -37,7 +37,7 @@ public class KrakenNode extends OtuNodeImpl {
 	public KrakenNode( final String id, final String line ) throws Exception {
 		final StringTokenizer st = new StringTokenizer( line, Constants.TAB_DELIM );
 		if( st.countTokens() == 2 ) {
-			st.nextToken(); // skip the header
+			setReadId( st.nextToken().trim() );
 			setSampleId( id );
 			setLine( line );
 			setCount( 1 );
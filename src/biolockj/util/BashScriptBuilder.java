@@ -48,7 +48,7 @@ public class BashScriptBuilder {
 			throw new PipelineScriptException( module, "All worker scripts are empty" );
 		try {
 			workerScripts.clear();
-			buildWorkerScripts( module, data );
+			buildWorkerScripts( module, CheckpointUtil.addCheckpoints( module, data ) );
 			if( workerScripts.isEmpty() )
 				throw new PipelineScriptException( module, false, "No worker script lines created" );
 			if( !DockerUtil.inAwsEnv() ) buildMainScript( module );
@@ -89,7 +89,13 @@ public class BashScriptBuilder {
 	protected static void buildMainScript( final ScriptModule module ) throws ConfigException, IOException, DockerVolCreationException {
 
 		final List<String> mainScriptLines = initMainScript( module );
-		for( final File worker: workerScripts )
+		final Integer poolSize = DockerUtil.inDockerEnv() ? DockerUtil.getPoolSize( module ): null;
+		if( poolSize != null ) mainScriptLines.add( FUNCTION_EXECUTE_LINE + " \"" + DockerUtil.START_DOCKER_POOL + " " +
+			buildDockerPoolScript( module ).getAbsolutePath() + " " + Math.min( poolSize, workerNum() ) +
+			"\" ${LINENO}" );
+		else if( useJobArray( module ) ) mainScriptLines.add( FUNCTION_EXECUTE_LINE + " \"" + FUNCTION_RUN_JOB_ARRAY +
+			" " + buildJobArrayScript( module ).getAbsolutePath() + "\" ${LINENO}" );
+		else for( final File worker: workerScripts )
 			mainScriptLines.add( getMainScriptExecuteWorkerLine( worker.getAbsolutePath() ) );
 
 		mainScriptLines
@@ -208,8 +214,12 @@ public class BashScriptBuilder {
 		lines.add( "exec 1>${tempDir}/MAIN.log" );
 		lines.add( "exec 2>&1" );
 		lines.add( "cd " + module.getScriptDir().getAbsolutePath() + RETURN );
-		if( DockerUtil.inDockerEnv() ) {
+		if( DockerUtil.inDockerEnv() && DockerUtil.getPoolSize( module ) != null ) {
+			lines.addAll( DockerUtil.buildStartDockerPoolFunction( module, startedFlag ) );
+		}else if( DockerUtil.inDockerEnv() ) {
 			lines.addAll( DockerUtil.buildSpawnDockerContainerFunction( module, startedFlag ) );
+		}else if( useJobArray( module ) ) {
+			lines.addAll( buildRunClusterJobArrayFunction( module ) );
 		}else if( Config.isOnCluster() ) {
 			lines.addAll( buildRunClusterJobFunction( module ) );
 		}
@@ -230,6 +240,83 @@ public class BashScriptBuilder {
 		return(lines);
 	}
 	
+	private static List<String> buildRunClusterJobArrayFunction( final ScriptModule module )
+		throws ConfigNotFoundException {
+		final List<String> lines = new ArrayList<>();
+		final String startedFlag = getMainScriptPath( module ) + "_" + Constants.SCRIPT_STARTED;
+		final String command = Config.requireString( module, CLUSTER_ARRAY_COMMAND ).replace( NUM_JOBS_TOKEN,
+			String.valueOf( workerNum() ) );
+		lines.add( "# Submit job array script (1 task per worker script)" );
+		lines.add( "function " + FUNCTION_RUN_JOB_ARRAY + "() {" );
+		lines.add( "scriptName=$(basename $1)" );
+		lines.add( "id=$(" + command + " $1)" );
+		lines.add( "echo \"$scriptName:" + CLUSTER_KEY + ":$id\" >> " + startedFlag );
+		lines.add( "}" + RETURN );
+		return lines;
+	}
+
+	/**
+	 * Build the script run by each Docker pool container (see {@link biolockj.util.DockerUtil#DOCKER_POOL_SIZE}).
+	 * Containers claim worker scripts by creating a directory named for the script in the hidden
+	 * {@value #POOL_CLAIM_DIR} directory (mkdir is atomic), so each worker script runs once and idle containers pick
+	 * up the next unclaimed script. Worker scripts still create their own status indicator files.
+	 * 
+	 * @param module ScriptModule
+	 * @return Docker pool script
+	 * @throws IOException if unable to write the script
+	 */
+	private static File buildDockerPoolScript( final ScriptModule module ) throws IOException {
+		final String path = module.getScriptDir().getAbsolutePath() + File.separator + DOCKER_POOL_SCRIPT;
+		final List<String> lines = new ArrayList<>();
+		lines.add( "# BioLockJ." + BioLockJUtil.getVersion() + ": " + path );
+		lines.add( "" );
+		lines.add( "claimDir=\"" + module.getScriptDir().getAbsolutePath() + File.separator + POOL_CLAIM_DIR + "\"" );
+		lines.add( "mkdir -p \"${claimDir}\"" );
+		lines.add( "workers=(" );
+		for( final File worker: workerScripts )
+			lines.add( Constants.INDENT + "\"" + worker.getAbsolutePath() + "\"" );
+		lines.add( ")" + RETURN );
+		lines.add( "for worker in \"${workers[@]}\"; do" );
+		lines.add( Constants.INDENT + "mkdir \"${claimDir}/$(basename ${worker})\" 2>/dev/null && bash \"${worker}\"" );
+		lines.add( "done" );
+		lines.add( "exit 0" );
+		return createScript( module, path, lines );
+	}
+
+	/**
+	 * Build the job array script submitted by {@value #FUNCTION_RUN_JOB_ARRAY}. Each array task runs the worker script
+	 * with the (1-based) index given by the {@link biolockj.Config}.{@value #CLUSTER_ARRAY_INDEX_VAR} environment
+	 * variable, so worker scripts still create their own status indicator files.
+	 * 
+	 * @param module ScriptModule
+	 * @return Job array script
+	 * @throws ConfigNotFoundException if {@value #CLUSTER_ARRAY_INDEX_VAR} is undefined
+	 * @throws IOException if unable to write the script
+	 */
+	private static File buildJobArrayScript( final ScriptModule module ) throws ConfigNotFoundException, IOException {
+		final String path = module.getScriptDir().getAbsolutePath() + File.separator + JOB_ARRAY_SCRIPT;
+		final String indexVar = "${" + Config.requireString( module, CLUSTER_ARRAY_INDEX_VAR ) + "}";
+		final String header = Config.getString( module, SCRIPT_JOB_HEADER );
+		final String defaultHeader = Config.getString( module, Constants.SCRIPT_DEFAULT_HEADER );
+		final List<String> lines = new ArrayList<>();
+		if( header != null ) lines.add( header );
+		else if( defaultHeader != null ) lines.add( defaultHeader );
+		lines.add( "" );
+		lines.add( "# BioLockJ." + BioLockJUtil.getVersion() + ": " + path );
+		lines.add( "" );
+		lines.add( "workers=(" );
+		for( final File worker: workerScripts )
+			lines.add( Constants.INDENT + "\"" + worker.getAbsolutePath() + "\"" );
+		lines.add( ")" + RETURN );
+		lines.add( "worker=\"${workers[$(( " + indexVar + " - 1 ))]}\"" );
+		lines.add( "if [ -z \"${worker}\" ]; then" );
+		lines.add( "echo \"No worker script for job array index " + indexVar + "\"" );
+		lines.add( "exit 1" );
+		lines.add( "fi" );
+		lines.add( "bash \"${worker}\"" );
+		return createScript( module, path, lines );
+	}
+
 	/**
 	 * Get the script lines to assign values to the common directories.
 	 * Using these variables in place of full file paths makes the script easier to read.
@@ -313,6 +400,7 @@ public class BashScriptBuilder {
 		if( workerFunctions != null && !workerFunctions.isEmpty() ) lines.addAll( workerFunctions );
 		lines.addAll( buildScriptFailureFunction( scriptPath ) );
 		lines.addAll( buildExecuteFunction() );
+		if( ScratchUtil.isEnabled( module ) ) lines.addAll( ScratchUtil.getWorkerScriptLines( module ) );
 		return lines;
 	}
 
@@ -331,7 +419,7 @@ public class BashScriptBuilder {
 			for( String line: scriptLines ) {
 				String data = line.trim();
 				if( data.equals( "fi" ) || data.equals( "}" ) || data.equals( "elif" ) ||
-					data.equals( "else" ) || data.equals( "done" ) ) indentCount--;
+					data.equals( "else" ) || data.equals( "done" ) || data.startsWith( "done " ) ) indentCount--;
 
 				int i = 0;
 				while( i++ < indentCount )
@@ -359,7 +447,10 @@ public class BashScriptBuilder {
 			if( lines.isEmpty() )
 				throw new PipelineScriptException( module, true, " Worker script #" + workerNum() + " is empty." );
 			workerLines.addAll( getWorkerScriptLines( lines ) );
+			if( ScratchUtil.isEnabled( module ) ) workerLines.add( ScratchUtil.getAsyncStageOutLine() );
 			if( saveWorker( module, ++sampleCount, data.size() ) || !it.hasNext() ) {
+				if( ScratchUtil.isEnabled( module ) ) workerLines.add(
+					FUNCTION_EXECUTE_LINE + " \"" + ScratchUtil.FUNCTION_VERIFY_STAGE_OUT + "\" ${LINENO}" );
 				if( !( module instanceof JavaModule ) )
 					workerLines.add( "touch \"" + workerScriptPath + "_" + Constants.SCRIPT_SUCCESS + "\"" );
 				final List<String> workerLinesEasyReading = insertPathVars(module, workerLines);
@@ -416,6 +507,15 @@ public class BashScriptBuilder {
 			workerNum() >= maxWorkers && sampleCount == minSamplesPerWorker;
 	}
 
+	/**
+	 * Cluster worker scripts are submitted as 1 job array if {@link biolockj.Config}.{@value #CLUSTER_ARRAY_COMMAND} is
+	 * defined and the module has more than 1 worker script.
+	 */
+	private static boolean useJobArray( final ScriptModule module ) {
+		return Config.isOnCluster() && !DockerUtil.inDockerEnv() && workerNum() > 1 &&
+			Config.getString( module, CLUSTER_ARRAY_COMMAND ) != null;
+	}
+
 	private static int workerNum() {
 		return workerScripts.size();
 	}
@@ -425,6 +525,8 @@ public class BashScriptBuilder {
 	 * @throws API_Exception 
 	 */
 	public static void registerProps() throws API_Exception {
+		Properties.registerProp(CLUSTER_ARRAY_COMMAND, Properties.STRING_TYPE, CLUSTER_ARRAY_COMMAND_DESC);
+		Properties.registerProp(CLUSTER_ARRAY_INDEX_VAR, Properties.STRING_TYPE, CLUSTER_ARRAY_INDEX_VAR_DESC);
 		Properties.registerProp(CLUSTER_BATCH_COMMAND, Properties.STRING_TYPE, CLUSTER_BATCH_COMMAND_DESC);
 		Properties.registerProp(CLUSTER_STATUS_COMMAND, Properties.STRING_TYPE, CLUSTER_STATUS_COMMAND_DESC);
 		Properties.registerProp(CLUSTER_MODULES, Properties.LIST_TYPE, CLUSTER_MODULES_DESC);
@@ -436,6 +538,8 @@ public class BashScriptBuilder {
 	 */
 	public static List<String> listProps(){
 		ArrayList<String> props = new ArrayList<>();
+		props.add( CLUSTER_ARRAY_COMMAND );
+		props.add( CLUSTER_ARRAY_INDEX_VAR );
 		props.add( CLUSTER_BATCH_COMMAND );
 		props.add( CLUSTER_STATUS_COMMAND );
 		props.add( CLUSTER_MODULES );
@@ -444,6 +548,20 @@ public class BashScriptBuilder {
 		return props;
 	}
 	
+	/**
+	 * {@link biolockj.Config} String property: {@value #CLUSTER_ARRAY_COMMAND}<br>
+	 * {@value #CLUSTER_ARRAY_COMMAND_DESC}
+	 */
+	protected static final String CLUSTER_ARRAY_COMMAND = "cluster.arrayCommand";
+	private static final String CLUSTER_ARRAY_COMMAND_DESC = "Terminal command used to submit all worker scripts of a module as 1 job array, where {numJobs} is replaced by the number of worker scripts (Ex. sbatch --array=1-{numJobs} or qsub -J 1-{numJobs}). If undefined, each worker script is submitted with cluster.batchCommand";
+
+	/**
+	 * {@link biolockj.Config} String property: {@value #CLUSTER_ARRAY_INDEX_VAR}<br>
+	 * {@value #CLUSTER_ARRAY_INDEX_VAR_DESC}
+	 */
+	protected static final String CLUSTER_ARRAY_INDEX_VAR = "cluster.arrayIndexVar";
+	private static final String CLUSTER_ARRAY_INDEX_VAR_DESC = "Environment variable that holds the 1-based job array task index, required with cluster.arrayCommand (Ex. SLURM_ARRAY_TASK_ID or PBS_ARRAY_INDEX)";
+
 	/**
 	 * {@link biolockj.Config} String property: {@value #CLUSTER_BATCH_COMMAND}<br>
 	 * {@value #CLUSTER_BATCH_COMMAND_DESC}
@@ -486,6 +604,10 @@ public class BashScriptBuilder {
 
 	private static final String FUNCTION_EXECUTE_LINE = "executeLine";
 	private static final String FUNCTION_RUN_JOB = "runJob";
+	private static final String FUNCTION_RUN_JOB_ARRAY = "runJobArray";
+	private static final String DOCKER_POOL_SCRIPT = "dockerPool.bash";
+	private static final String JOB_ARRAY_SCRIPT = "jobArray.bash";
+	private static final String NUM_JOBS_TOKEN = "{numJobs}";
 	private static final String CLUSTER_KEY = "cluster";
 	private static final String FUNCTION_SCRIPT_FAILED = "scriptFailed";
 	private static final String MOD_DIR = "modDir";
@@ -493,6 +615,7 @@ public class BashScriptBuilder {
 	private static final String OUTPUT_DIR = "outputDir";
 	private static final String OUTPUT_DIR_VAR = "${" + OUTPUT_DIR + "}";
 	private static final String PIPE_DIR = "pipeDir";
+	private static final String POOL_CLAIM_DIR = ".claims";
 	private static final String PIPE_DIR_VAR = "${" + PIPE_DIR + "}";
 	private static final String SCRIPT_DIR = "scriptDir";
 	private static final String SCRIPT_DIR_VAR = "${" + SCRIPT_DIR + "}";
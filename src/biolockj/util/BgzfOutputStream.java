@@ -0,0 +1,163 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * This OutputStream writes BGZF (blocked gzip) output, compressing blocks on multiple threads.
+ * <p>
+ * Data is cut into independent gzip members of at most {@value #MAX_BLOCK_SIZE} bytes, each with the BGZF "BC" extra
+ * field, and terminated with the standard BGZF end-of-file block. The result is a valid multi-member gzip file, so it
+ * can be read by gzip, zcat, {@link java.util.zip.GZIPInputStream} and BGZF aware tools (samtools, htslib).<br>
+ * Blocks are deflated in parallel but always written in order.
+ */
+public class BgzfOutputStream extends OutputStream {
+
+	/**
+	 * Construct a BGZF stream that compresses with the given number of threads.
+	 *
+	 * @param out Underlying stream (closed by {@link #close()})
+	 * @param numThreads Number of compression threads
+	 */
+	public BgzfOutputStream( final OutputStream out, final int numThreads ) {
+		this.out = out;
+		this.numThreads = Math.max( 1, numThreads );
+		this.pool = Executors.newFixedThreadPool( this.numThreads );
+	}
+
+	@Override
+	public void close() throws IOException {
+		if( this.closed ) return;
+		try {
+			flush();
+			while( !this.pending.isEmpty() )
+				writeNextBlock();
+			this.out.write( EOF_BLOCK );
+		} finally {
+			this.closed = true;
+			this.pool.shutdownNow();
+			this.out.close();
+		}
+	}
+
+	/**
+	 * Submit the buffered data as a block. The underlying stream is not flushed until {@link #close()}, because
+	 * flushing would require waiting for every pending block.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if( this.len == 0 ) return;
+		final byte[] data = this.buf;
+		final int size = this.len;
+		this.pending.add( this.pool.submit( () -> compress( data, size ) ) );
+		this.buf = new byte[ MAX_BLOCK_SIZE ];
+		this.len = 0;
+		while( this.pending.size() > MAX_PENDING_PER_THREAD * this.numThreads )
+			writeNextBlock();
+	}
+
+	@Override
+	public void write( final byte[] bytes, final int off, final int length ) throws IOException {
+		int offset = off;
+		int remaining = length;
+		while( remaining > 0 ) {
+			final int n = Math.min( remaining, MAX_BLOCK_SIZE - this.len );
+			System.arraycopy( bytes, offset, this.buf, this.len, n );
+			this.len += n;
+			offset += n;
+			remaining -= n;
+			if( this.len == MAX_BLOCK_SIZE ) flush();
+		}
+	}
+
+	@Override
+	public void write( final int b ) throws IOException {
+		this.buf[ this.len++ ] = (byte) b;
+		if( this.len == MAX_BLOCK_SIZE ) flush();
+	}
+
+	private void writeNextBlock() throws IOException {
+		try {
+			this.out.write( this.pending.poll().get() );
+		} catch( final ExecutionException ex ) {
+			throw new IOException( "BGZF block compression failed", ex.getCause() );
+		} catch( final InterruptedException ex ) {
+			Thread.currentThread().interrupt();
+			throw new IOException( "Interrupted while writing BGZF block", ex );
+		}
+	}
+
+	/**
+	 * Build 1 complete BGZF block: gzip header with BC extra field, raw deflate data, CRC32 and input size.
+	 */
+	private static byte[] compress( final byte[] data, final int size ) {
+		final Deflater deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+		final byte[] block = new byte[ MAX_BGZF_BLOCK ];
+		final int dataLen;
+		try {
+			deflater.setInput( data, 0, size );
+			deflater.finish();
+			dataLen = deflater.deflate( block, HEADER_LEN, block.length - HEADER_LEN - FOOTER_LEN );
+			if( !deflater.finished() ) throw new IllegalStateException( "Compressed BGZF block exceeds 64 KB" );
+		} finally {
+			deflater.end();
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update( data, 0, size );
+		final int blockLen = HEADER_LEN + dataLen + FOOTER_LEN;
+		System.arraycopy( HEADER, 0, block, 0, HEADER_LEN );
+		putShort( block, BSIZE_OFFSET, blockLen - 1 );
+		putInt( block, HEADER_LEN + dataLen, (int) crc.getValue() );
+		putInt( block, HEADER_LEN + dataLen + 4, size );
+		return Arrays.copyOf( block, blockLen );
+	}
+
+	private static void putInt( final byte[] bytes, final int offset, final int value ) {
+		putShort( bytes, offset, value & 0xFFFF );
+		putShort( bytes, offset + 2, value >>> 16 & 0xFFFF );
+	}
+
+	private static void putShort( final byte[] bytes, final int offset, final int value ) {
+		bytes[ offset ] = (byte) ( value & 0xFF );
+		bytes[ offset + 1 ] = (byte) ( value >>> 8 & 0xFF );
+	}
+
+	private byte[] buf = new byte[ MAX_BLOCK_SIZE ];
+	private boolean closed = false;
+	private int len = 0;
+	private final int numThreads;
+	private final OutputStream out;
+	private final Queue<Future<byte[]>> pending = new ArrayDeque<>();
+	private final ExecutorService pool;
+
+	/**
+	 * Maximum number of uncompressed bytes per block: {@value #MAX_BLOCK_SIZE}
+	 */
+	public static final int MAX_BLOCK_SIZE = 65280;
+
+	private static final int BSIZE_OFFSET = 16;
+	private static final byte[] EOF_BLOCK = new byte[] { 0x1f, (byte) 0x8b, 0x08, 0x04, 0x00, 0x00, 0x00, 0x00, 0x00,
+		(byte) 0xff, 0x06, 0x00, 0x42, 0x43, 0x02, 0x00, 0x1b, 0x00, 0x03, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+		0x00, 0x00 };
+	private static final int FOOTER_LEN = 8;
+	private static final byte[] HEADER = new byte[] { 0x1f, (byte) 0x8b, 0x08, 0x04, 0x00, 0x00, 0x00, 0x00, 0x00,
+		(byte) 0xff, 0x06, 0x00, 0x42, 0x43, 0x02, 0x00, 0x00, 0x00 };
+	private static final int HEADER_LEN = 18;
+	private static final int MAX_BGZF_BLOCK = 65536;
+	private static final int MAX_PENDING_PER_THREAD = 4;
+}
@@ -581,7 +581,8 @@ public class BioLockJUtil {
 	 */
 	public static String removeQuotes( final String value ) {
 		if( value == null ) return null;
-		return value.replaceAll( "'", "" ).replaceAll( "\"", "" );
+		if( value.indexOf( '\'' ) < 0 && value.indexOf( '"' ) < 0 ) return value;
+		return value.replace( "'", "" ).replace( "\"", "" );
 	}
 
 	/**
@@ -0,0 +1,177 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+import org.apache.commons.io.FileUtils;
+import biolockj.*;
+import biolockj.api.ApiModule;
+import biolockj.exception.ConfigFormatException;
+import biolockj.module.*;
+import biolockj.module.report.r.R_Module;
+
+/**
+ * This utility checkpoints the units of work (usually 1 sample) passed to
+ * {@link biolockj.util.BashScriptBuilder#buildScripts(ScriptModule, List)} so a failed module can be restarted without
+ * repeating completed samples.
+ * <p>
+ * Each unit is fingerprinted by its script lines, the module Config properties, and the size and last modified time
+ * of every input file named in its lines (files outside of the module directory). When the last line of a unit
+ * succeeds, the worker script creates an empty file named by the fingerprint in the module checkpoint directory
+ * ({@value #CHECKPOINT_DIR}), so the checkpoint directory is the manifest of completed units.<br>
+ * When restarting, incomplete modules with checkpoints keep their output and temp directories (only the scripts are
+ * deleted) and any unit with a matching checkpoint is left out of the new worker scripts. If any unit is rerun, the
+ * last unit is always rerun because modules often add summary steps to the last unit.
+ * <p>
+ * Enabled by {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_CHECKPOINT} for modules with worker scripts
+ * (not {@link biolockj.module.JavaModule}s or {@link biolockj.module.report.r.R_Module}s).
+ */
+public class CheckpointUtil {
+
+	// Prevent instantiation
+	private CheckpointUtil() {}
+
+	/**
+	 * Return the units that are not yet checkpointed, each with a final line that records its checkpoint. If every
+	 * unit is already checkpointed, return a single unit that only logs this.
+	 *
+	 * @param module ScriptModule
+	 * @param data Script lines, 1 list per unit of work
+	 * @return Script lines for the units to run
+	 * @throws Exception if errors occur
+	 */
+	public static List<List<String>> addCheckpoints( final ScriptModule module, final List<List<String>> data )
+		throws Exception {
+		if( !isEnabled( module ) ) return data;
+		final File dir = getCheckpointDir( module );
+		final String moduleProps = getModuleProps( module );
+		final List<List<String>> pending = new ArrayList<>();
+		List<String> lastUnit = null;
+		File lastCheckpoint = null;
+		int numRestored = 0;
+		for( final List<String> unit: data ) {
+			lastCheckpoint = new File( dir, getFingerprint( module, moduleProps, unit ) );
+			lastUnit = new ArrayList<>( unit );
+			lastUnit.add( "touch " + ( ScratchUtil.isEnabled( module ) ?
+				ScratchUtil.getCheckpointPath( lastCheckpoint.getName() ): lastCheckpoint.getAbsolutePath() ) );
+			if( lastCheckpoint.isFile() ) numRestored++;
+			else pending.add( lastUnit );
+		}
+
+		if( numRestored == 0 ) return pending;
+		Log.info( CheckpointUtil.class, "Restored " + numRestored + "/" + data.size() +
+			" completed units of work from: " + dir.getAbsolutePath() );
+		if( pending.isEmpty() )
+			pending.add( Arrays.asList( "echo \"All " + data.size() + " units of work restored from checkpoints\"" ) );
+		else if( lastCheckpoint.isFile() ) {
+			FileUtils.forceDelete( lastCheckpoint );
+			pending.add( lastUnit );
+		}
+		return pending;
+	}
+
+	/**
+	 * Return the directory that holds the module checkpoints.
+	 *
+	 * @param module BioModule
+	 * @return Checkpoint directory
+	 */
+	public static File getCheckpointDir( final BioModule module ) {
+		final File dir = new File( module.getModuleDir(), CHECKPOINT_DIR );
+		if( !dir.isDirectory() ) dir.mkdirs();
+		return dir;
+	}
+
+	/**
+	 * Check if checkpoints are enabled for the module.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if checkpoints are enabled
+	 * @throws ConfigFormatException if {@value biolockj.Constants#SCRIPT_CHECKPOINT} is not Y or N
+	 */
+	public static boolean isEnabled( final BioModule module ) throws ConfigFormatException {
+		return module instanceof ScriptModule && !( module instanceof JavaModule ) &&
+			!( module instanceof R_Module ) && Config.getBoolean( module, Constants.SCRIPT_CHECKPOINT );
+	}
+
+	/**
+	 * Prepare an incomplete module to resume from its checkpoints: delete the script directory (scripts are rebuilt
+	 * and status flags reset) but keep the output and temp directories.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if the module has checkpoints and was reset to resume, FALSE if it must be rerun from scratch
+	 * @throws ConfigFormatException if {@value biolockj.Constants#SCRIPT_CHECKPOINT} is not Y or N
+	 * @throws IOException if unable to delete the script directory
+	 */
+	public static boolean resumeModule( final BioModule module ) throws ConfigFormatException, IOException {
+		final File dir = new File( module.getModuleDir(), CHECKPOINT_DIR );
+		if( !isEnabled( module ) || !dir.isDirectory() || dir.list().length == 0 ) return false;
+		final File scriptDir = new File( module.getModuleDir(), Constants.SCRIPT_DIR );
+		if( scriptDir.isDirectory() ) FileUtils.forceDelete( scriptDir );
+		Log.info( CheckpointUtil.class, "Resume incomplete module from " + dir.list().length + " checkpoints: " +
+			module.getModuleDir().getAbsolutePath() );
+		return true;
+	}
+
+	private static String getFingerprint( final BioModule module, final String moduleProps, final List<String> unit )
+		throws Exception {
+		final StringBuilder sb = new StringBuilder( moduleProps );
+		final String moduleDir = module.getModuleDir().getAbsolutePath() + File.separator;
+		for( final String line: unit ) {
+			sb.append( line ).append( Constants.RETURN );
+			for( final String token: line.split( "[\\s\"'=,;:|<>()]+" ) ) {
+				if( !token.startsWith( File.separator ) || token.startsWith( moduleDir ) ) continue;
+				final File file = new File( token );
+				if( file.isFile() ) sb.append( token ).append( Constants.TAB_DELIM ).append( file.length() )
+					.append( Constants.TAB_DELIM ).append( file.lastModified() ).append( Constants.RETURN );
+			}
+		}
+
+		return md5( sb.toString() );
+	}
+
+	/**
+	 * Return the module specific Config properties (if the module lists them) as 1 String for the fingerprint.
+	 */
+	private static String getModuleProps( final BioModule module ) {
+		final StringBuilder sb = new StringBuilder( module.getClass().getName() ).append( Constants.RETURN );
+		if( module instanceof ApiModule ) for( final String prop: new TreeSet<>( ( (ApiModule) module ).listProps() ) )
+			sb.append( prop ).append( "=" ).append( Config.getString( module, prop ) ).append( Constants.RETURN );
+		return sb.toString();
+	}
+
+	/**
+	 * Return the MD5 digest of the text as a hex String.
+	 */
+	static String md5( final String text ) throws Exception {
+		return toHex( MessageDigest.getInstance( "MD5" ).digest( text.getBytes( StandardCharsets.UTF_8 ) ) );
+	}
+
+	/**
+	 * Return the bytes as a hex String.
+	 */
+	static String toHex( final byte[] bytes ) {
+		final StringBuilder hex = new StringBuilder();
+		for( final byte b: bytes )
+			hex.append( String.format( "%02x", b ) );
+		return hex.toString();
+	}
+
+	/**
+	 * Name of the module sub-directory that holds checkpoints: {@value #CHECKPOINT_DIR}
+	 */
+	public static final String CHECKPOINT_DIR = ".checkpoints";
+}
@@ -108,14 +108,27 @@ public class DemuxUtil {
 	 * @throws Exception if propagated from {@link biolockj.util.SeqUtil} or {@link biolockj.Config}
 	 */
 	public static String getSampleId( final List<String> seqLines ) throws Exception {
+		return getSampleId( seqLines.get( 0 ), seqLines.get( 1 ) );
+	}
+
+	/**
+	 * Determine Sample Id from the header and sequence lines of one read, as described in
+	 * {@link #getSampleId(List)}.
+	 * 
+	 * @param header Header line
+	 * @param seq Sequence line
+	 * @return Sample ID or null
+	 * @throws Exception if propagated from {@link biolockj.util.SeqUtil} or {@link biolockj.Config}
+	 */
+	public static String getSampleId( final String header, final String seq ) throws Exception {
 		if( demuxWithBarcode() ) {
 			final Map<String, String> map = getIdMap();
 			if( map != null ) for( final String barCodeId: map.keySet() )
-				if( ( barcodeInHeader() || barcodeInMapping() ) && seqLines.get( 0 ).contains( barCodeId ) ||
-					barcodeInSeq() && seqLines.get( 1 ).startsWith( barCodeId ) ) return map.get( barCodeId );
+				if( ( barcodeInHeader() || barcodeInMapping() ) && header.contains( barCodeId ) ||
+					barcodeInSeq() && seq.startsWith( barCodeId ) ) return map.get( barCodeId );
 			return null;
 		}
-		return SeqUtil.getSampleId( seqLines.get( 0 ) );
+		return SampleIdResolver.resolve( header );
 	}
 
 	/**
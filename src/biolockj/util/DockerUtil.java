@@ -26,6 +26,7 @@ import biolockj.Properties;
 import biolockj.api.API_Exception;
 import biolockj.exception.*;
 import biolockj.module.*;
+import biolockj.module.report.r.R_Module;
 
 /**
  * DockerUtil for Docker integration.
@@ -68,6 +69,96 @@ public class DockerUtil {
 		return lines;
 	}
 	
+	/**
+	 * Build the {@value #START_DOCKER_POOL} method, which takes the pool script path and the number of containers to
+	 * start. Each container runs the pool script, which runs unclaimed worker scripts until none remain, and its
+	 * container ID is saved to the MAIN script started flag.
+	 * 
+	 * @param module BioModule
+	 * @param startedFlag MAIN script started flag
+	 * @return Bash function to start the Docker container pool
+	 * @throws ConfigException If required {@link biolockj.Config} properties are undefined or invalid
+	 * @throws DockerVolCreationException If mounted Docker volumes are not found
+	 */
+	public static List<String> buildStartDockerPoolFunction( final BioModule module, final String startedFlag )
+		throws ConfigException, DockerVolCreationException {
+		final List<String> lines = new ArrayList<>();
+		lines.add( "# Start a pool of long-lived Docker containers that run the worker scripts" );
+		lines.add( "function " + START_DOCKER_POOL + "() {" );
+		lines.add( "for i in $(seq 1 $2); do" );
+		lines.add( ID_VAR + "=$(" + Config.getExe( module, Constants.EXE_DOCKER ) + " run " + DOCKER_DETACHED_FLAG +
+			" " + rmFlag( module ) + WRAP_LINE );
+		lines.addAll( getDockerVolumes( module ) );
+		lines.add( " " + getDockerImage( module ) + WRAP_LINE );
+		lines.add( "/bin/bash $1 )" );
+		lines.add( "echo \"Launched docker pool container #${i}: ${" + ID_VAR + "}\"" );
+		lines.add( "echo \"" + POOL_KEY + ":" + DOCKER_KEY + ":${" + ID_VAR + "}\" >> " + startedFlag );
+		lines.add( "done" );
+		lines.add( "}" + Constants.RETURN );
+		return lines;
+	}
+
+	/**
+	 * Get the number of containers to run worker scripts, if {@link biolockj.Config}.{@value #DOCKER_POOL_SIZE} is
+	 * set. R_Modules always spawn 1 container for the MAIN script.
+	 * 
+	 * @param module BioModule
+	 * @return Maximum number of pool containers, or null if the module spawns 1 container per worker script
+	 * @throws ConfigFormatException if {@value #DOCKER_POOL_SIZE} is not a positive integer
+	 */
+	public static Integer getPoolSize( final BioModule module ) throws ConfigFormatException {
+		if( module instanceof R_Module ) return null;
+		return Config.getPositiveInteger( module, DOCKER_POOL_SIZE );
+	}
+
+	/**
+	 * Check if every Docker pool container listed in the MAIN script started flag has stopped, with 1 docker inspect
+	 * call for the whole pool.
+	 * 
+	 * @param module BioModule
+	 * @param mainStarted MAIN script started flag
+	 * @return TRUE if the MAIN script has started every pool container and none are running
+	 */
+	public static boolean poolContainersStopped( final BioModule module, final File mainStarted ) {
+		if( mainStarted == null ) return false;
+		final String mainPath = mainStarted.getAbsolutePath();
+		final File mainSuccess = new File(
+			mainPath.substring( 0, mainPath.length() - Constants.SCRIPT_STARTED.length() ) + Constants.SCRIPT_SUCCESS );
+		if( !mainSuccess.isFile() ) return false;
+		final List<String> cmd = new ArrayList<>();
+		try {
+			final String key = POOL_KEY + ":" + DOCKER_KEY + ":";
+			cmd.add( Config.getExe( module, Constants.EXE_DOCKER ) );
+			cmd.addAll( Arrays.asList( "inspect", "-f", "{{.State.Running}}" ) );
+			final int numArgs = cmd.size();
+			final BufferedReader reader = new BufferedReader( new FileReader( mainStarted ) );
+			try {
+				for( String s = reader.readLine(); s != null; s = reader.readLine() )
+					if( s.startsWith( key ) ) cmd.add( s.substring( key.length() ).trim() );
+			} finally {
+				reader.close();
+			}
+			if( cmd.size() == numArgs ) return false;
+
+			final Process p = new ProcessBuilder( cmd ).redirectErrorStream( true ).start();
+			final BufferedReader br = new BufferedReader( new InputStreamReader( p.getInputStream() ) );
+			boolean running = false;
+			try {
+				for( String s = br.readLine(); s != null; s = br.readLine() )
+					if( s.replaceAll( "'", "" ).trim().equals( "true" ) ) running = true;
+			} finally {
+				br.close();
+			}
+			p.waitFor();
+			Log.debug( DockerUtil.class, "Docker pool containers running: " + running );
+			return !running;
+		} catch( final Exception ex ) {
+			Log.warn( DockerUtil.class, "Could not determine if Docker pool containers are running: " + cmd );
+			ex.printStackTrace();
+			return false;
+		}
+	}
+
 	public static boolean workerContainerStopped (final File mainStarted, final File workerScript) {
 		boolean hasStopped = false;
 		String containerId = null;
@@ -392,6 +483,7 @@ public class DockerUtil {
 	 * @throws API_Exception 
 	 */
 	public static void registerProps() throws API_Exception {
+		Properties.registerProp( DOCKER_POOL_SIZE, Properties.INTEGER_TYPE, DOCKER_POOL_SIZE_DESC );
 		Properties.registerProp( DOCKER_HUB_USER, Properties.STRING_TYPE, DOCKER_HUB_USER_DESC );
 		Properties.registerProp( DOCKER_IMG, Properties.STRING_TYPE, DOCKER_IMG_DESC );
 		Properties.registerProp( DOCKER_IMG_VERSION, Properties.STRING_TYPE, DOCKER_IMG_VERSION_DESC );
@@ -405,6 +497,7 @@ public class DockerUtil {
 		props.add( DOCKER_HUB_USER );
 		props.add( DOCKER_IMG );
 		props.add( DOCKER_IMG_VERSION );
+		props.add( DOCKER_POOL_SIZE );
 		props.add( SAVE_CONTAINER_ON_EXIT );
 		return props;
 	}
@@ -457,6 +550,13 @@ public class DockerUtil {
 	public static final String DOCKER_IMG_VERSION = "docker.imageTag";
 	private static final String DOCKER_IMG_VERSION_DESC = "indicate specific version of Docker images";
 
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #DOCKER_POOL_SIZE}<br>
+	 * {@value #DOCKER_POOL_SIZE_DESC}
+	 */
+	public static final String DOCKER_POOL_SIZE = "docker.poolSize";
+	private static final String DOCKER_POOL_SIZE_DESC = "If set, worker scripts run in a pool of at most this many long-lived containers per module, instead of 1 new container per worker script";
+
 	/**
 	 * {@link biolockj.Config} Boolean property: {@value #SAVE_CONTAINER_ON_EXIT}<br>
 	 * {@value #SAVE_CONTAINER_ON_EXIT_DESC}
@@ -469,6 +569,11 @@ public class DockerUtil {
 	 */
 	static final String SPAWN_DOCKER_CONTAINER = "spawnDockerContainer";
 
+	/**
+	 * Name of the bash script function used to start the Docker container pool: {@value #START_DOCKER_POOL}
+	 */
+	static final String START_DOCKER_POOL = "startDockerPool";
+
 	/**
 	 * {@link biolockj.Config} String property: {@value #DOCKER_IMG}
 	 * {@value #DOCKER_IMG_DESC}
@@ -495,5 +600,6 @@ public class DockerUtil {
 	private static final String ID_VAR = "containerId";
 	private static final String SCRIPT_ID_VAR = "SCRIPT_ID";
 	private static final String DOCKER_KEY = "docker";
+	private static final String POOL_KEY = "pool";
 	private static final String DOCKER_INFO_FILE = "dockerInfo.json";
 }
@@ -0,0 +1,204 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * This class assigns consecutive indexes to 128-bit fingerprints, using an open-addressing (linear probing) hash
+ * table held off the Java heap in a direct buffer. Each slot holds the 2 fingerprint words and the index + 1 (0 marks
+ * an empty slot), so millions of entries add no objects for the garbage collector to scan.
+ * <p>
+ * {@link #fingerprint(byte[], int, int, long[])} computes the 128-bit MurmurHash3 (x64 variant) of a byte range, for
+ * example a sequence line in the {@link biolockj.util.SeqRecordReader} buffer.
+ */
+public class FingerprintTable {
+
+	/**
+	 * Construct a table sized for the expected number of entries (it grows as needed).
+	 *
+	 * @param expectedSize Expected number of entries
+	 */
+	public FingerprintTable( final int expectedSize ) {
+		int capacity = MIN_CAPACITY;
+		while( capacity < expectedSize * 2 && capacity < MAX_CAPACITY )
+			capacity <<= 1;
+		this.slots = allocate( capacity );
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Return the index of the fingerprint.
+	 *
+	 * @param hi High 64 bits of the fingerprint
+	 * @param lo Low 64 bits of the fingerprint
+	 * @return Fingerprint index, or -1 if not found
+	 */
+	public int get( final long hi, final long lo ) {
+		return (int) this.slots.get( findSlot( hi, lo ) * SLOT_SIZE + VALUE ) - 1;
+	}
+
+	/**
+	 * Return the index of the fingerprint, adding it with the next index ({@link #size()}) if not found.
+	 *
+	 * @param hi High 64 bits of the fingerprint
+	 * @param lo Low 64 bits of the fingerprint
+	 * @return Fingerprint index
+	 */
+	public int getOrAdd( final long hi, final long lo ) {
+		final int slot = findSlot( hi, lo );
+		final long value = this.slots.get( slot * SLOT_SIZE + VALUE );
+		if( value != 0L ) return (int) value - 1;
+
+		final int index = this.size++;
+		put( this.slots, slot, hi, lo, index + 1 );
+		if( this.size * 2 > this.mask ) grow();
+		return index;
+	}
+
+	/**
+	 * Return the number of fingerprints in the table.
+	 *
+	 * @return Number of fingerprints
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Return the slot that holds the fingerprint, or the empty slot where it would be added.
+	 */
+	private int findSlot( final long hi, final long lo ) {
+		int slot = (int) lo & this.mask;
+		while( this.slots.get( slot * SLOT_SIZE + VALUE ) != 0L ) {
+			if( this.slots.get( slot * SLOT_SIZE + HI ) == hi && this.slots.get( slot * SLOT_SIZE + LO ) == lo )
+				return slot;
+			slot = slot + 1 & this.mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		final int capacity = ( this.mask + 1 ) * 2;
+		if( capacity > MAX_CAPACITY )
+			throw new IllegalStateException( "Fingerprint table exceeds " + MAX_CAPACITY / 2 + " entries" );
+		final LongBuffer next = allocate( capacity );
+		final int nextMask = capacity - 1;
+		for( int i = 0; i <= this.mask; i++ ) {
+			final long value = this.slots.get( i * SLOT_SIZE + VALUE );
+			if( value == 0L ) continue;
+			final long hi = this.slots.get( i * SLOT_SIZE + HI );
+			final long lo = this.slots.get( i * SLOT_SIZE + LO );
+			int slot = (int) lo & nextMask;
+			while( next.get( slot * SLOT_SIZE + VALUE ) != 0L )
+				slot = slot + 1 & nextMask;
+			put( next, slot, hi, lo, value );
+		}
+		this.slots = next;
+		this.mask = nextMask;
+	}
+
+	/**
+	 * Compute the 128-bit MurmurHash3 (x64 variant, seed 0) of the byte range.
+	 *
+	 * @param bytes Byte array
+	 * @param offset Index of the 1st byte
+	 * @param len Number of bytes
+	 * @param out Array of length 2 that receives the high and low 64 bits
+	 */
+	public static void fingerprint( final byte[] bytes, final int offset, final int len, final long[] out ) {
+		long h1 = 0L;
+		long h2 = 0L;
+		final int numBlocks = len / 16;
+		for( int i = 0; i < numBlocks; i++ ) {
+			final int pos = offset + i * 16;
+			h1 ^= mixK1( getLong( bytes, pos ) );
+			h1 = Long.rotateLeft( h1, 27 ) + h2;
+			h1 = h1 * 5 + 0x52dce729;
+			h2 ^= mixK2( getLong( bytes, pos + 8 ) );
+			h2 = Long.rotateLeft( h2, 31 ) + h1;
+			h2 = h2 * 5 + 0x38495ab5;
+		}
+
+		final int tail = offset + numBlocks * 16;
+		long k1 = 0L;
+		long k2 = 0L;
+		for( int i = len & 15; i > 0; i-- ) {
+			final long b = bytes[ tail + i - 1 ] & 0xFFL;
+			if( i > 8 ) k2 |= b << ( i - 9 ) * 8;
+			else k1 |= b << ( i - 1 ) * 8;
+		}
+		h2 ^= mixK2( k2 );
+		h1 ^= mixK1( k1 );
+
+		h1 ^= len;
+		h2 ^= len;
+		h1 += h2;
+		h2 += h1;
+		h1 = fmix( h1 );
+		h2 = fmix( h2 );
+		h1 += h2;
+		h2 += h1;
+		out[ 0 ] = h1;
+		out[ 1 ] = h2;
+	}
+
+	private static LongBuffer allocate( final int capacity ) {
+		return ByteBuffer.allocateDirect( capacity * SLOT_SIZE * Long.BYTES ).asLongBuffer();
+	}
+
+	private static long fmix( final long value ) {
+		long k = value;
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+	private static long getLong( final byte[] bytes, final int pos ) {
+		long value = 0L;
+		for( int i = 7; i >= 0; i-- )
+			value = value << 8 | bytes[ pos + i ] & 0xFFL;
+		return value;
+	}
+
+	private static long mixK1( final long value ) {
+		return Long.rotateLeft( value * C1, 31 ) * C2;
+	}
+
+	private static long mixK2( final long value ) {
+		return Long.rotateLeft( value * C2, 33 ) * C1;
+	}
+
+	private static void put( final LongBuffer buffer, final int slot, final long hi, final long lo,
+		final long value ) {
+		buffer.put( slot * SLOT_SIZE + HI, hi );
+		buffer.put( slot * SLOT_SIZE + LO, lo );
+		buffer.put( slot * SLOT_SIZE + VALUE, value );
+	}
+
+	private int mask;
+	private int size = 0;
+	private LongBuffer slots;
+
+	private static final long C1 = 0x87c37b91114253d5L;
+	private static final long C2 = 0x4cf5ad432745937fL;
+	private static final int HI = 0;
+	private static final int LO = 1;
+	private static final int MAX_CAPACITY = 1 << 26;
+	private static final int MIN_CAPACITY = 1 << 10;
+	private static final int SLOT_SIZE = 3;
+	private static final int VALUE = 2;
+}
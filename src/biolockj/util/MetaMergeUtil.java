@@ -0,0 +1,108 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import biolockj.Constants;
+import biolockj.Log;
+import biolockj.module.BioModule;
+
+/**
+ * This utility appends the metadata to each row of count tables whose 1st column holds the Sample ID, as done by
+ * {@link biolockj.module.report.taxa.AddMetadataToTaxaTables} and
+ * {@link biolockj.module.report.humann2.AddMetadataToPathwayTables}.<br>
+ * The metadata text appended to each row is built once per sample by {@link biolockj.util.MetaUtil#getMergeSuffixes()}
+ * and the tables are merged in parallel.
+ */
+public class MetaMergeUtil {
+
+	// Prevent instantiation
+	private MetaMergeUtil() {}
+
+	/**
+	 * Return the merged table file in the module output directory.
+	 *
+	 * @param module BioModule
+	 * @param table Count table
+	 * @return Merged table file
+	 */
+	public static File getMergedFile( final BioModule module, final File table ) {
+		return new File( module.getOutputDir().getAbsolutePath() + File.separator +
+			table.getName().replaceAll( Constants.TSV_EXT, "" ) + META_MERGED );
+	}
+
+	/**
+	 * Merge each table with the metadata, writing the merged tables to the module output directory. Rows with a Sample
+	 * ID not found in the metadata are dropped. The header and 1st row of the 1st merged table are logged as an
+	 * example.
+	 *
+	 * @param module BioModule
+	 * @param tables Count tables
+	 * @throws Exception if unable to merge the tables
+	 */
+	public static void mergeTables( final BioModule module, final List<File> tables ) throws Exception {
+		final Map<String, String> suffixes = MetaUtil.getMergeSuffixes();
+		ParallelUtil.processFiles( module, tables, file -> mergeTable( module, file, suffixes ) );
+		logExampleLines( module, getMergedFile( module, tables.get( 0 ) ) );
+	}
+
+	private static String getSampleId( final String line ) {
+		return new StringTokenizer( line, Constants.TAB_DELIM ).nextToken();
+	}
+
+	/**
+	 * Log the header and 1st row of a merged table as an example, once all tables are merged.
+	 */
+	private static void logExampleLines( final BioModule module, final File mergedFile ) throws IOException {
+		final BufferedReader reader = BioLockJUtil.getFileReader( mergedFile );
+		try {
+			final String header = reader.readLine();
+			final String row = reader.readLine();
+			if( header != null ) Log.info( module.getClass(),
+				"Merged table header [" + getSampleId( header ) + "] = " + header );
+			if( row != null ) Log.info( module.getClass(),
+				"Example merged table row [" + getSampleId( row ) + "] = " + row );
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Stream 1 table to the module output directory, appending the metadata to each row.
+	 */
+	private static void mergeTable( final BioModule module, final File table, final Map<String, String> suffixes )
+		throws Exception {
+		final File mergedFile = getMergedFile( module, table );
+		Log.info( module.getClass(), "Merge table " + table.getName() + " with metadata: " + mergedFile );
+		final BufferedReader reader = BioLockJUtil.getFileReader( table );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( mergedFile ) );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final String sampleId = getSampleId( line );
+				final String suffix = suffixes.get( sampleId );
+				if( suffix == null ) Log.warn( module.getClass(),
+					"Missing record for: " + sampleId + " in metadata: " + MetaUtil.getPath() );
+				else writer.write( BioLockJUtil.removeQuotes( line ) + suffix + Constants.RETURN );
+			}
+		} finally {
+			reader.close();
+			writer.close();
+		}
+		Log.info( module.getClass(), "Done merging table: " + table.getAbsolutePath() );
+	}
+
+	/**
+	 * File suffix added to the table file name once merged with metadata: {@value #META_MERGED}
+	 */
+	public static final String META_MERGED = "_metaMerged" + Constants.TSV_EXT;
+}
@@ -32,8 +32,9 @@ public class MetaUtil {
 	private MetaUtil() {}
 
 	/**
-	 * Adds a column to the metadata file. The updated metadata file is output to the fileDir. Once the new file is
-	 * created, the new file is cached in memory and used as the new metadata.
+	 * Adds a column to the metadata. The column is appended to the cached metadata and recorded in the column journal,
+	 * and the metadata file path is set to fileDir/{@link #getFileName()}. The new file is not written until it is
+	 * needed on disk (see {@link #materialize()}), so modules that add several columns write the file only once.
 	 *
 	 * @param colName Name of new column
 	 * @param map Map relates Sample ID to a field value
@@ -48,33 +49,22 @@ public class MetaUtil {
 		final boolean removeMissingIds ) throws MetadataException, IOException, DockerVolCreationException {
 		final File newMeta = new File( fileDir.getAbsolutePath() + File.separator + getFileName() );
 		Log.info( MetaUtil.class, "Adding new field [" + colName + "] to metadata: " + newMeta.getAbsolutePath() );
-		Log.debug( MetaUtil.class, "Current metadata: " + getPath() );
+		Log.debug( MetaUtil.class, "Current metadata: " + getMetadataFile() );
 		if( getFieldNames().contains( colName ) ) {
-			Log.warn( MetaUtil.class, "Metadata column [" + colName + "] already exists in: " + getPath() );
+			Log.warn( MetaUtil.class, "Metadata column [" + colName + "] already exists in: " + getMetadataFile() );
 			return;
 		}
 
-		final Set<String> sampleIds = map.keySet();
-		final BufferedReader reader = BioLockJUtil.getFileReader( getMetadata() );
-		setFile( newMeta );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( getMetadata() ) );
-		try {
-			writer.write( reader.readLine() + DEFAULT_COL_DELIM + colName + Constants.RETURN );
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				final StringTokenizer st = new StringTokenizer( line, DEFAULT_COL_DELIM );
-				final String id = st.nextToken();
-				if( sampleIds.contains( id ) )
-					writer.write( line + DEFAULT_COL_DELIM + map.get( id ) + Constants.RETURN );
-				else if( !removeMissingIds )
-					writer.write( line + DEFAULT_COL_DELIM + getNullValue( null ) + Constants.RETURN );
-				else Log.warn( MetaUtil.class, getRemoveIdMsg( id ) );
-
+		for( final String id: getSampleIds() )
+			if( map.containsKey( id ) ) metadataMap.get( id ).add( parseCell( String.valueOf( map.get( id ) ) ) );
+			else if( !removeMissingIds ) metadataMap.get( id ).add( getNullValue( null ) );
+			else {
+				Log.warn( MetaUtil.class, getRemoveIdMsg( id ) );
+				metadataMap.remove( id );
 			}
-		} finally {
-			reader.close();
-			writer.close();
-			refreshCache();
-		}
+
+		metadataMap.get( metaId ).add( colName );
+		journal( "+" + colName, newMeta );
 	}
 
 	/**
@@ -84,7 +74,7 @@ public class MetaUtil {
 	 */
 	public static boolean exists() {
 		try {
-			return getMetadata() != null;
+			return getMetadataFile() != null;
 		} catch( final Exception ex ) {
 			Log.error( MetaUtil.class, "Error occurred trying to dtermine if metadata file exists on file sytsem", ex );
 		}
@@ -167,7 +157,7 @@ public class MetaUtil {
 	 */
 	public static String getFileName() {
 		try {
-			if( getMetadata() != null ) return getMetadata().getName();
+			if( getMetadataFile() != null ) return getMetadataFile().getName();
 		} catch( final Exception ex ) {
 			Log.error( MetaUtil.class, "Error occurred accessing Config property: " + META_FILE_PATH, ex );
 		}
@@ -228,25 +218,15 @@ public class MetaUtil {
 	}
 
 	/**
-	 * Metadata file getter. This path changes as new versions are created by the BioModules.
+	 * Metadata file getter. This path changes as new versions are created by the BioModules. Pending column changes
+	 * are written first (see {@link #materialize()}), so the returned file can be read directly.
 	 * 
 	 * @return Metadata file
 	 * @throws MetadataException if attempt to assign new metadata file fails
 	 */
 	public static File getMetadata() throws MetadataException {
-		if( metadataFile != null ) return metadataFile;
-		try {
-			if( Config.getString( null, META_FILE_PATH ) == null ) return null;
-			if( DockerUtil.inDockerEnv() ) {
-				setFile( Config.getExistingFile( null, META_FILE_PATH ) );
-				if( !metadataFile.isFile() )
-					throw new ConfigPathException( metadataFile, "Metadata file not found in Docker container" );
-			} else setFile( new File( Config.getString( null, META_FILE_PATH ) ) );
-			Log.debug( MetaUtil.class, "Returning new metadata file path: " + getPath() );
-		} catch( final Exception ex ) {
-			throw new MetadataException( "Failed to get handle to metadata file:  " + ex.getMessage() );
-		}
-		return metadataFile;
+		materialize();
+		return getMetadataFile();
 	}
 
 	/**
@@ -270,13 +250,14 @@ public class MetaUtil {
 	}
 
 	/**
-	 * Return the metadata file path
+	 * Return the metadata file path, writing any pending column changes first so the file can be read by scripts.
 	 * 
 	 * @return String the metadata file path
 	 */
 	public static String getPath() {
 		try {
-			if( getMetadata() != null ) return getMetadata().getAbsolutePath();
+			materialize();
+			if( getMetadataFile() != null ) return getMetadataFile().getAbsolutePath();
 		} catch( final Exception ex ) {
 			Log.error( MetaUtil.class, "Failed to return meatada file path -  metadata file not found! ", ex );
 		}
@@ -296,6 +277,24 @@ public class MetaUtil {
 		return metadataMap.get( sampleId );
 	}
 
+	/**
+	 * Build the text appended to each row of a table merged with the metadata, keyed by sample ID (plus the metadata
+	 * ID column name for the header row). Each value is the tab-delimited metadata record with quotes removed,
+	 * starting with a tab, so tables can be merged by appending 1 cached String per row.
+	 *
+	 * @return Map(sampleId, merge suffix)
+	 */
+	public static Map<String, String> getMergeSuffixes() {
+		final Map<String, String> suffixes = new HashMap<>();
+		for( final String id: metadataMap.keySet() ) {
+			final StringBuilder sb = new StringBuilder();
+			for( final String field: metadataMap.get( id ) )
+				sb.append( Constants.TAB_DELIM ).append( BioLockJUtil.removeQuotes( field ) );
+			suffixes.put( id, sb.toString() );
+		}
+		return suffixes;
+	}
+
 	/**
 	 * Get the first column from the metadata file.
 	 *
@@ -323,7 +322,7 @@ public class MetaUtil {
 	public static String getSystemMetaCol( final BioModule module, final String col )
 		throws MetadataException, FileNotFoundException, IOException, DockerVolCreationException {
 		final File outputMeta = module.getMetadata();
-		if( ModuleUtil.isComplete( module ) || outputMeta.isFile() ) {
+		if( ModuleUtil.isComplete( module ) || outputMeta.isFile() || outputMeta.equals( metadataFile ) ) {
 			setFile( outputMeta );
 			refreshCache();
 			return getLatestColumnName( col );
@@ -344,6 +343,16 @@ public class MetaUtil {
 		return new HashSet<>( getFieldValues( field, ignoreNulls ) );
 	}
 
+	/**
+	 * Return a counter incremented each time the cached metadata changes, so callers can cache values derived from
+	 * the metadata until it changes.
+	 * 
+	 * @return Metadata version
+	 */
+	public static int getVersion() {
+		return version;
+	}
+
 	/**
 	 * Check if columnName exists in the current metadata file.
 	 * 
@@ -385,7 +394,7 @@ public class MetaUtil {
 
 		if( Config.getString( null, META_FILE_PATH ) != null ) {
 			Config.requireExistingFile( null, META_FILE_PATH );
-			setFile( getMetadata() );
+			setFile( getMetadataFile() );
 			refreshCache();
 		}
 		Log.info( MetaUtil.class, "Metadata initialized" );
@@ -401,16 +410,34 @@ public class MetaUtil {
 			Log.info( MetaUtil.class, "Update metadata cache: " + getPath() );
 			metadataMap.clear();
 			cacheMetadata( parseMetadataFile() );
+			version++;
 
 			if( !BioLockJUtil.isDirectMode() ) report();
 
-			reportedMetadata = getMetadata();
+			reportedMetadata = getMetadataFile();
 		} else Log.debug( MetaUtil.class, "Skip metadata refresh cache, path unchanged: " +
-			( getMetadata() == null ? "<NO_METADATA_PATH>": getPath() ) );
+			( getMetadataFile() == null ? "<NO_METADATA_PATH>": getPath() ) );
 	}
 
 	/**
-	 * Remove the metadata column from the metadata file
+	 * Reload the metadata cache from the file, for modules that write the metadata file directly instead of calling
+	 * {@link #addColumn(String, Map, File, boolean)} or {@link #removeColumn(String, File)}. The column journal is
+	 * cleared since the file written by the module replaces the cached metadata.
+	 *
+	 * @param file Metadata file written by the module
+	 * @throws MetadataException if unable to reload the metadata
+	 * @throws DockerVolCreationException if unable to set the metadata file
+	 */
+	public static void reload( final File file ) throws MetadataException, DockerVolCreationException {
+		journal.clear();
+		setFile( file );
+		reportedMetadata = null;
+		refreshCache();
+	}
+
+	/**
+	 * Remove the metadata column from the cached metadata and record the change in the column journal. The metadata
+	 * file path is set to fileDir/{@link #getFileName()}, written when needed on disk (see {@link #materialize()}).
 	 * 
 	 * @param colName Name of column to remove
 	 * @param fileDir File representing output directory for new metadata file
@@ -428,33 +455,44 @@ public class MetaUtil {
 		}
 
 		if( !getFieldNames().contains( colName ) ) {
-			Log.warn( MetaUtil.class,
-				"Metadata column [" + colName + "] cannot be removed, because it does not exists in: " + getPath() );
+			Log.warn( MetaUtil.class, "Metadata column [" + colName +
+				"] cannot be removed, because it does not exists in: " + getMetadataFile() );
 			return;
 		}
 
-		Log.info( MetaUtil.class, "Removing field [" + colName + "] from metadata: " + getPath() );
+		Log.info( MetaUtil.class, "Removing field [" + colName + "] from metadata: " + getMetadataFile() );
 		final int index = getFieldNames().indexOf( colName );
-		final File newMeta = new File( myDir.getAbsolutePath() + File.separator + getFileName() );
-		final BufferedReader reader = BioLockJUtil.getFileReader( getMetadata() );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( newMeta ) );
+		for( final List<String> record: metadataMap.values() )
+			record.remove( index );
+
+		journal( "-" + colName, new File( myDir.getAbsolutePath() + File.separator + getFileName() ) );
+	}
+
+	/**
+	 * Write the cached metadata to the metadata file if columns have been added or removed since it was last written.
+	 * Rows are written in their original file order. Called before any module, script or R program reads the file, and
+	 * after each module completes.
+	 *
+	 * @throws MetadataException if unable to write the metadata file
+	 */
+	public static void materialize() throws MetadataException {
+		if( journal.isEmpty() ) return;
+		Log.info( MetaUtil.class,
+			"Write metadata with " + journal.size() + " column changes " + journal + ": " + metadataFile );
 		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				int i = 1;
-				final StringTokenizer st = new StringTokenizer( line, DEFAULT_COL_DELIM );
-				writer.write( st.nextToken() );
-				while( st.hasMoreTokens() ) {
-					final String token = st.nextToken();
-					if( i++ != index ) writer.write( DEFAULT_COL_DELIM + token );
-				}
-				writer.write( Constants.RETURN );
+			final BufferedWriter writer = new BufferedWriter( new FileWriter( metadataFile ) );
+			try {
+				writeRecord( writer, metaId, metadataMap.get( metaId ) );
+				for( final String id: metadataMap.keySet() )
+					if( !id.equals( metaId ) ) writeRecord( writer, id, metadataMap.get( id ) );
+			} finally {
+				writer.close();
 			}
-		} finally {
-			reader.close();
-			writer.close();
-			setFile( newMeta );
-			refreshCache();
+		} catch( final IOException ex ) {
+			throw new MetadataException( "Failed to write metadata file: " + metadataFile + " --> " + ex.getMessage() );
 		}
+		journal.clear();
+		if( !BioLockJUtil.isDirectMode() ) report();
 	}
 
 	/**
@@ -466,8 +504,9 @@ public class MetaUtil {
 	 */
 	public static void setFile( final File file ) throws MetadataException, DockerVolCreationException {
 		if( file == null ) throw new MetadataException( "Cannot pass NULL to MetaUtil.setFile( file )" );
-		if( metadataFile != null && file.getAbsolutePath().equals( getPath() ) )
-			Log.debug( MetaUtil.class, "===> MetaUtil.setFile() not required, no changes to: " + getPath() );
+		if( metadataFile != null && file.getAbsolutePath().equals( metadataFile.getAbsolutePath() ) )
+			Log.debug( MetaUtil.class, "===> MetaUtil.setFile() not required, no changes to: " + metadataFile );
+		else materialize();
 		BioLockJUtil.ignoreFile( file );
 		metadataFile = file;
 	}
@@ -492,8 +531,27 @@ public class MetaUtil {
 		}
 	}
 
+	/**
+	 * Return the metadata file path without writing pending column changes.
+	 */
+	private static File getMetadataFile() throws MetadataException {
+		if( metadataFile != null ) return metadataFile;
+		try {
+			if( Config.getString( null, META_FILE_PATH ) == null ) return null;
+			if( DockerUtil.inDockerEnv() ) {
+				setFile( Config.getExistingFile( null, META_FILE_PATH ) );
+				if( !metadataFile.isFile() )
+					throw new ConfigPathException( metadataFile, "Metadata file not found in Docker container" );
+			} else setFile( new File( Config.getString( null, META_FILE_PATH ) ) );
+			Log.debug( MetaUtil.class, "Returning new metadata file path: " + getPath() );
+		} catch( final Exception ex ) {
+			throw new MetadataException( "Failed to get handle to metadata file:  " + ex.getMessage() );
+		}
+		return metadataFile;
+	}
+
 	private static String getRemoveIdMsg( final String id ) {
-		String msg = "REMOVE SAMPLE ID [" + id + "] from metadata file " + getPath() + " | Reason:  ";
+		String msg = "REMOVE SAMPLE ID [" + id + "] from metadata file " + metadataFile + " | Reason:  ";
 		try {
 			final String dirs = Config.requireString( null, Constants.INPUT_DIRS );
 			if( SeqUtil.piplineHasSeqInput() ) {
@@ -513,9 +571,9 @@ public class MetaUtil {
 
 	private static boolean isUpdated() {
 		try {
-			final boolean foundNewReport = getMetadata() != null && reportedMetadata != null &&
-				!reportedMetadata.getAbsolutePath().equals( getPath() );
-			final boolean noReport = getMetadata() != null && reportedMetadata == null;
+			final boolean foundNewReport = getMetadataFile() != null && reportedMetadata != null &&
+				!reportedMetadata.getAbsolutePath().equals( getMetadataFile().getAbsolutePath() );
+			final boolean noReport = getMetadataFile() != null && reportedMetadata == null;
 			return foundNewReport || noReport;
 		} catch( final MetadataException ex ) {
 			Log.error( MetaUtil.class, "Failed to determine if metadata has been updated - file may not exists", ex );
@@ -523,18 +581,30 @@ public class MetaUtil {
 		}
 	}
 
+	/**
+	 * Record a column change in the journal and point the metadata path at the new (not yet written) file. The cache
+	 * is already current, so it is marked as reported to skip the reparse in {@link #refreshCache()}.
+	 */
+	private static void journal( final String change, final File newMeta )
+		throws MetadataException, DockerVolCreationException {
+		journal.add( change );
+		version++;
+		BioLockJUtil.ignoreFile( newMeta );
+		metadataFile = newMeta;
+		reportedMetadata = newMeta;
+	}
+
 	private static List<List<String>> parseMetadataFile() {
 		final List<List<String>> data = new ArrayList<>();
 		BufferedReader reader = null;
 		try {
-			reader = BioLockJUtil.getFileReader( getMetadata() );
+			reader = BioLockJUtil.getFileReader( getMetadataFile() );
 			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
 				if( isUpdated() ) Log.debug( MetaUtil.class, "===> Meta line: " + line );
 				final ArrayList<String> record = new ArrayList<>();
 				final String[] cells = line.split( DEFAULT_COL_DELIM, -1 );
 				for( final String cell: cells )
-					if( cell == null || cell.trim().isEmpty() ) record.add( getNullValue( null ) );
-					else record.add( removeComments( cell.trim() ) );
+					record.add( parseCell( cell ) );
 				data.add( record );
 			}
 		} catch( final Exception ex ) {
@@ -549,6 +619,11 @@ public class MetaUtil {
 		return data;
 	}
 
+	private static String parseCell( final String cell ) {
+		if( cell == null || cell.trim().isEmpty() ) return getNullValue( null );
+		return removeComments( cell.trim() );
+	}
+
 	private static String removeComments( final String val ) {
 		final String cChar = Config.getString( null, META_COMMENT_CHAR );
 		if( cChar != null && cChar.length() > 0 && val.indexOf( cChar ) > -1 )
@@ -570,6 +645,14 @@ public class MetaUtil {
 		}
 	}
 	
+	private static void writeRecord( final BufferedWriter writer, final String id, final List<String> record )
+		throws IOException {
+		writer.write( id );
+		for( final String cell: record )
+			writer.write( DEFAULT_COL_DELIM + cell );
+		writer.write( Constants.RETURN );
+	}
+
 	public static void registerProps() throws API_Exception {
 		Properties.registerProp( META_BARCODE_COLUMN, Properties.STRING_TYPE, META_BARCODE_COLUMN_DESC );
 		Properties.registerProp( META_COLUMN_DELIM, Properties.STRING_TYPE, META_COLUMN_DELIM_DESC );
@@ -653,9 +736,11 @@ public class MetaUtil {
 	protected static final String DEFAULT_NULL_VALUE = "NA";
 
 	private static String META_SPACER = "************************************************************************";
+	private static final List<String> journal = new ArrayList<>();
 	private static File metadataFile = null;
-	private static final Map<String, List<String>> metadataMap = new HashMap<>();
+	private static final Map<String, List<String>> metadataMap = new LinkedHashMap<>();
 	private static String metaId = "SAMPLE_ID";
 	private static String metaNullVal = null;
 	private static File reportedMetadata = null;
+	private static volatile int version = 0;
 }
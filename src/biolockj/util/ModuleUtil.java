@@ -20,6 +20,7 @@ import biolockj.exception.ConfigFormatException;
 import biolockj.exception.ConfigNotFoundException;
 import biolockj.module.BioModule;
 import biolockj.module.JavaModule;
+import biolockj.module.ShardedModule;
 import biolockj.module.classifier.ClassifierModule;
 import biolockj.module.implicit.Demultiplexer;
 import biolockj.module.report.r.R_CalculateStats;
@@ -189,7 +190,7 @@ public class ModuleUtil {
 	 */
 	public static Integer getNumWorkers( final BioModule module )
 		throws ConfigNotFoundException, ConfigFormatException {
-		if( module instanceof JavaModule ) return 1;
+		if( module instanceof JavaModule && !( module instanceof ShardedModule ) ) return 1;
 		final int count = Config.requirePositiveInteger( module, Constants.SCRIPT_NUM_WORKERS );
 		return Math.max( 1, Math.min( count, module.getInputFiles().size() ) );
 	}
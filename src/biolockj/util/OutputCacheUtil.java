@@ -0,0 +1,367 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.io.FileUtils;
+import biolockj.*;
+import biolockj.module.BioModule;
+import biolockj.module.report.Email;
+
+/**
+ * This utility saves module output to a cache directory shared by pipelines
+ * ({@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_OUTPUT_CACHE}) so a later pipeline can reuse it instead
+ * of running the module again.
+ * <p>
+ * Cache entries are keyed by an MD5 digest of the BioLockJ version, the module class, the effective value of each
+ * Config property the module read in {@link biolockj.module.BioModule#checkDependencies()} (module and general
+ * properties, recorded by {@link #startRecording(BioModule)}) except properties that only describe the pipeline
+ * instance or its runtime environment, the internal sequence properties, the metadata file (name and content) and the
+ * input files (name and content). Properties first read while the module runs are saved with the entry, and the entry
+ * is only restored if their values are unchanged.
+ * Files are hard linked into and out of the cache when possible, and copied otherwise. Each time an entry is used its
+ * last modified time is updated, and the least recently used entries are deleted when the cache exceeds
+ * {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_OUTPUT_CACHE_GB} GB.
+ * <p>
+ * Each entry holds the module output directory, the other module sub-directories (such as the count matrix of
+ * {@link biolockj.module.seq.Dereplicate}) except the temp, script and hidden directories, the Config properties the
+ * module read and set and, if the module changed the metadata, the new metadata file. These are applied when the entry
+ * is restored, before the restored module runs {@link biolockj.module.BioModule#cleanUp()}, so the module state rebuilt
+ * by cleanUp() matches a completed module on pipeline restart.
+ */
+public class OutputCacheUtil {
+
+	// Prevent instantiation
+	private OutputCacheUtil() {}
+
+	/**
+	 * Record the Config properties read by the module from now on, until {@link #stopRecording()} is called.
+	 *
+	 * @param module BioModule
+	 * @throws Exception if errors occur
+	 */
+	public static void startRecording( final BioModule module ) throws Exception {
+		if( !isEnabled( module ) ) return;
+		if( !usedProps.containsKey( module.getID() ) )
+			usedProps.put( module.getID(), Collections.synchronizedMap( new HashMap<>() ) );
+		Config.setUsedPropRecorder( usedProps.get( module.getID() ) );
+	}
+
+	/**
+	 * Stop recording the Config properties read by a module.
+	 */
+	public static void stopRecording() {
+		Config.setUsedPropRecorder( null );
+	}
+
+	/**
+	 * Check if the output cache is enabled for the module. Modules that run in a stream group (see
+	 * {@link biolockj.util.SeqStreamUtil}) are never cached, since they run together and only the last module of the
+	 * group writes its output to disk.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if {@value biolockj.Constants#PIPELINE_OUTPUT_CACHE} is set
+	 * @throws Exception if errors occur
+	 */
+	public static boolean isEnabled( final BioModule module ) throws Exception {
+		return Config.getString( module, Constants.PIPELINE_OUTPUT_CACHE ) != null && !( module instanceof Email ) &&
+			!SeqStreamUtil.isStreamed( module );
+	}
+
+	/**
+	 * Restore the module output directory from the cache, if a matching entry exists.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if the output was restored (do not run the module)
+	 * @throws Exception if errors occur
+	 */
+	public static boolean restore( final BioModule module ) throws Exception {
+		if( !isEnabled( module ) ) return false;
+		final String key = getKey( module );
+		keys.put( module.getID(), key );
+		final File entry = new File( getCacheDir( module ), key );
+		if( !entry.isDirectory() || !hasUsedPropValues( module, new File( entry, USED_PROPS_FILE ) ) ) {
+			Log.info( OutputCacheUtil.class, "No cached output found for " + module.getClass().getSimpleName() +
+				" with key: " + key );
+			configSnapshots.put( module.getID(), Config.getProperties() );
+			metadataSnapshots.put( module.getID(), MetaUtil.exists() ? MetaUtil.getMetadata(): null );
+			return false;
+		}
+
+		Log.info( OutputCacheUtil.class, "Restore " + module.getClass().getSimpleName() + " output from cache: " +
+			entry.getAbsolutePath() );
+		linkFiles( entry, module.getOutputDir() );
+		final File subDirs = new File( entry, SUB_DIRS );
+		if( subDirs.isDirectory() ) linkFiles( subDirs, module.getModuleDir() );
+		restoreConfig( new File( entry, CONFIG_FILE ) );
+		usedProps.remove( module.getID() );
+		keyPropNames.remove( module.getID() );
+		if( module.getMetadata().isFile() ) {
+			MetaUtil.setFile( module.getMetadata() );
+			MetaUtil.refreshCache();
+		}
+		entry.setLastModified( System.currentTimeMillis() );
+		return true;
+	}
+
+	/**
+	 * Save the output directory of a module that completed successfully to the cache, replacing an entry with the same
+	 * key saved with other values of the properties read while the module ran, then delete the least recently used
+	 * entries if the cache is too large.
+	 *
+	 * @param module BioModule
+	 * @throws Exception if errors occur
+	 */
+	public static void save( final BioModule module ) throws Exception {
+		final String key = keys.remove( module.getID() );
+		final Map<String, String> configSnapshot = configSnapshots.remove( module.getID() );
+		final File metadataSnapshot = metadataSnapshots.remove( module.getID() );
+		if( key == null ) return;
+		final File cacheDir = getCacheDir( module );
+		final File entry = new File( cacheDir, key );
+		if( entry.isDirectory() && hasUsedPropValues( module, new File( entry, USED_PROPS_FILE ) ) ) {
+			usedProps.remove( module.getID() );
+			keyPropNames.remove( module.getID() );
+			return;
+		}
+
+		final File tempEntry = new File( cacheDir, key + "." + Config.pipelineName() + TEMP_EXT );
+		try {
+			linkFiles( module.getOutputDir(), tempEntry );
+			for( final File dir: getSubDirs( module ) )
+				linkFiles( dir, new File( new File( tempEntry, SUB_DIRS ), dir.getName() ) );
+			saveConfig( configSnapshot, new File( tempEntry, CONFIG_FILE ) );
+			saveUsedProps( module, new File( tempEntry, USED_PROPS_FILE ) );
+			if( MetaUtil.exists() && !MetaUtil.getMetadata().equals( metadataSnapshot ) &&
+				!MetaUtil.getMetadata().equals( module.getMetadata() ) )
+				FileUtils.copyFile( MetaUtil.getMetadata(), new File( tempEntry, module.getMetadata().getName() ) );
+			FileUtils.deleteQuietly( entry );
+			if( tempEntry.renameTo( entry ) ) Log.info( OutputCacheUtil.class,
+				"Saved " + module.getClass().getSimpleName() + " output to cache: " + entry.getAbsolutePath() );
+		} finally {
+			FileUtils.deleteQuietly( tempEntry );
+		}
+		evict( module );
+	}
+
+	private static void evict( final BioModule module ) throws Exception {
+		final Integer maxGB = Config.getPositiveInteger( module, Constants.PIPELINE_OUTPUT_CACHE_GB );
+		if( maxGB == null ) return;
+		final long maxBytes = maxGB * BYTES_PER_GB;
+		final File[] entries = getCacheDir( module ).listFiles();
+		Arrays.sort( entries, ( a, b ) -> Long.compare( b.lastModified(), a.lastModified() ) );
+		long size = 0L;
+		for( final File entry: entries ) {
+			if( entry.getName().endsWith( TEMP_EXT ) ) continue;
+			size += FileUtils.sizeOf( entry );
+			if( size > maxBytes ) {
+				Log.info( OutputCacheUtil.class, "Delete least recently used cache entry: " + entry.getAbsolutePath() );
+				FileUtils.deleteQuietly( entry );
+			}
+		}
+	}
+
+	private static File getCacheDir( final BioModule module ) {
+		final File dir = new File( Config.getString( module, Constants.PIPELINE_OUTPUT_CACHE ) );
+		if( !dir.isDirectory() ) dir.mkdirs();
+		return dir;
+	}
+
+	/**
+	 * Return the module sub-directories saved with the output directory.
+	 */
+	private static List<File> getSubDirs( final BioModule module ) {
+		final List<File> dirs = new ArrayList<>();
+		for( final File dir: module.getModuleDir().listFiles() )
+			if( dir.isDirectory() && !dir.getName().startsWith( "." ) &&
+				!CACHE_EXCLUDED_DIRS.contains( dir.getName() ) ) dirs.add( dir );
+		return dirs;
+	}
+
+	private static String getKey( final BioModule module ) throws Exception {
+		final StringBuilder sb = new StringBuilder( BioLockJUtil.getVersion() ).append( Constants.RETURN );
+		sb.append( module.getClass().getName() ).append( Constants.RETURN );
+		final Map<String, String> props = getModuleProps( module );
+		keyPropNames.put( module.getID(), props.keySet() );
+		for( final String prop: props.keySet() )
+			sb.append( prop ).append( "=" ).append( props.get( prop ) ).append( Constants.RETURN );
+		for( final String prop: SEQ_PROPS )
+			sb.append( prop ).append( "=" ).append( Config.getString( null, prop ) ).append( Constants.RETURN );
+
+		if( MetaUtil.exists() ) {
+			final File meta = new File( MetaUtil.getPath() );
+			sb.append( meta.getName() ).append( Constants.TAB_DELIM ).append( md5( meta ) ).append( Constants.RETURN );
+		}
+
+		final Map<String, String> digests = new ConcurrentHashMap<>();
+		ParallelUtil.processFiles( module, module.getInputFiles(), file -> digests.put( file.getName(), md5( file ) ) );
+		for( final String name: new TreeSet<>( digests.keySet() ) )
+			sb.append( name ).append( Constants.TAB_DELIM ).append( digests.get( name ) ).append( Constants.RETURN );
+
+		return CheckpointUtil.md5( sb.toString() );
+	}
+
+	/**
+	 * Return the effective value (module specific form first) of each Config property recorded for the module so far,
+	 * skipping properties that only describe the pipeline instance or its runtime environment. The pipeline path is
+	 * replaced by {@value #PIPELINE_PATH_VAR} so values match across pipelines.
+	 */
+	private static Map<String, String> getModuleProps( final BioModule module ) {
+		final Map<String, String> props = new TreeMap<>();
+		final Map<String, String> recorded = usedProps.get( module.getID() );
+		if( recorded == null ) return props;
+		for( final String prop: new HashSet<>( recorded.keySet() ) ) {
+			if( EXCLUDED_PROPS.contains( prop ) || SEQ_PROPS.contains( prop ) ) continue;
+			if( EXCLUDED_PROP_PREFIXES.stream().anyMatch( prop::startsWith ) ) continue;
+			props.put( prop, normalize( Config.getString( module, prop ) ) );
+		}
+		return props;
+	}
+
+	/**
+	 * Check that each Config property saved with the cache entry has the same effective value in this pipeline.
+	 */
+	private static boolean hasUsedPropValues( final BioModule module, final File file ) throws IOException {
+		if( !file.isFile() ) return true;
+		for( final String line: FileUtils.readLines( file, StandardCharsets.UTF_8 ) ) {
+			final String[] cols = line.split( Constants.TAB_DELIM, 2 );
+			final String val = normalize( Config.getString( module, cols[ 0 ] ) );
+			if( !val.equals( cols.length < 2 ? "": cols[ 1 ] ) ) {
+				Log.info( OutputCacheUtil.class, "Cached output of " + module.getClass().getSimpleName() +
+					" is out of date, property [ " + cols[ 0 ] + " ] = " + val );
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String normalize( final String val ) {
+		return val == null ? "": val.replace( Config.pipelinePath(), PIPELINE_PATH_VAR );
+	}
+
+	/**
+	 * Set the Config properties saved with the cache entry, replacing the pipeline path of the pipeline that saved
+	 * the entry with the current pipeline path.
+	 */
+	private static void restoreConfig( final File file ) throws Exception {
+		if( !file.isFile() ) return;
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			final String pipelinePath = reader.readLine();
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final String[] cols = line.split( Constants.TAB_DELIM, 2 );
+				Config.setConfigProperty( cols[ 0 ],
+					cols.length < 2 ? "": cols[ 1 ].replace( pipelinePath, Config.pipelinePath() ) );
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Save the Config properties the module read (with the value 1st read) that are not part of the key, 1 tab
+	 * delimited property per line.
+	 */
+	private static void saveUsedProps( final BioModule module, final File file ) throws IOException {
+		final Map<String, String> recorded = usedProps.remove( module.getID() );
+		if( recorded == null ) return;
+		final Set<String> lines = new TreeSet<>();
+		final Set<String> keyProps = keyPropNames.remove( module.getID() );
+		for( final String prop: recorded.keySet() ) {
+			if( keyProps != null && keyProps.contains( prop ) ) continue;
+			if( EXCLUDED_PROPS.contains( prop ) || SEQ_PROPS.contains( prop ) ) continue;
+			if( EXCLUDED_PROP_PREFIXES.stream().anyMatch( prop::startsWith ) ) continue;
+			lines.add( prop + Constants.TAB_DELIM + normalize( recorded.get( prop ) ) );
+		}
+		FileUtils.writeLines( file, StandardCharsets.UTF_8.name(), lines );
+	}
+
+	/**
+	 * Save the Config properties added or changed since the snapshot, 1 tab delimited property per line after a
+	 * header line with the pipeline path.
+	 */
+	private static void saveConfig( final Map<String, String> snapshot, final File file ) throws IOException {
+		if( snapshot == null ) return;
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			writer.write( Config.pipelinePath() + Constants.RETURN );
+			final Map<String, String> props = Config.getProperties();
+			for( final String prop: props.keySet() )
+				if( props.get( prop ) != null && !props.get( prop ).equals( snapshot.get( prop ) ) )
+					writer.write( prop + Constants.TAB_DELIM + props.get( prop ) + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Hard link (or copy, if linking fails) every file under the source directory into the target directory. The
+	 * Config property files and module sub-directories of a cache entry are skipped.
+	 */
+	private static void linkFiles( final File source, final File target ) throws IOException {
+		if( !target.isDirectory() ) target.mkdirs();
+		for( final File file: source.listFiles() ) {
+			if( file.getName().equals( CONFIG_FILE ) || file.getName().equals( USED_PROPS_FILE ) ||
+				file.getName().equals( SUB_DIRS ) ) continue;
+			final File dest = new File( target, file.getName() );
+			if( file.isDirectory() ) linkFiles( file, dest );
+			else try {
+				Files.createLink( dest.toPath(), file.toPath() );
+			} catch( final Exception ex ) {
+				FileUtils.copyFile( file, dest );
+			}
+		}
+	}
+
+	/**
+	 * Return the MD5 digest of the file content as a hex String.
+	 */
+	static String md5( final File file ) throws Exception {
+		final MessageDigest md = MessageDigest.getInstance( "MD5" );
+		final byte[] bytes = new byte[ BUFFER_SIZE ];
+		final InputStream in = new FileInputStream( file );
+		try {
+			for( int numRead = in.read( bytes ); numRead >= 0; numRead = in.read( bytes ) )
+				md.update( bytes, 0, numRead );
+		} finally {
+			in.close();
+		}
+		return CheckpointUtil.toHex( md.digest() );
+	}
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final long BYTES_PER_GB = 1024L * 1024 * 1024;
+	private static final List<String> CACHE_EXCLUDED_DIRS = Arrays.asList( BioModule.OUTPUT_DIR, BioModule.TEMP_DIR,
+		Constants.SCRIPT_DIR );
+	private static final String CONFIG_FILE = ".bljCacheConfig";
+	private static final Map<Integer, Map<String, String>> configSnapshots = new HashMap<>();
+	private static final List<String> EXCLUDED_PROP_PREFIXES = Arrays.asList( Constants.INTERNAL_PREFIX, "pipeline.",
+		"project.", "script.", "cluster.", "docker.", "aws." );
+	private static final List<String> EXCLUDED_PROPS = Arrays.asList( Constants.INPUT_DIRS, MetaUtil.META_FILE_PATH );
+	private static final Map<Integer, Set<String>> keyPropNames = new HashMap<>();
+	private static final Map<Integer, String> keys = new HashMap<>();
+	private static final Map<Integer, File> metadataSnapshots = new HashMap<>();
+	private static final String PIPELINE_PATH_VAR = "${PIPELINE_PATH}";
+	private static final List<String> SEQ_PROPS = Arrays.asList( Constants.INPUT_FORWARD_READ_SUFFIX,
+		Constants.INPUT_REVERSE_READ_SUFFIX, Constants.INPUT_TRIM_PREFIX, Constants.INPUT_TRIM_SUFFIX,
+		Constants.INTERNAL_IS_MULTI_LINE_SEQ, Constants.INTERNAL_MULTIPLEXED, Constants.INTERNAL_PAIRED_READS,
+		Constants.INTERNAL_SEQ_HEADER_CHAR, Constants.INTERNAL_SEQ_TYPE );
+	private static final String SUB_DIRS = ".bljCacheModuleDirs";
+	private static final String TEMP_EXT = ".tmp";
+	private static final String USED_PROPS_FILE = ".bljCacheUsedProps";
+	private static final Map<Integer, Map<String, String>> usedProps = new HashMap<>();
+}
@@ -0,0 +1,207 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import biolockj.Log;
+
+/**
+ * This class holds the read pairs accepted in both the forward and reverse read file of a sample, without storing
+ * header Strings.
+ * <p>
+ * Both files are first streamed in lock-step. If every record has the same header ({@link SeqUtil#getHeader(String)})
+ * in both files, pairs are stored as 1 bit per record number. Otherwise, the files are streamed again and the 128-bit
+ * fingerprint of each accepted forward read header is stored in a {@link biolockj.util.FingerprintTable}, which is
+ * intersected with the accepted reverse read headers. Headers whose fingerprint is repeated in the forward file are
+ * held as Strings and matched exactly, so a fingerprint collision is never reported as a duplicate header.
+ */
+public class PairedReadSet {
+
+	/**
+	 * Filter used to accept or reject the current record of a {@link biolockj.util.SeqRecordReader}.
+	 */
+	public interface ReadFilter {
+
+		/**
+		 * Check the current record.
+		 *
+		 * @param reader SeqRecordReader
+		 * @return TRUE if the read is accepted
+		 * @throws Exception if errors occur
+		 */
+		boolean accept( SeqRecordReader reader ) throws Exception;
+	}
+
+	private PairedReadSet( final BitSet records, final FingerprintTable headers, final FingerprintTable repeats,
+		final Set<String> repeatHeaders ) {
+		this.records = records;
+		this.headers = headers;
+		this.repeats = repeats;
+		this.repeatHeaders = repeatHeaders;
+	}
+
+	/**
+	 * Check if the current record of the reader belongs to an accepted read pair. In lock-step mode the record number
+	 * is used, so the reader must read the same forward or reverse file used to build this set.
+	 *
+	 * @param reader SeqRecordReader
+	 * @return TRUE if the read pair was accepted in both files
+	 */
+	public boolean contains( final SeqRecordReader reader ) {
+		if( this.records != null ) return this.records.get( (int) reader.getRecordNum() - 1 );
+		final long[] fp = fingerprint( reader.getHeader() );
+		if( this.repeats.get( fp[ 0 ], fp[ 1 ] ) >= 0 )
+			return this.repeatHeaders.contains( SeqUtil.getHeader( reader.getHeader() ) );
+		return this.headers.get( fp[ 0 ], fp[ 1 ] ) >= 0;
+	}
+
+	/**
+	 * Return TRUE if the pairs are indexed by record number (both files list the reads in the same order).
+	 *
+	 * @return TRUE if built in lock-step mode
+	 */
+	public boolean isLockStep() {
+		return this.records != null;
+	}
+
+	/**
+	 * Return the number of accepted read pairs.
+	 *
+	 * @return Number of read pairs
+	 */
+	public int size() {
+		return this.records != null ? this.records.cardinality(): this.headers.size() + this.repeatHeaders.size();
+	}
+
+	/**
+	 * Build the set of read pairs accepted by the filter in both files.
+	 *
+	 * @param fwRead Forward read file
+	 * @param rvRead Reverse read file
+	 * @param filter ReadFilter
+	 * @return PairedReadSet
+	 * @throws Exception if a header is repeated in 1 file or errors occur reading the files
+	 */
+	public static PairedReadSet build( final File fwRead, final File rvRead, final ReadFilter filter )
+		throws Exception {
+		final BitSet records = buildLockStep( fwRead, rvRead, filter );
+		if( records != null ) return new PairedReadSet( records, null, null, null );
+
+		Log.info( PairedReadSet.class, "Read order differs - match read pairs by header fingerprint: " +
+			fwRead.getName() + ", " + rvRead.getName() );
+		final FingerprintTable fwHeaders = new FingerprintTable( INITIAL_SIZE );
+		final FingerprintTable repeats = new FingerprintTable( 0 );
+		SeqRecordReader reader = new SeqRecordReader( fwRead );
+		try {
+			while( reader.next() )
+				if( filter.accept( reader ) ) {
+					final long[] fp = fingerprint( reader.getHeader() );
+					final int size = fwHeaders.size();
+					if( fwHeaders.getOrAdd( fp[ 0 ], fp[ 1 ] ) < size ) repeats.getOrAdd( fp[ 0 ], fp[ 1 ] );
+				}
+		} finally {
+			reader.close();
+		}
+
+		final Set<String> fwRepeatHeaders = getRepeatHeaders( fwRead, filter, repeats );
+		final FingerprintTable pairs = new FingerprintTable( INITIAL_SIZE );
+		final Set<String> repeatPairs = new HashSet<>();
+		reader = new SeqRecordReader( rvRead );
+		try {
+			while( reader.next() )
+				if( filter.accept( reader ) ) {
+					final long[] fp = fingerprint( reader.getHeader() );
+					final String header = SeqUtil.getHeader( reader.getHeader() );
+					final boolean isDuplicate;
+					if( repeats.get( fp[ 0 ], fp[ 1 ] ) >= 0 )
+						isDuplicate = fwRepeatHeaders.contains( header ) && !repeatPairs.add( header );
+					else if( fwHeaders.get( fp[ 0 ], fp[ 1 ] ) >= 0 ) {
+						final int size = pairs.size();
+						isDuplicate = pairs.getOrAdd( fp[ 0 ], fp[ 1 ] ) < size;
+					} else isDuplicate = false;
+					if( isDuplicate ) throw new Exception( "Duplicate header: " + header );
+				}
+		} finally {
+			reader.close();
+		}
+		return new PairedReadSet( null, pairs, repeats, repeatPairs );
+	}
+
+	/**
+	 * Stream both files together and return the accepted record numbers, or null if the headers are not in the same
+	 * order or the files have a different number of reads.
+	 */
+	private static BitSet buildLockStep( final File fwRead, final File rvRead, final ReadFilter filter )
+		throws Exception {
+		final BitSet records = new BitSet();
+		final SeqRecordReader fw = new SeqRecordReader( fwRead );
+		final SeqRecordReader rv = new SeqRecordReader( rvRead );
+		try {
+			while( true ) {
+				final boolean hasFw = fw.next();
+				if( hasFw != rv.next() ) return null;
+				if( !hasFw ) return records;
+				if( !SeqUtil.getHeader( fw.getHeader() ).equals( SeqUtil.getHeader( rv.getHeader() ) ) ) return null;
+				if( filter.accept( fw ) && filter.accept( rv ) ) records.set( (int) fw.getRecordNum() - 1 );
+			}
+		} finally {
+			fw.close();
+			rv.close();
+		}
+	}
+
+	/**
+	 * Return the 128-bit fingerprint (high and low words) of the read header ({@link SeqUtil#getHeader(String)}).
+	 */
+	private static long[] fingerprint( final String line ) {
+		final byte[] bytes = SeqUtil.getHeader( line ).getBytes( StandardCharsets.ISO_8859_1 );
+		final long[] fp = new long[ 2 ];
+		FingerprintTable.fingerprint( bytes, 0, bytes.length, fp );
+		return fp;
+	}
+
+	/**
+	 * Stream the forward read file again to collect the accepted headers with a repeated fingerprint, so repeated
+	 * headers are told apart from fingerprint collisions by comparing the header Strings.
+	 */
+	private static Set<String> getRepeatHeaders( final File fwRead, final ReadFilter filter,
+		final FingerprintTable repeats ) throws Exception {
+		final Set<String> headers = new HashSet<>();
+		if( repeats.size() == 0 ) return headers;
+		Log.warn( PairedReadSet.class, repeats.size() + " header fingerprints repeated - verify headers: " +
+			fwRead.getName() );
+		final SeqRecordReader reader = new SeqRecordReader( fwRead );
+		try {
+			while( reader.next() )
+				if( filter.accept( reader ) ) {
+					final long[] fp = fingerprint( reader.getHeader() );
+					final String header = SeqUtil.getHeader( reader.getHeader() );
+					if( repeats.get( fp[ 0 ], fp[ 1 ] ) >= 0 && !headers.add( header ) )
+						throw new Exception( "Duplicate header: " + header );
+				}
+		} finally {
+			reader.close();
+		}
+		return headers;
+	}
+
+	private final FingerprintTable headers;
+	private final BitSet records;
+	private final Set<String> repeatHeaders;
+	private final FingerprintTable repeats;
+
+	private static final int INITIAL_SIZE = 1 << 16;
+}
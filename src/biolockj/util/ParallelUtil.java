@@ -0,0 +1,146 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import biolockj.*;
+import biolockj.module.BioModule;
+
+/**
+ * This utility runs a file-level task over a collection of files, or an index-level task over a range of indexes, in
+ * parallel.<br>
+ * The thread pool size is set by {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS}, so Java
+ * modules use the same CPU reservation already requested for the module scripts.
+ */
+public class ParallelUtil {
+
+	/**
+	 * Task run once per file. Implementations must be thread safe.
+	 */
+	public interface FileTask {
+		/**
+		 * Process a single file.
+		 *
+		 * @param file Input file
+		 * @throws Exception if errors occur
+		 */
+		public void process( File file ) throws Exception;
+	}
+
+	/**
+	 * Task run once per index. Implementations must be thread safe.
+	 */
+	public interface IndexTask {
+		/**
+		 * Process a single index.
+		 *
+		 * @param index Index between 0 (inclusive) and the range size (exclusive)
+		 * @throws Exception if errors occur
+		 */
+		public void process( int index ) throws Exception;
+	}
+
+	// Prevent instantiation
+	private ParallelUtil() {}
+
+	/**
+	 * Get the number of threads to use for the given module:
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS}, or 1 if undefined.
+	 *
+	 * @param module BioModule
+	 * @return Number of threads
+	 * @throws Exception if the property is not a positive integer
+	 */
+	public static int getNumThreads( final BioModule module ) throws Exception {
+		final Integer numThreads = Config.getPositiveInteger( module, Constants.SCRIPT_NUM_THREADS );
+		return numThreads == null ? 1: numThreads;
+	}
+
+	/**
+	 * Run the task on every file using {@link #getNumThreads(BioModule)} threads. If any task fails, remaining tasks
+	 * are cancelled and the first exception is thrown.
+	 *
+	 * @param module BioModule
+	 * @param files Input files
+	 * @param task FileTask
+	 * @throws Exception if any task fails
+	 */
+	public static void processFiles( final BioModule module, final Collection<File> files, final FileTask task )
+		throws Exception {
+		final int numThreads = Math.min( getNumThreads( module ), Math.max( 1, files.size() ) );
+		if( numThreads == 1 ) {
+			for( final File file: files )
+				task.process( file );
+			return;
+		}
+
+		Log.info( ParallelUtil.class, "Process " + files.size() + " files with " + numThreads + " threads" );
+		final List<Callable<Void>> tasks = new ArrayList<>();
+		for( final File file: files )
+			tasks.add( () -> {
+				task.process( file );
+				return null;
+			} );
+		runAll( numThreads, tasks );
+	}
+
+	/**
+	 * Run the task on every index from 0 to size - 1 using {@link #getNumThreads(BioModule)} threads. Each thread
+	 * processes every n<sup>th</sup> index (n = number of threads), so cheap per-index tasks are not submitted
+	 * individually. If any task fails, remaining tasks are cancelled and the first exception is thrown.
+	 *
+	 * @param module BioModule
+	 * @param size Number of indexes
+	 * @param task IndexTask
+	 * @throws Exception if any task fails
+	 */
+	public static void processIndexes( final BioModule module, final int size, final IndexTask task )
+		throws Exception {
+		final int numThreads = Math.min( getNumThreads( module ), Math.max( 1, size ) );
+		if( numThreads == 1 ) {
+			for( int i = 0; i < size; i++ )
+				task.process( i );
+			return;
+		}
+
+		final List<Callable<Void>> tasks = new ArrayList<>();
+		for( int t = 0; t < numThreads; t++ ) {
+			final int first = t;
+			tasks.add( () -> {
+				for( int i = first; i < size; i += numThreads )
+					task.process( i );
+				return null;
+			} );
+		}
+		runAll( numThreads, tasks );
+	}
+
+	private static void runAll( final int numThreads, final List<Callable<Void>> tasks ) throws Exception {
+		final ExecutorService pool = Executors.newFixedThreadPool( numThreads );
+		final List<Future<Void>> futures = new ArrayList<>();
+		try {
+			for( final Callable<Void> task: tasks )
+				futures.add( pool.submit( task ) );
+			for( final Future<Void> future: futures )
+				try {
+					future.get();
+				} catch( final ExecutionException ex ) {
+					if( ex.getCause() instanceof Exception ) throw (Exception) ex.getCause();
+					throw ex;
+				}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
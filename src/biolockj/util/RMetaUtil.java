@@ -201,6 +201,30 @@ public final class RMetaUtil {
 		return binaryFields;
 	}
 
+	/**
+	 * Get the {@link biolockj.Config}.{@value #NOMINAL_FIELDS} categorical fields with more than 2 values.
+	 *
+	 * @param module is the Calling BioModule
+	 * @return Set of nominal column names
+	 * @throws Exception if unable to assign nominal fields
+	 */
+	public static Set<String> getNominalFields( final BioModule module ) throws Exception {
+		if( nominalFields == null ) classifyReportableMetadata( module );
+		return nominalFields;
+	}
+
+	/**
+	 * Get the {@link biolockj.Config}.{@value #NUMERIC_FIELDS} fields containing only numeric values.
+	 *
+	 * @param module is the Calling BioModule
+	 * @return Set of numeric column names
+	 * @throws Exception if unable to assign numeric fields
+	 */
+	public static Set<String> getNumericFields( final BioModule module ) throws Exception {
+		if( numericFields == null ) classifyReportableMetadata( module );
+		return numericFields;
+	}
+
 	/**
 	 * Method analyzes the file name to determine if the file could be output from the BioModule
 	 * {@link biolockj.module.report.taxa.AddMetadataToTaxaTables}
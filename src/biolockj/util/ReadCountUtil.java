@@ -0,0 +1,259 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import biolockj.*;
+import biolockj.module.BioModule;
+
+/**
+ * This utility counts the lines of sequence files by scanning raw bytes for line breaks. Plain files are memory
+ * mapped; gzipped files are inflated on a separate thread so decompression and counting overlap.
+ * <p>
+ * Line counts are saved to a pipeline level cache file ({@value #CACHE_FILE}) keyed by file path, size and last
+ * modified time, so a file is only scanned once per pipeline. Modules that write sequence files with a known number
+ * of reads can register the count with {@link #registerNumReads(File, long)} so downstream modules never rescan them.
+ */
+public class ReadCountUtil {
+
+	// Prevent instantiation
+	private ReadCountUtil() {}
+
+	/**
+	 * Return the number of lines in the file, from the cache if the file is unchanged since it was counted.
+	 *
+	 * @param file Text file (gzipped or not)
+	 * @return Number of lines
+	 * @throws Exception if I/O errors occur
+	 */
+	public static long countLines( final File file ) throws Exception {
+		final Long cached = getCachedLines( file );
+		if( cached != null ) {
+			Log.debug( ReadCountUtil.class, "Use cached line count for: " + file.getAbsolutePath() );
+			return cached;
+		}
+
+		final long numLines = SeqUtil.isGzipped( file.getName() ) ? scanGzip( file ): scanPlain( file );
+		cacheLines( file, numLines );
+		return numLines;
+	}
+
+	/**
+	 * Return the number of reads in the sequence file: {@link #countLines(File)} divided by
+	 * {@link biolockj.util.SeqUtil#getNumLinesPerRead()}.
+	 *
+	 * @param seqFile Sequence file
+	 * @return Number of reads
+	 * @throws Exception if errors occur
+	 */
+	public static long countNumReads( final File seqFile ) throws Exception {
+		return countLines( seqFile ) / SeqUtil.getNumLinesPerRead();
+	}
+
+	/**
+	 * Count the reads in each file, scanning files in parallel with
+	 * {@link biolockj.util.ParallelUtil#getNumThreads(BioModule)} threads.
+	 *
+	 * @param module BioModule
+	 * @param seqFiles Sequence files
+	 * @return Map of sequence file to number of reads
+	 * @throws Exception if errors occur
+	 */
+	public static Map<File, Long> countNumReads( final BioModule module, final Collection<File> seqFiles )
+		throws Exception {
+		final Map<File, Long> counts = new ConcurrentHashMap<>();
+		ParallelUtil.processFiles( module, seqFiles, file -> counts.put( file, countNumReads( file ) ) );
+		return counts;
+	}
+
+	/**
+	 * Register the number of reads in a sequence file just written by a module, so the file is never scanned. Files
+	 * streamed to the next module are never scanned, so they are not registered.
+	 *
+	 * @param seqFile Sequence file
+	 * @param numReads Number of reads written to the file
+	 * @throws Exception if errors occur
+	 */
+	public static void registerNumReads( final File seqFile, final long numReads ) throws Exception {
+		if( SeqStreamUtil.isStreamed( seqFile ) ) return;
+		cacheLines( seqFile, numReads * SeqUtil.getNumLinesPerRead() );
+	}
+
+	private static void cacheLines( final File file, final long numLines ) throws IOException {
+		final String path = file.getAbsolutePath();
+		final long[] entry = new long[] { file.length(), file.lastModified(), numLines };
+		synchronized( cache ) {
+			loadCache();
+			cache.put( path, entry );
+			final File cacheFile = getCacheFile();
+			if( cacheFile == null ) return;
+			final BufferedWriter writer = new BufferedWriter( new FileWriter( cacheFile, true ) );
+			try {
+				writer.write( path + Constants.TAB_DELIM + entry[ 0 ] + Constants.TAB_DELIM + entry[ 1 ] +
+					Constants.TAB_DELIM + entry[ 2 ] + Constants.RETURN );
+			} finally {
+				writer.close();
+			}
+		}
+	}
+
+	private static Long getCachedLines( final File file ) throws IOException {
+		final long[] entry;
+		synchronized( cache ) {
+			loadCache();
+			entry = cache.get( file.getAbsolutePath() );
+		}
+		if( entry != null && entry[ 0 ] == file.length() && entry[ 1 ] == file.lastModified() ) return entry[ 2 ];
+		return null;
+	}
+
+	private static File getCacheFile() {
+		if( Config.pipelinePath() == null ) return null;
+		return new File( Config.pipelinePath() + File.separator + CACHE_FILE );
+	}
+
+	/**
+	 * Read the cache file once per pipeline directory. Later entries for the same path replace earlier entries.
+	 */
+	private static void loadCache() throws IOException {
+		final File cacheFile = getCacheFile();
+		final String path = cacheFile == null ? null: cacheFile.getAbsolutePath();
+		if( path == null || path.equals( loadedCache ) ) return;
+		cache.clear();
+		loadedCache = path;
+		if( !cacheFile.isFile() ) return;
+		final BufferedReader reader = BioLockJUtil.getFileReader( cacheFile );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final String[] cols = line.split( Constants.TAB_DELIM );
+				if( cols.length == 4 ) cache.put( cols[ 0 ], new long[] { Long.valueOf( cols[ 1 ] ),
+					Long.valueOf( cols[ 2 ] ), Long.valueOf( cols[ 3 ] ) } );
+			}
+		} finally {
+			reader.close();
+		}
+		Log.info( ReadCountUtil.class, "Loaded " + cache.size() + " cached line counts from: " + path );
+	}
+
+	private static long scanGzip( final File file ) throws Exception {
+		final BlockingQueue<Block> free = new ArrayBlockingQueue<>( NUM_BLOCKS );
+		final BlockingQueue<Block> full = new ArrayBlockingQueue<>( NUM_BLOCKS + 1 );
+		final AtomicReference<Exception> error = new AtomicReference<>();
+		for( int i = 0; i < NUM_BLOCKS; i++ )
+			free.add( new Block() );
+
+		final Thread inflater = new Thread( () -> {
+			try {
+				final InputStream in = new GZIPInputStream( new FileInputStream( file ), BUFFER_SIZE );
+				try {
+					for( int len = 0; len >= 0; ) {
+						final Block block = free.take();
+						len = in.read( block.data );
+						block.len = len;
+						full.put( block );
+					}
+				} finally {
+					in.close();
+				}
+			} catch( final Exception ex ) {
+				error.set( ex );
+				full.offer( END_BLOCK );
+			}
+		}, "inflate-" + file.getName() );
+		inflater.setDaemon( true );
+		inflater.start();
+
+		long numLines = 0L;
+		byte last = '\n';
+		try {
+			for( Block block = full.take(); block.len >= 0; block = full.take() ) {
+				if( block.len > 0 ) {
+					numLines += countLineBreaks( block.data, block.len );
+					last = block.data[ block.len - 1 ];
+				}
+				free.put( block );
+			}
+		} finally {
+			// stop the inflate thread (and close its stream) if counting ended early
+			inflater.interrupt();
+		}
+
+		if( error.get() != null ) throw error.get();
+		return last == '\n' ? numLines: numLines + 1;
+	}
+
+	private static long scanPlain( final File file ) throws IOException {
+		long numLines = 0L;
+		byte last = '\n';
+		final byte[] chunk = new byte[ BUFFER_SIZE ];
+		final FileInputStream in = new FileInputStream( file );
+		try {
+			final FileChannel channel = in.getChannel();
+			final long size = channel.size();
+			for( long pos = 0; pos < size; pos += MAX_MAP_SIZE ) {
+				final MappedByteBuffer buffer =
+					channel.map( FileChannel.MapMode.READ_ONLY, pos, Math.min( MAX_MAP_SIZE, size - pos ) );
+				while( buffer.hasRemaining() ) {
+					final int len = Math.min( chunk.length, buffer.remaining() );
+					buffer.get( chunk, 0, len );
+					numLines += countLineBreaks( chunk, len );
+					last = chunk[ len - 1 ];
+				}
+			}
+		} finally {
+			in.close();
+		}
+		return last == '\n' ? numLines: numLines + 1;
+	}
+
+	/**
+	 * Buffer passed from the inflate thread to the counting thread.
+	 */
+	private static final class Block {
+		private final byte[] data;
+		private int len;
+
+		private Block() {
+			this( BUFFER_SIZE );
+		}
+
+		private Block( final int size ) {
+			this.data = new byte[ size ];
+			this.len = -1;
+		}
+	}
+
+	private static int countLineBreaks( final byte[] bytes, final int len ) {
+		int count = 0;
+		for( int i = 0; i < len; i++ )
+			if( bytes[ i ] == '\n' ) count++;
+		return count;
+	}
+
+	/**
+	 * Name of the pipeline level line count cache file: {@value #CACHE_FILE}
+	 */
+	public static final String CACHE_FILE = ".lineCounts" + Constants.TSV_EXT;
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final Map<String, long[]> cache = new HashMap<>();
+	private static String loadedCache = null;
+	private static final Block END_BLOCK = new Block( 0 );
+	private static final long MAX_MAP_SIZE = 256L * 1024 * 1024;
+	private static final int NUM_BLOCKS = 4;
+}
@@ -150,6 +150,28 @@ public class RuntimeParamUtil {
 		return getJavaComputeNodeArgs( module );
 	}
 
+	/**
+	 * Runtime params for 1 shard of a {@link biolockj.module.ShardedModule}.
+	 * 
+	 * @param module JavaModule
+	 * @param shard Shard index
+	 * @return java -jar BioLockJ.jar runtime args
+	 * @throws DockerVolCreationException 
+	 */
+	public static String getJavaModuleArgs( final JavaModule module, final int shard )
+		throws DockerVolCreationException {
+		return getJavaModuleArgs( module ) + " " + SHARD + " " + shard;
+	}
+
+	/**
+	 * Runtime property getter for {@value #SHARD}
+	 * 
+	 * @return Shard index of a {@link biolockj.module.ShardedModule}, or null if not running as a shard
+	 */
+	public static Integer getShard() {
+		return params.get( SHARD ) == null ? null: Integer.valueOf( params.get( SHARD ) );
+	}
+
 	/**
 	 * Extract the project name from the Config file.
 	 * 
@@ -417,6 +439,11 @@ public class RuntimeParamUtil {
 	 */
 	protected static final String RESTART_DIR = "-restartDir";
 
+	/**
+	 * Direct mode shard index runtime parameter switch: {@value #SHARD}
+	 */
+	protected static final String SHARD = "-shard";
+
 	/**
 	 * Log to System.out instead of Log for debug early runtime errors with switch: {@value #SYSTEM_OUT_FLAG}
 	 */
@@ -430,7 +457,8 @@ public class RuntimeParamUtil {
 	private static final List<String> ARG_FLAGS = Arrays.asList( AWS_FLAG, SYSTEM_OUT_FLAG, PRECHECK_FLAG );
 	private static final List<String> DIR_ARGS = Arrays.asList( BLJ_PROJ_DIR, HOME_DIR, RESTART_DIR );
 	private static final List<String> extraParams = new ArrayList<>();
-	private static final List<String> NAMED_ARGS = Arrays.asList( CONFIG_FILE, DIRECT_MODE, HOSTNAME, PASSWORD );
+	private static final List<String> NAMED_ARGS =
+		Arrays.asList( CONFIG_FILE, DIRECT_MODE, HOSTNAME, PASSWORD, SHARD );
 	private static final List<String> REQUIRED_ARGS = Arrays.asList(CONFIG_FILE, RESTART_DIR, DIRECT_MODE);
 	private static final Map<String, String> params = new HashMap<>();
 	private static String runtimeArgs = "";
@@ -0,0 +1,186 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import biolockj.*;
+import biolockj.exception.*;
+import biolockj.module.seq.Dereplicate;
+
+/**
+ * This utility resolves Sample IDs from file names for {@link biolockj.util.SeqUtil#getSampleId(String)}.
+ * <p>
+ * The Config properties used to extract Sample IDs (read direction suffixes, trim prefix/suffix, multiplexed status
+ * and {@link biolockj.Config}.{@value biolockj.util.MetaUtil#META_FILENAME_COLUMN}) are read once into a rule set,
+ * and the metadata file name column is indexed by file name. Resolved IDs are cached by file name. The rule set is
+ * rebuilt only if {@link biolockj.Config} or the metadata changes, and the cache is kept unless the rules differ.
+ */
+public class SampleIdResolver {
+
+	// Prevent instantiation
+	private SampleIdResolver() {}
+
+	/**
+	 * Return the Sample ID for the file name, from the cache if already resolved.
+	 *
+	 * @param fileName File name
+	 * @return Sample ID, or null if the file is not listed in the metadata file name column
+	 * @throws SequnceFormatException if unable to extract a valid Sample ID
+	 * @throws MetadataException if errors occur reading the metadata file name column
+	 * @throws ConfigFormatException if Boolean Config properties have values other than "Y" or "N"
+	 */
+	public static String getSampleId( final String fileName )
+		throws SequnceFormatException, MetadataException, ConfigFormatException {
+		final Rules current = getRules();
+		String id = current.cache.get( fileName );
+		if( id == null ) {
+			id = current.resolve( fileName );
+			if( id != null ) {
+				if( current.cache.size() >= MAX_CACHE_SIZE ) current.cache.clear();
+				current.cache.put( fileName, id );
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Resolve the Sample ID without caching the result, for values that are seldom repeated such as sequence headers.
+	 *
+	 * @param value File name or sequence header
+	 * @return Sample ID, or null if the file is not listed in the metadata file name column
+	 * @throws SequnceFormatException if unable to extract a valid Sample ID
+	 * @throws MetadataException if errors occur reading the metadata file name column
+	 * @throws ConfigFormatException if Boolean Config properties have values other than "Y" or "N"
+	 */
+	public static String resolve( final String value )
+		throws SequnceFormatException, MetadataException, ConfigFormatException {
+		return getRules().resolve( value );
+	}
+
+	private static Rules getRules() throws MetadataException, ConfigFormatException {
+		final Rules current = rules;
+		if( current != null && current.isCurrent() ) return current;
+		synchronized( SampleIdResolver.class ) {
+			if( rules != null && rules.isCurrent() ) return rules;
+			final Rules next = new Rules( rules );
+			if( rules == null || next.cache != rules.cache )
+				Log.debug( SampleIdResolver.class, "Build new Sample ID rules: " + next );
+			rules = next;
+			return next;
+		}
+	}
+
+	/**
+	 * Config values and metadata file name index used to resolve Sample IDs.
+	 */
+	private static final class Rules {
+
+		private Rules( final Rules prev ) throws MetadataException, ConfigFormatException {
+			this.configVersion = Config.getVersion();
+			this.metaVersion = MetaUtil.getVersion();
+			this.fwReadSuffix = Config.getString( null, Constants.INPUT_FORWARD_READ_SUFFIX );
+			this.rvReadSuffix = Config.getString( null, Constants.INPUT_REVERSE_READ_SUFFIX );
+			this.fileNameCol = Config.getString( null, MetaUtil.META_FILENAME_COLUMN );
+			this.trimPrefix = Config.getString( null, Constants.INPUT_TRIM_PREFIX );
+			this.trimSuffix = Config.getString( null, Constants.INPUT_TRIM_SUFFIX );
+			this.multiplexed = SeqUtil.isMultiplexed();
+
+			if( MetaUtil.hasColumn( this.fileNameCol ) &&
+				!MetaUtil.getFieldValues( this.fileNameCol, true ).isEmpty() ) {
+				this.fileNameIndex = new HashMap<>();
+				for( final String id: MetaUtil.getSampleIds() ) {
+					final String name = MetaUtil.getField( id, this.fileNameCol );
+					if( !this.fileNameIndex.containsKey( name ) ) this.fileNameIndex.put( name, id );
+				}
+			} else this.fileNameIndex = null;
+
+			this.cache = prev != null && hasSameRules( prev ) ? prev.cache: new ConcurrentHashMap<>();
+		}
+
+		@Override
+		public String toString() {
+			return "fwReadSuffix=" + this.fwReadSuffix + ", rvReadSuffix=" + this.rvReadSuffix + ", fileNameCol=" +
+				( this.fileNameIndex == null ? null: this.fileNameCol ) + ", trimPrefix=" + this.trimPrefix +
+				", trimSuffix=" + this.trimSuffix + ", multiplexed=" + this.multiplexed;
+		}
+
+		private boolean hasSameRules( final Rules prev ) {
+			if( this.fileNameIndex != null || prev.fileNameIndex != null ) return false;
+			return equal( this.fwReadSuffix, prev.fwReadSuffix ) && equal( this.rvReadSuffix, prev.rvReadSuffix ) &&
+				equal( this.trimPrefix, prev.trimPrefix ) && equal( this.trimSuffix, prev.trimSuffix ) &&
+				this.multiplexed == prev.multiplexed;
+		}
+
+		private boolean isCurrent() {
+			return this.configVersion == Config.getVersion() && this.metaVersion == MetaUtil.getVersion();
+		}
+
+		private String resolve( final String value ) throws SequnceFormatException, MetadataException {
+			String id = value;
+			if( id.endsWith( Constants.PROCESSED ) ) return id.replace( Constants.PROCESSED, "" );
+			if( id.equals( Dereplicate.UNIQUE_SEQS + "." + Constants.FASTA ) ) return Dereplicate.UNIQUE_SEQS;
+
+			if( this.rvReadSuffix != null && id.contains( this.rvReadSuffix ) ) {
+				final int rvIndex = value.lastIndexOf( this.rvReadSuffix );
+				id = id.substring( 0, rvIndex ) + this.fwReadSuffix + id.substring( rvIndex + 3 );
+			}
+
+			if( this.fileNameIndex != null ) {
+				final String sampleId = this.fileNameIndex.get( id );
+				if( sampleId != null ) return sampleId;
+				Log.warn( SeqUtil.class, value + " not processed in pipeline - path not found in metadata column " +
+					this.fileNameCol + " in: " + MetaUtil.getPath() );
+				return null;
+			}
+
+			// trim directional suffix
+			if( !this.multiplexed && this.fwReadSuffix != null && id.indexOf( this.fwReadSuffix ) > 0 )
+				id = id.substring( 0, id.lastIndexOf( this.fwReadSuffix ) );
+
+			// trim files extensions: .gz | .fasta | .fastq
+			if( SeqUtil.isGzipped( id ) ) id = id.substring( 0, id.length() - 3 );
+			if( id.toLowerCase().endsWith( "." + Constants.FASTA ) ||
+				id.toLowerCase().endsWith( "." + Constants.FASTQ ) ) id = id.substring( 0, id.length() - 6 );
+
+			// trim user defined file prefix and/or suffix patterns
+			if( this.trimPrefix != null && id.indexOf( this.trimPrefix ) > -1 )
+				id = id.substring( this.trimPrefix.length() + id.indexOf( this.trimPrefix ) );
+
+			if( this.trimSuffix != null && id.indexOf( this.trimSuffix ) > 0 )
+				id = id.substring( 0, id.indexOf( this.trimSuffix ) );
+
+			if( id == null || id.isEmpty() )
+				throw new SequnceFormatException( "Unable to extract a valid Sample ID from: " + value );
+			return id;
+		}
+
+		private static boolean equal( final String a, final String b ) {
+			return a == null ? b == null: a.equals( b );
+		}
+
+		private final Map<String, String> cache;
+		private final int configVersion;
+		private final String fileNameCol;
+		private final Map<String, String> fileNameIndex;
+		private final String fwReadSuffix;
+		private final int metaVersion;
+		private final boolean multiplexed;
+		private final String rvReadSuffix;
+		private final String trimPrefix;
+		private final String trimSuffix;
+	}
+
+	private static final int MAX_CACHE_SIZE = 1000000;
+	private static volatile Rules rules = null;
+}
@@ -0,0 +1,154 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import biolockj.*;
+import biolockj.module.*;
+import biolockj.module.report.r.R_Module;
+
+/**
+ * This utility builds the worker script lines that stage module temp and output files on node-local scratch storage
+ * ({@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_SCRATCH_DIR}) instead of the pipeline directory.
+ * <p>
+ * Each worker creates its own scratch directory, copies in the module temp files written before the worker scripts were
+ * created (except log files), so files of other running workers are never staged, and points the tempDir and outputDir
+ * script variables at the scratch copies. The staged files are listed (path, modified time, size) in a manifest, and
+ * only scratch files missing from the manifest, which this worker created or modified, are ever copied back. After
+ * each unit of work, these files are copied back to the module directory in the background while the next unit runs.
+ * Before the worker touches its _Success flag it waits for the copy, copies any remaining files, and verifies each of
+ * them by MD5 checksum. The scratch directory is deleted only after a successful verification, so it is kept for
+ * review if a worker fails.
+ * <p>
+ * Checkpoints ({@link biolockj.util.CheckpointUtil}) are written to the scratch directory and copied back after the
+ * output files, so a unit is never checkpointed in the pipeline before its output.
+ */
+public class ScratchUtil {
+
+	// Prevent instantiation
+	private ScratchUtil() {}
+
+	/**
+	 * Return the script line that waits for the previous background copy and starts a new one.
+	 *
+	 * @return Bash script line
+	 */
+	public static String getAsyncStageOutLine() {
+		return "wait; " + FUNCTION_STAGE_OUT + " &";
+	}
+
+	/**
+	 * Return the path used by worker scripts to record a checkpoint in the scratch directory.
+	 *
+	 * @param name Checkpoint file name
+	 * @return Checkpoint path with the scratch directory variable
+	 */
+	public static String getCheckpointPath( final String name ) {
+		return SCRATCH_DIR_VAR + "/" + CheckpointUtil.CHECKPOINT_DIR + "/" + name;
+	}
+
+	/**
+	 * Return the worker script lines that create the scratch directory, stage in the temp files written before the
+	 * worker script, redirect the tempDir and outputDir variables, and define functions {@value #FUNCTION_STAGE_OUT}
+	 * and {@value #FUNCTION_VERIFY_STAGE_OUT}.
+	 *
+	 * @param module ScriptModule
+	 * @return Bash script lines
+	 */
+	public static List<String> getWorkerScriptLines( final ScriptModule module ) {
+		final String scratch = Config.getString( module, Constants.SCRIPT_SCRATCH_DIR );
+		final String tempDir = SCRATCH_DIR_VAR + "/" + module.getTempDir().getName();
+		final String outputDir = SCRATCH_DIR_VAR + "/" + module.getOutputDir().getName();
+		final List<String> lines = new ArrayList<>();
+		lines.add( "# Stage temp and output files in node-local scratch (copied back before _Success)" );
+		lines.add( SCRATCH_DIR + "=$(mktemp -d \"" + scratch + "/" + Config.pipelineName() + "_" +
+			module.getModuleDir().getName() + "_XXXXXX\") || scriptFailed \"mktemp -d " + scratch + "\" ${LINENO} 1" );
+		lines.add( "mkdir -p \"" + tempDir + "\" \"" + outputDir + "\" \"" + SCRATCH_DIR_VAR + "/" +
+			CheckpointUtil.CHECKPOINT_DIR + "\"" );
+		lines.add( "(cd \"${tempDir}\" && find . -type f ! -name \"*" + Constants.LOG_EXT +
+			"\" ! -newer \"${BASH_SOURCE[0]}\" -print0) | tar -C \"${tempDir}\" --null -T - -cf - | tar -C \"" +
+			tempDir + "\" -xpf - || scriptFailed \"Stage in ${tempDir}\" ${LINENO} 1" );
+		lines.add( "(cd \"" + SCRATCH_DIR_VAR + "\" && find . -type f -printf \"" + FILE_STAT_FORMAT + "\") > \"" +
+			STAGED_IN_MANIFEST + "\"" );
+		lines.add( "tempDir=\"" + tempDir + "\"" );
+		lines.add( "outputDir=\"" + outputDir + "\"" );
+		lines.add( "" );
+
+		lines.add( "# List scratch files created or modified by this worker (find args filter the list)" );
+		lines.add( "function " + FUNCTION_WORKER_FILES + "() {" );
+		lines.add( "(cd \"" + SCRATCH_DIR_VAR + "\" && find . -type f \"$@\" -printf \"" + FILE_STAT_FORMAT +
+			"\") | grep -Fxvf \"" + STAGED_IN_MANIFEST + "\" | cut -f1" );
+		lines.add( "}" + Constants.RETURN );
+
+		lines.add( "# Copy new scratch files to the module directory, checkpoints last" );
+		lines.add( "function " + FUNCTION_STAGE_OUT + "() {" );
+		lines.add( "touch \"" + SYNCING_FLAG + "\"" );
+		lines.add( "local newer=\"\"" );
+		lines.add( "[ -f \"" + SYNCED_FLAG + "\" ] && newer=\"-newer " + SYNCED_FLAG + "\"" );
+		lines.add( "while read -r f; do" );
+		lines.add( "mkdir -p \"$(dirname \"${modDir}/${f}\")\" && cp -p \"" + SCRATCH_DIR_VAR +
+			"/${f}\" \"${modDir}/${f}\" || return 1" );
+		lines.add( "done < <(" + FUNCTION_WORKER_FILES + " ! -path \"./" + CheckpointUtil.CHECKPOINT_DIR +
+			"/*\" ${newer} && " + FUNCTION_WORKER_FILES + " -path \"./" + CheckpointUtil.CHECKPOINT_DIR +
+			"/*\" ${newer})" );
+		lines.add( "mv \"" + SYNCING_FLAG + "\" \"" + SYNCED_FLAG + "\"" );
+		lines.add( "}" + Constants.RETURN );
+
+		lines.add( "# Finish copying scratch files, verify MD5 checksums, then delete the scratch directory" );
+		lines.add( "function " + FUNCTION_VERIFY_STAGE_OUT + "() {" );
+		lines.add( "wait" );
+		lines.add( FUNCTION_STAGE_OUT + " || return 1" );
+		lines.add( "while read -r f; do" );
+		lines.add( "[ \"$(md5sum < \"" + SCRATCH_DIR_VAR + "/${f}\")\" == " +
+			"\"$(md5sum 2>/dev/null < \"${modDir}/${f}\")\" ] && continue" );
+		lines.add( "cp -p \"" + SCRATCH_DIR_VAR + "/${f}\" \"${modDir}/${f}\" || return 1" );
+		lines.add( "[ \"$(md5sum < \"" + SCRATCH_DIR_VAR + "/${f}\")\" == \"$(md5sum < \"${modDir}/${f}\")\" ] " +
+			"|| return 1" );
+		lines.add( "done < <(" + FUNCTION_WORKER_FILES + ")" );
+		lines.add( "rm -rf \"" + SCRATCH_DIR_VAR + "\" \"" + SYNCED_FLAG + "\" \"" + SYNCING_FLAG + "\" \"" +
+			STAGED_IN_MANIFEST + "\"" );
+		lines.add( "}" + Constants.RETURN );
+		return lines;
+	}
+
+	/**
+	 * Check if worker scripts of the module stage files in a node-local scratch directory.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if {@value biolockj.Constants#SCRIPT_SCRATCH_DIR} is set for a module with worker scripts (not
+	 * {@link biolockj.module.JavaModule}s or {@link biolockj.module.report.r.R_Module}s)
+	 */
+	public static boolean isEnabled( final BioModule module ) {
+		return module instanceof ScriptModule && !( module instanceof JavaModule ) &&
+			!( module instanceof R_Module ) && Config.getString( module, Constants.SCRIPT_SCRATCH_DIR ) != null;
+	}
+
+	/**
+	 * Worker script function that waits for the background copy, then copies and verifies every scratch file:
+	 * {@value #FUNCTION_VERIFY_STAGE_OUT}
+	 */
+	public static final String FUNCTION_VERIFY_STAGE_OUT = "verifyStageOut";
+
+	/**
+	 * Worker script function that copies new scratch files to the module directory: {@value #FUNCTION_STAGE_OUT}
+	 */
+	public static final String FUNCTION_STAGE_OUT = "stageOut";
+
+	private static final String FILE_STAT_FORMAT = "%p\\t%T@\\t%s\\n";
+	private static final String FUNCTION_WORKER_FILES = "workerFiles";
+	private static final String SCRATCH_DIR = "scratchDir";
+	private static final String SCRATCH_DIR_VAR = "${" + SCRATCH_DIR + "}";
+	private static final String SYNCED_FLAG = SCRATCH_DIR_VAR + ".synced";
+	private static final String SYNCING_FLAG = SCRATCH_DIR_VAR + ".syncing";
+	private static final String STAGED_IN_MANIFEST = SCRATCH_DIR_VAR + ".stagedIn";
+}
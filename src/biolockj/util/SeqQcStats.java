@@ -0,0 +1,251 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.Arrays;
+import biolockj.Constants;
+
+/**
+ * This class accumulates read QC statistics in primitive arrays while a sequence file is streamed by a
+ * {@link biolockj.util.SeqRecordReader}, so QC needs no extra pass over the file:
+ * <ul>
+ * <li>Per-cycle Phred quality histograms (fastq only, Phred+33 encoding)
+ * <li>Per-cycle N counts and overall GC/N content
+ * <li>Read length and per-read GC % distributions
+ * <li>Duplicate rate, estimated from the first {@value #DUP_SAMPLE_SIZE} reads by 128-bit sequence fingerprint
+ * </ul>
+ * Instances are not thread safe: use 1 instance per file (or thread), then {@link #merge(SeqQcStats)} the results.
+ */
+public class SeqQcStats {
+
+	/**
+	 * Add the first len bases of the current read.
+	 *
+	 * @param reader SeqRecordReader
+	 * @param len Number of bases to include (the read may have been trimmed)
+	 */
+	public void add( final SeqRecordReader reader, final int len ) {
+		final byte[] buffer = reader.getBuffer();
+		final int seqStart = reader.getStart( SeqRecordReader.SEQ_LINE );
+		final boolean hasQual = reader.getNumLines() > SeqRecordReader.QUAL_LINE;
+		final int qualStart = hasQual ? reader.getStart( SeqRecordReader.QUAL_LINE ): 0;
+		ensureCycles( len );
+
+		int gc = 0;
+		for( int i = 0; i < len; i++ ) {
+			switch( buffer[ seqStart + i ] ) {
+				case 'G': case 'C': case 'g': case 'c':
+					gc++;
+					break;
+				case 'N': case 'n':
+					this.cycleN[ i ]++;
+					this.numN++;
+					break;
+				default:
+			}
+			if( hasQual ) this.cycleQual[ i * NUM_QUAL + getQual( buffer[ qualStart + i ] ) ]++;
+		}
+
+		if( len >= this.lengthHist.length )
+			this.lengthHist = Arrays.copyOf( this.lengthHist, Math.max( len + 1, this.lengthHist.length * 2 ) );
+		this.lengthHist[ len ]++;
+		if( len > 0 ) this.gcHist[ (int) Math.round( 100.0 * gc / len ) ]++;
+		this.numGC += gc;
+		this.numBases += len;
+		this.numReads++;
+
+		if( this.numDupSampled < DUP_SAMPLE_SIZE ) {
+			if( this.dupTable == null ) this.dupTable = new FingerprintTable( DUP_SAMPLE_SIZE );
+			FingerprintTable.fingerprint( buffer, seqStart, len, this.fingerprint );
+			this.dupTable.getOrAdd( this.fingerprint[ 0 ], this.fingerprint[ 1 ] );
+			if( ++this.numDupSampled == DUP_SAMPLE_SIZE ) closeDupSample();
+		}
+	}
+
+	/**
+	 * Return the estimated fraction of duplicate reads.
+	 *
+	 * @return Duplicate rate between 0 and 1
+	 */
+	public double getDuplicateRate() {
+		closeDupSample();
+		return this.numDupSampled == 0 ? 0.0: 1.0 - (double) this.numUniqueSampled / this.numDupSampled;
+	}
+
+	/**
+	 * Return the GC % of all bases.
+	 *
+	 * @return GC %
+	 */
+	public double getGcPercent() {
+		return this.numBases == 0 ? 0.0: 100.0 * this.numGC / this.numBases;
+	}
+
+	/**
+	 * Return the number of reads added.
+	 *
+	 * @return Number of reads
+	 */
+	public long getNumReads() {
+		return this.numReads;
+	}
+
+	/**
+	 * Add the statistics of another instance (for example the reverse reads of a sample, or another thread) to this
+	 * instance. Duplicate rates are combined as a read-weighted mean of the sampled rates.
+	 *
+	 * @param other SeqQcStats
+	 */
+	public void merge( final SeqQcStats other ) {
+		closeDupSample();
+		other.closeDupSample();
+		ensureCycles( other.numCycles );
+		for( int i = 0; i < other.numCycles; i++ )
+			this.cycleN[ i ] += other.cycleN[ i ];
+		for( int i = 0; i < other.numCycles * NUM_QUAL; i++ )
+			this.cycleQual[ i ] += other.cycleQual[ i ];
+		if( other.lengthHist.length > this.lengthHist.length )
+			this.lengthHist = Arrays.copyOf( this.lengthHist, other.lengthHist.length );
+		for( int i = 0; i < other.lengthHist.length; i++ )
+			this.lengthHist[ i ] += other.lengthHist[ i ];
+		for( int i = 0; i < GC_BINS; i++ )
+			this.gcHist[ i ] += other.gcHist[ i ];
+		this.numBases += other.numBases;
+		this.numDupSampled += other.numDupSampled;
+		this.numGC += other.numGC;
+		this.numN += other.numN;
+		this.numReads += other.numReads;
+		this.numUniqueSampled += other.numUniqueSampled;
+	}
+
+	/**
+	 * Write the QC report: summary lines, then the per-cycle quality table, the read length distribution and the GC %
+	 * distribution, each preceded by a "#" header line. Empty bins are omitted.
+	 *
+	 * @param file Report file
+	 * @throws IOException if write errors occur
+	 */
+	public void write( final File file ) throws IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			writer.write( "Reads" + Constants.TAB_DELIM + this.numReads + Constants.RETURN );
+			writer.write( "Bases" + Constants.TAB_DELIM + this.numBases + Constants.RETURN );
+			writer.write( "GC_Percent" + Constants.TAB_DELIM + format( getGcPercent() ) + Constants.RETURN );
+			writer.write( "N_Percent" + Constants.TAB_DELIM +
+				format( this.numBases == 0 ? 0.0: 100.0 * this.numN / this.numBases ) + Constants.RETURN );
+			writer.write( "Duplicate_Rate" + Constants.TAB_DELIM + format( getDuplicateRate() ) + Constants.RETURN );
+
+			writer.write( Constants.RETURN + "#Cycle" + Constants.TAB_DELIM + "Mean_Qual" + Constants.TAB_DELIM +
+				"Q10" + Constants.TAB_DELIM + "Q25" + Constants.TAB_DELIM + "Median" + Constants.TAB_DELIM + "Q75" +
+				Constants.TAB_DELIM + "Q90" + Constants.TAB_DELIM + "N_Count" + Constants.RETURN );
+			for( int i = 0; i < this.numCycles; i++ )
+				writer.write( ( i + 1 ) + getCycleQualStats( i ) + Constants.TAB_DELIM + this.cycleN[ i ] +
+					Constants.RETURN );
+
+			writer.write( Constants.RETURN + "#Length" + Constants.TAB_DELIM + "Count" + Constants.RETURN );
+			for( int i = 0; i < this.lengthHist.length; i++ )
+				if( this.lengthHist[ i ] > 0 )
+					writer.write( i + Constants.TAB_DELIM + this.lengthHist[ i ] + Constants.RETURN );
+
+			writer.write( Constants.RETURN + "#GC_Percent" + Constants.TAB_DELIM + "Count" + Constants.RETURN );
+			for( int i = 0; i < GC_BINS; i++ )
+				if( this.gcHist[ i ] > 0 )
+					writer.write( i + Constants.TAB_DELIM + this.gcHist[ i ] + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Count the unique sequences of a completed duplicate sample and release the fingerprint table.
+	 */
+	private void closeDupSample() {
+		if( this.dupTable == null ) return;
+		this.numUniqueSampled += this.dupTable.size();
+		this.dupTable = null;
+	}
+
+	private void ensureCycles( final int len ) {
+		if( len > this.cycleN.length ) {
+			final int size = Math.max( len, this.cycleN.length * 2 );
+			this.cycleN = Arrays.copyOf( this.cycleN, size );
+			this.cycleQual = Arrays.copyOf( this.cycleQual, size * NUM_QUAL );
+		}
+		this.numCycles = Math.max( this.numCycles, len );
+	}
+
+	/**
+	 * Return the tab-delimited mean, 10th, 25th, 50th, 75th and 90th percentile quality of the cycle, or "NA" values
+	 * if the cycle has no quality scores (fasta).
+	 */
+	private String getCycleQualStats( final int cycle ) {
+		final int offset = cycle * NUM_QUAL;
+		long count = 0L;
+		long sum = 0L;
+		for( int q = 0; q < NUM_QUAL; q++ ) {
+			count += this.cycleQual[ offset + q ];
+			sum += q * this.cycleQual[ offset + q ];
+		}
+		final StringBuilder sb = new StringBuilder( Constants.TAB_DELIM );
+		if( count == 0L ) {
+			sb.append( MetaUtil.DEFAULT_NULL_VALUE );
+			for( int i = 0; i < PERCENTILES.length; i++ )
+				sb.append( Constants.TAB_DELIM ).append( MetaUtil.DEFAULT_NULL_VALUE );
+			return sb.toString();
+		}
+
+		sb.append( format( (double) sum / count ) );
+		int q = 0;
+		long cumulative = this.cycleQual[ offset ];
+		for( final double pct: PERCENTILES ) {
+			while( cumulative < pct * count && q < NUM_QUAL - 1 )
+				cumulative += this.cycleQual[ offset + ++q ];
+			sb.append( Constants.TAB_DELIM ).append( q );
+		}
+		return sb.toString();
+	}
+
+	private static String format( final double value ) {
+		return String.format( "%.4f", value );
+	}
+
+	private static int getQual( final byte ascii ) {
+		final int q = ascii - PHRED_OFFSET;
+		return q < 0 ? 0: q >= NUM_QUAL ? NUM_QUAL - 1: q;
+	}
+
+	private long[] cycleN = new long[ INIT_CYCLES ];
+	private long[] cycleQual = new long[ INIT_CYCLES * NUM_QUAL ];
+	private FingerprintTable dupTable = null;
+	private final long[] fingerprint = new long[ 2 ];
+	private final long[] gcHist = new long[ GC_BINS ];
+	private long[] lengthHist = new long[ INIT_CYCLES ];
+	private long numBases = 0L;
+	private int numCycles = 0;
+	private long numDupSampled = 0L;
+	private long numGC = 0L;
+	private long numN = 0L;
+	private long numReads = 0L;
+	private long numUniqueSampled = 0L;
+
+	/**
+	 * Number of reads per file used to estimate the duplicate rate: {@value #DUP_SAMPLE_SIZE}
+	 */
+	public static final int DUP_SAMPLE_SIZE = 100000;
+
+	private static final int GC_BINS = 101;
+	private static final int INIT_CYCLES = 512;
+	private static final int NUM_QUAL = 94;
+	private static final double[] PERCENTILES = { 0.1, 0.25, 0.5, 0.75, 0.9 };
+	private static final int PHRED_OFFSET = 33;
+}
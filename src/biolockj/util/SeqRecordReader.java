@@ -0,0 +1,270 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import biolockj.Log;
+
+/**
+ * This utility reads fasta/fastq records from a sequence file (gzipped or not) without building a String per line.
+ * <p>
+ * Each call to {@link #next()} frames the next record (the next {@link #getNumLines()} lines) inside a single reused
+ * byte buffer. The lines of the current record are exposed as slices of {@link #getBuffer()}, given by
+ * {@link #getStart(int)} and {@link #getLength(int)}, and remain valid only until the next call to {@link #next()}.
+ * Leading and trailing whitespace (including the carriage return of Windows line endings) is excluded from each
+ * slice. Use {@link biolockj.util.SeqRecordWriter} to write records back to disk directly from the buffer.
+ * <p>
+ * Empty lines at the top of the file are skipped (as in {@link biolockj.util.SeqUtil#scanFirstLine(BufferedReader,
+ * File)}). A partial record at the end of the file is ignored.
+ */
+public class SeqRecordReader implements Closeable {
+
+	/**
+	 * Open a reader that frames records with {@link biolockj.util.SeqUtil#getNumLinesPerRead()} lines.
+	 *
+	 * @param file Sequence file
+	 * @throws Exception if unable to determine the sequence format or open the file
+	 */
+	public SeqRecordReader( final File file ) throws Exception {
+		this( file, SeqUtil.getNumLinesPerRead(), DEFAULT_BUFFER_SIZE );
+	}
+
+	/**
+	 * Open a reader that frames records with the given number of lines. A file streamed by the previous module (see
+	 * {@link biolockj.util.SeqStreamUtil}) is read from its pipe.
+	 *
+	 * @param file Sequence file
+	 * @param numLines Number of lines per record
+	 * @param bufferSize Initial buffer size in bytes (grows if a single record is larger)
+	 * @throws IOException if unable to open the file
+	 */
+	public SeqRecordReader( final File file, final int numLines, final int bufferSize ) throws IOException {
+		this.in = openStream( file, bufferSize );
+		this.file = file;
+		this.buf = new byte[ Math.max( bufferSize, MIN_BUFFER_SIZE ) ];
+		this.starts = new int[ numLines ];
+		this.lengths = new int[ numLines ];
+	}
+
+	/**
+	 * Return the character at the given position of the given line.
+	 *
+	 * @param line Line index within the record
+	 * @param index Character index within the line
+	 * @return Character
+	 */
+	public char charAt( final int line, final int index ) {
+		return (char) ( this.buf[ this.starts[ line ] + index ] & 0xFF );
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+
+	/**
+	 * Return the internal buffer holding the current record.
+	 *
+	 * @return Byte buffer
+	 */
+	public byte[] getBuffer() {
+		return this.buf;
+	}
+
+	/**
+	 * Return the sequence file being read.
+	 *
+	 * @return Sequence file
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Return the header line (line 1) of the current record.
+	 *
+	 * @return Header line
+	 */
+	public String getHeader() {
+		return getLine( HEADER_LINE );
+	}
+
+	/**
+	 * Return the length of the given line of the current record.
+	 *
+	 * @param line Line index within the record
+	 * @return Number of bytes
+	 */
+	public int getLength( final int line ) {
+		return this.lengths[ line ];
+	}
+
+	/**
+	 * Build a String for the given line of the current record.
+	 *
+	 * @param line Line index within the record
+	 * @return Line content
+	 */
+	public String getLine( final int line ) {
+		return new String( this.buf, this.starts[ line ], this.lengths[ line ], StandardCharsets.ISO_8859_1 );
+	}
+
+	/**
+	 * Return the number of lines per record.
+	 *
+	 * @return Number of lines
+	 */
+	public int getNumLines() {
+		return this.starts.length;
+	}
+
+	/**
+	 * Return the number of records read so far, which is also the 1-based number of the current record.
+	 *
+	 * @return Number of records
+	 */
+	public long getRecordNum() {
+		return this.recordNum;
+	}
+
+	/**
+	 * Return the sequence line (line 2) of the current record.
+	 *
+	 * @return Sequence line
+	 */
+	public String getSeq() {
+		return getLine( SEQ_LINE );
+	}
+
+	/**
+	 * Return the start offset of the given line of the current record in {@link #getBuffer()}.
+	 *
+	 * @param line Line index within the record
+	 * @return Buffer offset
+	 */
+	public int getStart( final int line ) {
+		return this.starts[ line ];
+	}
+
+	/**
+	 * Frame the next record.
+	 *
+	 * @return true if a full record was read, false at the end of the file
+	 * @throws IOException if read errors occur
+	 */
+	public boolean next() throws IOException {
+		int recordStart = this.pos;
+		int scan = this.pos;
+		int line = 0;
+		while( line < this.starts.length ) {
+			int eol = scan;
+			while( eol < this.limit && this.buf[ eol ] != '\n' )
+				eol++;
+
+			if( eol == this.limit && !this.eof ) {
+				final int shift = recordStart;
+				if( shift > 0 ) {
+					System.arraycopy( this.buf, shift, this.buf, 0, this.limit - shift );
+					for( int i = 0; i < line; i++ )
+						this.starts[ i ] -= shift;
+					this.limit -= shift;
+					scan -= shift;
+					recordStart = 0;
+				} else if( this.limit == this.buf.length ) {
+					final byte[] grown = new byte[ this.buf.length * 2 ];
+					System.arraycopy( this.buf, 0, grown, 0, this.limit );
+					this.buf = grown;
+				}
+				fill();
+				continue;
+			}
+
+			if( eol == scan && eol == this.limit ) {
+				this.pos = this.limit;
+				return false;
+			}
+
+			setLine( line, scan, eol );
+			scan = Math.min( eol + 1, this.limit );
+			if( this.recordNum == 0 && line == 0 && this.lengths[ 0 ] == 0 ) {
+				this.numSkipped++;
+				recordStart = scan;
+			} else line++;
+		}
+
+		if( this.recordNum == 0 && this.numSkipped > 0 ) Log.warn( getClass(),
+			"Skipped [ " + this.numSkipped + " ] empty lines at the top of ---> " + this.file.getAbsolutePath() );
+
+		this.pos = scan;
+		this.recordNum++;
+		return true;
+	}
+
+	private void fill() throws IOException {
+		final int numRead = this.in.read( this.buf, this.limit, this.buf.length - this.limit );
+		if( numRead < 0 ) this.eof = true;
+		else this.limit += numRead;
+	}
+
+	private static InputStream openStream( final File file, final int bufferSize ) throws IOException {
+		final InputStream pipe = SeqStreamUtil.getInputStream( file );
+		if( pipe != null ) return pipe;
+		final InputStream fis = new FileInputStream( file );
+		return SeqUtil.isGzipped( file.getName() ) ? new GZIPInputStream( fis, bufferSize ): fis;
+	}
+
+	private void setLine( final int line, final int from, final int to ) {
+		int start = from;
+		int end = to;
+		while( end > start && this.buf[ end - 1 ] <= ' ' )
+			end--;
+		while( start < end && this.buf[ start ] <= ' ' )
+			start++;
+		this.starts[ line ] = start;
+		this.lengths[ line ] = end - start;
+	}
+
+	private byte[] buf;
+	private boolean eof = false;
+	private final File file;
+	private final InputStream in;
+	private final int[] lengths;
+	private int limit = 0;
+	private int numSkipped = 0;
+	private int pos = 0;
+	private long recordNum = 0L;
+	private final int[] starts;
+
+	/**
+	 * Default buffer size in bytes: {@value #DEFAULT_BUFFER_SIZE}
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * Index of the header line in each record: {@value #HEADER_LINE}
+	 */
+	public static final int HEADER_LINE = 0;
+
+	/**
+	 * Index of the fastq quality score line in each record: {@value #QUAL_LINE}
+	 */
+	public static final int QUAL_LINE = 3;
+
+	/**
+	 * Index of the sequence line in each record: {@value #SEQ_LINE}
+	 */
+	public static final int SEQ_LINE = 1;
+
+	private static final int MIN_BUFFER_SIZE = 1024;
+}
@@ -0,0 +1,169 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This utility writes fasta/fastq records framed by a {@link biolockj.util.SeqRecordReader} directly from the reader
+ * buffer, so unmodified lines are never converted to Strings. Files with a ".gz" extension are gzipped.
+ */
+public class SeqRecordWriter implements Closeable {
+
+	/**
+	 * Open a writer that overwrites the given file.
+	 *
+	 * @param file Output file
+	 * @throws IOException if unable to open the file
+	 */
+	public SeqRecordWriter( final File file ) throws IOException {
+		this( file, false, SeqRecordReader.DEFAULT_BUFFER_SIZE );
+	}
+
+	/**
+	 * Open a writer for the given file. A file streamed to the next module (see {@link biolockj.util.SeqStreamUtil}) is
+	 * written to its pipe, uncompressed.
+	 *
+	 * @param file Output file
+	 * @param append If true, append to the file if it exists
+	 * @param bufferSize Buffer size in bytes
+	 * @throws IOException if unable to open the file
+	 */
+	public SeqRecordWriter( final File file, final boolean append, final int bufferSize ) throws IOException {
+		this.out = new BufferedOutputStream( openStream( file, append, bufferSize ), bufferSize );
+	}
+
+	/**
+	 * Open a writer over the given stream, for example a {@link biolockj.util.BgzfOutputStream}.
+	 *
+	 * @param out Output stream (closed by {@link #close()})
+	 * @param bufferSize Buffer size in bytes
+	 */
+	public SeqRecordWriter( final OutputStream out, final int bufferSize ) {
+		this.out = new BufferedOutputStream( out, bufferSize );
+	}
+
+	/**
+	 * Write the given line of the current record without a line break.
+	 *
+	 * @param reader SeqRecordReader
+	 * @param line Line index within the record
+	 * @throws IOException if write errors occur
+	 */
+	public void append( final SeqRecordReader reader, final int line ) throws IOException {
+		this.out.write( reader.getBuffer(), reader.getStart( line ), reader.getLength( line ) );
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.out.close();
+	}
+
+	/**
+	 * Write a line break.
+	 *
+	 * @throws IOException if write errors occur
+	 */
+	public void newLine() throws IOException {
+		this.out.write( NEW_LINE );
+	}
+
+	/**
+	 * Write every line of the current record.
+	 *
+	 * @param reader SeqRecordReader
+	 * @throws IOException if write errors occur
+	 */
+	public void write( final SeqRecordReader reader ) throws IOException {
+		for( int i = 0; i < reader.getNumLines(); i++ )
+			writeLine( reader, i );
+	}
+
+	/**
+	 * Write every line of the current record, truncating the sequence (and fastq quality) line to maxLen bases.
+	 *
+	 * @param reader SeqRecordReader
+	 * @param maxLen Maximum number of bases
+	 * @throws IOException if write errors occur
+	 */
+	public void write( final SeqRecordReader reader, final int maxLen ) throws IOException {
+		for( int i = 0; i < reader.getNumLines(); i++ )
+			if( i == SeqRecordReader.SEQ_LINE || i == SeqRecordReader.QUAL_LINE )
+				writeLine( reader, i, 0, Math.min( maxLen, reader.getLength( i ) ) );
+			else writeLine( reader, i );
+	}
+
+	/**
+	 * Write the header line of the current record, replacing its 1st character with the given header character.
+	 *
+	 * @param reader SeqRecordReader
+	 * @param headerChar Header character
+	 * @throws IOException if write errors occur
+	 */
+	public void writeHeader( final SeqRecordReader reader, final char headerChar ) throws IOException {
+		final int len = reader.getLength( SeqRecordReader.HEADER_LINE );
+		this.out.write( headerChar );
+		writeLine( reader, SeqRecordReader.HEADER_LINE, Math.min( 1, len ), Math.max( 0, len - 1 ) );
+	}
+
+	/**
+	 * Write the given line of the current record.
+	 *
+	 * @param reader SeqRecordReader
+	 * @param line Line index within the record
+	 * @throws IOException if write errors occur
+	 */
+	public void writeLine( final SeqRecordReader reader, final int line ) throws IOException {
+		append( reader, line );
+		newLine();
+	}
+
+	/**
+	 * Write part of the given line of the current record.
+	 *
+	 * @param reader SeqRecordReader
+	 * @param line Line index within the record
+	 * @param offset Index of the 1st character to write
+	 * @param len Number of characters to write
+	 * @throws IOException if write errors occur
+	 */
+	public void writeLine( final SeqRecordReader reader, final int line, final int offset, final int len )
+		throws IOException {
+		this.out.write( reader.getBuffer(), reader.getStart( line ) + offset, len );
+		newLine();
+	}
+
+	/**
+	 * Write a line built by the caller (for example a modified header).
+	 *
+	 * @param line Line content
+	 * @throws IOException if write errors occur
+	 */
+	public void writeLine( final String line ) throws IOException {
+		this.out.write( line.getBytes( StandardCharsets.ISO_8859_1 ) );
+		newLine();
+	}
+
+	private static OutputStream openStream( final File file, final boolean append, final int bufferSize )
+		throws IOException {
+		final OutputStream pipe = SeqStreamUtil.getOutputStream( file );
+		if( pipe != null ) return pipe;
+		final OutputStream fos = new FileOutputStream( file, append );
+		return SeqUtil.isGzipped( file.getName() ) ? new GZIPOutputStream( fos, bufferSize ): fos;
+	}
+
+	private final OutputStream out;
+
+	private static final int NEW_LINE = '\n';
+}
@@ -0,0 +1,497 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.io.FileUtils;
+import biolockj.*;
+import biolockj.module.BioModule;
+import biolockj.module.SeqStreamModule;
+import biolockj.util.ParallelUtil.FileTask;
+
+/**
+ * This utility streams sequence records between consecutive {@link biolockj.module.SeqStreamModule}s
+ * ({@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_STREAM_SEQ_MODULES}).
+ * <p>
+ * A stream group is a chain of consecutive SeqStreamModules that run in the pipeline JVM (not detached). When the 1st
+ * module of the group runs, every module of the group reads and writes its sequence files at the same time, each in
+ * its own thread. The output files of each module except the last are never written to disk: each file is an
+ * in-memory pipe read by the next module, so every sample flows through the whole group in a single pass. Only the
+ * output files of the last module are saved in its output directory.
+ * <p>
+ * The pipes hold the chunks written by {@link biolockj.util.SeqRecordWriter} until they are read by
+ * {@link biolockj.util.SeqRecordReader}. If the chunks held by all pipes exceed {@value #MAX_BUFFERED_MB} MB (or 1/4
+ * of the JVM heap), the pipe being written appends its next chunks to a temp file in the module temp directory
+ * instead, so a module never waits for the next module and the group cannot deadlock. The steps of each module that
+ * read or update the metadata run after the whole group, in pipeline order.
+ * <p>
+ * Each module with streamed output saves the list of streamed files ({@value #STREAMED_FILES}), so if the next module
+ * fails, the modules that streamed their output to it run again on pipeline restart.
+ */
+public class SeqStreamUtil {
+
+	// Prevent instantiation
+	private SeqStreamUtil() {}
+
+	/**
+	 * Return the input files of a module that reads the streamed output of the previous module.
+	 *
+	 * @param module BioModule
+	 * @return Streamed input files, or null if the module reads its input files from disk
+	 */
+	public static List<File> getStreamedInputFiles( final BioModule module ) {
+		final BioModule prev = ModuleUtil.getPreviousModule( module );
+		final List<File> files = prev == null ? null: streamedOutputs.get( prev.getID() );
+		return files == null ? null: new ArrayList<>( files );
+	}
+
+	/**
+	 * Return a stream to read a streamed sequence file. Each streamed file can only be read once.
+	 *
+	 * @param file Sequence file
+	 * @return InputStream, or null if the file is read from disk
+	 * @throws IOException if the file was already opened
+	 */
+	public static InputStream getInputStream( final File file ) throws IOException {
+		final SeqPipe pipe = pipes.get( file.getAbsolutePath() );
+		return pipe == null ? null: pipe.openInput();
+	}
+
+	/**
+	 * Return a stream to write a streamed sequence file. Each streamed file can only be written once.
+	 *
+	 * @param file Sequence file
+	 * @return OutputStream, or null if the file is written to disk
+	 * @throws IOException if the file was already opened
+	 */
+	public static OutputStream getOutputStream( final File file ) throws IOException {
+		final SeqPipe pipe = pipes.get( file.getAbsolutePath() );
+		return pipe == null ? null: pipe.openOutput();
+	}
+
+	/**
+	 * Check if a streamed sequence file is empty, waiting until the module that writes it writes the 1st chunk or
+	 * closes the file. Files read from disk are not checked, since empty files are never module input files.
+	 *
+	 * @param file Sequence file
+	 * @return TRUE if the file is streamed and empty
+	 * @throws IOException if the stream group failed
+	 */
+	public static boolean isEmpty( final File file ) throws IOException {
+		final SeqPipe pipe = pipes.get( file.getAbsolutePath() );
+		return pipe != null && pipe.isEmpty();
+	}
+
+	/**
+	 * Check if the module runs in a stream group.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if the module reads or writes streamed sequence files
+	 * @throws Exception if errors occur
+	 */
+	public static boolean isStreamed( final BioModule module ) throws Exception {
+		return canStream( ModuleUtil.getPreviousModule( module ), module ) ||
+			canStream( module, ModuleUtil.getNextModule( module ) );
+	}
+
+	/**
+	 * Check if the sequence file is streamed between modules of a stream group, so it is never written to disk.
+	 *
+	 * @param file Sequence file
+	 * @return TRUE if the file is streamed
+	 */
+	public static boolean isStreamed( final File file ) {
+		return streamedFiles.contains( file.getAbsolutePath() );
+	}
+
+	/**
+	 * Run the task on every file, as {@link biolockj.util.ParallelUtil#processFiles(BioModule, Collection, FileTask)}.
+	 * Streamed files are processed in the order they are written by the previous module, and empty streamed files
+	 * are skipped.
+	 *
+	 * @param module BioModule
+	 * @param files Input files
+	 * @param task FileTask
+	 * @throws Exception if any task fails
+	 */
+	public static void processFiles( final BioModule module, final Collection<File> files, final FileTask task )
+		throws Exception {
+		ParallelUtil.processFiles( module, sortByStreamOrder( files ), file -> {
+			if( isEmpty( file ) ) Log.warn( SeqStreamUtil.class, "Skip empty file: " + file.getAbsolutePath() );
+			else task.process( file );
+		} );
+	}
+
+	/**
+	 * Mark each completed module that streamed its output to an incomplete module as failed, so the stream group runs
+	 * again on pipeline restart.
+	 *
+	 * @param modules Pipeline modules
+	 * @throws Exception if errors occur
+	 */
+	public static void resetStreamedModules( final List<BioModule> modules ) throws Exception {
+		for( int i = modules.size() - 1; i > 0; i-- ) {
+			final BioModule module = modules.get( i - 1 );
+			if( ModuleUtil.isComplete( module ) && !ModuleUtil.isComplete( modules.get( i ) ) &&
+				new File( module.getModuleDir(), STREAMED_FILES ).isFile() ) {
+				Log.warn( SeqStreamUtil.class, "Run " + ModuleUtil.displaySignature( module ) +
+					" again, since its output was streamed to incomplete module: " +
+					ModuleUtil.displaySignature( modules.get( i ) ) );
+				BioLockJUtil.markStatus( module, Constants.BLJ_FAILED );
+			}
+		}
+	}
+
+	/**
+	 * Read and write the sequence files of the module, by calling {@link SeqStreamModule#streamSeqFiles()}. If the
+	 * module is the 1st module of a stream group, every module of the group runs concurrently. If the module is a later
+	 * module of a stream group, its sequence files were already processed with the group, so nothing is done.
+	 *
+	 * @param module SeqStreamModule
+	 * @throws Exception if any module of the group fails
+	 */
+	public static void runStreamGroup( final SeqStreamModule module ) throws Exception {
+		if( streamedModules.contains( module.getID() ) ) return;
+		final List<SeqStreamModule> group = getGroup( module );
+		if( group.size() == 1 ) {
+			module.streamSeqFiles();
+			return;
+		}
+
+		final StringBuffer names = new StringBuffer();
+		for( final SeqStreamModule member: group )
+			names.append( ( names.length() == 0 ? "": " -> " ) + member.getClass().getSimpleName() );
+		Log.info( SeqStreamUtil.class, "Stream sequence files through " + group.size() + " modules: " + names );
+
+		final List<SeqPipe> groupPipes = new ArrayList<>();
+		final AtomicReference<Exception> cause = new AtomicReference<>();
+		final ExecutorService pool = Executors.newFixedThreadPool( group.size() );
+		try {
+			for( final SeqStreamModule producer: group.subList( 0, group.size() - 1 ) )
+				groupPipes.addAll( openPipes( producer ) );
+
+			final List<Future<Void>> futures = new ArrayList<>();
+			for( final SeqStreamModule member: group )
+				futures.add( pool.submit( () -> {
+					try {
+						member.streamSeqFiles();
+						closePipes( member );
+					} catch( final Exception ex ) {
+						if( cause.compareAndSet( null, ex ) ) for( final SeqPipe pipe: groupPipes )
+							pipe.abort( ex );
+					}
+					return null;
+				} ) );
+			for( final Future<Void> future: futures )
+				future.get();
+			if( cause.get() != null ) throw cause.get();
+		} finally {
+			pool.shutdownNow();
+			long numBytes = 0L;
+			long numSpilled = 0L;
+			for( final SeqPipe pipe: groupPipes ) {
+				numBytes += pipe.numBytes;
+				numSpilled += pipe.numSpilled;
+				pipe.release();
+				pipes.remove( pipe.file.getAbsolutePath() );
+			}
+			Log.info( SeqStreamUtil.class, "Streamed " + FileUtils.byteCountToDisplaySize( numBytes ) + " in " +
+				groupPipes.size() + " sequence files (" + FileUtils.byteCountToDisplaySize( numSpilled ) +
+				" spilled to temp files)" );
+		}
+
+		for( final SeqStreamModule member: group )
+			streamedModules.add( member.getID() );
+	}
+
+	private static boolean canStream( final BioModule producer, final BioModule consumer ) throws Exception {
+		return producer instanceof SeqStreamModule && consumer instanceof SeqStreamModule && isEnabled( producer ) &&
+			isEnabled( consumer ) && ( (SeqStreamModule) producer ).canStreamOutput();
+	}
+
+	private static void closePipes( final SeqStreamModule producer ) {
+		final List<File> files = streamedOutputs.get( producer.getID() );
+		if( files != null ) for( final File file: files )
+			pipes.get( file.getAbsolutePath() ).closeOutput();
+	}
+
+	private static List<SeqStreamModule> getGroup( final SeqStreamModule head ) throws Exception {
+		final List<SeqStreamModule> group = new ArrayList<>();
+		group.add( head );
+		BioModule next = ModuleUtil.getNextModule( head );
+		while( canStream( group.get( group.size() - 1 ), next ) ) {
+			group.add( (SeqStreamModule) next );
+			next = ModuleUtil.getNextModule( next );
+		}
+		return group;
+	}
+
+	private static long getMaxBufferedBytes() {
+		return Math.min( MAX_BUFFERED_MB * 1024L * 1024L, Runtime.getRuntime().maxMemory() / 4 );
+	}
+
+	private static int getStreamOrder( final File file ) {
+		final SeqPipe pipe = pipes.get( file.getAbsolutePath() );
+		return pipe == null ? Integer.MAX_VALUE: pipe.order;
+	}
+
+	/**
+	 * Detached Java modules run in their own JVM (as in {@link biolockj.module.JavaModuleImpl#executeTask()}), so
+	 * they cannot stream.
+	 */
+	private static boolean isEnabled( final BioModule module ) throws Exception {
+		if( BioLockJUtil.isDirectMode() || !Config.getBoolean( module, Constants.PIPELINE_STREAM_SEQ_MODULES ) )
+			return false;
+		return !Config.getBoolean( module, Constants.DETACH_JAVA_MODULES ) ||
+			!DockerUtil.inDockerEnv() && !Config.isOnCluster();
+	}
+
+	/**
+	 * Open a pipe for each output file of the producer, numbered in the order the producer processes its input files.
+	 */
+	private static List<SeqPipe> openPipes( final SeqStreamModule producer ) throws Exception {
+		final List<SeqPipe> list = new ArrayList<>();
+		final List<File> outputs = new ArrayList<>();
+		for( final File input: sortByStreamOrder( producer.getInputFiles() ) ) {
+			final SeqPipe pipe = new SeqPipe( producer, producer.getStreamOutputFile( input ), pipes.size() );
+			pipes.put( pipe.file.getAbsolutePath(), pipe );
+			streamedFiles.add( pipe.file.getAbsolutePath() );
+			outputs.add( pipe.file );
+			list.add( pipe );
+		}
+		streamedOutputs.put( producer.getID(), outputs );
+
+		final BufferedWriter writer =
+			new BufferedWriter( new FileWriter( new File( producer.getModuleDir(), STREAMED_FILES ) ) );
+		try {
+			for( final File file: outputs )
+				writer.write( file.getAbsolutePath() + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+		return list;
+	}
+
+	private static List<File> sortByStreamOrder( final Collection<File> files ) {
+		final List<File> sorted = new ArrayList<>( files );
+		sorted.sort( ( a, b ) -> Integer.compare( getStreamOrder( a ), getStreamOrder( b ) ) );
+		return sorted;
+	}
+
+	/**
+	 * In-memory pipe for 1 streamed sequence file, written by 1 thread and read by 1 thread. Chunks are queued in
+	 * memory while all pipes hold less than the buffer limit. From then on, the rest of the file is appended to a spill
+	 * file, which is read once the queued chunks are read.
+	 */
+	private static class SeqPipe {
+
+		SeqPipe( final BioModule producer, final File file, final int order ) {
+			this.producer = producer;
+			this.file = file;
+			this.order = order;
+		}
+
+		synchronized void abort( final Exception ex ) {
+			this.error = ex;
+			notifyAll();
+		}
+
+		synchronized void closeOutput() {
+			this.closed = true;
+			notifyAll();
+		}
+
+		synchronized boolean isEmpty() throws IOException {
+			while( this.numBytes == 0 && !this.closed )
+				waitForData();
+			checkError();
+			return this.numBytes == 0;
+		}
+
+		synchronized InputStream openInput() throws IOException {
+			if( this.inputOpened )
+				throw new IOException( "Streamed sequence file can only be read once: " + this.file.getAbsolutePath() );
+			this.inputOpened = true;
+			return new InputStream() {
+				@Override
+				public int read() throws IOException {
+					final byte[] b = new byte[ 1 ];
+					return read( b, 0, 1 ) < 0 ? -1: b[ 0 ] & 0xFF;
+				}
+
+				@Override
+				public int read( final byte[] b, final int off, final int len ) throws IOException {
+					return SeqPipe.this.read( b, off, len );
+				}
+			};
+		}
+
+		synchronized OutputStream openOutput() throws IOException {
+			if( this.outputOpened ) throw new IOException(
+				"Streamed sequence file can only be written once: " + this.file.getAbsolutePath() );
+			this.outputOpened = true;
+			return new OutputStream() {
+				@Override
+				public void close() {
+					closeOutput();
+				}
+
+				@Override
+				public void write( final byte[] b, final int off, final int len ) throws IOException {
+					SeqPipe.this.write( b, off, len );
+				}
+
+				@Override
+				public void write( final int b ) throws IOException {
+					write( new byte[] { (byte) b }, 0, 1 );
+				}
+			};
+		}
+
+		int read( final byte[] b, final int off, final int len ) throws IOException {
+			if( len == 0 ) return 0;
+			final long available;
+			synchronized( this ) {
+				while( true ) {
+					checkError();
+					if( this.chunk == null && !this.chunks.isEmpty() ) {
+						this.chunk = this.chunks.poll();
+						this.chunkPos = 0;
+					}
+					if( this.chunk != null ) {
+						final int n = Math.min( len, this.chunk.length - this.chunkPos );
+						System.arraycopy( this.chunk, this.chunkPos, b, off, n );
+						this.chunkPos += n;
+						if( this.chunkPos == this.chunk.length ) {
+							bufferedBytes.addAndGet( -this.chunk.length );
+							this.chunk = null;
+						}
+						return n;
+					}
+					if( this.numSpillRead < this.numSpilled ) {
+						available = this.numSpilled - this.numSpillRead;
+						break;
+					}
+					if( this.closed ) return -1;
+					waitForData();
+				}
+				if( this.spillIn == null ) this.spillIn = new FileInputStream( this.spillFile );
+			}
+			final int n = this.spillIn.read( b, off, (int) Math.min( len, available ) );
+			synchronized( this ) {
+				if( n > 0 ) this.numSpillRead += n;
+			}
+			return n;
+		}
+
+		synchronized void release() {
+			if( this.chunk != null ) bufferedBytes.addAndGet( -this.chunk.length );
+			for( final byte[] queued: this.chunks )
+				bufferedBytes.addAndGet( -queued.length );
+			this.chunk = null;
+			this.chunks.clear();
+			closeQuietly( this.spillIn );
+			closeQuietly( this.spillOut );
+			if( this.spillFile != null ) FileUtils.deleteQuietly( this.spillFile );
+		}
+
+		void write( final byte[] b, final int off, final int len ) throws IOException {
+			if( len == 0 ) return;
+			synchronized( this ) {
+				checkError();
+				this.numBytes += len;
+				if( this.spillOut == null && bufferedBytes.get() + len <= getMaxBufferedBytes() ) {
+					this.chunks.add( Arrays.copyOfRange( b, off, off + len ) );
+					bufferedBytes.addAndGet( len );
+					notifyAll();
+					return;
+				}
+				if( this.spillOut == null ) {
+					this.spillFile =
+						File.createTempFile( STREAM_PREFIX, "_" + this.file.getName(), this.producer.getTempDir() );
+					this.spillOut = new FileOutputStream( this.spillFile );
+					Log.info( SeqStreamUtil.class, "Stream buffers full, spill the rest of " + this.file.getName() +
+						" to: " + this.spillFile.getAbsolutePath() );
+				}
+			}
+			this.spillOut.write( b, off, len );
+			synchronized( this ) {
+				this.numSpilled += len;
+				notifyAll();
+			}
+		}
+
+		private void checkError() throws IOException {
+			if( this.error != null ) throw new IOException(
+				"Sequence stream aborted: " + this.file.getAbsolutePath() + " --> " + this.error.getMessage(),
+				this.error );
+		}
+
+		private void waitForData() throws IOException {
+			checkError();
+			try {
+				wait();
+			} catch( final InterruptedException ex ) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException( "Interrupted reading: " + this.file.getAbsolutePath() );
+			}
+			checkError();
+		}
+
+		private static void closeQuietly( final Closeable stream ) {
+			try {
+				if( stream != null ) stream.close();
+			} catch( final IOException ex ) {
+				Log.warn( SeqStreamUtil.class, "Failed to close stream: " + ex.getMessage() );
+			}
+		}
+
+		private byte[] chunk = null;
+		private int chunkPos = 0;
+		private final Queue<byte[]> chunks = new ArrayDeque<>();
+		private boolean closed = false;
+		private Exception error = null;
+		private final File file;
+		private boolean inputOpened = false;
+		private long numBytes = 0L;
+		private long numSpilled = 0L;
+		private long numSpillRead = 0L;
+		private final int order;
+		private boolean outputOpened = false;
+		private final BioModule producer;
+		private File spillFile = null;
+		private InputStream spillIn = null;
+		private OutputStream spillOut = null;
+	}
+
+	private static final AtomicLong bufferedBytes = new AtomicLong();
+	private static final Map<String, SeqPipe> pipes = new ConcurrentHashMap<>();
+	private static final Set<String> streamedFiles = ConcurrentHashMap.newKeySet();
+	private static final Set<Integer> streamedModules = ConcurrentHashMap.newKeySet();
+	private static final Map<Integer, List<File>> streamedOutputs = new ConcurrentHashMap<>();
+
+	/**
+	 * Maximum size in MB of the chunks held in memory by all pipes: {@value #MAX_BUFFERED_MB}
+	 */
+	public static final int MAX_BUFFERED_MB = 256;
+
+	/**
+	 * Name of the file in the module directory that lists the streamed output files: {@value #STREAMED_FILES}
+	 */
+	public static final String STREAMED_FILES = "streamedSeqFiles.txt";
+
+	private static final String STREAM_PREFIX = "stream_";
+}
@@ -19,6 +19,7 @@ import org.apache.commons.io.filefilter.HiddenFileFilter;
 import biolockj.*;
 import biolockj.exception.*;
 import biolockj.module.BioModule;
+import biolockj.module.seq.Dereplicate;
 
 /**
  * This utility helps interact with FastA and FastQ sequence files.
@@ -30,20 +31,14 @@ public class SeqUtil {
 
 	/**
 	 * Method counts number of reads in the given sequence file by counting the number of lines and dividing by the
-	 * number of lines/sample (fasta=2, fastq=4)
+	 * number of lines/sample (fasta=2, fastq=4). Counts are cached by {@link biolockj.util.ReadCountUtil}.
 	 * 
 	 * @param seqFile Sequence file
 	 * @return Number of reads in seqFile
 	 * @throws Exception if errors occur
 	 */
 	public static long countNumReads( final File seqFile ) throws Exception {
-		long count = 0;
-		final BufferedReader r = BioLockJUtil.getFileReader( seqFile );
-		for( String line = r.readLine(); line != null; line = r.readLine() )
-			count++;
-		r.close();
-
-		return count / getNumLinesPerRead();
+		return ReadCountUtil.countNumReads( seqFile );
 	}
 
 	/**
@@ -74,11 +69,10 @@ public class SeqUtil {
 	 */
 	public static Set<String> getHeaders( final File seq ) throws Exception {
 		final Set<String> headers = new HashSet<>();
-		final BufferedReader reader = BioLockJUtil.getFileReader( seq );
-		int lineCounter = 1;
+		final SeqRecordReader reader = new SeqRecordReader( seq );
 		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() )
-				if( lineCounter++ % getNumLinesPerRead() == 1 ) headers.add( getHeader( line ) );
+			while( reader.next() )
+				headers.add( getHeader( reader.getHeader() ) );
 		} finally {
 			reader.close();
 		}
@@ -87,7 +81,8 @@ public class SeqUtil {
 	}
 
 	/**
-	 * Get valid headers found in both forward and reverse read.
+	 * Get valid headers found in both forward and reverse read. Read pairs are matched by a
+	 * {@link biolockj.util.PairedReadSet}, so only the headers found in both files are held as Strings.
 	 * 
 	 * @param fwRead Forward read sequence file
 	 * @param rvRead Reverse read sequence file
@@ -95,8 +90,16 @@ public class SeqUtil {
 	 * @throws Exception if I/O errors occur
 	 */
 	public static Set<String> getHeaders( final File fwRead, final File rvRead ) throws Exception {
-		final Set<String> headers = getHeaders( fwRead );
-		headers.retainAll( getHeaders( rvRead ) );
+		final PairedReadSet pairs = PairedReadSet.build( fwRead, rvRead, reader -> true );
+		final Set<String> headers = new HashSet<>();
+		final SeqRecordReader reader = new SeqRecordReader( fwRead );
+		try {
+			while( reader.next() )
+				if( pairs.contains( reader ) ) headers.add( getHeader( reader.getHeader() ) );
+		} finally {
+			reader.close();
+		}
+
 		return headers;
 	}
 
@@ -159,35 +162,30 @@ public class SeqUtil {
 		final Set<File> unpairedFwReads = new HashSet<>();
 		
 		if( files == null || files.isEmpty() ) { return map; }
-		
-		for( final File fwRead: files ) {
-			final String name = fwRead.getName();
-			if( !isForwardRead( name ) ) {
+
+		// index reverse reads by sample ID so each forward read is matched with 1 lookup
+		final Map<String, File> rvReadIndex = new HashMap<>();
+		final Map<File, String> fwReadIds = new LinkedHashMap<>();
+		for( final File file: files ) {
+			final String name = file.getName();
+			if( isForwardRead( name ) ) fwReadIds.put( file, getSampleId( name ) );
+			else {
 				rvReads.add( name );
-				continue;
+				final String id = getSampleId( name );
+				if( id != null && !rvReadIndex.containsKey( id ) ) rvReadIndex.put( id, file );
 			}
-
-			File rvRead = null;
-			final String sampleID = getSampleId( name );
-			Log.debug( SeqUtil.class,
-				"Search for paired read to match forward read ( " + name + " ) with sample ID: " + sampleID );
-			for( final File searchFile: files )
-				if( sampleID.equals( getSampleId( searchFile.getName() ) ) && !isForwardRead( searchFile.getName() ) ) {
-					Log.debug( SeqUtil.class, "Matching reverse read: " + searchFile.getName() );
-					rvRead = searchFile;
-					break;
-				}
-
-			if( rvRead != null ) map.put( fwRead, rvRead );
-			else unpairedFwReads.add( fwRead );
 		}
 
-		for( final File f: map.values() )
-			for( final String rv: rvReads )
-				if( rv.equals( f.getName() ) ) {
-					rvReads.remove( rv );
-					break;
-				}
+		for( final File fwRead: fwReadIds.keySet() ) {
+			final String sampleID = fwReadIds.get( fwRead );
+			final File rvRead = sampleID == null ? null: rvReadIndex.get( sampleID );
+			if( rvRead != null ) {
+				Log.debug( SeqUtil.class, "Matched forward read ( " + fwRead.getName() + " ) with sample ID: " +
+					sampleID + " to reverse read: " + rvRead.getName() );
+				map.put( fwRead, rvRead );
+				rvReads.remove( rvRead.getName() );
+			} else unpairedFwReads.add( fwRead );
+		}
 
 		final String msg = ( unpairedFwReads.isEmpty() ? "":
 			"Unpaired FW Reads:" + BioLockJUtil.printLongFormList( unpairedFwReads ) ) +
@@ -245,46 +243,7 @@ public class SeqUtil {
 	 */
 	public static String getSampleId( final String value )
 		throws SequnceFormatException, MetadataException, ConfigFormatException {
-		String id = value;
-		if( id.endsWith( Constants.PROCESSED ) ) return id.replace( Constants.PROCESSED, "" );
-
-		final String fwReadSuffix = Config.getString( null, Constants.INPUT_FORWARD_READ_SUFFIX );
-		final String rvReadSuffix = Config.getString( null, Constants.INPUT_REVERSE_READ_SUFFIX );
-		final String fileNameCol = Config.getString( null, MetaUtil.META_FILENAME_COLUMN );
-
-		if( !isForwardRead( id ) ) {
-			final int rvIndex = value.lastIndexOf( rvReadSuffix );
-			id = id.substring( 0, rvIndex ) + fwReadSuffix + id.substring( rvIndex + 3 );
-		}
-
-		if( MetaUtil.hasColumn( fileNameCol ) && !MetaUtil.getFieldValues( fileNameCol, true ).isEmpty() ) {
-			final int ind = MetaUtil.getFieldValues( fileNameCol, false ).indexOf( id );
-			if( ind > -1 ) return MetaUtil.getSampleIds().get( ind );
-			Log.warn( SeqUtil.class, value + " not processed in pipeline - path not found in metadata column " +
-				fileNameCol + " in: " + MetaUtil.getPath() );
-			return null;
-		}
-
-		// trim directional suffix
-		if( !isMultiplexed() && fwReadSuffix != null && id.indexOf( fwReadSuffix ) > 0 )
-			id = id.substring( 0, id.lastIndexOf( fwReadSuffix ) );
-
-		// trim files extensions: .gz | .fasta | .fastq
-		if( isGzipped( id ) ) id = id.substring( 0, id.length() - 3 );
-		if( id.toLowerCase().endsWith( "." + Constants.FASTA ) || id.toLowerCase().endsWith( "." + Constants.FASTQ ) )
-			id = id.substring( 0, id.length() - 6 );
-
-		// trim user defined file prefix and/or suffix patterns
-		final String trimPrefix = Config.getString( null, Constants.INPUT_TRIM_PREFIX );
-		final String trimSuffix = Config.getString( null, Constants.INPUT_TRIM_SUFFIX );
-		if( trimPrefix != null && id.indexOf( trimPrefix ) > -1 )
-			id = id.substring( trimPrefix.length() + id.indexOf( trimPrefix ) );
-
-		if( trimSuffix != null && id.indexOf( trimSuffix ) > 0 ) id = id.substring( 0, id.indexOf( trimSuffix ) );
-
-		if( id == null || id.isEmpty() )
-			throw new SequnceFormatException( "Unable to extract a valid Sample ID from: " + value );
-		return id;
+		return SampleIdResolver.getSampleId( value );
 	}
 
 	/**
@@ -304,7 +263,8 @@ public class SeqUtil {
 			for( final File file: files )
 				try {
 					if( isSeqFile( file ) && !isMultiplexed() && MetaUtil.exists() &&
-						!MetaUtil.getSampleIds().contains( getSampleId( file.getName() ) ) )
+						!MetaUtil.getSampleIds().contains( getSampleId( file.getName() ) ) &&
+						!Dereplicate.UNIQUE_SEQS.equals( getSampleId( file.getName() ) ) )
 						seqsWithoutMetaId.add( file );
 					else seqFiles.add( file );
 				} catch( final Exception ex ) {
@@ -446,7 +406,8 @@ public class SeqUtil {
 	}
 
 	/**
-	 * Verify 1st character of sequence header and mask 1st sequence for valid DNA/RNA bases "acgtu"
+	 * Verify 1st character of sequence header and mask 1st sequence for valid DNA/RNA bases "acgtu".<br>
+	 * Files streamed between modules (see {@link biolockj.util.SeqStreamUtil}) are sequence files.
 	 * 
 	 * @param file File
 	 * @return TRUE if file is a sequence file
@@ -454,6 +415,7 @@ public class SeqUtil {
 	public static boolean isSeqFile( final File file ) {
 		BufferedReader reader = null;
 		try {
+			if( SeqStreamUtil.isStreamed( file ) ) return true;
 			if( fileSeqMap.keySet().contains( file.getName() ) ) return fileSeqMap.get( file.getName() );
 			info( "Check if input file is a SEQ file: " + file.getAbsolutePath() );
 			boolean isSeq = false;
@@ -0,0 +1,143 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import biolockj.*;
+import biolockj.module.*;
+
+/**
+ * This utility partitions module input files between the shards of a {@link biolockj.module.ShardedModule} and saves
+ * and merges the partial results of each shard.
+ * <p>
+ * Input files are grouped by Sample ID (so paired reads stay together) and the groups are assigned to shards
+ * round-robin in input file order, so the partition only depends on the input files and the number of shards. Shard
+ * tables are saved in the module temp directory ({@value #SHARD_DIR}) and merged in Sample ID order.
+ */
+public class ShardUtil {
+
+	// Prevent instantiation
+	private ShardUtil() {}
+
+	/**
+	 * Return the shard index of this Java instance.
+	 *
+	 * @return Shard index, or null if not running as a shard
+	 */
+	public static Integer getShard() {
+		return RuntimeParamUtil.getShard();
+	}
+
+	/**
+	 * Return the input files processed by this Java instance: all input files, or only those assigned to the shard.
+	 *
+	 * @param module BioModule
+	 * @return Input files
+	 * @throws Exception if errors occur
+	 */
+	public static List<File> getShardFiles( final BioModule module ) throws Exception {
+		final Integer shard = getShard();
+		if( shard == null ) return module.getInputFiles();
+		final int numShards = getNumShards( module );
+		final Map<String, Integer> groups = new HashMap<>();
+		final List<File> files = new ArrayList<>();
+		for( final File file: module.getInputFiles() ) {
+			String key = null;
+			try {
+				key = SeqUtil.getSampleId( file.getName() );
+			} catch( final Exception ex ) {
+				Log.debug( ShardUtil.class, "Shard by file name: " + file.getName() );
+			}
+			if( key == null ) key = file.getName();
+			if( !groups.containsKey( key ) ) groups.put( key, groups.size() % numShards );
+			if( groups.get( key ) == shard.intValue() ) files.add( file );
+		}
+		Log.info( ShardUtil.class, "Shard #" + shard + " of " + numShards + " will process " + files.size() + "/" +
+			module.getInputFiles().size() + " input files" );
+		return files;
+	}
+
+	/**
+	 * Return the number of shards (1 per worker script) for a {@link biolockj.module.ShardedModule}.
+	 *
+	 * @param module BioModule
+	 * @return Number of shards
+	 * @throws Exception if errors occur
+	 */
+	public static int getNumShards( final BioModule module ) throws Exception {
+		if( !( module instanceof ShardedModule ) ) return 1;
+		return ModuleUtil.getNumWorkers( module );
+	}
+
+	/**
+	 * Merge the tables saved by each shard with the given name.
+	 *
+	 * @param module BioModule
+	 * @param name Table name
+	 * @return Map(key, value) sorted by key
+	 * @throws Exception if errors occur reading the shard tables
+	 */
+	public static Map<String, String> mergeShardTables( final BioModule module, final String name ) throws Exception {
+		final Map<String, String> data = new TreeMap<>();
+		for( int shard = 0; shard < getNumShards( module ); shard++ ) {
+			final File table = getShardTable( module, name, shard );
+			if( !table.isFile() ) throw new Exception( "Shard table not found: " + table.getAbsolutePath() );
+			final BufferedReader reader = BioLockJUtil.getFileReader( table );
+			try {
+				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+					final String[] cells = line.split( Constants.TAB_DELIM, 2 );
+					if( data.put( cells[ 0 ], cells.length > 1 ? cells[ 1 ]: "" ) != null )
+						Log.warn( ShardUtil.class, "Duplicate key [" + cells[ 0 ] + "] in shard table: " + table );
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		Log.info( ShardUtil.class, "Merged " + data.size() + " records from shard tables: " + name );
+		return data;
+	}
+
+	/**
+	 * Save a table of partial results for the current shard. Does nothing if not running as a shard.
+	 *
+	 * @param module BioModule
+	 * @param name Table name
+	 * @param data Map(key, value), usually keyed by Sample ID
+	 * @throws IOException if unable to write the table
+	 */
+	public static void saveShardTable( final BioModule module, final String name, final Map<String, String> data )
+		throws IOException {
+		final Integer shard = getShard();
+		if( shard == null ) return;
+		final File table = getShardTable( module, name, shard );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( table ) );
+		try {
+			for( final String key: new TreeSet<>( data.keySet() ) )
+				writer.write( key + Constants.TAB_DELIM + data.get( key ) + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+		Log.info( ShardUtil.class, "Saved shard table: " + table.getAbsolutePath() );
+	}
+
+	private static File getShardTable( final BioModule module, final String name, final int shard ) {
+		final File dir = new File( module.getTempDir(), SHARD_DIR );
+		if( !dir.isDirectory() ) dir.mkdirs();
+		return new File( dir, name + "_" + shard + Constants.TSV_EXT );
+	}
+
+	/**
+	 * Module temp sub-directory that holds shard tables: {@value #SHARD_DIR}
+	 */
+	public static final String SHARD_DIR = "shards";
+}
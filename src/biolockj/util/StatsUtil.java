@@ -0,0 +1,429 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.Arrays;
+
+/**
+ * This utility implements the statistical tests used by {@link biolockj.module.report.r.JavaCalculateStats} on
+ * primitive arrays, matching the R functions used by {@link biolockj.module.report.r.R_CalculateStats}:
+ * <ul>
+ * <li>Welch 2-sample t-test (R t.test) and Wilcoxon rank-sum test (coin wilcox_test, asymptotic)
+ * <li>1-way ANOVA (R anova( lm ) ) and Kruskal-Wallis test (R kruskal.test)
+ * <li>Pearson and Spearman correlation tests (R cor.test, t approximation)
+ * <li>p-value adjustment (R p.adjust)
+ * </ul>
+ * Tests return {@link Double#NaN} if the statistic is undefined (for example, constant data).
+ */
+public class StatsUtil {
+
+	// Prevent instantiation
+	private StatsUtil() {}
+
+	/**
+	 * Return the 1-way ANOVA F-test p-value.
+	 *
+	 * @param groups Values of each group
+	 * @return p-value
+	 */
+	public static double anova( final double[][] groups ) {
+		final double[] ss = getSumOfSquares( groups );
+		final int n = count( groups );
+		final int k = groups.length;
+		if( k < 2 || n <= k || ss[ 1 ] == 0.0 ) return Double.NaN;
+		final double f = ss[ 0 ] / ( k - 1 ) / ( ss[ 1 ] / ( n - k ) );
+		return regularizedBeta( ( n - k ) / ( n - k + ( k - 1 ) * f ), ( n - k ) / 2.0, ( k - 1 ) / 2.0 );
+	}
+
+	/**
+	 * Return the Kruskal-Wallis test p-value, with the tie correction.
+	 *
+	 * @param groups Values of each group
+	 * @return p-value
+	 */
+	public static double kruskal( final double[][] groups ) {
+		final int n = count( groups );
+		final double[] all = new double[ n ];
+		int pos = 0;
+		for( final double[] group: groups ) {
+			System.arraycopy( group, 0, all, pos, group.length );
+			pos += group.length;
+		}
+		final double[] ranks = new double[ n ];
+		final double ties = rank( all, ranks );
+		if( ties == (double) n * n * n - n ) return Double.NaN;
+
+		double h = 0.0;
+		pos = 0;
+		for( final double[] group: groups ) {
+			double sum = 0.0;
+			for( int i = 0; i < group.length; i++ )
+				sum += ranks[ pos++ ];
+			if( group.length > 0 ) h += sum * sum / group.length;
+		}
+		h = ( 12.0 / ( n * ( n + 1.0 ) ) * h - 3.0 * ( n + 1.0 ) ) / ( 1.0 - ties / ( (double) n * n * n - n ) );
+		return regularizedGammaQ( ( groups.length - 1 ) / 2.0, h / 2.0 );
+	}
+
+	/**
+	 * Adjust p-values for multiple comparisons, as R p.adjust( p, method, n ). Supported methods: holm, hochberg,
+	 * bonferroni, BH, fdr, BY and none. NaN p-values are ignored.
+	 *
+	 * @param pvals p-values
+	 * @param method Adjustment method
+	 * @param n Number of comparisons (at least the number of p-values)
+	 * @return Adjusted p-values
+	 */
+	public static double[] pAdjust( final double[] pvals, final String method, final int n ) {
+		final double[] adj = pvals.clone();
+		final Integer[] order = new Integer[ pvals.length ];
+		int lp = 0;
+		for( int i = 0; i < pvals.length; i++ )
+			if( !Double.isNaN( pvals[ i ] ) ) order[ lp++ ] = i;
+		if( n <= 1 || method.equals( P_ADJ_NONE ) ) return adj;
+
+		final Integer[] sorted = Arrays.copyOf( order, lp );
+		Arrays.sort( sorted, ( a, b ) -> Double.compare( pvals[ a ], pvals[ b ] ) );
+		if( method.equals( P_ADJ_BONFERRONI ) ) {
+			for( final int i: sorted )
+				adj[ i ] = Math.min( 1.0, n * pvals[ i ] );
+		} else if( method.equals( P_ADJ_HOLM ) ) {
+			double max = 0.0;
+			for( int i = 0; i < lp; i++ ) {
+				max = Math.max( max, ( n - i ) * pvals[ sorted[ i ] ] );
+				adj[ sorted[ i ] ] = Math.min( 1.0, max );
+			}
+		} else {
+			final double q = method.equals( P_ADJ_BY ) ? harmonic( n ): 1.0;
+			double min = Double.MAX_VALUE;
+			for( int i = lp - 1; i >= 0; i-- ) {
+				final double p = pvals[ sorted[ i ] ];
+				if( method.equals( P_ADJ_HOCHBERG ) ) min = Math.min( min, ( n - i ) * p );
+				else if( method.equals( P_ADJ_BH ) || method.equals( P_ADJ_FDR ) || method.equals( P_ADJ_BY ) )
+					min = Math.min( min, q * n / ( i + 1 ) * p );
+				else throw new IllegalArgumentException( "Unsupported p-value adjustment method: " + method );
+				adj[ sorted[ i ] ] = Math.min( 1.0, min );
+			}
+		}
+		return adj;
+	}
+
+	/**
+	 * Return the Pearson correlation coefficient.
+	 *
+	 * @param x Values
+	 * @param y Values paired with x
+	 * @return r
+	 */
+	public static double pearson( final double[] x, final double[] y ) {
+		final int n = x.length;
+		double mx = 0.0;
+		double my = 0.0;
+		for( int i = 0; i < n; i++ ) {
+			mx += x[ i ];
+			my += y[ i ];
+		}
+		mx /= n;
+		my /= n;
+		double sxy = 0.0;
+		double sxx = 0.0;
+		double syy = 0.0;
+		for( int i = 0; i < n; i++ ) {
+			sxy += ( x[ i ] - mx ) * ( y[ i ] - my );
+			sxx += ( x[ i ] - mx ) * ( x[ i ] - mx );
+			syy += ( y[ i ] - my ) * ( y[ i ] - my );
+		}
+		if( sxx == 0.0 || syy == 0.0 ) return Double.NaN;
+		return Math.max( -1.0, Math.min( 1.0, sxy / Math.sqrt( sxx * syy ) ) );
+	}
+
+	/**
+	 * Return the 2-sided p-value of a correlation coefficient (t-test with n - 2 degrees of freedom).
+	 *
+	 * @param r Correlation coefficient
+	 * @param n Number of pairs
+	 * @return p-value
+	 */
+	public static double correlationPvalue( final double r, final int n ) {
+		if( Double.isNaN( r ) || n < 3 ) return Double.NaN;
+		if( Math.abs( r ) == 1.0 ) return 0.0;
+		return tTestPvalue( r * Math.sqrt( ( n - 2 ) / ( 1.0 - r * r ) ), n - 2 );
+	}
+
+	/**
+	 * Return the R^2 of a linear model with a single factor: between group sum of squares / total sum of squares.
+	 *
+	 * @param groups Values of each group
+	 * @return R^2
+	 */
+	public static double rSquared( final double[][] groups ) {
+		final double[] ss = getSumOfSquares( groups );
+		final double total = ss[ 0 ] + ss[ 1 ];
+		return total == 0.0 ? Double.NaN: ss[ 0 ] / total;
+	}
+
+	/**
+	 * Replace each value with its rank (1-based), using the mean rank for ties.
+	 *
+	 * @param values Values
+	 * @param ranks Array the same length as values that receives the ranks
+	 * @return Sum of (t^3 - t) over each group of t tied values, used for tie corrections
+	 */
+	public static double rank( final double[] values, final double[] ranks ) {
+		final Integer[] order = new Integer[ values.length ];
+		for( int i = 0; i < order.length; i++ )
+			order[ i ] = i;
+		Arrays.sort( order, ( a, b ) -> Double.compare( values[ a ], values[ b ] ) );
+		double ties = 0.0;
+		for( int i = 0; i < order.length; ) {
+			int j = i + 1;
+			while( j < order.length && values[ order[ j ] ] == values[ order[ i ] ] )
+				j++;
+			final double rank = ( i + 1 + j ) / 2.0;
+			for( int k = i; k < j; k++ )
+				ranks[ order[ k ] ] = rank;
+			final double t = j - i;
+			ties += t * t * t - t;
+			i = j;
+		}
+		return ties;
+	}
+
+	/**
+	 * Return the Spearman rank correlation coefficient.
+	 *
+	 * @param x Values
+	 * @param y Values paired with x
+	 * @return rho
+	 */
+	public static double spearman( final double[] x, final double[] y ) {
+		final double[] rx = new double[ x.length ];
+		final double[] ry = new double[ y.length ];
+		rank( x, rx );
+		rank( y, ry );
+		return pearson( rx, ry );
+	}
+
+	/**
+	 * Return the Welch 2-sample t-test p-value (unequal variances), as R t.test( x, y ).
+	 *
+	 * @param x Group 1 values
+	 * @param y Group 2 values
+	 * @return p-value
+	 */
+	public static double tTest( final double[] x, final double[] y ) {
+		if( x.length < 2 || y.length < 2 ) return Double.NaN;
+		final double vx = variance( x ) / x.length;
+		final double vy = variance( y ) / y.length;
+		final double se2 = vx + vy;
+		if( se2 == 0.0 ) return Double.NaN;
+		final double df = se2 * se2 / ( vx * vx / ( x.length - 1 ) + vy * vy / ( y.length - 1 ) );
+		return tTestPvalue( ( mean( x ) - mean( y ) ) / Math.sqrt( se2 ), df );
+	}
+
+	/**
+	 * Return the 2-sided Wilcoxon rank-sum test p-value using the normal approximation with the tie-corrected
+	 * variance and no continuity correction, as coin wilcox_test( distribution = "asymptotic" ).
+	 *
+	 * @param x Group 1 values
+	 * @param y Group 2 values
+	 * @return p-value
+	 */
+	public static double wilcoxon( final double[] x, final double[] y ) {
+		final int n = x.length + y.length;
+		if( x.length == 0 || y.length == 0 ) return Double.NaN;
+		final double[] all = Arrays.copyOf( x, n );
+		System.arraycopy( y, 0, all, x.length, y.length );
+		final double[] ranks = new double[ n ];
+		rank( all, ranks );
+
+		double w = 0.0;
+		double ss = 0.0;
+		final double meanRank = ( n + 1 ) / 2.0;
+		for( int i = 0; i < n; i++ ) {
+			if( i < x.length ) w += ranks[ i ];
+			ss += ( ranks[ i ] - meanRank ) * ( ranks[ i ] - meanRank );
+		}
+		final double var = (double) x.length * y.length / ( n * ( n - 1.0 ) ) * ss;
+		if( var == 0.0 ) return Double.NaN;
+		final double z = ( w - x.length * meanRank ) / Math.sqrt( var );
+		return regularizedGammaQ( 0.5, z * z / 2.0 );
+	}
+
+	private static int count( final double[][] groups ) {
+		int n = 0;
+		for( final double[] group: groups )
+			n += group.length;
+		return n;
+	}
+
+	/**
+	 * Return the between group and within group sum of squares.
+	 */
+	private static double[] getSumOfSquares( final double[][] groups ) {
+		double sum = 0.0;
+		final int n = count( groups );
+		for( final double[] group: groups )
+			for( final double val: group )
+				sum += val;
+		final double grandMean = sum / n;
+
+		final double[] ss = new double[ 2 ];
+		for( final double[] group: groups ) {
+			if( group.length == 0 ) continue;
+			final double mean = mean( group );
+			ss[ 0 ] += group.length * ( mean - grandMean ) * ( mean - grandMean );
+			for( final double val: group )
+				ss[ 1 ] += ( val - mean ) * ( val - mean );
+		}
+		return ss;
+	}
+
+	private static double harmonic( final int n ) {
+		double sum = 0.0;
+		for( int i = 1; i <= n; i++ )
+			sum += 1.0 / i;
+		return sum;
+	}
+
+	private static double logGamma( final double x ) {
+		double y = x;
+		double tmp = x + 5.5;
+		tmp -= ( x + 0.5 ) * Math.log( tmp );
+		double ser = 1.000000000190015;
+		for( final double c: LANCZOS )
+			ser += c / ++y;
+		return -tmp + Math.log( 2.5066282746310005 * ser / x );
+	}
+
+	private static double mean( final double[] vals ) {
+		double sum = 0.0;
+		for( final double val: vals )
+			sum += val;
+		return sum / vals.length;
+	}
+
+	/**
+	 * Return the regularized incomplete beta function I_x(a, b), using a continued fraction.
+	 */
+	private static double regularizedBeta( final double x, final double a, final double b ) {
+		if( x <= 0.0 ) return 0.0;
+		if( x >= 1.0 ) return 1.0;
+		if( x > ( a + 1.0 ) / ( a + b + 2.0 ) ) return 1.0 - regularizedBeta( 1.0 - x, b, a );
+		final double front =
+			Math.exp( logGamma( a + b ) - logGamma( a ) - logGamma( b ) + a * Math.log( x ) + b * Math.log( 1.0 - x ) );
+
+		double c = 1.0;
+		double d = 1.0 - ( a + b ) * x / ( a + 1.0 );
+		d = 1.0 / ( Math.abs( d ) < TINY ? TINY: d );
+		double h = d;
+		for( int m = 1; m <= MAX_ITERATIONS; m++ ) {
+			for( int step = 0; step < 2; step++ ) {
+				final double num = step == 0 ? m * ( b - m ) * x / ( ( a + 2 * m - 1 ) * ( a + 2 * m ) ):
+					-( a + m ) * ( a + b + m ) * x / ( ( a + 2 * m ) * ( a + 2 * m + 1 ) );
+				d = 1.0 + num * d;
+				d = 1.0 / ( Math.abs( d ) < TINY ? TINY: d );
+				c = 1.0 + num / c;
+				if( Math.abs( c ) < TINY ) c = TINY;
+				h *= d * c;
+				if( step == 1 && Math.abs( d * c - 1.0 ) < EPSILON ) return front * h / a;
+			}
+		}
+		return front * h / a;
+	}
+
+	/**
+	 * Return the upper regularized incomplete gamma function Q(a, x).
+	 */
+	private static double regularizedGammaQ( final double a, final double x ) {
+		if( x <= 0.0 ) return 1.0;
+		final double front = Math.exp( -x + a * Math.log( x ) - logGamma( a ) );
+		if( x < a + 1.0 ) {
+			double term = 1.0 / a;
+			double sum = term;
+			for( int n = 1; n <= MAX_ITERATIONS && Math.abs( term ) > Math.abs( sum ) * EPSILON; n++ ) {
+				term *= x / ( a + n );
+				sum += term;
+			}
+			return Math.max( 0.0, 1.0 - sum * front );
+		}
+
+		double b = x + 1.0 - a;
+		double c = 1.0 / TINY;
+		double d = 1.0 / b;
+		double h = d;
+		for( int i = 1; i <= MAX_ITERATIONS; i++ ) {
+			final double an = -i * ( i - a );
+			b += 2.0;
+			d = an * d + b;
+			d = 1.0 / ( Math.abs( d ) < TINY ? TINY: d );
+			c = b + an / c;
+			if( Math.abs( c ) < TINY ) c = TINY;
+			h *= d * c;
+			if( Math.abs( d * c - 1.0 ) < EPSILON ) break;
+		}
+		return front * h;
+	}
+
+	private static double tTestPvalue( final double t, final double df ) {
+		return regularizedBeta( df / ( df + t * t ), df / 2.0, 0.5 );
+	}
+
+	private static double variance( final double[] vals ) {
+		final double mean = mean( vals );
+		double ss = 0.0;
+		for( final double val: vals )
+			ss += ( val - mean ) * ( val - mean );
+		return ss / ( vals.length - 1 );
+	}
+
+	/**
+	 * R p.adjust method: {@value #P_ADJ_BH}
+	 */
+	public static final String P_ADJ_BH = "BH";
+
+	/**
+	 * R p.adjust method: {@value #P_ADJ_BONFERRONI}
+	 */
+	public static final String P_ADJ_BONFERRONI = "bonferroni";
+
+	/**
+	 * R p.adjust method: {@value #P_ADJ_BY}
+	 */
+	public static final String P_ADJ_BY = "BY";
+
+	/**
+	 * R p.adjust method: {@value #P_ADJ_FDR}
+	 */
+	public static final String P_ADJ_FDR = "fdr";
+
+	/**
+	 * R p.adjust method: {@value #P_ADJ_HOCHBERG}
+	 */
+	public static final String P_ADJ_HOCHBERG = "hochberg";
+
+	/**
+	 * R p.adjust method: {@value #P_ADJ_HOLM}
+	 */
+	public static final String P_ADJ_HOLM = "holm";
+
+	/**
+	 * R p.adjust method: {@value #P_ADJ_NONE}
+	 */
+	public static final String P_ADJ_NONE = "none";
+
+	private static final double EPSILON = 1e-15;
+	private static final double[] LANCZOS = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+		-1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+	private static final int MAX_ITERATIONS = 10000;
+	private static final double TINY = 1e-300;
+}
@@ -13,6 +13,7 @@ package biolockj.util;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.charset.Charset;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
@@ -25,6 +26,11 @@ import biolockj.module.ScriptModule;
 /**
  * This module builds an execution summary for the pipeline which is printed to the log file and is be sent to the user
  * if the Email module is configured.
+ * <p>
+ * Each section of the summary (heading, 1 per module, exception, footer) is saved as a record in the hidden
+ * {@value #RECORD_DIR} directory and appended to the summary file, so updating the summary for a module never
+ * rewrites the whole file. The summary file is only rendered again from the records if a restarted pipeline removes
+ * records for modules that are rerun.
  */
 public class SummaryUtil {
 
@@ -35,7 +41,7 @@ public class SummaryUtil {
 		String summaryFile = "";
 		try {
 			summaryFile = getSummaryFile().getAbsolutePath();
-			saveSummary( getFooter() );
+			saveRecord( FOOTER_RECORD, getFooter() );
 		} catch( final Exception ex ) {
 			Log.error( SummaryUtil.class, "Unable to update summary file: " + summaryFile, ex );
 		}
@@ -466,14 +472,11 @@ public class SummaryUtil {
 	public static String getSummary() {
 		final StringBuffer sb = new StringBuffer();
 		try {
-			final File summary = getSummaryFile();
-			if( !summary.isFile() ) sb.append( "NO SUMMARY FOUND" + RETURN );
-			else {
-				final BufferedReader reader = BioLockJUtil.getFileReader( summary );
-				for( String line = reader.readLine(); line != null; line = reader.readLine() )
-					sb.append( line + RETURN );
-				reader.close();
-			}
+			if( getRecord( HEADER_RECORD ).isFile() ) for( final File record: getRecords() )
+				sb.append( FileUtils.readFileToString( record, Charset.defaultCharset() ) );
+			else if( getSummaryFile().isFile() )
+				sb.append( FileUtils.readFileToString( getSummaryFile(), Charset.defaultCharset() ) );
+			else sb.append( "NO SUMMARY FOUND" + RETURN );
 		} catch( final Exception ex ) {
 			final String msg = "Error occurred creating the pipeline summary: " + ex.getMessage();
 			sb.append( RETURN + msg );
@@ -507,7 +510,7 @@ public class SummaryUtil {
 				for( final StackTraceElement ste: ex.getStackTrace() )
 				sb.append( Constants.TAB_DELIM + ste.toString() + RETURN );
 		}
-		saveSummary( sb.toString() );
+		saveRecord( EXCEPTION_RECORD, sb.toString() );
 	}
 
 	/**
@@ -519,9 +522,9 @@ public class SummaryUtil {
 	 */
 	public static void reportSuccess( final BioModule module ) throws Exception {
 		final File summaryFile = getSummaryFile();
-		if (!summaryFile.exists()) saveSummary( getHeading() );
+		if( !getRecord( HEADER_RECORD ).isFile() ) saveRecord( HEADER_RECORD, getHeading() );
 		if( module == null ) {
-			saveSummary( getFooter() );
+			saveRecord( FOOTER_RECORD, getFooter() );
 		}else {
 			Log.info( SummaryUtil.class,
 				"Update BioModule summary [ " + ModuleUtil.displaySignature( module ) + " ] " + summaryFile.getAbsolutePath() );
@@ -541,35 +544,29 @@ public class SummaryUtil {
 			}	
 			sb.append( EXT_SPACER + RETURN );
 			
-			saveSummary( sb.toString() );
+			saveRecord( getModuleRecordName( module ), sb.toString() );
 		}	
 	}
 
 	/**
-	 * Update the number of attempts in the summary file (called from restart)
+	 * Update the number of attempts in the summary heading (called from restart).<br>
+	 * Summary files saved without records are used as the heading record.
 	 * 
 	 * @throws Exception if unable to update the summary file
 	 */
 	public static void updateNumAttempts() throws Exception {
-		final File summary = getSummaryFile();
-		if( summary.exists() ) {
-			FileUtils.copyFile( getSummaryFile(), getTempFile() );
-			getSummaryFile().delete();
-			final BufferedReader reader = BioLockJUtil.getFileReader( getTempFile() );
-			final BufferedWriter writer = new BufferedWriter( new FileWriter( getSummaryFile() ) );
-			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() )
-					if( line.startsWith( NUM_ATTEMPTS ) ) {
-						final String count = line.substring( getLabel( NUM_ATTEMPTS ).length() ).trim();
-						final Integer num = Integer.valueOf( count ) + 1;
-						writer.write( line.replace( count, num.toString() ) + RETURN );
-					} else writer.write( line + RETURN );
-				getTempFile().delete();
-			} finally {
-				if( reader != null ) reader.close();
-				writer.close();
-			}
-		}
+		final File header = getRecord( HEADER_RECORD );
+		if( !header.isFile() && getSummaryFile().isFile() ) FileUtils.copyFile( getSummaryFile(), header );
+		if( !header.isFile() ) return;
+		final StringBuffer sb = new StringBuffer();
+		for( final String line: FileUtils.readLines( header, Charset.defaultCharset() ) )
+			if( line.startsWith( NUM_ATTEMPTS ) ) {
+				final String count = line.substring( getLabel( NUM_ATTEMPTS ).length() ).trim();
+				final Integer num = Integer.valueOf( count ) + 1;
+				sb.append( line.replace( count, num.toString() ) + RETURN );
+			} else sb.append( line + RETURN );
+		FileUtils.writeStringToFile( header, sb.toString(), Charset.defaultCharset() );
+		renderSummary();
 	}
 
 	/**
@@ -600,32 +597,27 @@ public class SummaryUtil {
 	}
 
 	/**
-	 * Modules can be forced to reset to incomplete status. In this scenario, this method will remove the summary for
-	 * completed modules that are rerun.
+	 * Modules can be forced to reset to incomplete status. In this scenario, this method will remove the summary
+	 * records for completed modules that are rerun (and any modules, exception or footer that follow) and render the
+	 * summary file again.
 	 * 
 	 * @param module Rerun module
 	 * @throws Exception if unable to reset the summary
 	 */
 	protected static void resetModuleSummary( final BioModule module ) throws Exception {
-		FileUtils.copyFile( getSummaryFile(), getTempFile() );
-		getSummaryFile().delete();
-		final BufferedReader reader = BioLockJUtil.getFileReader( getTempFile() );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( getSummaryFile() ) );
-		try {
-
-			boolean foundMod = false;
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				final String label = MODULE + "[";
-				if( foundMod ) break;
-				else if( line.startsWith( EXCEPTION_LABEL ) ||
-					line.startsWith( label ) && line.endsWith( module.getClass().getName() ) ) foundMod = true;
-				else writer.write( line + RETURN );
+		final String moduleRecord = getModuleRecordName( module );
+		if( !getRecord( moduleRecord ).isFile() && !getRecord( EXCEPTION_RECORD ).isFile() &&
+			!getRecord( FOOTER_RECORD ).isFile() ) return;
+		boolean reset = false;
+		for( final File record: getRecords() ) {
+			final String name = record.getName();
+			if( name.equals( EXCEPTION_RECORD ) || name.equals( FOOTER_RECORD ) ||
+				name.startsWith( MODULE_RECORD_PREFIX ) && name.compareTo( moduleRecord ) >= 0 ) {
+				FileUtils.forceDelete( record );
+				reset = true;
 			}
-			getTempFile().delete();
-		} finally {
-			if( reader != null ) reader.close();
-			writer.close();
 		}
+		if( reset ) renderSummary();
 	}
 
 	/**
@@ -651,6 +643,34 @@ public class SummaryUtil {
 		return getSpacer( "-", len );
 	}
 
+	private static String getModuleRecordName( final BioModule module ) {
+		return MODULE_RECORD_PREFIX + String.format( "%06d", module.getID() ) + Constants.TXT_EXT;
+	}
+
+	private static File getRecord( final String name ) {
+		return new File( getRecordDir(), name );
+	}
+
+	private static File getRecordDir() {
+		final File dir = new File( Config.pipelinePath() + File.separator + RECORD_DIR );
+		if( !dir.isDirectory() ) dir.mkdirs();
+		return dir;
+	}
+
+	/**
+	 * Return the summary records in summary order: heading, modules (by ID), exception, footer.
+	 */
+	private static List<File> getRecords() {
+		final List<File> records = new ArrayList<>();
+		final File[] modules = getRecordDir().listFiles( ( dir, name ) -> name.startsWith( MODULE_RECORD_PREFIX ) );
+		Arrays.sort( modules );
+		records.add( getRecord( HEADER_RECORD ) );
+		records.addAll( Arrays.asList( modules ) );
+		records.add( getRecord( EXCEPTION_RECORD ) );
+		records.add( getRecord( FOOTER_RECORD ) );
+		return records.stream().filter( File::isFile ).collect( Collectors.toList() );
+	}
+
 	private static String getHeading() throws DockerVolCreationException {
 		final StringBuffer sb = new StringBuffer();
 		String meta = Config.getString( null, MetaUtil.META_FILE_PATH );
@@ -701,6 +721,37 @@ public class SummaryUtil {
 		return runtimeEnv;
 	}
 
+	/**
+	 * Write the summary file from the summary records.
+	 */
+	private static void renderSummary() throws Exception {
+		final File summary = getSummaryFile();
+		final FileWriter writer = new FileWriter( summary );
+		try {
+			for( final File record: getRecords() )
+				writer.write( FileUtils.readFileToString( record, Charset.defaultCharset() ) );
+		} finally {
+			writer.close();
+		}
+		Log.info( SummaryUtil.class, "Summary rendered from records: " + getRecordDir().getAbsolutePath() );
+	}
+
+	/**
+	 * Save a summary record (appended to the existing record, except module records which are replaced) and append it
+	 * to the summary file.
+	 */
+	private static void saveRecord( final String name, final String summary ) throws Exception {
+		final File record = getRecord( name );
+		final boolean append = !name.startsWith( MODULE_RECORD_PREFIX ) && record.isFile();
+		final FileWriter writer = new FileWriter( record, append );
+		try {
+			writer.write( summary );
+		} finally {
+			writer.close();
+		}
+		saveSummary( summary );
+	}
+
 	private static String getSpacer( final String val, final int len ) {
 		String spacer = "";
 		for( int i = 0; i < len; i++ )
@@ -712,10 +763,6 @@ public class SummaryUtil {
 		return getSpacer( " ", len );
 	}
 
-	private static File getTempFile() {
-		return new File( Config.pipelinePath() + File.separator + TEMP_SUMMARY_FILE );
-	}
-
 	private static String spacedWord( final String word, final int gap ) {
 		final StringBuffer sb = new StringBuffer();
 		for( final char i: word.toCharArray() )
@@ -725,12 +772,15 @@ public class SummaryUtil {
 
 	private static String downloadCommand = null;
 	private static final String BIOLOCKJ_VERSION_HEADER = "BioLockJ version";
-	private static final String EXCEPTION_LABEL = "Exception:";
+	private static final String EXCEPTION_RECORD = "exception" + Constants.TXT_EXT;
 	private static final String EXT_SPACER = getDashes( 154 );
 	private static final String FINAL_META = "Final Metadata";
+	private static final String FOOTER_RECORD = "footer" + Constants.TXT_EXT;
+	private static final String HEADER_RECORD = "heading" + Constants.TXT_EXT;
 	private static final String MASTER_CONFIG = "Master Config";
 	private static final String MODULE = "Module";
 	private static final String MODULE_CLASS = "Module class";
+	private static final String MODULE_RECORD_PREFIX = "module_";
 	private static final String NUM_ATTEMPTS = "# Attempts";
 	private static final String NUM_MODULES = "# Modules";
 	private static final String PIPELINE_CONFIG = "Pipeline Config";
@@ -741,9 +791,12 @@ public class SummaryUtil {
 	private static final String PIPELINE_RUNTIME = "Pipeline Runtime";
 	public static final String PIPELINE_STATUS = "Pipeline Status";
 	private static final String RETURN = Constants.RETURN;
+	/**
+	 * Hidden pipeline root sub-directory that holds the summary records: {@value #RECORD_DIR}
+	 */
+	public static final String RECORD_DIR = ".summary";
 	private static final String RUN_TIME = "Runtime";
 	private static final String RUNTIME_ENV = "Runtime Env";
 	private static String runtimeEnv = null;
 	private static final String SUMMARY_FILE = "summary" + Constants.TXT_EXT;
-	private static final String TEMP_SUMMARY_FILE = ".tempSummary" + Constants.TXT_EXT;
 }
@@ -0,0 +1,102 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.io.FileUtils;
+import biolockj.*;
+import biolockj.exception.ConfigFormatException;
+import biolockj.module.BioModule;
+import biolockj.module.SeqModule;
+
+/**
+ * This utility removes intermediate sequence files between consecutive {@link biolockj.module.SeqModule}s
+ * ({@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_TRANSIENT_SEQ_FILES}).
+ * <p>
+ * When a SeqModule completes and the previous module is also a SeqModule, the input sequence files it read from the
+ * previous module output directory are deleted, since no later module reads them. In a chain of sequence modules only
+ * the last module keeps its sequence files. If {@value biolockj.Constants#PIPELINE_TRANSIENT_SEQ_CHECKSUMS} =
+ * {@value biolockj.Constants#TRUE}, the MD5 checksum of each file is saved in the previous module directory
+ * ({@value #CHECKSUM_FILE}) first.
+ * <p>
+ * Files are only deleted after the module that reads them is complete, so a failed module can always be restarted.
+ * Sequence files streamed between modules ({@link biolockj.util.SeqStreamUtil}) are never written, so there is nothing
+ * to delete.
+ */
+public class TransientSeqUtil {
+
+	// Prevent instantiation
+	private TransientSeqUtil() {}
+
+	/**
+	 * Check if intermediate sequence files are removed after the module completes.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if {@value biolockj.Constants#PIPELINE_TRANSIENT_SEQ_FILES} = {@value biolockj.Constants#TRUE}
+	 * @throws ConfigFormatException if {@value biolockj.Constants#PIPELINE_TRANSIENT_SEQ_FILES} is not Y or N
+	 */
+	public static boolean isEnabled( final BioModule module ) throws ConfigFormatException {
+		return Config.getBoolean( module, Constants.PIPELINE_TRANSIENT_SEQ_FILES );
+	}
+
+	/**
+	 * Delete the sequence files the completed module read from the output directory of the previous module, if both
+	 * are SeqModules.
+	 *
+	 * @param module Completed BioModule
+	 * @throws Exception if errors occur
+	 */
+	public static void removeConsumedSeqFiles( final BioModule module ) throws Exception {
+		final BioModule prev = ModuleUtil.getPreviousModule( module );
+		if( !( module instanceof SeqModule ) || !( prev instanceof SeqModule ) || !isEnabled( module ) ) return;
+		final String prevOutput = prev.getOutputDir().getAbsolutePath() + File.separator;
+		final List<File> files = new ArrayList<>();
+		for( final File file: module.getInputFiles() )
+			if( file.isFile() && file.getAbsolutePath().startsWith( prevOutput ) ) files.add( file );
+		if( files.isEmpty() ) return;
+
+		if( Config.getBoolean( module, Constants.PIPELINE_TRANSIENT_SEQ_CHECKSUMS ) )
+			saveChecksums( module, new File( prev.getModuleDir(), CHECKSUM_FILE ), files );
+
+		long numBytes = 0L;
+		for( final File file: files ) {
+			numBytes += file.length();
+			FileUtils.forceDelete( file );
+		}
+		Log.info( TransientSeqUtil.class, "Deleted " + files.size() + " intermediate sequence files (" +
+			FileUtils.byteCountToDisplaySize( numBytes ) + ") from: " + prev.getOutputDir().getAbsolutePath() );
+	}
+
+	private static void saveChecksums( final BioModule module, final File checksumFile, final List<File> files )
+		throws Exception {
+		final Map<String, String> digests = new ConcurrentHashMap<>();
+		ParallelUtil.processFiles( module, files, file -> digests.put( file.getName(), OutputCacheUtil.md5( file ) ) );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( checksumFile, true ) );
+		try {
+			for( final String name: new TreeSet<>( digests.keySet() ) )
+				writer.write( digests.get( name ) + "  " + name + Constants.RETURN );
+		} finally {
+			writer.close();
+		}
+		Log.info( TransientSeqUtil.class, "Saved MD5 checksums of " + files.size() + " sequence files to: " +
+			checksumFile.getAbsolutePath() );
+	}
+
+	/**
+	 * Name of the file (in md5sum format) that lists checksums of the deleted sequence files: {@value #CHECKSUM_FILE}
+	 */
+	public static final String CHECKSUM_FILE = "transientSeqFiles.md5";
+}
@@ -0,0 +1,176 @@
+/**
+ * @UNCC Fodor Lab
+ * @author Michael Sioda
+ * @email msioda@uncc.edu
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import biolockj.Constants;
+
+/**
+ * This class holds the sparse unique sequence x sample count matrix written by {@link biolockj.module.seq.Dereplicate}
+ * (1 line per non-zero count: unique sequence ID, Sample ID, count) in primitive arrays.
+ * <p>
+ * Unique sequence IDs (the 128-bit sequence fingerprint in hex) are indexed by a
+ * {@link biolockj.util.FingerprintTable}. The counts are grouped by unique sequence, so the samples and counts of
+ * unique sequence i are held at positions {@link #getStart(int)} to {@link #getEnd(int)} (exclusive).
+ */
+public class UniqueSeqCounts {
+
+	private UniqueSeqCounts( final FingerprintTable table, final String[] sampleIds, final int[] starts,
+		final int[] samples, final long[] counts ) {
+		this.table = table;
+		this.sampleIds = sampleIds;
+		this.starts = starts;
+		this.samples = samples;
+		this.counts = counts;
+	}
+
+	/**
+	 * Return the count at the given position.
+	 *
+	 * @param pos Position between {@link #getStart(int)} and {@link #getEnd(int)}
+	 * @return Number of reads
+	 */
+	public long getCount( final int pos ) {
+		return this.counts[ pos ];
+	}
+
+	/**
+	 * Return the position after the last sample of the unique sequence.
+	 *
+	 * @param index Unique sequence index
+	 * @return End position (exclusive)
+	 */
+	public int getEnd( final int index ) {
+		return this.starts[ index + 1 ];
+	}
+
+	/**
+	 * Return the index of the unique sequence ID.
+	 *
+	 * @param id Unique sequence ID
+	 * @return Unique sequence index, or -1 if not found
+	 */
+	public int getIndex( final String id ) {
+		if( id.length() != ID_LENGTH ) return -1;
+		try {
+			return this.table.get( Long.parseUnsignedLong( id.substring( 0, ID_LENGTH / 2 ), 16 ),
+				Long.parseUnsignedLong( id.substring( ID_LENGTH / 2 ), 16 ) );
+		} catch( final NumberFormatException ex ) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Return the Sample ID at the given position.
+	 *
+	 * @param pos Position between {@link #getStart(int)} and {@link #getEnd(int)}
+	 * @return Sample ID
+	 */
+	public String getSampleId( final int pos ) {
+		return this.sampleIds[ this.samples[ pos ] ];
+	}
+
+	/**
+	 * Return the position of the 1st sample of the unique sequence.
+	 *
+	 * @param index Unique sequence index
+	 * @return Start position
+	 */
+	public int getStart( final int index ) {
+		return this.starts[ index ];
+	}
+
+	/**
+	 * Return the unique sequence ID of a fingerprint: the 128-bit fingerprint in hex.
+	 *
+	 * @param hi High 64 bits of the fingerprint
+	 * @param lo Low 64 bits of the fingerprint
+	 * @return Unique sequence ID
+	 */
+	public static String getId( final long hi, final long lo ) {
+		return String.format( "%016x%016x", hi, lo );
+	}
+
+	/**
+	 * Read the sparse count file. Lines are read into primitive arrays and then grouped by unique sequence.
+	 *
+	 * @param file Count file (with a header line)
+	 * @return UniqueSeqCounts
+	 * @throws IOException if unable to read the file
+	 */
+	public static UniqueSeqCounts read( final File file ) throws IOException {
+		final FingerprintTable table = new FingerprintTable( INITIAL_SIZE );
+		final List<String> sampleIds = new ArrayList<>();
+		final Map<String, Integer> sampleIndexes = new HashMap<>();
+		int[] uniques = new int[ INITIAL_SIZE ];
+		int[] samples = new int[ INITIAL_SIZE ];
+		long[] counts = new long[ INITIAL_SIZE ];
+		int size = 0;
+
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			reader.readLine();
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final StringTokenizer st = new StringTokenizer( line, Constants.TAB_DELIM );
+				final String id = st.nextToken();
+				final String sampleId = st.nextToken();
+				Integer sample = sampleIndexes.get( sampleId );
+				if( sample == null ) {
+					sample = sampleIds.size();
+					sampleIndexes.put( sampleId, sample );
+					sampleIds.add( sampleId );
+				}
+
+				if( size == uniques.length ) {
+					uniques = Arrays.copyOf( uniques, size * 2 );
+					samples = Arrays.copyOf( samples, size * 2 );
+					counts = Arrays.copyOf( counts, size * 2 );
+				}
+				uniques[ size ] = table.getOrAdd( Long.parseUnsignedLong( id.substring( 0, ID_LENGTH / 2 ), 16 ),
+					Long.parseUnsignedLong( id.substring( ID_LENGTH / 2 ), 16 ) );
+				samples[ size ] = sample;
+				counts[ size++ ] = Long.parseLong( st.nextToken() );
+			}
+		} finally {
+			reader.close();
+		}
+
+		final int[] starts = new int[ table.size() + 1 ];
+		for( int i = 0; i < size; i++ )
+			starts[ uniques[ i ] + 1 ]++;
+		for( int i = 0; i < table.size(); i++ )
+			starts[ i + 1 ] += starts[ i ];
+
+		final int[] next = Arrays.copyOf( starts, table.size() );
+		final int[] groupedSamples = new int[ size ];
+		final long[] groupedCounts = new long[ size ];
+		for( int i = 0; i < size; i++ ) {
+			final int pos = next[ uniques[ i ] ]++;
+			groupedSamples[ pos ] = samples[ i ];
+			groupedCounts[ pos ] = counts[ i ];
+		}
+
+		return new UniqueSeqCounts( table, sampleIds.toArray( new String[ sampleIds.size() ] ), starts,
+			groupedSamples, groupedCounts );
+	}
+
+	private final long[] counts;
+	private final String[] sampleIds;
+	private final int[] samples;
+	private final int[] starts;
+	private final FingerprintTable table;
+	private static final int ID_LENGTH = 32;
+	private static final int INITIAL_SIZE = 1 << 16;
+}